@@ -0,0 +1,152 @@
+package com.bankingsystem.accountservice.service;
+
+import com.bankingsystem.accountservice.model.Account;
+import com.bankingsystem.accountservice.model.AccountType;
+import com.bankingsystem.accountservice.repository.AccountRepository;
+import com.bankingsystem.datasource.JdbcPerformanceTuning;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the database work behind {@code AccountService.deposit}: look the account up by
+ * number and save the new balance in one transaction, from 16 threads over 1000 accounts.
+ * <ul>
+ *   <li>{@code baseline}: Hikari defaults and the previous {@code show-sql}/{@code format_sql}
+ *   logging</li>
+ *   <li>{@code tuned}: {@link JdbcPerformanceTuning} as applied by datasource-support, without
+ *   SQL logging</li>
+ * </ul>
+ * The default in-memory H2 database shows the logging and pool costs only. For the prepared
+ * statement cache, run against PostgreSQL, e.g.
+ * {@code -p jdbcUrl=jdbc:postgresql://localhost:5432/bankdb -p username=bankuser -p password=bankpass}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(16)
+public class DepositPathBenchmark {
+
+    private static final int ACCOUNTS = 1000;
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Param("jdbc:h2:mem:deposit;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+    public String jdbcUrl;
+
+    @Param("sa")
+    public String username;
+
+    @Param("")
+    public String password;
+
+    @Param({"baseline", "tuned"})
+    public String settings;
+
+    private HikariDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private TransactionTemplate transactionTemplate;
+    private AccountRepository accountRepository;
+    private final List<String> accountNumbers = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(jdbcUrl);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+
+        Map<String, Object> jpaProperties = new HashMap<>();
+        jpaProperties.put("hibernate.hbm2ddl.auto", "update");
+        if ("tuned".equals(settings)) {
+            JdbcPerformanceTuning tuning = new JdbcPerformanceTuning(0, 1, 256, 5, 50);
+            tuning.tune(dataSource, false);
+            tuning.customize(jpaProperties);
+        } else {
+            jpaProperties.put("hibernate.show_sql", true);
+            jpaProperties.put("hibernate.format_sql", true);
+        }
+
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan(Account.class.getPackageName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(jpaProperties);
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+        accountRepository = new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory))
+                .getRepository(AccountRepository.class);
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountNumbers.add(String.format("BENCH%010d", i));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (String accountNumber : accountNumbers) {
+                if (accountRepository.findByAccountNumber(accountNumber).isEmpty()) {
+                    accountRepository.save(Account.builder()
+                            .accountNumber(accountNumber)
+                            .accountType(AccountType.CHECKING)
+                            .balance(BigDecimal.ZERO)
+                            .userId(1L)
+                            .active(true)
+                            .build());
+                }
+            }
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManagerFactory.close();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public BigDecimal deposit() {
+        String accountNumber = accountNumbers.get(ThreadLocalRandom.current().nextInt(ACCOUNTS));
+        return transactionTemplate.execute(status -> {
+            Account account = accountRepository.findByAccountNumber(accountNumber).orElseThrow();
+            account.setBalance(account.getBalance().add(AMOUNT));
+            account.setUpdatedAt(LocalDateTime.now());
+            return accountRepository.save(account).getBalance();
+        });
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DepositPathBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,26 @@
+package com.bankingsystem.accountservice.config;
+
+import com.bankingsystem.accountservice.service.AccountCache;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Topics every instance reads in full. Their listeners assign themselves partition 0 rather than
+ * subscribe, so these must keep a single partition; the count is only applied when the topic is
+ * created.
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    public static final String SINGLE_PARTITION = "0";
+
+    @Bean
+    public NewTopic accountCacheInvalidationsTopic() {
+        return TopicBuilder.name(AccountCache.INVALIDATION_TOPIC)
+                .partitions(1)
+                .replicas(1)
+                .build();
+    }
+}
@@ -1,14 +1,22 @@
 package com.bankingsystem.accountservice.controller;
 
 import com.bankingsystem.accountservice.dto.AccountCreationRequest;
+import com.bankingsystem.accountservice.dto.AccountPageResponse;
 import com.bankingsystem.accountservice.dto.AccountResponseDto;
+import com.bankingsystem.accountservice.model.AccountType;
 import com.bankingsystem.accountservice.service.AccountService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.util.List;
 
@@ -16,15 +24,60 @@ import java.util.List;
 @RequestMapping("/api/accounts")
 public class AccountController {
 
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
     public ResponseEntity<List<AccountResponseDto>> getAllAccounts() {
         List<AccountResponseDto> accounts = accountService.getAllAccounts();
         return ResponseEntity.ok(accounts);
     }
 
+    /**
+     * One keyset page of accounts; pass the returned {@code nextCursor} as {@code after} for the
+     * next one.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<AccountPageResponse> getAccountsPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) AccountType type,
+            @RequestParam(required = false) Boolean active) {
+        return ResponseEntity.ok(accountService.getAccountsPage(after, size, type, active));
+    }
+
+    /**
+     * Every matching account as newline-delimited JSON, written as it is read so neither side
+     * holds the whole list.
+     */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAccounts(
+            @RequestParam(required = false) AccountType type,
+            @RequestParam(required = false) Boolean active) {
+        ObjectWriter writer = objectMapper.writerFor(AccountResponseDto.class);
+        StreamingResponseBody body = out -> {
+            try {
+                accountService.streamAccounts(type, active, account -> {
+                    try {
+                        // writeValue(OutputStream) would close the response stream
+                        out.write(writer.writeValueAsBytes(account));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<AccountResponseDto> getAccountById(@PathVariable Long id) {
         AccountResponseDto account = accountService.getAccountById(id);
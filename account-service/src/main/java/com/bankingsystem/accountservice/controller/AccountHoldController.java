@@ -0,0 +1,51 @@
+package com.bankingsystem.accountservice.controller;
+
+import com.bankingsystem.accountservice.dto.AccountHoldDto;
+import com.bankingsystem.accountservice.service.AccountHoldService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Two-phase debits: place a hold when a payment is authorized, then capture it when the payment
+ * settles or release it if the payment is cancelled. Holds not captured expire on their own.
+ */
+@RestController
+@RequestMapping("/api/accounts/holds")
+public class AccountHoldController {
+
+    @Autowired
+    private AccountHoldService accountHoldService;
+
+    @PostMapping
+    public ResponseEntity<AccountHoldDto> placeHold(
+            @RequestParam String accountNumber,
+            @RequestParam BigDecimal amount,
+            @RequestParam(required = false) String reference) {
+        AccountHoldDto hold = accountHoldService.placeHold(accountNumber, amount, reference);
+        return ResponseEntity.status(HttpStatus.CREATED).body(hold);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<AccountHoldDto> getHold(@PathVariable Long id) {
+        return ResponseEntity.ok(accountHoldService.getHold(id));
+    }
+
+    /**
+     * Debit the hold; {@code amount} defaults to the full held amount.
+     */
+    @PostMapping("/{id}/capture")
+    public ResponseEntity<AccountHoldDto> capture(
+            @PathVariable Long id,
+            @RequestParam(required = false) BigDecimal amount) {
+        return ResponseEntity.ok(accountHoldService.capture(id, amount));
+    }
+
+    @PostMapping("/{id}/release")
+    public ResponseEntity<AccountHoldDto> release(@PathVariable Long id) {
+        return ResponseEntity.ok(accountHoldService.release(id));
+    }
+}
@@ -0,0 +1,29 @@
+package com.bankingsystem.accountservice.dto;
+
+import com.bankingsystem.accountservice.model.HoldStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountHoldDto {
+    private Long id;
+    private Long accountId;
+    private BigDecimal amount;
+    private BigDecimal capturedAmount;
+    private HoldStatus status;
+    private String reference;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+    private LocalDateTime closedAt;
+    
+    // Balance plus any overdraft, less all active holds including this one; set when placing
+    private BigDecimal availableBalance;
+}
@@ -0,0 +1,19 @@
+package com.bankingsystem.accountservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountPageResponse {
+    private List<AccountResponseDto> accounts;
+    
+    // Pass as "after" to fetch the next page; null on the last page
+    private Long nextCursor;
+}
@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
@@ -48,6 +49,14 @@ public class Account {
     
     private LocalDateTime updatedAt;
     
+    // Interest below a cent not yet credited, and the last day interest accrued for. Written
+    // only by InterestAccrualRepository, so saving an account can never overwrite them.
+    @Column(precision = 12, scale = 10, insertable = false, updatable = false)
+    private BigDecimal accruedInterest;
+    
+    @Column(insertable = false, updatable = false)
+    private LocalDate lastInterestDate;
+    
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
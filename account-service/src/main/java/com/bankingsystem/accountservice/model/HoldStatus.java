@@ -0,0 +1,8 @@
+package com.bankingsystem.accountservice.model;
+
+public enum HoldStatus {
+    ACTIVE,
+    CAPTURED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,54 @@
+package com.bankingsystem.accountservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A range of account ids whose interest for a day has been committed. Mapped so the schema is
+ * managed with the rest of the tables; rows are written and read by InterestAccrualRepository.
+ */
+@Entity
+@Table(name = "interest_accrual_shards")
+@IdClass(InterestAccrualShard.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InterestAccrualShard {
+
+    @Id
+    @Column(nullable = false)
+    private LocalDate accrualDate;
+
+    @Id
+    @Column(nullable = false)
+    private Long firstId;
+
+    @Column(nullable = false)
+    private Long lastId;
+
+    @Column(nullable = false)
+    private Integer accounts;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal interest;
+
+    @Column(nullable = false)
+    private LocalDateTime completedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate accrualDate;
+        private Long firstId;
+    }
+}
@@ -0,0 +1,65 @@
+package com.bankingsystem.accountservice.repository;
+
+import com.bankingsystem.accountservice.model.AccountHold;
+import com.bankingsystem.accountservice.model.HoldStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Holds are read from the primary only: they decide whether funds are available, so a lagging
+ * replica could let them be spent twice.
+ * <p>
+ * A hold leaves {@code ACTIVE} through a conditional update, so however many requests or
+ * instances race to capture, release or expire it, exactly one succeeds.
+ */
+public interface AccountHoldRepository extends JpaRepository<AccountHold, Long> {
+
+    @Override
+    @Transactional
+    Optional<AccountHold> findById(Long id);
+
+    /**
+     * Total of the account's active holds that have not yet expired. Callers hold the account's
+     * row lock, so no hold can be placed or captured on it until they commit.
+     */
+    @Transactional
+    @Query("select coalesce(sum(h.amount), 0) from AccountHold h where h.accountId = :accountId"
+            + " and h.status = com.bankingsystem.accountservice.model.HoldStatus.ACTIVE and h.expiresAt > :now")
+    BigDecimal activeTotal(Long accountId, LocalDateTime now);
+
+    @Query("select h from AccountHold h where h.status = com.bankingsystem.accountservice.model.HoldStatus.ACTIVE"
+            + " and h.expiresAt <= :now order by h.expiresAt")
+    List<AccountHold> findExpired(LocalDateTime now, Limit limit);
+
+    /**
+     * Capture {@code amount} of an active hold that has not yet expired.
+     *
+     * @return 1 if captured, 0 if the hold was no longer active
+     */
+    @Modifying
+    @Transactional
+    @Query("update AccountHold h set h.status = com.bankingsystem.accountservice.model.HoldStatus.CAPTURED,"
+            + " h.capturedAmount = :amount, h.closedAt = :now"
+            + " where h.id = :id and h.status = com.bankingsystem.accountservice.model.HoldStatus.ACTIVE"
+            + " and h.expiresAt > :now")
+    int capture(Long id, BigDecimal amount, LocalDateTime now);
+
+    /**
+     * Move an active hold to {@code status} without taking any funds.
+     *
+     * @return 1 if closed, 0 if the hold was no longer active
+     */
+    @Modifying
+    @Transactional
+    @Query("update AccountHold h set h.status = :status, h.closedAt = :now"
+            + " where h.id = :id and h.status = com.bankingsystem.accountservice.model.HoldStatus.ACTIVE")
+    int close(Long id, HoldStatus status, LocalDateTime now);
+}
@@ -0,0 +1,41 @@
+package com.bankingsystem.accountservice.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Hands out disjoint blocks of account number serials from the {@code account_number_seq}
+ * database sequence, so each instance can number {@link #BLOCK_SIZE} accounts without touching
+ * the database and no two instances ever pick the same serial.
+ * <p>
+ * The sequence is created by {@code db/account-number-sequence.sql} at startup.
+ */
+@Repository
+public class AccountNumberSequence {
+
+    /**
+     * Fixed: the sequence advances by this much (see {@code db/account-number-sequence.sql}), so
+     * changing it would let blocks handed out before and after the change overlap.
+     */
+    public static final int BLOCK_SIZE = 100;
+
+    static final String SEQUENCE_NAME = "account_number_seq";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserve the serials {@code [first, first + BLOCK_SIZE)}. Serials left unused when an
+     * instance stops are skipped, never reissued.
+     *
+     * @return the first serial of the block
+     */
+    public long reserveBlock() {
+        Long first = jdbcTemplate.queryForObject("select nextval('" + SEQUENCE_NAME + "')", Long.class);
+        if (first == null) {
+            throw new IllegalStateException("Sequence " + SEQUENCE_NAME + " returned no value");
+        }
+        return first;
+    }
+}
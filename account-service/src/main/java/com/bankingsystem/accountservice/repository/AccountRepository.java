@@ -2,18 +2,58 @@ package com.bankingsystem.accountservice.repository;
 
 import com.bankingsystem.accountservice.model.Account;
 import com.bankingsystem.accountservice.model.AccountType;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Listings run in read-only transactions, which are served by the read replica when one is
+ * configured. Single-account lookups feed {@code AccountCache} and read-modify-write paths, so
+ * they always read from the primary.
+ */
 public interface AccountRepository extends JpaRepository<Account, Long> {
     
+    @Override
+    @Transactional
+    Optional<Account> findById(Long id);
+    
+    @Transactional(readOnly = true)
     List<Account> findByUserId(Long userId);
     
+    @Transactional(readOnly = true)
     List<Account> findByUserIdAndAccountType(Long userId, AccountType accountType);
     
     Optional<Account> findByAccountNumber(String accountNumber);
     
     boolean existsByAccountNumber(String accountNumber);
+
+    /**
+     * The account, locked until the caller's transaction ends, so a funds check and the debit it
+     * allows see no change in between. Every write to an account's balance goes through one of
+     * these locks.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.accountNumber = :accountNumber")
+    Optional<Account> lockByAccountNumber(String accountNumber);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id = :id")
+    Optional<Account> lockById(Long id);
+
+    /**
+     * The next {@code limit} accounts after {@code afterId} in id order, for keyset paging. A null
+     * {@code accountType} or {@code active} matches any value.
+     */
+    @Query("select a from Account a where a.id > :afterId"
+            + " and (:accountType is null or a.accountType = :accountType)"
+            + " and (:active is null or a.active = :active)"
+            + " order by a.id")
+    @Transactional(readOnly = true)
+    List<Account> findPageAfter(Long afterId, AccountType accountType, Boolean active, Limit limit);
 }
@@ -0,0 +1,89 @@
+package com.bankingsystem.accountservice.repository;
+
+import com.bankingsystem.accountservice.model.Account;
+import com.bankingsystem.accountservice.model.AccountType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads the {@code accounts} table through a JDBC cursor, bypassing the persistence context so
+ * nothing is retained per row.
+ * <p>
+ * PostgreSQL only fetches incrementally with auto-commit off and a fetch size set, so the query
+ * runs in a read-only transaction and pulls {@code fetch-size} rows per round trip. Memory then
+ * stays bounded by one fetch, however many accounts match.
+ */
+@Repository
+public class AccountStreamRepository {
+
+    static final String SELECT = "select id, account_number, account_type, balance, overdraft_limit, "
+            + "interest_rate, user_id, account_name, active, created_at, updated_at from accounts";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bankingsystem.app.accounts.stream-fetch-size:500}")
+    private int fetchSize = 500;
+
+    /**
+     * Pass every matching account to {@code consumer} in id order, as a detached {@link Account}.
+     * A null {@code accountType} or {@code active} matches any value.
+     */
+    public void streamAccounts(AccountType accountType, Boolean active, Consumer<Account> consumer) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>(2);
+        if (accountType != null) {
+            sql.append(" where account_type = ?");
+            args.add(accountType.name());
+        }
+        if (active != null) {
+            sql.append(args.isEmpty() ? " where" : " and").append(" active = ?");
+            args.add(active);
+        }
+        sql.append(" order by id");
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString());
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapRow(rs))));
+    }
+
+    private static Account mapRow(ResultSet rs) throws SQLException {
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return Account.builder()
+                .id(rs.getLong("id"))
+                .accountNumber(rs.getString("account_number"))
+                .accountType(AccountType.valueOf(rs.getString("account_type")))
+                .balance(rs.getBigDecimal("balance"))
+                .overdraftLimit(rs.getBigDecimal("overdraft_limit"))
+                .interestRate(rs.getBigDecimal("interest_rate"))
+                .userId(rs.getLong("user_id"))
+                .accountName(rs.getString("account_name"))
+                .active(rs.getBoolean("active"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .updatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null)
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.bankingsystem.accountservice.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Plain JDBC access for {@code InterestAccrualEngine}: one id range of savings accounts is read
+ * with one query and credited with one batched update, instead of loading and saving an entity
+ * per account.
+ * <p>
+ * {@code interest_accrual_shards} (mapped by
+ * {@link com.bankingsystem.accountservice.model.InterestAccrualShard}) records each id range whose
+ * interest for a day has been committed, in the same transaction as the credits, so an
+ * interrupted run resumes where it stopped.
+ */
+@Repository
+public class InterestAccrualRepository {
+
+    static final String SHARDS_TABLE = "interest_accrual_shards";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Lowest and highest id of the accounts that can earn interest.
+     */
+    public Optional<long[]> findSavingsIdRange() {
+        return jdbcTemplate.query(
+                "select min(id), max(id) from accounts where account_type = 'SAVINGS' and interest_rate > 0",
+                rs -> {
+                    rs.next();
+                    long min = rs.getLong(1);
+                    return rs.wasNull() ? Optional.empty() : Optional.of(new long[] {min, rs.getLong(2)});
+                });
+    }
+
+    /**
+     * First ids of the shards already accrued for {@code date}.
+     */
+    public Set<Long> findCompletedShards(LocalDate date) {
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "select first_id from " + SHARDS_TABLE + " where accrual_date = ?", Long.class, Date.valueOf(date)));
+    }
+
+    /**
+     * Active savings accounts in {@code [firstId, lastId]} opened by the end of {@code date} and
+     * not yet accrued for it.
+     */
+    public List<DueAccount> findDueAccounts(long firstId, long lastId, LocalDate date) {
+        return jdbcTemplate.query(
+                "select id, balance, interest_rate, accrued_interest, last_interest_date from accounts"
+                        + " where id between ? and ? and account_type = 'SAVINGS' and active = true"
+                        + " and interest_rate > 0 and created_at < ?"
+                        + " and (last_interest_date is null or last_interest_date < ?)"
+                        + " order by id",
+                (rs, rowNum) -> {
+                    Date last = rs.getDate("last_interest_date");
+                    return new DueAccount(rs.getLong("id"), rs.getBigDecimal("balance"),
+                            rs.getBigDecimal("interest_rate"), rs.getBigDecimal("accrued_interest"),
+                            last != null ? last.toLocalDate() : null);
+                },
+                firstId, lastId, Timestamp.valueOf(date.plusDays(1).atStartOfDay()), Date.valueOf(date));
+    }
+
+    /**
+     * Credit each account and mark it accrued for {@code date}, in one JDBC batch. The balance is
+     * incremented in place rather than overwritten, and an account accrued meanwhile is left alone.
+     *
+     * @return per credit, whether it was applied
+     */
+    public boolean[] applyCredits(List<Credit> credits, LocalDate date) {
+        Date day = Date.valueOf(date);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[] counts = jdbcTemplate.batchUpdate(
+                "update accounts set balance = balance + ?, accrued_interest = ?, last_interest_date = ?,"
+                        + " updated_at = ? where id = ? and (last_interest_date is null or last_interest_date < ?)",
+                credits.stream()
+                        .map(credit -> new Object[] {credit.amount(), credit.carry(), day, now, credit.accountId(), day})
+                        .toList());
+        boolean[] applied = new boolean[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            // Drivers may report a batched statement as executed without a row count
+            applied[i] = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+        }
+        return applied;
+    }
+
+    /**
+     * Record the shard starting at {@code firstId} as accrued for {@code date}. Fails with a
+     * {@link org.springframework.dao.DuplicateKeyException} if another instance got there first.
+     */
+    public void markCompleted(LocalDate date, long firstId, long lastId, int accounts, BigDecimal interest) {
+        jdbcTemplate.update("insert into " + SHARDS_TABLE
+                        + " (accrual_date, first_id, last_id, accounts, interest, completed_at) values (?, ?, ?, ?, ?, ?)",
+                Date.valueOf(date), firstId, lastId, accounts, interest, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * @return the number of shard records removed
+     */
+    public int deleteCompletedBefore(LocalDate date) {
+        return jdbcTemplate.update("delete from " + SHARDS_TABLE + " where accrual_date < ?", Date.valueOf(date));
+    }
+
+    public record DueAccount(long id, BigDecimal balance, BigDecimal interestRate, BigDecimal accruedInterest,
+                             LocalDate lastInterestDate) {
+    }
+
+    public record Credit(long accountId, BigDecimal amount, BigDecimal carry) {
+    }
+}
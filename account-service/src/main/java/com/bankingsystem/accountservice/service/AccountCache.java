@@ -0,0 +1,331 @@
+package com.bankingsystem.accountservice.service;
+
+import com.bankingsystem.accountservice.config.KafkaTopicConfig;
+import com.bankingsystem.accountservice.model.Account;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of accounts by id and by account number, so repeated lookups, such as the
+ * balance checks other services make, skip the database.
+ * <p>
+ * Every change made through {@link AccountService} drops the cached copy once its transaction
+ * has committed, and is announced on {@link #INVALIDATION_TOPIC} so other instances drop theirs.
+ * The committed snapshot is never cached itself: concurrent transactions can commit in either
+ * order, so the next read loads the latest row instead.
+ * Entries also expire after {@code ttl-ms}, which bounds staleness should an invalidation be
+ * lost. A load that raced with a change is returned but not cached: loads and changes both go
+ * through a per-stripe version, so an older read can never overwrite a newer write.
+ * <p>
+ * Cached accounts are shared snapshots and must not be modified; changes always start from a
+ * fresh load in their own transaction.
+ */
+@Component
+public class AccountCache implements ConsumerSeekAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountCache.class);
+
+    public static final String INVALIDATION_TOPIC = "account-cache-invalidations";
+
+    private static final int STRIPES = 64;
+
+    private static final String RANGE = "*";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Value("${bankingsystem.app.account-cache.max-size:100000}")
+    private int maxSize = 100000;
+
+    @Value("${bankingsystem.app.account-cache.ttl-ms:60000}")
+    private long ttlMs = 60000;
+
+    // Lets an instance ignore its own invalidations
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Map<Long, Entry> byId = new ConcurrentHashMap<>();
+    private final Map<String, Long> idsByNumber = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[STRIPES];
+    // Guarded by the lock of the same stripe
+    private final long[] versions = new long[STRIPES];
+
+    private Counter hits;
+    private Counter misses;
+    private Counter evictions;
+    private Counter localInvalidations;
+    private Counter remoteInvalidations;
+    private DistributionSummary hitAge;
+    private Timer invalidationLag;
+
+    @PostConstruct
+    public void init() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        hits = Counter.builder("account.cache.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("account.cache.requests").tag("result", "miss").register(meterRegistry);
+        evictions = Counter.builder("account.cache.evictions").register(meterRegistry);
+        localInvalidations = Counter.builder("account.cache.invalidations").tag("source", "local").register(meterRegistry);
+        remoteInvalidations = Counter.builder("account.cache.invalidations").tag("source", "remote").register(meterRegistry);
+        // How old the served copy was: the most a hit can lag behind a change it was not told about
+        hitAge = DistributionSummary.builder("account.cache.hit.age")
+                .baseUnit("milliseconds")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        // How long other instances may have served an account after it changed here
+        invalidationLag = Timer.builder("account.cache.invalidation.lag")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("account.cache.size", byId, Map::size).register(meterRegistry);
+        Gauge.builder("account.cache.hit_ratio", this, AccountCache::hitRatio).register(meterRegistry);
+    }
+
+    public Optional<Account> getById(Long id, Supplier<Optional<Account>> loader) {
+        Account cached = fresh(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return load(stripe(id), loader);
+    }
+
+    public Optional<Account> getByAccountNumber(String accountNumber, Supplier<Optional<Account>> loader) {
+        Long id = idsByNumber.get(accountNumber);
+        Account cached = id != null ? fresh(id) : null;
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return load(stripe(accountNumber), loader);
+    }
+
+    /**
+     * Drop the cached copy of {@code account}, changed by the current transaction, once it
+     * commits, and tell the other instances to drop theirs. Without a transaction this happens
+     * straight away.
+     */
+    public void update(Account account) {
+        Long id = account.getId();
+        String accountNumber = account.getAccountNumber();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    applyUpdate(id, accountNumber);
+                }
+            });
+        } else {
+            applyUpdate(id, accountNumber);
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        // Nothing is cached yet, so earlier invalidations are moot
+        callback.seekToEnd(assignments.keySet());
+    }
+
+    // Assigned rather than subscribed, so every instance reads every invalidation without leaving
+    // a consumer group behind per restart
+    @KafkaListener(groupId = "account-service-cache",
+            topicPartitions = @org.springframework.kafka.annotation.TopicPartition(
+                    topic = INVALIDATION_TOPIC, partitions = KafkaTopicConfig.SINGLE_PARTITION),
+            properties = "enable.auto.commit=false")
+    public void onInvalidation(String message) {
+        // <id>:<account number>:<origin instance>:<published at millis>, possibly JSON-quoted.
+        // A range of ids is sent as <first id>-<last id>:*:...
+        String[] parts = message.replace("\"", "").split(":");
+        if (parts.length != 4) {
+            logger.warn("Ignoring malformed account cache invalidation: {}", message);
+            return;
+        }
+        if (instanceId.equals(parts[2])) {
+            return;
+        }
+        try {
+            if (RANGE.equals(parts[1])) {
+                String[] ids = parts[0].split("-");
+                dropRange(Long.parseLong(ids[0]), Long.parseLong(ids[1]));
+            } else {
+                invalidate(Long.parseLong(parts[0]), parts[1]);
+            }
+            remoteInvalidations.increment();
+            invalidationLag.record(Math.max(0, System.currentTimeMillis() - Long.parseLong(parts[3])), TimeUnit.MILLISECONDS);
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring malformed account cache invalidation: {}", message);
+        }
+    }
+
+    /**
+     * Drop the cached copy of an account, and any load of it in flight.
+     */
+    public void invalidate(Long id, String accountNumber) {
+        bump(stripe(id));
+        bump(stripe(accountNumber));
+        byId.remove(id);
+        idsByNumber.remove(accountNumber, id);
+    }
+
+    /**
+     * Drop every cached account with an id in {@code [firstId, lastId]}, here and on the other
+     * instances, for changes made outside {@link AccountService} such as interest accrual. Meant
+     * to be called after the change has committed.
+     */
+    public void invalidateRange(long firstId, long lastId) {
+        dropRange(firstId, lastId);
+        localInvalidations.increment();
+        if (kafkaTemplate != null) {
+            kafkaTemplate.send(INVALIDATION_TOPIC, Long.toString(firstId), firstId + "-" + lastId + ":" + RANGE
+                    + ":" + instanceId + ":" + System.currentTimeMillis());
+        }
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private Account fresh(Long id) {
+        Entry entry = byId.get(id);
+        if (entry == null) {
+            return null;
+        }
+        long age = System.currentTimeMillis() - entry.cachedAt;
+        if (age >= ttlMs) {
+            if (byId.remove(id, entry)) {
+                idsByNumber.remove(entry.account.getAccountNumber(), id);
+                evictions.increment();
+            }
+            return null;
+        }
+        hits.increment();
+        hitAge.record(age);
+        return entry.account;
+    }
+
+    private Optional<Account> load(int stripe, Supplier<Optional<Account>> loader) {
+        misses.increment();
+        long version;
+        synchronized (locks[stripe]) {
+            version = versions[stripe];
+        }
+        Optional<Account> loaded = loader.get();
+        if (loaded.isEmpty()) {
+            return loaded;
+        }
+        Account snapshot = copy(loaded.get());
+        synchronized (locks[stripe]) {
+            if (versions[stripe] != version) {
+                // Changed while loading; the next read loads again
+                return Optional.of(snapshot);
+            }
+            put(snapshot);
+        }
+        return Optional.of(snapshot);
+    }
+
+    private void applyUpdate(Long id, String accountNumber) {
+        invalidate(id, accountNumber);
+        localInvalidations.increment();
+        if (kafkaTemplate != null) {
+            kafkaTemplate.send(INVALIDATION_TOPIC, id.toString(), id + ":" + accountNumber + ":" + instanceId
+                    + ":" + System.currentTimeMillis());
+        }
+    }
+
+    private void dropRange(long firstId, long lastId) {
+        // Any stripe may hold an account in the range, so loads in flight on all of them are discarded
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            bump(stripe);
+        }
+        byId.keySet().removeIf(id -> id >= firstId && id <= lastId);
+        idsByNumber.values().removeIf(id -> id >= firstId && id <= lastId);
+    }
+
+    private void bump(int stripe) {
+        synchronized (locks[stripe]) {
+            versions[stripe]++;
+        }
+    }
+
+    private void put(Account snapshot) {
+        if (byId.size() >= maxSize) {
+            makeRoom();
+        }
+        byId.put(snapshot.getId(), new Entry(snapshot, System.currentTimeMillis()));
+        idsByNumber.put(snapshot.getAccountNumber(), snapshot.getId());
+    }
+
+    /**
+     * Drop expired entries, then arbitrary ones if the cache is still full. Account numbers never
+     * change, so the number index only needs trimming to the accounts still cached.
+     */
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        byId.values().removeIf(entry -> {
+            boolean expired = now - entry.cachedAt >= ttlMs;
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+        Iterator<Long> ids = byId.keySet().iterator();
+        while (byId.size() >= maxSize && ids.hasNext()) {
+            ids.next();
+            ids.remove();
+            evictions.increment();
+        }
+        idsByNumber.values().removeIf(id -> !byId.containsKey(id));
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private static Account copy(Account account) {
+        return Account.builder()
+                .id(account.getId())
+                .accountNumber(account.getAccountNumber())
+                .accountType(account.getAccountType())
+                .balance(account.getBalance())
+                .overdraftLimit(account.getOverdraftLimit())
+                .interestRate(account.getInterestRate())
+                .userId(account.getUserId())
+                .accountName(account.getAccountName())
+                .active(account.isActive())
+                .createdAt(account.getCreatedAt())
+                .updatedAt(account.getUpdatedAt())
+                .build();
+    }
+
+    private record Entry(Account account, long cachedAt) {
+    }
+}
@@ -0,0 +1,250 @@
+package com.bankingsystem.accountservice.service;
+
+import com.bankingsystem.accountservice.dto.AccountHoldDto;
+import com.bankingsystem.accountservice.exception.AccountNotFoundException;
+import com.bankingsystem.accountservice.exception.HoldNotFoundException;
+import com.bankingsystem.accountservice.exception.InsufficientFundsException;
+import com.bankingsystem.accountservice.model.Account;
+import com.bankingsystem.accountservice.model.AccountHold;
+import com.bankingsystem.accountservice.model.AccountType;
+import com.bankingsystem.accountservice.model.HoldStatus;
+import com.bankingsystem.accountservice.repository.AccountHoldRepository;
+import com.bankingsystem.accountservice.repository.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Authorization holds, for card-style payments debited in two phases: a hold reserves funds,
+ * and is later captured (debited, in full or in part), released, or left to expire.
+ * <p>
+ * Available funds are the balance, plus any overdraft, less the account's active, unexpired
+ * holds as summed from {@code account_holds}. Placing and capturing a hold, like withdrawals and
+ * transfers, read both under the {@code accounts} row lock and keep that lock until they commit,
+ * so however many instances serve an account, no hold or debit can slip in between a funds check
+ * and the change it allows.
+ */
+@Service
+public class AccountHoldService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountHoldService.class);
+
+    @Autowired
+    private AccountHoldRepository accountHoldRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Card authorizations typically lapse after seven days
+    @Value("${bankingsystem.app.holds.ttl-minutes:10080}")
+    private long ttlMinutes = 10080;
+
+    @Value("${bankingsystem.app.holds.sweep-batch-size:500}")
+    private int sweepBatchSize = 500;
+
+    private Counter placed;
+    private Counter declined;
+    private Counter captured;
+    private Counter released;
+    private Counter expired;
+    private Timer authorizations;
+
+    @PostConstruct
+    public void init() {
+        placed = Counter.builder("account.holds").tag("outcome", "placed").register(meterRegistry);
+        declined = Counter.builder("account.holds").tag("outcome", "declined").register(meterRegistry);
+        captured = Counter.builder("account.holds").tag("outcome", "captured").register(meterRegistry);
+        released = Counter.builder("account.holds").tag("outcome", "released").register(meterRegistry);
+        expired = Counter.builder("account.holds").tag("outcome", "expired").register(meterRegistry);
+        authorizations = Timer.builder("account.holds.authorization")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserve {@code amount} on the account if its available funds cover it.
+     *
+     * @throws InsufficientFundsException if they do not
+     */
+    @Transactional
+    public AccountHoldDto placeHold(String accountNumber, BigDecimal amount, String reference) {
+        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Hold amount must be positive");
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Account account = accountRepository.lockByAccountNumber(accountNumber)
+                    .orElseThrow(() -> new AccountNotFoundException("Account not found with account number: " + accountNumber));
+            if (!account.isActive()) {
+                throw new IllegalStateException("Account is not active: " + accountNumber);
+            }
+            LocalDateTime now = LocalDateTime.now();
+            BigDecimal available = fundsOf(account).subtract(accountHoldRepository.activeTotal(account.getId(), now));
+            if (available.compareTo(amount) < 0) {
+                declined.increment();
+                throw new InsufficientFundsException("Insufficient available funds for hold");
+            }
+            AccountHold saved = accountHoldRepository.save(AccountHold.builder()
+                    .accountId(account.getId())
+                    .amount(amount)
+                    .status(HoldStatus.ACTIVE)
+                    .reference(reference)
+                    .createdAt(now)
+                    .expiresAt(now.plusMinutes(ttlMinutes))
+                    .build());
+            placed.increment();
+            AccountHoldDto hold = mapToDto(saved);
+            hold.setAvailableBalance(available.subtract(amount));
+            return hold;
+        } finally {
+            sample.stop(authorizations);
+        }
+    }
+
+    /**
+     * Debit {@code amount} of the hold, or all of it when {@code amount} is null, and release the
+     * rest.
+     *
+     * @throws InsufficientFundsException if the debit would take the account past its overdraft
+     *                                    or into funds held by other holds
+     */
+    @Transactional
+    public AccountHoldDto capture(Long holdId, BigDecimal amount) {
+        AccountHold hold = findHold(holdId);
+        BigDecimal debit = amount != null ? amount : hold.getAmount();
+        if (debit.compareTo(BigDecimal.ZERO) <= 0 || debit.compareTo(hold.getAmount()) > 0) {
+            throw new IllegalArgumentException("Capture amount must be positive and no more than the held amount");
+        }
+        Account account = accountRepository.lockById(hold.getAccountId())
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with ID: " + hold.getAccountId()));
+        LocalDateTime now = LocalDateTime.now();
+        BigDecimal otherHolds = accountHoldRepository.activeTotal(account.getId(), now);
+        if (hold.getStatus() == HoldStatus.ACTIVE && hold.getExpiresAt().isAfter(now)) {
+            // If it has since been closed, the capture below finds it inactive
+            otherHolds = otherHolds.subtract(hold.getAmount());
+        }
+        if (fundsOf(account).subtract(otherHolds).compareTo(debit) < 0) {
+            throw new InsufficientFundsException("Insufficient funds to capture hold " + holdId);
+        }
+        if (accountHoldRepository.capture(holdId, debit, now) == 0) {
+            throw new IllegalStateException("Hold is no longer active: " + holdId);
+        }
+
+        account.setBalance(account.getBalance().subtract(debit));
+        account.setUpdatedAt(now);
+        Account updatedAccount = accountRepository.save(account);
+        accountCache.update(updatedAccount);
+        captured.increment();
+
+        kafkaTemplate.send("transaction-events", "withdrawal",
+                String.format("%s:%s:%s", account.getId(), debit, updatedAccount.getBalance()));
+
+        AccountHoldDto dto = mapToDto(hold);
+        dto.setStatus(HoldStatus.CAPTURED);
+        dto.setCapturedAmount(debit);
+        dto.setClosedAt(now);
+        return dto;
+    }
+
+    public AccountHoldDto release(Long holdId) {
+        AccountHold hold = findHold(holdId);
+        LocalDateTime now = LocalDateTime.now();
+        if (accountHoldRepository.close(holdId, HoldStatus.RELEASED, now) == 0) {
+            throw new IllegalStateException("Hold is no longer active: " + holdId);
+        }
+        released.increment();
+
+        AccountHoldDto dto = mapToDto(hold);
+        dto.setStatus(HoldStatus.RELEASED);
+        dto.setClosedAt(now);
+        return dto;
+    }
+
+    public AccountHoldDto getHold(Long holdId) {
+        return mapToDto(findHold(holdId));
+    }
+
+    /**
+     * Total of the account's active holds, which withdrawals and transfers must leave untouched.
+     */
+    public BigDecimal heldAmount(Long accountId) {
+        return accountHoldRepository.activeTotal(accountId, LocalDateTime.now());
+    }
+
+    /**
+     * Mark holds past their expiry as expired. They stop counting against available funds as soon
+     * as they expire; this records it.
+     *
+     * @return the number of holds expired
+     */
+    @Scheduled(fixedDelayString = "${bankingsystem.app.holds.sweep-interval-ms:60000}")
+    public int expireHolds() {
+        int count = 0;
+        try {
+            List<AccountHold> batch;
+            do {
+                LocalDateTime now = LocalDateTime.now();
+                batch = accountHoldRepository.findExpired(now, Limit.of(sweepBatchSize));
+                for (AccountHold hold : batch) {
+                    if (accountHoldRepository.close(hold.getId(), HoldStatus.EXPIRED, now) == 1) {
+                        expired.increment();
+                        count++;
+                    }
+                }
+            } while (batch.size() == sweepBatchSize);
+        } catch (Exception e) {
+            logger.error("Expiring account holds failed: {}", e.getMessage(), e);
+        }
+        return count;
+    }
+
+    private AccountHold findHold(Long holdId) {
+        return accountHoldRepository.findById(holdId)
+                .orElseThrow(() -> new HoldNotFoundException("Hold not found with ID: " + holdId));
+    }
+
+    private static BigDecimal fundsOf(Account account) {
+        BigDecimal funds = account.getBalance();
+        if (account.getAccountType() == AccountType.CHECKING && account.getOverdraftLimit() != null) {
+            funds = funds.add(account.getOverdraftLimit());
+        }
+        return funds;
+    }
+
+    private static AccountHoldDto mapToDto(AccountHold hold) {
+        return AccountHoldDto.builder()
+                .id(hold.getId())
+                .accountId(hold.getAccountId())
+                .amount(hold.getAmount())
+                .capturedAmount(hold.getCapturedAmount())
+                .status(hold.getStatus())
+                .reference(hold.getReference())
+                .createdAt(hold.getCreatedAt())
+                .expiresAt(hold.getExpiresAt())
+                .closedAt(hold.getClosedAt())
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package com.bankingsystem.accountservice.service;
 
 import com.bankingsystem.accountservice.client.UserServiceClient;
 import com.bankingsystem.accountservice.dto.AccountCreationRequest;
+import com.bankingsystem.accountservice.dto.AccountPageResponse;
 import com.bankingsystem.accountservice.dto.AccountResponseDto;
 import com.bankingsystem.accountservice.dto.UserDto;
 import com.bankingsystem.accountservice.exception.AccountNotFoundException;
@@ -9,9 +10,13 @@ import com.bankingsystem.accountservice.exception.InsufficientFundsException;
 import com.bankingsystem.accountservice.model.Account;
 import com.bankingsystem.accountservice.model.AccountType;
 import com.bankingsystem.accountservice.repository.AccountRepository;
+import com.bankingsystem.accountservice.repository.AccountStreamRepository;
 import com.bankingsystem.accountservice.util.AccountNumberGenerator;
+import com.bankingsystem.userstore.UserEventsMaterializer;
+import com.bankingsystem.userstore.UserStateStore;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
@@ -19,6 +24,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,6 +33,15 @@ public class AccountService {
     @Autowired
     private AccountRepository accountRepository;
     
+    @Autowired
+    private AccountStreamRepository accountStreamRepository;
+    
+    @Autowired
+    private AccountCache accountCache;
+    
+    @Autowired
+    private AccountHoldService accountHoldService;
+    
     @Autowired
     private UserServiceClient userServiceClient;
     
@@ -35,6 +50,18 @@ public class AccountService {
     
     @Autowired
     private AccountNumberGenerator accountNumberGenerator;
+
+    // Present when bankingsystem.user-store.enabled=true
+    @Autowired(required = false)
+    private UserStateStore userStateStore;
+
+    @Autowired(required = false)
+    private UserEventsMaterializer userEventsMaterializer;
+    
+    /**
+     * Largest page served by {@link #getAccountsPage}.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
     
     public List<AccountResponseDto> getAllAccounts() {
         List<Account> accounts = accountRepository.findAll();
@@ -43,8 +70,31 @@ public class AccountService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Up to {@code size} accounts with an id above {@code afterId}, in id order; {@code size} is
+     * capped at {@link #MAX_PAGE_SIZE}. Null filters match any value. Listings only include user
+     * details the local user store already holds, so a page never calls user-service per row.
+     */
+    public AccountPageResponse getAccountsPage(Long afterId, int size, AccountType accountType, Boolean active) {
+        int limit = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        List<Account> accounts = accountRepository.findPageAfter(afterId != null ? afterId : 0L, accountType, active,
+                Limit.of(limit));
+        return AccountPageResponse.builder()
+                .accounts(accounts.stream().map(this::mapToListingDto).collect(Collectors.toList()))
+                .nextCursor(accounts.size() == limit ? accounts.get(accounts.size() - 1).getId() : null)
+                .build();
+    }
+    
+    /**
+     * Pass every matching account to {@code consumer} in id order as it is read from the database
+     * cursor, so memory does not grow with the number of accounts. Null filters match any value.
+     */
+    public void streamAccounts(AccountType accountType, Boolean active, Consumer<AccountResponseDto> consumer) {
+        accountStreamRepository.streamAccounts(accountType, active, account -> consumer.accept(mapToListingDto(account)));
+    }
+    
     public AccountResponseDto getAccountById(Long accountId) {
-        Account account = accountRepository.findById(accountId)
+        Account account = accountCache.getById(accountId, () -> accountRepository.findById(accountId))
                 .orElseThrow(() -> new AccountNotFoundException("Account not found with ID: " + accountId));
         
         return mapToResponseDto(account);
@@ -58,7 +108,8 @@ public class AccountService {
     }
     
     public AccountResponseDto getAccountByAccountNumber(String accountNumber) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
+        Account account = accountCache.getByAccountNumber(accountNumber,
+                        () -> accountRepository.findByAccountNumber(accountNumber))
                 .orElseThrow(() -> new AccountNotFoundException("Account not found with account number: " + accountNumber));
         
         return mapToResponseDto(account);
@@ -105,13 +156,14 @@ public class AccountService {
     
     @Transactional
     public AccountResponseDto deactivateAccount(Long accountId) {
-        Account account = accountRepository.findById(accountId)
+        Account account = accountRepository.lockById(accountId)
                 .orElseThrow(() -> new AccountNotFoundException("Account not found with ID: " + accountId));
         
         account.setActive(false);
         account.setUpdatedAt(LocalDateTime.now());
         
         Account updatedAccount = accountRepository.save(account);
+        accountCache.update(updatedAccount);
         
         // Send account deactivated event to Kafka
         kafkaTemplate.send("account-events", "account-deactivated", updatedAccount.getId().toString());
@@ -125,13 +177,14 @@ public class AccountService {
             throw new IllegalArgumentException("Deposit amount must be positive");
         }
         
-        Account account = accountRepository.findByAccountNumber(accountNumber)
+        Account account = accountRepository.lockByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountNotFoundException("Account not found with account number: " + accountNumber));
         
         account.setBalance(account.getBalance().add(amount));
         account.setUpdatedAt(LocalDateTime.now());
         
         Account updatedAccount = accountRepository.save(account);
+        accountCache.update(updatedAccount);
         
         // Send transaction event to Kafka
         kafkaTemplate.send("transaction-events", "deposit", 
@@ -146,13 +199,16 @@ public class AccountService {
             throw new IllegalArgumentException("Withdrawal amount must be positive");
         }
         
-        Account account = accountRepository.findByAccountNumber(accountNumber)
+        // Locked until commit, so holds placed or captured meanwhile wait for this debit
+        Account account = accountRepository.lockByAccountNumber(accountNumber)
                 .orElseThrow(() -> new AccountNotFoundException("Account not found with account number: " + accountNumber));
         
         BigDecimal availableFunds = account.getBalance();
         if (account.getAccountType() == AccountType.CHECKING && account.getOverdraftLimit() != null) {
             availableFunds = availableFunds.add(account.getOverdraftLimit());
         }
+        // Funds reserved by authorization holds are not available
+        availableFunds = availableFunds.subtract(accountHoldService.heldAmount(account.getId()));
         
         if (availableFunds.compareTo(amount) < 0) {
             throw new InsufficientFundsException("Insufficient funds for withdrawal");
@@ -162,6 +218,7 @@ public class AccountService {
         account.setUpdatedAt(LocalDateTime.now());
         
         Account updatedAccount = accountRepository.save(account);
+        accountCache.update(updatedAccount);
         
         // Send transaction event to Kafka
         kafkaTemplate.send("transaction-events", "withdrawal", 
@@ -180,16 +237,22 @@ public class AccountService {
             throw new IllegalArgumentException("Cannot transfer to the same account");
         }
         
-        Account fromAccount = accountRepository.findByAccountNumber(fromAccountNumber)
-                .orElseThrow(() -> new AccountNotFoundException("Account not found with account number: " + fromAccountNumber));
-        
-        Account toAccount = accountRepository.findByAccountNumber(toAccountNumber)
-                .orElseThrow(() -> new AccountNotFoundException("Account not found with account number: " + toAccountNumber));
+        // Both locked until commit, in account number order so opposite transfers cannot deadlock
+        Account fromAccount;
+        Account toAccount;
+        if (fromAccountNumber.compareTo(toAccountNumber) < 0) {
+            fromAccount = lockByAccountNumber(fromAccountNumber);
+            toAccount = lockByAccountNumber(toAccountNumber);
+        } else {
+            toAccount = lockByAccountNumber(toAccountNumber);
+            fromAccount = lockByAccountNumber(fromAccountNumber);
+        }
         
         BigDecimal availableFunds = fromAccount.getBalance();
         if (fromAccount.getAccountType() == AccountType.CHECKING && fromAccount.getOverdraftLimit() != null) {
             availableFunds = availableFunds.add(fromAccount.getOverdraftLimit());
         }
+        availableFunds = availableFunds.subtract(accountHoldService.heldAmount(fromAccount.getId()));
         
         if (availableFunds.compareTo(amount) < 0) {
             throw new InsufficientFundsException("Insufficient funds for transfer");
@@ -203,14 +266,41 @@ public class AccountService {
         
         accountRepository.save(fromAccount);
         accountRepository.save(toAccount);
+        accountCache.update(fromAccount);
+        accountCache.update(toAccount);
         
         // Send transfer event to Kafka
         kafkaTemplate.send("transaction-events", "transfer", 
                 String.format("%s:%s:%s:%s", fromAccount.getId(), toAccount.getId(), amount, fromAccount.getBalance()));
     }
     
+    private Account lockByAccountNumber(String accountNumber) {
+        return accountRepository.lockByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException("Account not found with account number: " + accountNumber));
+    }
+    
     private AccountResponseDto mapToResponseDto(Account account) {
-        AccountResponseDto dto = AccountResponseDto.builder()
+        AccountResponseDto dto = mapAccount(account);
+        
+        // Optionally fetch user details
+        try {
+            UserDto userDto = findUser(account.getUserId());
+            dto.setUser(userDto);
+        } catch (Exception e) {
+            // User service may be down, continue without user details
+        }
+        
+        return dto;
+    }
+    
+    private AccountResponseDto mapToListingDto(Account account) {
+        AccountResponseDto dto = mapAccount(account);
+        findLocalUser(account.getUserId()).ifPresent(dto::setUser);
+        return dto;
+    }
+    
+    private AccountResponseDto mapAccount(Account account) {
+        return AccountResponseDto.builder()
                 .id(account.getId())
                 .accountNumber(account.getAccountNumber())
                 .accountType(account.getAccountType())
@@ -223,15 +313,26 @@ public class AccountService {
                 .createdAt(account.getCreatedAt())
                 .updatedAt(account.getUpdatedAt())
                 .build();
-        
-        // Optionally fetch user details
-        try {
-            UserDto userDto = userServiceClient.getUserById(account.getUserId());
-            dto.setUser(userDto);
-        } catch (Exception e) {
-            // User service may be down, continue without user details
+    }
+
+    /**
+     * Look the user up in the local user state store once it has caught up with user-events,
+     * falling back to user-service before then and for users the store has not seen.
+     */
+    private UserDto findUser(Long userId) {
+        return findLocalUser(userId).orElseGet(() -> userServiceClient.getUserById(userId));
+    }
+    
+    private Optional<UserDto> findLocalUser(Long userId) {
+        if (userStateStore == null || userEventsMaterializer == null || !userEventsMaterializer.isRestored()) {
+            return Optional.empty();
         }
-        
-        return dto;
+        return userStateStore.get(userId).map(user -> UserDto.builder()
+                .id(user.getUserId())
+                .username(user.getUsername())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .build());
     }
 }
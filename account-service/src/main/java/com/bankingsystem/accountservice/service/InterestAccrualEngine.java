@@ -0,0 +1,363 @@
+package com.bankingsystem.accountservice.service;
+
+import com.bankingsystem.accountservice.repository.InterestAccrualRepository;
+import com.bankingsystem.accountservice.repository.InterestAccrualRepository.Credit;
+import com.bankingsystem.accountservice.repository.InterestAccrualRepository.DueAccount;
+import com.bankingsystem.accountservice.util.InterestCalculator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Nightly interest accrual for savings accounts.
+ * <p>
+ * Accounts are split into shards of {@code shard-size} consecutive ids, which are accrued in
+ * parallel on a fork/join pool of {@code parallelism} threads. Each shard is read with one query
+ * and credited with one batched update, and is recorded as done in the same transaction; once it
+ * has committed, one {@value #EVENT_TYPE} event listing its credits is published on
+ * {@value #EVENTS_TOPIC} and its accounts are dropped from {@link AccountCache}.
+ * <p>
+ * A run only starts shards within {@code window-minutes} of its start. Shards it did not reach,
+ * or that failed, are picked up by the next run, and a run interrupted by a restart resumes at
+ * startup: completed shards are skipped, and an account is never credited twice for a day. An
+ * account left behind earns the missed days at its next accrual, on its balance at that time.
+ * <p>
+ * Interest is paid on the balance when the run reads it, which for the nightly run is the
+ * balance at the end of the day accrued for plus anything booked since midnight.
+ */
+@Component
+public class InterestAccrualEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(InterestAccrualEngine.class);
+
+    static final String EVENTS_TOPIC = "account-events";
+    static final String EVENT_TYPE = "interest-accrued";
+
+    @Autowired
+    private InterestAccrualRepository interestAccrualRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AccountCache accountCache;
+
+    @Autowired(required = false)
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bankingsystem.app.interest.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${bankingsystem.app.interest.resume-on-startup:true}")
+    private boolean resumeOnStartup = true;
+
+    @Value("${bankingsystem.app.interest.shard-size:5000}")
+    private int shardSize = 5000;
+
+    @Value("${bankingsystem.app.interest.parallelism:4}")
+    private int parallelism = 4;
+
+    @Value("${bankingsystem.app.interest.window-minutes:120}")
+    private long windowMinutes = 120;
+
+    @Value("${bankingsystem.app.interest.retention-days:35}")
+    private int retentionDays = 35;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    // Progress of the current, or else the last, run
+    private final AtomicLong shardsTotal = new AtomicLong();
+    private final AtomicLong shardsDone = new AtomicLong();
+
+    private TransactionTemplate transactionTemplate;
+    private Counter appliedShards;
+    private Counter skippedShards;
+    private Counter deferredShards;
+    private Counter failedShards;
+    private Counter accountsAccrued;
+    private Counter interestCredited;
+    private Timer shardDuration;
+    private Timer runDuration;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        appliedShards = Counter.builder("account.interest.shard.results").tag("result", "applied").register(meterRegistry);
+        skippedShards = Counter.builder("account.interest.shard.results").tag("result", "skipped").register(meterRegistry);
+        deferredShards = Counter.builder("account.interest.shard.results").tag("result", "deferred").register(meterRegistry);
+        failedShards = Counter.builder("account.interest.shard.results").tag("result", "failed").register(meterRegistry);
+        accountsAccrued = Counter.builder("account.interest.accounts").register(meterRegistry);
+        interestCredited = Counter.builder("account.interest.credited").register(meterRegistry);
+        shardDuration = Timer.builder("account.interest.shard.duration")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        runDuration = Timer.builder("account.interest.run.duration").register(meterRegistry);
+        Gauge.builder("account.interest.run.shards", shardsTotal, AtomicLong::get).tag("state", "total").register(meterRegistry);
+        Gauge.builder("account.interest.run.shards", shardsDone, AtomicLong::get).tag("state", "done").register(meterRegistry);
+    }
+
+    /**
+     * Finish an interrupted run in the background, so startup is not held up by it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (enabled && resumeOnStartup) {
+            Thread thread = new Thread(this::accrueYesterday, "interest-accrual-resume");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @Scheduled(cron = "${bankingsystem.app.interest.cron:0 30 0 * * *}")
+    public void accrueYesterday() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            accrue(LocalDate.now().minusDays(1));
+        } catch (Exception e) {
+            logger.error("Interest accrual failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Accrue interest up to and including {@code date} for every savings account not yet
+     * accrued for it.
+     *
+     * @return what the run did, or {@code null} if a run was already in progress
+     */
+    public AccrualRun accrue(LocalDate date) {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Interest accrual already running; not starting another for {}", date);
+            return null;
+        }
+        long started = System.nanoTime();
+        try {
+            interestAccrualRepository.deleteCompletedBefore(date.minusDays(retentionDays));
+            Optional<long[]> ids = interestAccrualRepository.findSavingsIdRange();
+            if (ids.isEmpty()) {
+                shardsTotal.set(0);
+                shardsDone.set(0);
+                return new AccrualRun(date, 0, 0, 0, 0, 0, 0, BigDecimal.ZERO);
+            }
+            long firstShard = ids.get()[0] / shardSize;
+            long lastShard = ids.get()[1] / shardSize;
+            Run run = new Run(date, started + TimeUnit.MINUTES.toNanos(windowMinutes),
+                    interestAccrualRepository.findCompletedShards(date));
+            shardsTotal.set(lastShard - firstShard + 1);
+            shardsDone.set(0);
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new ShardRange(run, firstShard, lastShard + 1));
+            } finally {
+                pool.shutdown();
+            }
+
+            AccrualRun result = run.result(lastShard - firstShard + 1);
+            logger.info("Interest accrual for {}: {} of {} shards applied, {} already done, {} accounts, {} credited",
+                    date, result.applied(), result.shards(), result.skipped(), result.accounts(), result.interest());
+            if (!result.complete()) {
+                logger.warn("Interest accrual for {} left {} shards past the window and {} failed for the next run",
+                        date, result.deferred(), result.failed());
+            }
+            return result;
+        } finally {
+            runDuration.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            running.set(false);
+        }
+    }
+
+    private void processShard(Run run, long shard) {
+        long firstId = shard * shardSize;
+        long lastId = firstId + shardSize - 1;
+        if (run.completed.contains(firstId)) {
+            run.skipped.increment();
+            skippedShards.increment();
+            shardsDone.incrementAndGet();
+            return;
+        }
+        if (System.nanoTime() - run.deadline > 0) {
+            run.deferred.increment();
+            deferredShards.increment();
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            ShardAccrual accrual = transactionTemplate.execute(status -> accrueShard(run.date, firstId, lastId));
+            if (!accrual.credits().isEmpty()) {
+                accountCache.invalidateRange(firstId, lastId);
+                publish(run.date, accrual);
+            }
+            run.applied.increment();
+            run.accounts.add(accrual.accounts());
+            run.addInterest(accrual.interest());
+            appliedShards.increment();
+            accountsAccrued.increment(accrual.accounts());
+            interestCredited.increment(accrual.interest().doubleValue());
+            shardsDone.incrementAndGet();
+        } catch (DuplicateKeyException e) {
+            // Another instance accrued this shard first; our changes were rolled back
+            run.skipped.increment();
+            skippedShards.increment();
+            shardsDone.incrementAndGet();
+        } catch (Exception e) {
+            run.failed.increment();
+            failedShards.increment();
+            logger.error("Interest accrual for {} failed for accounts {}-{}: {}", run.date, firstId, lastId, e.getMessage(), e);
+        } finally {
+            sample.stop(shardDuration);
+        }
+    }
+
+    private ShardAccrual accrueShard(LocalDate date, long firstId, long lastId) {
+        List<DueAccount> due = interestAccrualRepository.findDueAccounts(firstId, lastId, date);
+        List<Credit> credits = new ArrayList<>(due.size());
+        for (DueAccount account : due) {
+            InterestCalculator.Accrual accrual = InterestCalculator.accrue(account.balance(), account.interestRate(),
+                    account.accruedInterest(), account.lastInterestDate(), date);
+            credits.add(new Credit(account.id(), accrual.credit(), accrual.carry()));
+        }
+        boolean[] applied = credits.isEmpty() ? new boolean[0] : interestAccrualRepository.applyCredits(credits, date);
+
+        int accounts = 0;
+        BigDecimal interest = BigDecimal.ZERO;
+        List<Credit> paid = new ArrayList<>();
+        for (int i = 0; i < applied.length; i++) {
+            if (applied[i]) {
+                accounts++;
+                if (credits.get(i).amount().signum() > 0) {
+                    interest = interest.add(credits.get(i).amount());
+                    paid.add(credits.get(i));
+                }
+            }
+        }
+        interestAccrualRepository.markCompleted(date, firstId, lastId, accounts, interest);
+        return new ShardAccrual(firstId, lastId, accounts, interest, paid);
+    }
+
+    private void publish(LocalDate date, ShardAccrual accrual) {
+        if (kafkaTemplate == null) {
+            return;
+        }
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("accrualDate", date.toString());
+        event.put("firstAccountId", accrual.firstId());
+        event.put("lastAccountId", accrual.lastId());
+        event.put("totalInterest", accrual.interest().toPlainString());
+        event.put("credits", accrual.credits().stream()
+                .map(credit -> Map.of("accountId", credit.accountId(), "interest", credit.amount().toPlainString()))
+                .toList());
+        try {
+            kafkaTemplate.send(EVENTS_TOPIC, Long.toString(accrual.firstId()),
+                    EVENT_TYPE + ":" + objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize interest accrual event for accounts {}-{}", accrual.firstId(), accrual.lastId(), e);
+        }
+    }
+
+    /**
+     * Outcome of one call to {@link #accrue}. Shards are counted once each: applied by this run,
+     * skipped because already done, deferred past the window, or failed.
+     */
+    public record AccrualRun(LocalDate date, long shards, long applied, long skipped, long deferred, long failed,
+                             long accounts, BigDecimal interest) {
+
+        public boolean complete() {
+            return deferred == 0 && failed == 0;
+        }
+    }
+
+    private record ShardAccrual(long firstId, long lastId, int accounts, BigDecimal interest, List<Credit> credits) {
+    }
+
+    private static final class Run {
+
+        final LocalDate date;
+        final long deadline;
+        final Set<Long> completed;
+        final LongAdder applied = new LongAdder();
+        final LongAdder skipped = new LongAdder();
+        final LongAdder deferred = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder accounts = new LongAdder();
+        private BigDecimal interest = BigDecimal.ZERO;
+
+        Run(LocalDate date, long deadline, Set<Long> completed) {
+            this.date = date;
+            this.deadline = deadline;
+            this.completed = completed;
+        }
+
+        synchronized void addInterest(BigDecimal amount) {
+            interest = interest.add(amount);
+        }
+
+        synchronized AccrualRun result(long shards) {
+            return new AccrualRun(date, shards, applied.sum(), skipped.sum(), deferred.sum(), failed.sum(),
+                    accounts.sum(), interest);
+        }
+    }
+
+    /**
+     * Shards {@code [from, to)}, halved until each task holds one.
+     */
+    private final class ShardRange extends RecursiveAction {
+
+        private final Run run;
+        private final long from;
+        private final long to;
+
+        ShardRange(Run run, long from, long to) {
+            this.run = run;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                processShard(run, from);
+                return;
+            }
+            long middle = (from + to) >>> 1;
+            invokeAll(new ShardRange(run, from, middle), new ShardRange(run, middle, to));
+        }
+    }
+}
@@ -1,41 +1,89 @@
 package com.bankingsystem.accountservice.util;
 
-import com.bankingsystem.accountservice.repository.AccountRepository;
+import com.bankingsystem.accountservice.repository.AccountNumberSequence;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.security.SecureRandom;
+import java.util.Base64;
 
+/**
+ * Issues unique 16-digit account numbers without checking the database for collisions.
+ * <p>
+ * Each number is the prefix, an 11-digit serial passed through a {@link KeyedPermutation}, and a
+ * Luhn check digit. Serials come from blocks reserved in {@link AccountNumberSequence}, so they
+ * are unique across instances, and the permutation keeps them unique while hiding their order.
+ * The key therefore must never change once numbers have been issued. Numbers issued by the
+ * former random generator all start with {@code 1000}, so the new prefix cannot collide with them.
+ */
 @Component
 public class AccountNumberGenerator {
 
-    private static final String ACCOUNT_NUMBER_PREFIX = "1000";
-    private static final int ACCOUNT_NUMBER_LENGTH = 16;
+    static final String ACCOUNT_NUMBER_PREFIX = "1001";
+    private static final int SERIAL_DIGITS = 11;
+    private static final long SERIAL_SPACE = 100_000_000_000L;
 
     @Autowired
-    private AccountRepository accountRepository;
+    private AccountNumberSequence accountNumberSequence;
 
-    private final SecureRandom random = new SecureRandom();
+    @Value("${bankingsystem.app.account-numbers.key}")
+    private String key;
+
+    private KeyedPermutation permutation;
+
+    // Guarded by this
+    private long nextSerial;
+    private long blockEnd;
+
+    @PostConstruct
+    public void init() {
+        permutation = new KeyedPermutation(Base64.getDecoder().decode(key), SERIAL_SPACE);
+    }
 
     public String generateAccountNumber() {
-        String accountNumber;
-        
-        do {
-            accountNumber = generateRandomAccountNumber();
-        } while (accountRepository.existsByAccountNumber(accountNumber));
-        
-        return accountNumber;
+        String digits = ACCOUNT_NUMBER_PREFIX
+                + String.format("%0" + SERIAL_DIGITS + "d", permutation.permute(nextSerial()));
+        return digits + luhnCheckDigit(digits);
+    }
+
+    /**
+     * @return true if {@code accountNumber} is all digits and its last digit is the Luhn check
+     *         digit of the others
+     */
+    static boolean hasValidCheckDigit(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() < 2 || !accountNumber.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        int last = accountNumber.length() - 1;
+        return accountNumber.charAt(last) - '0' == luhnCheckDigit(accountNumber.substring(0, last));
+    }
+
+    private synchronized long nextSerial() {
+        if (nextSerial == blockEnd) {
+            long first = accountNumberSequence.reserveBlock();
+            if (first + AccountNumberSequence.BLOCK_SIZE > SERIAL_SPACE) {
+                throw new IllegalStateException("Account number space is exhausted");
+            }
+            nextSerial = first;
+            blockEnd = first + AccountNumberSequence.BLOCK_SIZE;
+        }
+        return nextSerial++;
     }
 
-    private String generateRandomAccountNumber() {
-        StringBuilder sb = new StringBuilder(ACCOUNT_NUMBER_PREFIX);
-        
-        // Generate remaining digits to reach ACCOUNT_NUMBER_LENGTH
-        int remainingLength = ACCOUNT_NUMBER_LENGTH - ACCOUNT_NUMBER_PREFIX.length();
-        for (int i = 0; i < remainingLength; i++) {
-            sb.append(random.nextInt(10));
+    static int luhnCheckDigit(String digits) {
+        int sum = 0;
+        // Double every second digit starting with the rightmost, as the check digit will follow it
+        for (int i = digits.length() - 1, position = 0; i >= 0; i--, position++) {
+            int digit = digits.charAt(i) - '0';
+            if (position % 2 == 0) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
         }
-        
-        return sb.toString();
+        return (10 - sum % 10) % 10;
     }
 }
@@ -0,0 +1,57 @@
+package com.bankingsystem.accountservice.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Daily simple interest on savings balances, actual/actual: each day earns
+ * {@code balance * annual rate / days in that year}.
+ * <p>
+ * Interest is worked out to {@link #CARRY_SCALE} decimal places, rounding half-even, and added
+ * to what is still carried from earlier days. Only whole cents are credited; the remainder is
+ * carried forward, so no interest is lost to rounding and none is paid twice.
+ */
+public final class InterestCalculator {
+
+    public static final int CARRY_SCALE = 10;
+
+    private static final int CENT_SCALE = 2;
+
+    private InterestCalculator() {
+    }
+
+    /**
+     * @param balance        balance interest is paid on; zero or negative balances earn nothing
+     * @param annualRate     yearly rate, e.g. {@code 0.01} for 1%
+     * @param carry          interest below a cent carried from earlier days, or {@code null}
+     * @param fromExclusive  last day already accrued for, or {@code null} if none
+     * @param toInclusive    last day to accrue for
+     */
+    public static Accrual accrue(BigDecimal balance, BigDecimal annualRate, BigDecimal carry,
+                                 LocalDate fromExclusive, LocalDate toInclusive) {
+        LocalDate day = fromExclusive != null ? fromExclusive.plusDays(1) : toInclusive;
+        BigDecimal total = carry != null ? carry : BigDecimal.ZERO;
+        if (balance.signum() > 0 && annualRate.signum() > 0) {
+            BigDecimal yearly = balance.multiply(annualRate);
+            // One term per calendar year, as leap and common years pay different daily amounts
+            while (!day.isAfter(toInclusive)) {
+                LocalDate endOfYear = day.withDayOfYear(day.lengthOfYear());
+                LocalDate last = endOfYear.isBefore(toInclusive) ? endOfYear : toInclusive;
+                long days = last.toEpochDay() - day.toEpochDay() + 1;
+                total = total.add(yearly.multiply(BigDecimal.valueOf(days))
+                        .divide(BigDecimal.valueOf(day.lengthOfYear()), CARRY_SCALE, RoundingMode.HALF_EVEN));
+                day = last.plusDays(1);
+            }
+        }
+        BigDecimal credit = total.setScale(CENT_SCALE, RoundingMode.DOWN);
+        return new Accrual(credit, total.subtract(credit).setScale(CARRY_SCALE, RoundingMode.HALF_EVEN));
+    }
+
+    /**
+     * @param credit whole cents to add to the balance
+     * @param carry  interest below a cent left to carry forward
+     */
+    public record Accrual(BigDecimal credit, BigDecimal carry) {
+    }
+}
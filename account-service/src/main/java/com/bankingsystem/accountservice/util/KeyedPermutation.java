@@ -0,0 +1,84 @@
+package com.bankingsystem.accountservice.util;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+
+/**
+ * Secret, reversible shuffle of the integers {@code [0, domain)}, so consecutive inputs map to
+ * outputs that cannot be predicted without the key.
+ * <p>
+ * A balanced Feistel network with HMAC-SHA256 round functions permutes the smallest even-width
+ * bit space covering the domain; outputs that land outside the domain are encrypted again
+ * ("cycle walking") until they fall inside it. Every step is a bijection, so distinct inputs always
+ * give distinct outputs. The bit space is less than four times the domain, so a few passes
+ * suffice on average.
+ */
+public class KeyedPermutation {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int ROUNDS = 4;
+
+    private final long domain;
+    private final int halfBits;
+    private final long halfMask;
+    private final ThreadLocal<Mac> mac;
+
+    public KeyedPermutation(byte[] key, long domain) {
+        if (key == null || key.length < 16) {
+            throw new IllegalArgumentException("Permutation key must be at least 128 bits");
+        }
+        if (domain < 2) {
+            throw new IllegalArgumentException("Domain must hold at least two values");
+        }
+        int bits = 64 - Long.numberOfLeadingZeros(domain - 1);
+        this.domain = domain;
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1L << halfBits) - 1;
+        SecretKeySpec secret = new SecretKeySpec(key, ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(secret);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+            }
+        });
+    }
+
+    public long permute(long value) {
+        if (value < 0 || value >= domain) {
+            throw new IllegalArgumentException("Value " + value + " is outside [0, " + domain + ")");
+        }
+        do {
+            value = encrypt(value);
+        } while (value >= domain);
+        return value;
+    }
+
+    private long encrypt(long value) {
+        long left = value >>> halfBits;
+        long right = value & halfMask;
+        for (int round = 0; round < ROUNDS; round++) {
+            long next = left ^ (roundFunction(round, right) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    private long roundFunction(int round, long input) {
+        Mac instance = mac.get();
+        instance.update((byte) round);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            instance.update((byte) (input >>> shift));
+        }
+        byte[] digest = instance.doFinal();
+        long result = 0;
+        for (int i = 0; i < 8; i++) {
+            result = (result << 8) | (digest[i] & 0xff);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,4 @@
+-- Serials for account numbers, reserved in blocks by AccountNumberSequence. The increment is the
+-- block size (AccountNumberSequence.BLOCK_SIZE) and must never change.
+-- Applied at startup through spring.sql.init; safe to run again.
+CREATE SEQUENCE IF NOT EXISTS account_number_seq START WITH 1 INCREMENT BY 100;
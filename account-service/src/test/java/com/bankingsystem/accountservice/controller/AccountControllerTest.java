@@ -1,9 +1,11 @@
 package com.bankingsystem.accountservice.controller;
 
 import com.bankingsystem.accountservice.dto.AccountCreationRequest;
+import com.bankingsystem.accountservice.dto.AccountPageResponse;
 import com.bankingsystem.accountservice.dto.AccountResponseDto;
 import com.bankingsystem.accountservice.model.AccountType;
 import com.bankingsystem.accountservice.service.AccountService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,16 +14,22 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -77,6 +85,49 @@ class AccountControllerTest {
         verify(accountService).getAllAccounts();
     }
 
+    @Test
+    void getAccountsPage_shouldPassCursorAndFilters() {
+        // Arrange
+        AccountPageResponse page = AccountPageResponse.builder()
+                .accounts(List.of(testAccountDto))
+                .nextCursor(1L)
+                .build();
+        when(accountService.getAccountsPage(0L, 50, AccountType.CHECKING, true)).thenReturn(page);
+
+        // Act
+        ResponseEntity<AccountPageResponse> response = accountController.getAccountsPage(0L, 50, AccountType.CHECKING, true);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1L, response.getBody().getNextCursor());
+        assertEquals(1, response.getBody().getAccounts().size());
+    }
+
+    @Test
+    void streamAccounts_shouldWriteOneJsonLinePerAccount() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(accountController, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        AccountResponseDto second = AccountResponseDto.builder().id(2L).accountNumber("6543210987654321").build();
+        doAnswer(invocation -> {
+            Consumer<AccountResponseDto> consumer = invocation.getArgument(2);
+            consumer.accept(testAccountDto);
+            consumer.accept(second);
+            return null;
+        }).when(accountService).streamAccounts(isNull(), eq(false), any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = accountController.streamAccounts(null, false);
+        response.getBody().writeTo(out);
+
+        // Assert
+        assertEquals(AccountController.NDJSON, response.getHeaders().getContentType());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"accountNumber\":\"" + accountNumber + "\""));
+        assertTrue(lines[1].contains("\"id\":2"));
+    }
+
     @Test
     void getAccountById_shouldReturnAccount() {
         // Arrange
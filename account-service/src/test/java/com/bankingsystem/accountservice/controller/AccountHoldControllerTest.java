@@ -0,0 +1,60 @@
+package com.bankingsystem.accountservice.controller;
+
+import com.bankingsystem.accountservice.dto.AccountHoldDto;
+import com.bankingsystem.accountservice.model.HoldStatus;
+import com.bankingsystem.accountservice.service.AccountHoldService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountHoldControllerTest {
+
+    @Mock
+    private AccountHoldService accountHoldService;
+
+    @InjectMocks
+    private AccountHoldController accountHoldController;
+
+    @Test
+    void placeHold_shouldReturnCreatedHold() {
+        // Arrange
+        AccountHoldDto hold = AccountHoldDto.builder()
+                .id(7L)
+                .amount(new BigDecimal("25.00"))
+                .status(HoldStatus.ACTIVE)
+                .build();
+        when(accountHoldService.placeHold("1234567890123456", new BigDecimal("25.00"), "auth-1")).thenReturn(hold);
+
+        // Act
+        ResponseEntity<AccountHoldDto> response =
+                accountHoldController.placeHold("1234567890123456", new BigDecimal("25.00"), "auth-1");
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(hold, response.getBody());
+    }
+
+    @Test
+    void capture_withoutAmount_shouldCaptureFullHold() {
+        // Arrange
+        AccountHoldDto captured = AccountHoldDto.builder().id(7L).status(HoldStatus.CAPTURED).build();
+        when(accountHoldService.capture(7L, null)).thenReturn(captured);
+
+        // Act
+        ResponseEntity<AccountHoldDto> response = accountHoldController.capture(7L, null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(HoldStatus.CAPTURED, response.getBody().getStatus());
+    }
+}
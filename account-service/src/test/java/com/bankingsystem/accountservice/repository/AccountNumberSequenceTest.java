@@ -0,0 +1,59 @@
+package com.bankingsystem.accountservice.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountNumberSequenceTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:account-number-seq;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        createSequence();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop sequence if exists " + AccountNumberSequence.SEQUENCE_NAME);
+    }
+
+    @Test
+    void reserveBlock_acrossInstances_shouldReturnDisjointBlocks() {
+        // Arrange: the next instance to start runs the schema script again
+        createSequence();
+        AccountNumberSequence first = sequence();
+        AccountNumberSequence second = sequence();
+
+        // Act
+        long a = first.reserveBlock();
+        long b = second.reserveBlock();
+        long c = first.reserveBlock();
+
+        // Assert
+        assertEquals(1, a);
+        assertEquals(a + AccountNumberSequence.BLOCK_SIZE, b);
+        assertEquals(b + AccountNumberSequence.BLOCK_SIZE, c);
+    }
+
+    private AccountNumberSequence sequence() {
+        AccountNumberSequence sequence = new AccountNumberSequence();
+        ReflectionTestUtils.setField(sequence, "jdbcTemplate", jdbcTemplate);
+        return sequence;
+    }
+
+    private void createSequence() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/account-number-sequence.sql")).execute(dataSource);
+    }
+}
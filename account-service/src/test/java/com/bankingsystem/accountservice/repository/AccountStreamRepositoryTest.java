@@ -0,0 +1,88 @@
+package com.bankingsystem.accountservice.repository;
+
+import com.bankingsystem.accountservice.model.Account;
+import com.bankingsystem.accountservice.model.AccountType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountStreamRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private AccountStreamRepository accountStreamRepository;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:account-stream;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table accounts (id bigint primary key, account_number varchar(16) not null, "
+                + "account_type varchar(255) not null, balance numeric(12,2) not null, overdraft_limit numeric, "
+                + "interest_rate numeric, user_id bigint not null, account_name varchar(255), "
+                + "active boolean not null, created_at timestamp not null, updated_at timestamp)");
+        insert(3, AccountType.SAVINGS, true);
+        insert(1, AccountType.CHECKING, true);
+        insert(2, AccountType.CHECKING, false);
+        insert(4, AccountType.CHECKING, true);
+
+        accountStreamRepository = new AccountStreamRepository();
+        ReflectionTestUtils.setField(accountStreamRepository, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(accountStreamRepository, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(accountStreamRepository, "fetchSize", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("drop table accounts");
+    }
+
+    @Test
+    void streamAccounts_withoutFilters_shouldReturnEveryAccountInIdOrder() {
+        // Act
+        List<Account> accounts = stream(null, null);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L, 4L), accounts.stream().map(Account::getId).toList());
+        Account first = accounts.get(0);
+        assertEquals("0000000000000001", first.getAccountNumber());
+        assertEquals(AccountType.CHECKING, first.getAccountType());
+        assertEquals(0, new BigDecimal("100.00").compareTo(first.getBalance()));
+        assertEquals(7L, first.getUserId());
+        assertNotNull(first.getCreatedAt());
+        assertNull(first.getUpdatedAt());
+    }
+
+    @Test
+    void streamAccounts_withFilters_shouldReturnOnlyMatchingAccounts() {
+        // Act & Assert
+        assertEquals(List.of(1L, 4L), ids(stream(AccountType.CHECKING, true)));
+        assertEquals(List.of(2L), ids(stream(null, false)));
+        assertEquals(List.of(3L), ids(stream(AccountType.SAVINGS, null)));
+    }
+
+    private List<Account> stream(AccountType accountType, Boolean active) {
+        List<Account> accounts = new ArrayList<>();
+        accountStreamRepository.streamAccounts(accountType, active, accounts::add);
+        return accounts;
+    }
+
+    private static List<Long> ids(List<Account> accounts) {
+        return accounts.stream().map(Account::getId).toList();
+    }
+
+    private void insert(long id, AccountType accountType, boolean active) {
+        jdbcTemplate.update("insert into accounts (id, account_number, account_type, balance, user_id, active, created_at) "
+                + "values (?, ?, ?, 100.00, 7, ?, current_timestamp)",
+                id, String.format("%016d", id), accountType.name(), active);
+    }
+}
@@ -0,0 +1,201 @@
+package com.bankingsystem.accountservice.service;
+
+import com.bankingsystem.accountservice.model.Account;
+import com.bankingsystem.accountservice.model.AccountType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class AccountCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private AccountCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        kafkaTemplate = mock(KafkaTemplate.class);
+        cache = new AccountCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cache, "kafkaTemplate", kafkaTemplate);
+        cache.init();
+    }
+
+    @Test
+    void getByAccountNumber_afterLoadById_shouldHitWithoutLoading() {
+        // Arrange
+        cache.getById(1L, () -> load(account("100.00")));
+
+        // Act
+        Optional<Account> result = cache.getByAccountNumber("1001000000000001", () -> load(account("999.00")));
+
+        // Assert
+        assertEquals(new BigDecimal("100.00"), result.get().getBalance());
+        assertEquals(1, loads.get());
+        assertEquals(0.5, meterRegistry.get("account.cache.hit_ratio").gauge().value());
+    }
+
+    @Test
+    void getById_whenAccountMissing_shouldNotCache() {
+        // Act
+        cache.getById(1L, () -> load(null));
+        Optional<Account> result = cache.getById(1L, () -> load(null));
+
+        // Assert
+        assertTrue(result.isEmpty());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getById_afterTtl_shouldLoadAgain() {
+        // Arrange
+        ReflectionTestUtils.setField(cache, "ttlMs", 0L);
+        cache.getById(1L, () -> load(account("100.00")));
+
+        // Act
+        cache.getById(1L, () -> load(account("100.00")));
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(1.0, meterRegistry.get("account.cache.evictions").counter().count());
+    }
+
+    @Test
+    void getById_whenChangedWhileLoading_shouldNotCacheOlderRead() {
+        // Act: the change commits while the read is still in flight
+        Optional<Account> stale = cache.getById(1L, () -> {
+            cache.update(account("200.00"));
+            return load(account("100.00"));
+        });
+
+        // Assert: the caller gets its read, but the next read loads the change
+        assertEquals(new BigDecimal("100.00"), stale.get().getBalance());
+        assertEquals(new BigDecimal("200.00"), cache.getById(1L, () -> load(account("200.00"))).get().getBalance());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void update_committedOutOfOrder_shouldNeverCacheTheOlderBalance() {
+        // Arrange: two transactions change the account; the later one's afterCommit runs first
+        cache.getById(1L, () -> load(account("100.00")));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.update(account("150.00"));
+            cache.update(account("120.00"));
+            // Act
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Assert: neither snapshot is cached; the next read loads the row as committed last
+        assertEquals(new BigDecimal("120.00"), cache.getById(1L, () -> load(account("120.00"))).get().getBalance());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void update_insideTransaction_shouldDropOnlyAfterCommit() {
+        // Arrange
+        cache.getById(1L, () -> load(account("100.00")));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            cache.update(account("300.00"));
+
+            // Assert: uncommitted changes are not visible, nor announced
+            assertEquals(new BigDecimal("100.00"), cache.getById(1L, () -> load(null)).get().getBalance());
+            verifyNoInteractions(kafkaTemplate);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(new BigDecimal("300.00"), cache.getById(1L, () -> load(account("300.00"))).get().getBalance());
+        assertEquals(2, loads.get());
+        verify(kafkaTemplate).send(eq(AccountCache.INVALIDATION_TOPIC), eq("1"), startsWith("1:1001000000000001:"));
+    }
+
+    @Test
+    void onInvalidation_fromAnotherInstance_shouldDropEntryAndRecordLag() {
+        // Arrange
+        cache.getById(1L, () -> load(account("100.00")));
+
+        // Act
+        cache.onInvalidation("\"1:1001000000000001:other-instance:" + (System.currentTimeMillis() - 50) + "\"");
+        cache.getByAccountNumber("1001000000000001", () -> load(account("150.00")));
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(1, meterRegistry.get("account.cache.invalidation.lag").timer().count());
+    }
+
+    @Test
+    void onInvalidation_fromThisInstance_shouldBeIgnored() {
+        // Arrange
+        cache.getById(1L, () -> load(account("100.00")));
+        cache.update(account("100.00"));
+        cache.getById(1L, () -> load(account("100.00")));
+        String ownMessage = ((String) mockingDetails(kafkaTemplate).getInvocations().iterator().next().getArgument(2));
+
+        // Act
+        cache.onInvalidation(ownMessage);
+
+        // Assert
+        assertEquals(new BigDecimal("100.00"), cache.getById(1L, () -> load(null)).get().getBalance());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateRange_shouldDropAccountsInRange_hereAndOnOtherInstances() {
+        // Arrange
+        cache.getById(1L, () -> load(account("100.00")));
+
+        // Act
+        cache.invalidateRange(0, 4999);
+        cache.getById(1L, () -> load(account("100.03")));
+
+        // Assert
+        assertEquals(2, loads.get());
+        verify(kafkaTemplate).send(eq(AccountCache.INVALIDATION_TOPIC), eq("0"), startsWith("0-4999:*:"));
+
+        // Act: the same from another instance
+        cache.onInvalidation("1-1:*:other-instance:" + System.currentTimeMillis());
+        cache.getByAccountNumber("1001000000000001", () -> load(account("100.03")));
+
+        // Assert
+        assertEquals(3, loads.get());
+    }
+
+    private Optional<Account> load(Account account) {
+        loads.incrementAndGet();
+        return Optional.ofNullable(account);
+    }
+
+    private static Account account(String balance) {
+        return Account.builder()
+                .id(1L)
+                .accountNumber("1001000000000001")
+                .accountType(AccountType.CHECKING)
+                .balance(new BigDecimal(balance))
+                .userId(7L)
+                .active(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,247 @@
+package com.bankingsystem.accountservice.service;
+
+import com.bankingsystem.accountservice.dto.AccountHoldDto;
+import com.bankingsystem.accountservice.exception.InsufficientFundsException;
+import com.bankingsystem.accountservice.model.Account;
+import com.bankingsystem.accountservice.model.AccountHold;
+import com.bankingsystem.accountservice.model.AccountType;
+import com.bankingsystem.accountservice.model.HoldStatus;
+import com.bankingsystem.accountservice.repository.AccountHoldRepository;
+import com.bankingsystem.accountservice.repository.AccountRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountHoldServiceTest {
+
+    private static final String ACCOUNT_NUMBER = "1234567890123456";
+
+    @Mock
+    private AccountHoldRepository accountHoldRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @InjectMocks
+    private AccountHoldService accountHoldService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountCache accountCache;
+    private Account account;
+    private final AtomicLong holdIds = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        accountCache = new AccountCache();
+        ReflectionTestUtils.setField(accountCache, "meterRegistry", meterRegistry);
+        accountCache.init();
+        ReflectionTestUtils.setField(accountHoldService, "accountCache", accountCache);
+        ReflectionTestUtils.setField(accountHoldService, "meterRegistry", meterRegistry);
+        accountHoldService.init();
+
+        // 1000.00 balance and a 500.00 overdraft: 1500.00 available
+        account = Account.builder()
+                .id(1L)
+                .accountNumber(ACCOUNT_NUMBER)
+                .accountType(AccountType.CHECKING)
+                .balance(new BigDecimal("1000.00"))
+                .overdraftLimit(new BigDecimal("500.00"))
+                .userId(1L)
+                .active(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+        lenient().when(accountRepository.lockByAccountNumber(ACCOUNT_NUMBER)).thenReturn(Optional.of(account));
+        lenient().when(accountRepository.lockById(1L)).thenReturn(Optional.of(account));
+        lenient().when(accountHoldRepository.activeTotal(eq(1L), any())).thenReturn(BigDecimal.ZERO);
+        lenient().when(accountHoldRepository.save(any(AccountHold.class))).thenAnswer(invocation -> {
+            AccountHold hold = invocation.getArgument(0);
+            hold.setId(holdIds.incrementAndGet());
+            return hold;
+        });
+    }
+
+    @Test
+    void placeHold_withinAvailableFunds_shouldReserveWithoutWritingAccount() {
+        // Act
+        AccountHoldDto hold = accountHoldService.placeHold(ACCOUNT_NUMBER, new BigDecimal("1200.00"), "auth-1");
+
+        // Assert
+        assertEquals(HoldStatus.ACTIVE, hold.getStatus());
+        assertEquals(new BigDecimal("300.00"), hold.getAvailableBalance());
+        verify(accountRepository).lockByAccountNumber(ACCOUNT_NUMBER);
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
+    @Test
+    void placeHold_beyondAvailableFunds_shouldDecline() {
+        // Arrange: 1200.00 already held, through this instance or any other
+        when(accountHoldRepository.activeTotal(eq(1L), any())).thenReturn(new BigDecimal("1200.00"));
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class,
+                () -> accountHoldService.placeHold(ACCOUNT_NUMBER, new BigDecimal("300.01"), null));
+        verify(accountHoldRepository, never()).save(any(AccountHold.class));
+        assertEquals(1.0, meterRegistry.get("account.holds").tag("outcome", "declined").counter().count());
+    }
+
+    @Test
+    void placeHold_shouldCheckTheLockedBalance_notTheCachedOne() {
+        // Arrange: the cache still holds a richer copy of the account
+        Account stale = Account.builder()
+                .id(1L)
+                .accountNumber(ACCOUNT_NUMBER)
+                .accountType(AccountType.CHECKING)
+                .balance(new BigDecimal("5000.00"))
+                .overdraftLimit(new BigDecimal("500.00"))
+                .active(true)
+                .build();
+        accountCache.getByAccountNumber(ACCOUNT_NUMBER, () -> Optional.of(stale));
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class,
+                () -> accountHoldService.placeHold(ACCOUNT_NUMBER, new BigDecimal("1500.01"), null));
+        verify(accountRepository).lockByAccountNumber(ACCOUNT_NUMBER);
+        verify(accountHoldRepository, never()).save(any(AccountHold.class));
+    }
+
+    @Test
+    void heldAmount_shouldSumUnexpiredActiveHoldsInTheDatabase() {
+        // Arrange
+        when(accountHoldRepository.activeTotal(eq(1L), any())).thenReturn(new BigDecimal("250.00"));
+
+        // Act
+        BigDecimal held = accountHoldService.heldAmount(1L);
+
+        // Assert
+        assertEquals(new BigDecimal("250.00"), held);
+        verify(accountHoldRepository).activeTotal(eq(1L), argThat(now -> !now.isAfter(LocalDateTime.now())));
+    }
+
+    @Test
+    void capture_shouldDebitCapturedAmount_andReleaseTheHold() {
+        // Arrange
+        when(accountHoldRepository.findById(5L)).thenReturn(Optional.of(hold(5L, "300.00", LocalDateTime.now().plusDays(1))));
+        when(accountHoldRepository.activeTotal(eq(1L), any())).thenReturn(new BigDecimal("300.00"));
+        when(accountHoldRepository.capture(eq(5L), eq(new BigDecimal("200.00")), any())).thenReturn(1);
+        when(accountRepository.save(any(Account.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        AccountHoldDto captured = accountHoldService.capture(5L, new BigDecimal("200.00"));
+
+        // Assert
+        assertEquals(HoldStatus.CAPTURED, captured.getStatus());
+        assertEquals(new BigDecimal("200.00"), captured.getCapturedAmount());
+        assertEquals(new BigDecimal("800.00"), account.getBalance());
+        verify(kafkaTemplate).send(eq("transaction-events"), eq("withdrawal"), eq("1:200.00:800.00"));
+    }
+
+    @Test
+    void capture_pastTheOverdraftLimit_shouldDeclineWithoutDebiting() {
+        // Arrange: the balance has since fallen to -400.00, leaving 100.00 of overdraft
+        when(accountHoldRepository.findById(5L)).thenReturn(Optional.of(hold(5L, "300.00", LocalDateTime.now().plusDays(1))));
+        when(accountHoldRepository.activeTotal(eq(1L), any())).thenReturn(new BigDecimal("300.00"));
+        account.setBalance(new BigDecimal("-400.00"));
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class, () -> accountHoldService.capture(5L, null));
+        verify(accountHoldRepository, never()).capture(anyLong(), any(), any());
+        verify(accountRepository, never()).save(any(Account.class));
+        assertEquals(new BigDecimal("-400.00"), account.getBalance());
+    }
+
+    @Test
+    void capture_shouldNotSpendFundsHeldByOtherHolds() {
+        // Arrange: 1300.00 held by other holds leaves 200.00 of the 1500.00
+        when(accountHoldRepository.findById(5L)).thenReturn(Optional.of(hold(5L, "300.00", LocalDateTime.now().plusDays(1))));
+        when(accountHoldRepository.activeTotal(eq(1L), any())).thenReturn(new BigDecimal("1600.00"));
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class, () -> accountHoldService.capture(5L, null));
+        verify(accountHoldRepository, never()).capture(anyLong(), any(), any());
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
+    @Test
+    void capture_whenHoldNoLongerActive_shouldNotDebit() {
+        // Arrange
+        when(accountHoldRepository.findById(5L)).thenReturn(Optional.of(hold(5L, "300.00", LocalDateTime.now().plusDays(1))));
+        when(accountHoldRepository.capture(eq(5L), any(), any())).thenReturn(0);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> accountHoldService.capture(5L, null));
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
+    @Test
+    void capture_aboveHeldAmount_shouldThrow() {
+        // Arrange
+        when(accountHoldRepository.findById(5L)).thenReturn(Optional.of(hold(5L, "300.00", LocalDateTime.now().plusDays(1))));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> accountHoldService.capture(5L, new BigDecimal("300.01")));
+        verify(accountHoldRepository, never()).capture(anyLong(), any(), any());
+    }
+
+    @Test
+    void release_shouldCloseTheHold() {
+        // Arrange
+        when(accountHoldRepository.findById(5L)).thenReturn(Optional.of(hold(5L, "1500.00", LocalDateTime.now().plusDays(1))));
+        when(accountHoldRepository.close(eq(5L), eq(HoldStatus.RELEASED), any())).thenReturn(1);
+
+        // Act
+        AccountHoldDto releasedHold = accountHoldService.release(5L);
+
+        // Assert
+        assertEquals(HoldStatus.RELEASED, releasedHold.getStatus());
+        assertNotNull(releasedHold.getClosedAt());
+        assertEquals(1.0, meterRegistry.get("account.holds").tag("outcome", "released").counter().count());
+    }
+
+    @Test
+    void expireHolds_shouldExpireOverdueHolds() {
+        // Arrange
+        when(accountHoldRepository.findExpired(any(), any(Limit.class)))
+                .thenReturn(List.of(hold(5L, "400.00", LocalDateTime.now().minusSeconds(1))));
+        when(accountHoldRepository.close(eq(5L), eq(HoldStatus.EXPIRED), any())).thenReturn(1);
+
+        // Act
+        int expiredHolds = accountHoldService.expireHolds();
+
+        // Assert
+        assertEquals(1, expiredHolds);
+        assertEquals(1.0, meterRegistry.get("account.holds").tag("outcome", "expired").counter().count());
+    }
+
+    private static AccountHold hold(Long id, String amount, LocalDateTime expiresAt) {
+        return AccountHold.builder()
+                .id(id)
+                .accountId(1L)
+                .amount(new BigDecimal(amount))
+                .status(HoldStatus.ACTIVE)
+                .createdAt(LocalDateTime.now())
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
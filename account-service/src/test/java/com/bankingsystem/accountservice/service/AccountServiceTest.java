@@ -2,6 +2,7 @@ package com.bankingsystem.accountservice.service;
 
 import com.bankingsystem.accountservice.client.UserServiceClient;
 import com.bankingsystem.accountservice.dto.AccountCreationRequest;
+import com.bankingsystem.accountservice.dto.AccountPageResponse;
 import com.bankingsystem.accountservice.dto.AccountResponseDto;
 import com.bankingsystem.accountservice.dto.UserDto;
 import com.bankingsystem.accountservice.exception.AccountNotFoundException;
@@ -9,20 +10,30 @@ import com.bankingsystem.accountservice.exception.InsufficientFundsException;
 import com.bankingsystem.accountservice.model.Account;
 import com.bankingsystem.accountservice.model.AccountType;
 import com.bankingsystem.accountservice.repository.AccountRepository;
+import com.bankingsystem.accountservice.repository.AccountStreamRepository;
 import com.bankingsystem.accountservice.util.AccountNumberGenerator;
+import com.bankingsystem.userstore.UserEventsMaterializer;
+import com.bankingsystem.userstore.UserRecord;
+import com.bankingsystem.userstore.UserStateStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -34,6 +45,9 @@ class AccountServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
+    @Mock
+    private AccountStreamRepository accountStreamRepository;
+
     @Mock
     private UserServiceClient userServiceClient;
 
@@ -43,6 +57,15 @@ class AccountServiceTest {
     @Mock
     private AccountNumberGenerator accountNumberGenerator;
 
+    @Mock
+    private AccountHoldService accountHoldService;
+
+    @Mock
+    private UserStateStore userStateStore;
+
+    @Mock
+    private UserEventsMaterializer userEventsMaterializer;
+
     @InjectMocks
     private AccountService accountService;
 
@@ -54,6 +77,12 @@ class AccountServiceTest {
 
     @BeforeEach
     void setUp() {
+        AccountCache accountCache = new AccountCache();
+        ReflectionTestUtils.setField(accountCache, "meterRegistry", new SimpleMeterRegistry());
+        accountCache.init();
+        ReflectionTestUtils.setField(accountService, "accountCache", accountCache);
+        lenient().when(accountHoldService.heldAmount(anyLong())).thenReturn(BigDecimal.ZERO);
+        
         accountNumber = "1234567890123456";
         secondAccountNumber = "6543210987654321";
         
@@ -105,6 +134,55 @@ class AccountServiceTest {
         verify(accountRepository).findAll();
     }
 
+    @Test
+    void getAccountsPage_whenPageIsFull_shouldReturnCursorOfLastAccount() {
+        // Arrange
+        when(accountRepository.findPageAfter(0L, null, null, Limit.of(2)))
+                .thenReturn(Arrays.asList(testAccount, secondAccount));
+
+        // Act
+        AccountPageResponse result = accountService.getAccountsPage(null, 2, null, null);
+
+        // Assert
+        assertEquals(2, result.getAccounts().size());
+        assertEquals(secondAccount.getId(), result.getNextCursor());
+    }
+
+    @Test
+    void getAccountsPage_onLastPage_shouldCapSizeAndReturnNoCursor() {
+        // Arrange
+        when(accountRepository.findPageAfter(1L, AccountType.SAVINGS, true, Limit.of(AccountService.MAX_PAGE_SIZE)))
+                .thenReturn(List.of(secondAccount));
+
+        // Act
+        AccountPageResponse result = accountService.getAccountsPage(1L, 10000, AccountType.SAVINGS, true);
+
+        // Assert
+        assertEquals(1, result.getAccounts().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void streamAccounts_shouldNotCallUserServicePerAccount() {
+        // Arrange
+        when(userEventsMaterializer.isRestored()).thenReturn(false);
+        doAnswer(invocation -> {
+            Consumer<Account> consumer = invocation.getArgument(2);
+            consumer.accept(testAccount);
+            consumer.accept(secondAccount);
+            return null;
+        }).when(accountStreamRepository).streamAccounts(eq(AccountType.CHECKING), isNull(), any());
+        List<AccountResponseDto> streamed = new ArrayList<>();
+
+        // Act
+        accountService.streamAccounts(AccountType.CHECKING, null, streamed::add);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), streamed.stream().map(AccountResponseDto::getId).toList());
+        assertNull(streamed.get(0).getUser());
+        verifyNoInteractions(userServiceClient);
+    }
+
     @Test
     void getAccountById_whenAccountExists_shouldReturnAccount() {
         // Arrange
@@ -119,6 +197,40 @@ class AccountServiceTest {
         verify(accountRepository).findById(1L);
     }
 
+    @Test
+    void getAccountById_whenUserStoreRestored_shouldResolveUserLocally() {
+        // Arrange
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(testAccount));
+        when(userEventsMaterializer.isRestored()).thenReturn(true);
+        when(userStateStore.get(1L)).thenReturn(Optional.of(UserRecord.builder()
+                .userId(1L)
+                .username("john")
+                .email("john@example.com")
+                .build()));
+
+        // Act
+        AccountResponseDto result = accountService.getAccountById(1L);
+
+        // Assert
+        assertEquals("john@example.com", result.getUser().getEmail());
+        verifyNoInteractions(userServiceClient);
+    }
+
+    @Test
+    void getAccountById_whenUserStoreNotRestored_shouldCallUserService() {
+        // Arrange
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(testAccount));
+        when(userEventsMaterializer.isRestored()).thenReturn(false);
+        when(userServiceClient.getUserById(1L)).thenReturn(UserDto.builder().id(1L).email("remote@example.com").build());
+
+        // Act
+        AccountResponseDto result = accountService.getAccountById(1L);
+
+        // Assert
+        assertEquals("remote@example.com", result.getUser().getEmail());
+        verifyNoInteractions(userStateStore);
+    }
+
     @Test
     void getAccountById_whenAccountDoesNotExist_shouldThrowNotFoundException() {
         // Arrange
@@ -161,6 +273,38 @@ class AccountServiceTest {
         verify(accountRepository).findByAccountNumber(accountNumber);
     }
 
+    @Test
+    void getAccountById_calledTwice_shouldLoadOnce() {
+        // Arrange
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(testAccount));
+
+        // Act
+        accountService.getAccountById(1L);
+        AccountResponseDto result = accountService.getAccountById(1L);
+
+        // Assert
+        assertEquals(testAccount.getBalance(), result.getBalance());
+        verify(accountRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void deposit_shouldDropCachedCopy_soTheNextReadLoadsTheNewBalance() {
+        // Arrange
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.lockByAccountNumber(accountNumber)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.save(any(Account.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        accountService.getAccountById(1L);
+
+        // Act
+        accountService.deposit(accountNumber, new BigDecimal("250.00"));
+
+        // Assert: the first lookup loads the committed row again, the second is served from the cache
+        assertEquals(new BigDecimal("1250.00"), accountService.getAccountById(1L).getBalance());
+        assertEquals(new BigDecimal("1250.00"), accountService.getAccountByAccountNumber(accountNumber).getBalance());
+        verify(accountRepository, times(2)).findById(1L);
+        verify(accountRepository, never()).findByAccountNumber(accountNumber);
+    }
+
     @Test
     void getAccountByAccountNumber_whenAccountDoesNotExist_shouldThrowNotFoundException() {
         // Arrange
@@ -194,7 +338,7 @@ class AccountServiceTest {
     @Test
     void deactivateAccount_shouldDeactivateAndReturnAccount() {
         // Arrange
-        when(accountRepository.findById(1L)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.lockById(1L)).thenReturn(Optional.of(testAccount));
         
         Account deactivatedAccount = new Account();
         deactivatedAccount.setId(testAccount.getId());
@@ -208,7 +352,7 @@ class AccountServiceTest {
 
         // Assert
         assertFalse(result.isActive());
-        verify(accountRepository).findById(1L);
+        verify(accountRepository).lockById(1L);
         verify(accountRepository).save(any(Account.class));
         verify(kafkaTemplate).send(eq("account-events"), eq("account-deactivated"), anyString());
     }
@@ -219,7 +363,7 @@ class AccountServiceTest {
         BigDecimal depositAmount = new BigDecimal("500.00");
         BigDecimal newBalance = testAccount.getBalance().add(depositAmount);
         
-        when(accountRepository.findByAccountNumber(accountNumber)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.lockByAccountNumber(accountNumber)).thenReturn(Optional.of(testAccount));
         
         Account updatedAccount = new Account();
         updatedAccount.setId(testAccount.getId());
@@ -233,7 +377,7 @@ class AccountServiceTest {
 
         // Assert
         assertEquals(newBalance, result.getBalance());
-        verify(accountRepository).findByAccountNumber(accountNumber);
+        verify(accountRepository).lockByAccountNumber(accountNumber);
         verify(accountRepository).save(any(Account.class));
         verify(kafkaTemplate).send(eq("transaction-events"), eq("deposit"), anyString());
     }
@@ -245,7 +389,7 @@ class AccountServiceTest {
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> accountService.deposit(accountNumber, negativeAmount));
-        verify(accountRepository, never()).findByAccountNumber(anyString());
+        verify(accountRepository, never()).lockByAccountNumber(anyString());
         verify(accountRepository, never()).save(any(Account.class));
     }
 
@@ -255,7 +399,7 @@ class AccountServiceTest {
         BigDecimal withdrawAmount = new BigDecimal("300.00");
         BigDecimal newBalance = testAccount.getBalance().subtract(withdrawAmount);
         
-        when(accountRepository.findByAccountNumber(accountNumber)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.lockByAccountNumber(accountNumber)).thenReturn(Optional.of(testAccount));
         
         Account updatedAccount = new Account();
         updatedAccount.setId(testAccount.getId());
@@ -269,7 +413,7 @@ class AccountServiceTest {
 
         // Assert
         assertEquals(newBalance, result.getBalance());
-        verify(accountRepository).findByAccountNumber(accountNumber);
+        verify(accountRepository).lockByAccountNumber(accountNumber);
         verify(accountRepository).save(any(Account.class));
         verify(kafkaTemplate).send(eq("transaction-events"), eq("withdrawal"), anyString());
     }
@@ -280,11 +424,23 @@ class AccountServiceTest {
         BigDecimal excessiveAmount = new BigDecimal("2000.00");
         // Account has 1000 balance, 500 overdraft limit, so 1500 total available
         
-        when(accountRepository.findByAccountNumber(accountNumber)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.lockByAccountNumber(accountNumber)).thenReturn(Optional.of(testAccount));
 
         // Act & Assert
         assertThrows(InsufficientFundsException.class, () -> accountService.withdraw(accountNumber, excessiveAmount));
-        verify(accountRepository).findByAccountNumber(accountNumber);
+        verify(accountRepository).lockByAccountNumber(accountNumber);
+        verify(accountRepository, never()).save(any(Account.class));
+    }
+
+    @Test
+    void withdraw_intoFundsHeldByAuthorizations_shouldThrowException() {
+        // Arrange: 1500 available before holds
+        when(accountRepository.lockByAccountNumber(accountNumber)).thenReturn(Optional.of(testAccount));
+        when(accountHoldService.heldAmount(1L)).thenReturn(new BigDecimal("1300.00"));
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class,
+                () -> accountService.withdraw(accountNumber, new BigDecimal("200.01")));
         verify(accountRepository, never()).save(any(Account.class));
     }
 
@@ -293,19 +449,34 @@ class AccountServiceTest {
         // Arrange
         BigDecimal transferAmount = new BigDecimal("300.00");
         
-        when(accountRepository.findByAccountNumber(accountNumber)).thenReturn(Optional.of(testAccount));
-        when(accountRepository.findByAccountNumber(secondAccountNumber)).thenReturn(Optional.of(secondAccount));
+        when(accountRepository.lockByAccountNumber(accountNumber)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.lockByAccountNumber(secondAccountNumber)).thenReturn(Optional.of(secondAccount));
         
         // Act
         accountService.transfer(accountNumber, secondAccountNumber, transferAmount);
 
         // Assert
-        verify(accountRepository).findByAccountNumber(accountNumber);
-        verify(accountRepository).findByAccountNumber(secondAccountNumber);
+        verify(accountRepository).lockByAccountNumber(accountNumber);
+        verify(accountRepository).lockByAccountNumber(secondAccountNumber);
         verify(accountRepository, times(2)).save(any(Account.class));
         verify(kafkaTemplate).send(eq("transaction-events"), eq("transfer"), anyString());
     }
 
+    @Test
+    void transfer_shouldLockAccountsInAccountNumberOrder() {
+        // Arrange
+        when(accountRepository.lockByAccountNumber(accountNumber)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.lockByAccountNumber(secondAccountNumber)).thenReturn(Optional.of(secondAccount));
+        InOrder locks = inOrder(accountRepository);
+
+        // Act: in the opposite direction to transfer_withSufficientFunds_shouldUpdateBothAccounts
+        accountService.transfer(secondAccountNumber, accountNumber, new BigDecimal("100.00"));
+
+        // Assert
+        locks.verify(accountRepository).lockByAccountNumber(accountNumber);
+        locks.verify(accountRepository).lockByAccountNumber(secondAccountNumber);
+    }
+
     @Test
     void transfer_toSameAccount_shouldThrowException() {
         // Arrange
@@ -313,7 +484,7 @@ class AccountServiceTest {
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> accountService.transfer(accountNumber, accountNumber, amount));
-        verify(accountRepository, never()).findByAccountNumber(anyString());
+        verify(accountRepository, never()).lockByAccountNumber(anyString());
         verify(accountRepository, never()).save(any(Account.class));
     }
 
@@ -322,14 +493,14 @@ class AccountServiceTest {
         // Arrange
         BigDecimal excessiveAmount = new BigDecimal("2000.00");
         
-        when(accountRepository.findByAccountNumber(accountNumber)).thenReturn(Optional.of(testAccount));
-        when(accountRepository.findByAccountNumber(secondAccountNumber)).thenReturn(Optional.of(secondAccount));
+        when(accountRepository.lockByAccountNumber(accountNumber)).thenReturn(Optional.of(testAccount));
+        when(accountRepository.lockByAccountNumber(secondAccountNumber)).thenReturn(Optional.of(secondAccount));
 
         // Act & Assert
         assertThrows(InsufficientFundsException.class, 
             () -> accountService.transfer(accountNumber, secondAccountNumber, excessiveAmount));
-        verify(accountRepository).findByAccountNumber(accountNumber);
-        verify(accountRepository).findByAccountNumber(secondAccountNumber);
+        verify(accountRepository).lockByAccountNumber(accountNumber);
+        verify(accountRepository).lockByAccountNumber(secondAccountNumber);
         verify(accountRepository, never()).save(any(Account.class));
     }
 }
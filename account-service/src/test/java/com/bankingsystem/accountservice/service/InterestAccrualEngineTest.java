@@ -0,0 +1,184 @@
+package com.bankingsystem.accountservice.service;
+
+import com.bankingsystem.accountservice.repository.InterestAccrualRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the engine against an in-memory H2 database, with shards of five ids: ids 1-4, 5-9 and
+ * 10-14 make up three shards.
+ */
+class InterestAccrualEngineTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 18);
+
+    private JdbcTemplate jdbcTemplate;
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private AccountCache accountCache;
+    private SimpleMeterRegistry meterRegistry;
+    private InterestAccrualEngine engine;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:interest-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table accounts (id bigint primary key, account_type varchar(20) not null,"
+                + " balance numeric(12, 2) not null, interest_rate numeric(10, 4), active boolean not null,"
+                + " created_at timestamp not null, updated_at timestamp, accrued_interest numeric(12, 10),"
+                + " last_interest_date date)");
+        jdbcTemplate.execute("create table interest_accrual_shards (accrual_date date not null,"
+                + " first_id bigint not null, last_id bigint not null, accounts integer not null,"
+                + " interest numeric(14, 2) not null, completed_at timestamp not null,"
+                + " primary key (accrual_date, first_id))");
+
+        InterestAccrualRepository repository = new InterestAccrualRepository();
+        ReflectionTestUtils.setField(repository, "jdbcTemplate", jdbcTemplate);
+
+        kafkaTemplate = mock(KafkaTemplate.class);
+        accountCache = mock(AccountCache.class);
+        meterRegistry = new SimpleMeterRegistry();
+        engine = new InterestAccrualEngine();
+        ReflectionTestUtils.setField(engine, "interestAccrualRepository", repository);
+        ReflectionTestUtils.setField(engine, "transactionManager", new DataSourceTransactionManager(dataSource));
+        ReflectionTestUtils.setField(engine, "accountCache", accountCache);
+        ReflectionTestUtils.setField(engine, "kafkaTemplate", kafkaTemplate);
+        ReflectionTestUtils.setField(engine, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(engine, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(engine, "shardSize", 5);
+        engine.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("shutdown");
+    }
+
+    @Test
+    void accrue_shouldCreditDueSavingsAccounts_andPublishOneEventPerShard() {
+        // Arrange: 36500.00 at 1% earns exactly 1.00 a day
+        savings(1, "36500.00");
+        savings(3, "100.00");
+        savings(6, "73000.00");
+        account(7, "CHECKING", "36500.00", "0.01", true);
+        account(8, "SAVINGS", "36500.00", "0.01", false);
+        savings(12, "36500.00");
+
+        // Act
+        InterestAccrualEngine.AccrualRun run = engine.accrue(DAY);
+
+        // Assert
+        assertEquals(3, run.shards());
+        assertEquals(3, run.applied());
+        assertTrue(run.complete());
+        assertEquals(4, run.accounts());
+        assertEquals(new BigDecimal("4.00"), run.interest());
+
+        assertEquals(new BigDecimal("36501.00"), balance(1));
+        assertEquals(new BigDecimal("100.00"), balance(3));
+        assertEquals(new BigDecimal("0.0027397260"), jdbcTemplate.queryForObject(
+                "select accrued_interest from accounts where id = 3", BigDecimal.class));
+        assertEquals(new BigDecimal("73002.00"), balance(6));
+        assertEquals(new BigDecimal("36500.00"), balance(7));
+        assertEquals(new BigDecimal("36500.00"), balance(8));
+        assertEquals(Date.valueOf(DAY), jdbcTemplate.queryForObject(
+                "select last_interest_date from accounts where id = 3", Date.class));
+
+        ArgumentCaptor<String> event = ArgumentCaptor.forClass(String.class);
+        verify(kafkaTemplate, times(3)).send(eq(InterestAccrualEngine.EVENTS_TOPIC), anyString(), event.capture());
+        assertTrue(event.getAllValues().stream().allMatch(value -> value.startsWith("interest-accrued:{")));
+        assertTrue(event.getAllValues().stream().anyMatch(value ->
+                value.contains("\"firstAccountId\":5") && value.contains("\"accountId\":6")
+                        && value.contains("\"interest\":\"2.00\"")));
+        verify(accountCache).invalidateRange(0, 4);
+        verify(accountCache).invalidateRange(5, 9);
+        verify(accountCache).invalidateRange(10, 14);
+        assertEquals(3.0, meterRegistry.get("account.interest.run.shards").tag("state", "done").gauge().value());
+    }
+
+    @Test
+    void accrue_again_shouldSkipCompletedShards_andNotCreditTwice() {
+        // Arrange
+        savings(1, "36500.00");
+        engine.accrue(DAY);
+        // Opened after the first run, in a shard already done for the day
+        savings(2, "36500.00");
+
+        // Act
+        InterestAccrualEngine.AccrualRun run = engine.accrue(DAY);
+
+        // Assert
+        assertEquals(1, run.skipped());
+        assertEquals(0, run.applied());
+        assertEquals(new BigDecimal("36501.00"), balance(1));
+        assertEquals(new BigDecimal("36500.00"), balance(2));
+        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void accrue_afterMissedDays_shouldCatchUpEveryDay() {
+        // Arrange
+        savings(1, "36500.00");
+        jdbcTemplate.update("update accounts set last_interest_date = ? where id = 1", Date.valueOf(DAY.minusDays(3)));
+
+        // Act
+        engine.accrue(DAY);
+
+        // Assert
+        assertEquals(new BigDecimal("36503.00"), balance(1));
+    }
+
+    @Test
+    void accrue_pastWindow_shouldLeaveShardsForNextRun() {
+        // Arrange
+        savings(1, "36500.00");
+        savings(6, "36500.00");
+        ReflectionTestUtils.setField(engine, "windowMinutes", 0L);
+
+        // Act
+        InterestAccrualEngine.AccrualRun deferred = engine.accrue(DAY);
+        ReflectionTestUtils.setField(engine, "windowMinutes", 120L);
+        InterestAccrualEngine.AccrualRun resumed = engine.accrue(DAY);
+
+        // Assert
+        assertEquals(2, deferred.deferred());
+        assertFalse(deferred.complete());
+        assertEquals(new BigDecimal("36501.00"), balance(1));
+        assertEquals(2, resumed.applied());
+        assertTrue(resumed.complete());
+        assertEquals(2.0, meterRegistry.get("account.interest.shard.results").tag("result", "deferred").counter().count());
+    }
+
+    private void savings(long id, String balance) {
+        account(id, "SAVINGS", balance, "0.01", true);
+    }
+
+    private void account(long id, String type, String balance, String rate, boolean active) {
+        jdbcTemplate.update("insert into accounts (id, account_type, balance, interest_rate, active, created_at)"
+                        + " values (?, ?, ?, ?, ?, ?)",
+                id, type, new BigDecimal(balance), new BigDecimal(rate), active, Date.valueOf(DAY.minusDays(30)));
+    }
+
+    private BigDecimal balance(long id) {
+        return jdbcTemplate.queryForObject("select balance from accounts where id = ?", BigDecimal.class, id);
+    }
+}
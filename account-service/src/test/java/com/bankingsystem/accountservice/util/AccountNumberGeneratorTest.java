@@ -0,0 +1,134 @@
+package com.bankingsystem.accountservice.util;
+
+import com.bankingsystem.accountservice.repository.AccountNumberSequence;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AccountNumberGeneratorTest {
+
+    private static final String KEY = "YWNjb3VudC1udW1iZXItcGVybXV0YXRpb24tdGVzdCEh";
+
+    private final AtomicLong sequence = new AtomicLong(1);
+    private final AtomicInteger reservedBlocks = new AtomicInteger();
+    private AccountNumberSequence accountNumberSequence;
+
+    @BeforeEach
+    void setUp() {
+        accountNumberSequence = mock(AccountNumberSequence.class);
+        when(accountNumberSequence.reserveBlock()).thenAnswer(invocation -> {
+            reservedBlocks.incrementAndGet();
+            return sequence.getAndAdd(AccountNumberSequence.BLOCK_SIZE);
+        });
+    }
+
+    @Test
+    void generateAccountNumber_shouldReturnSixteenDigitsWithPrefixAndCheckDigit() {
+        // Arrange
+        AccountNumberGenerator generator = generator();
+
+        // Act
+        String accountNumber = generator.generateAccountNumber();
+
+        // Assert
+        assertEquals(16, accountNumber.length());
+        assertTrue(accountNumber.startsWith(AccountNumberGenerator.ACCOUNT_NUMBER_PREFIX));
+        assertTrue(AccountNumberGenerator.hasValidCheckDigit(accountNumber));
+    }
+
+    @Test
+    void generateAccountNumber_shouldNotRevealOrder() {
+        // Arrange
+        AccountNumberGenerator generator = generator();
+
+        // Act
+        long first = Long.parseLong(generator.generateAccountNumber().substring(4, 15));
+        long second = Long.parseLong(generator.generateAccountNumber().substring(4, 15));
+
+        // Assert: consecutive serials land far apart
+        assertTrue(Math.abs(second - first) > 1000, first + " and " + second + " are adjacent");
+    }
+
+    @Test
+    void generateAccountNumber_shouldReserveOneBlockPerBlockSizeNumbers() {
+        // Arrange
+        AccountNumberGenerator generator = generator();
+
+        // Act
+        for (int i = 0; i < AccountNumberSequence.BLOCK_SIZE * 3; i++) {
+            generator.generateAccountNumber();
+        }
+
+        // Assert
+        assertEquals(3, reservedBlocks.get());
+    }
+
+    @Test
+    void generateAccountNumber_acrossInstancesAndThreads_shouldNeverRepeat() throws Exception {
+        // Arrange: two instances sharing the sequence, as two pods share the database
+        List<AccountNumberGenerator> instances = List.of(generator(), generator());
+        int threads = 16;
+        int perThread = 500;
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            AccountNumberGenerator generator = instances.get(t % instances.size());
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    String accountNumber = generator.generateAccountNumber();
+                    assertTrue(issued.add(accountNumber), "Duplicate account number " + accountNumber);
+                    assertTrue(AccountNumberGenerator.hasValidCheckDigit(accountNumber));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(threads * perThread, issued.size());
+        assertEquals(threads * perThread / AccountNumberSequence.BLOCK_SIZE, reservedBlocks.get());
+    }
+
+    @Test
+    void hasValidCheckDigit_shouldRejectSingleDigitChange() {
+        // Arrange
+        String accountNumber = generator().generateAccountNumber();
+        char changed = accountNumber.charAt(7) == '9' ? '0' : (char) (accountNumber.charAt(7) + 1);
+
+        // Act & Assert
+        assertFalse(AccountNumberGenerator.hasValidCheckDigit(
+                accountNumber.substring(0, 7) + changed + accountNumber.substring(8)));
+        assertTrue(AccountNumberGenerator.hasValidCheckDigit("79927398713"));
+    }
+
+    private AccountNumberGenerator generator() {
+        AccountNumberGenerator generator = new AccountNumberGenerator();
+        ReflectionTestUtils.setField(generator, "accountNumberSequence", accountNumberSequence);
+        ReflectionTestUtils.setField(generator, "key", KEY);
+        generator.init();
+        return generator;
+    }
+}
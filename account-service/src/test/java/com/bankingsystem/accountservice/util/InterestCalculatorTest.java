@@ -0,0 +1,67 @@
+package com.bankingsystem.accountservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InterestCalculatorTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 10, 18);
+
+    @Test
+    void accrue_forOneDay_shouldPayBalanceTimesRateOverDaysInYear() {
+        // Act
+        InterestCalculator.Accrual accrual = InterestCalculator.accrue(
+                new BigDecimal("36500.00"), new BigDecimal("0.01"), null, null, DAY);
+
+        // Assert
+        assertEquals(new BigDecimal("1.00"), accrual.credit());
+        assertEquals(new BigDecimal("0E-10"), accrual.carry());
+    }
+
+    @Test
+    void accrue_belowOneCent_shouldCarryUntilWholeCentsAccumulate() {
+        // Arrange: 100.00 at 1% earns 0.0027397260 a day
+        BigDecimal balance = new BigDecimal("100.00");
+        BigDecimal rate = new BigDecimal("0.01");
+        InterestCalculator.Accrual accrual = new InterestCalculator.Accrual(BigDecimal.ZERO, null);
+
+        // Act
+        for (int day = 0; day < 4; day++) {
+            accrual = InterestCalculator.accrue(balance, rate, accrual.carry(), DAY.plusDays(day - 1), DAY.plusDays(day));
+            if (day < 3) {
+                assertEquals(0, accrual.credit().signum());
+            }
+        }
+
+        // Assert
+        assertEquals(new BigDecimal("0.01"), accrual.credit());
+        assertEquals(new BigDecimal("0.0009589040"), accrual.carry());
+    }
+
+    @Test
+    void accrue_acrossYearEnd_shouldUseEachYearsLength() {
+        // Act: 2027-12-31 in a 365-day year, then two days of leap year 2028
+        InterestCalculator.Accrual accrual = InterestCalculator.accrue(
+                new BigDecimal("3650000.00"), new BigDecimal("0.01"), null,
+                LocalDate.of(2027, 12, 30), LocalDate.of(2028, 1, 2));
+
+        // Assert: 100 + 2 * 36500 / 366
+        assertEquals(new BigDecimal("299.45"), accrual.credit());
+        assertEquals(new BigDecimal("0.0035519126"), accrual.carry());
+    }
+
+    @Test
+    void accrue_withoutPositiveBalance_shouldKeepCarryAndPayNothing() {
+        // Act
+        InterestCalculator.Accrual accrual = InterestCalculator.accrue(
+                new BigDecimal("-50.00"), new BigDecimal("0.01"), new BigDecimal("0.0040000000"), DAY.minusDays(1), DAY);
+
+        // Assert
+        assertEquals(new BigDecimal("0.00"), accrual.credit());
+        assertEquals(new BigDecimal("0.0040000000"), accrual.carry());
+    }
+}
@@ -0,0 +1,53 @@
+package com.bankingsystem.accountservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedPermutationTest {
+
+    private static final byte[] KEY = "permutation-test-key".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void permute_shouldMapDomainOntoItself() {
+        // Arrange: 1000 is not a power of two, so some values need cycle walking
+        KeyedPermutation permutation = new KeyedPermutation(KEY, 1000);
+        Set<Long> outputs = new HashSet<>();
+
+        // Act
+        for (long value = 0; value < 1000; value++) {
+            long output = permutation.permute(value);
+            assertTrue(output >= 0 && output < 1000, "Output out of domain: " + output);
+            outputs.add(output);
+        }
+
+        // Assert
+        assertEquals(1000, outputs.size());
+    }
+
+    @Test
+    void permute_shouldDependOnKey() {
+        // Arrange
+        KeyedPermutation permutation = new KeyedPermutation(KEY, 100_000_000_000L);
+        KeyedPermutation otherKey = new KeyedPermutation("another-permutation-key".getBytes(StandardCharsets.UTF_8),
+                100_000_000_000L);
+
+        // Act & Assert
+        assertEquals(permutation.permute(42), new KeyedPermutation(KEY, 100_000_000_000L).permute(42));
+        assertNotEquals(permutation.permute(42), otherKey.permute(42));
+    }
+
+    @Test
+    void permute_withValueOutsideDomain_shouldThrow() {
+        // Arrange
+        KeyedPermutation permutation = new KeyedPermutation(KEY, 1000);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> permutation.permute(1000));
+        assertThrows(IllegalArgumentException.class, () -> permutation.permute(-1));
+    }
+}
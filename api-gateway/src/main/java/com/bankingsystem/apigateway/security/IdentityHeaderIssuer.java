@@ -0,0 +1,258 @@
+package com.bankingsystem.apigateway.security;
+
+import com.bankingsystem.identity.AuthenticatedIdentity;
+import com.bankingsystem.identity.IdentityHeaderCodec;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Validates bearer tokens and turns them into signed identity headers for downstream services.
+ * <p>
+ * Tokens are verified locally against the keys cached by {@link JwksKeyResolver}, with a parser
+ * built once. The claims of each verified token are cached by the
+ * token's SHA-256 digest until the token expires, so a client reusing its token costs one digest
+ * and, at most every {@code identity-ttl-seconds / 2}, one HMAC to refresh the header.
+ * <p>
+ * When user-service deletes a user, every gateway instance hears it on {@code user-events}, drops
+ * the user's cached tokens and from then on rejects tokens issued to them before the deletion.
+ * Each instance reads every partition itself and, on startup, replays the last token lifetime of
+ * events so revocations survive a restart. The header carries the token's issue time, so services
+ * that track revocations themselves can still reject a header signed before the gateway heard.
+ */
+@Component
+public class IdentityHeaderIssuer implements ConsumerSeekAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdentityHeaderIssuer.class);
+
+    static final String ROLES_CLAIM = "roles";
+
+    // Published by user-service, whose topic config sets the partition count
+    static final String USER_EVENTS_TOPIC = "user-events";
+    static final String USER_EVENTS_PARTITIONS = "0-2";
+    static final String USER_DELETED = "user-deleted";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    @Autowired
+    private IdentityHeaderCodec identityHeaderCodec;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JwksKeyResolver jwksKeyResolver;
+
+    @Value("${bankingsystem.gateway.auth.identity-ttl-seconds:60}")
+    private long identityTtlSeconds = 60;
+
+    @Value("${bankingsystem.gateway.auth.cache-max-size:100000}")
+    private int maxSize = 100000;
+
+    // A revocation has to outlive every token issued before it
+    @Value("${bankingsystem.app.jwtExpirationMs:86400000}")
+    private long tokenLifetimeMs = 86400000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<TokenDigest, VerifiedToken> verified = new ConcurrentHashMap<>();
+    // Username -> time of the last event that revoked the user's tokens
+    private final Map<String, Long> revokedAt = new ConcurrentHashMap<>();
+    private JwtParser parser;
+    private Counter hits;
+    private Counter misses;
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(jwksKeyResolver)
+                .build();
+        hits = Counter.builder("gateway.auth.tokens").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("gateway.auth.tokens").tag("result", "miss").register(meterRegistry);
+        rejected = Counter.builder("gateway.auth.tokens").tag("result", "rejected").register(meterRegistry);
+    }
+
+    /**
+     * @return the identity header for {@code token}, or null if the token is not valid
+     */
+    public String issue(String token) {
+        long now = System.currentTimeMillis() / 1000;
+        TokenDigest digest = TokenDigest.of(token);
+        VerifiedToken entry = verified.get(digest);
+        if (entry != null && entry.tokenExpiresAt > now) {
+            if (isRevoked(entry.username, entry.issuedAt)) {
+                verified.remove(digest, entry);
+                rejected.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.header(now);
+        }
+
+        misses.increment();
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Rejected bearer token: {}", e.getMessage());
+            verified.remove(digest);
+            rejected.increment();
+            return null;
+        }
+
+        long issuedAt = claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() / 1000 : 0;
+        if (isRevoked(claims.getSubject(), issuedAt)) {
+            logger.debug("Rejected revoked token of {}", claims.getSubject());
+            verified.remove(digest);
+            rejected.increment();
+            return null;
+        }
+        long tokenExpiresAt = claims.getExpiration() != null
+                ? claims.getExpiration().getTime() / 1000
+                : Long.MAX_VALUE;
+        entry = new VerifiedToken(claims.getSubject(), roles(claims), issuedAt, tokenExpiresAt);
+        if (verified.size() >= maxSize) {
+            makeRoom(now);
+        }
+        verified.put(digest, entry);
+        return entry.header(now);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        callback.seekToTimestamp(assignments.keySet(), System.currentTimeMillis() - tokenLifetimeMs);
+    }
+
+    // Assigned rather than subscribed, so every instance reads every partition without leaving a
+    // consumer group behind per restart; the seek above replaces committed offsets
+    @KafkaListener(groupId = "api-gateway-token-revocations",
+            topicPartitions = @org.springframework.kafka.annotation.TopicPartition(
+                    topic = USER_EVENTS_TOPIC, partitions = USER_EVENTS_PARTITIONS),
+            properties = "enable.auto.commit=false")
+    public void onUserEvent(String message) {
+        if (message == null || !message.startsWith(USER_DELETED + ":")) {
+            return;
+        }
+        try {
+            JsonNode event = objectMapper.readTree(message.substring(USER_DELETED.length() + 1));
+            JsonNode username = event.get("username");
+            JsonNode version = event.get("version");
+            if (username != null && !username.isNull()) {
+                // The version is the publish time, which still applies when the event is replayed
+                revoke(username.asText(), version != null && version.canConvertToLong()
+                        ? version.asLong() : System.currentTimeMillis());
+            }
+        } catch (Exception e) {
+            logger.warn("Ignoring unreadable user event: {}", e.getMessage());
+        }
+    }
+
+    int size() {
+        return verified.size();
+    }
+
+    /**
+     * @param issuedAt epoch second the token was issued, or 0 if unknown
+     */
+    private boolean isRevoked(String username, long issuedAt) {
+        Long revoked = revokedAt.get(username);
+        return revoked != null && issuedAt * 1000 < revoked;
+    }
+
+    private void revoke(String username, long at) {
+        long now = System.currentTimeMillis();
+        if (at <= now - tokenLifetimeMs) {
+            return;
+        }
+        revokedAt.merge(username, at, Math::max);
+        // Every token issued before these has expired
+        revokedAt.values().removeIf(time -> time <= now - tokenLifetimeMs);
+        verified.values().removeIf(entry -> isRevoked(entry.username, entry.issuedAt));
+    }
+
+    private static List<String> roles(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(roles instanceof List<?> names)) {
+            return List.of();
+        }
+        return names.stream().map(Object::toString).toList();
+    }
+
+    private void makeRoom(long now) {
+        verified.values().removeIf(entry -> entry.tokenExpiresAt <= now);
+        Iterator<TokenDigest> keys = verified.keySet().iterator();
+        while (verified.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    /**
+     * Claims of a verified token plus the last header signed for it, which is reused while it has
+     * at least half of its lifetime left.
+     */
+    private final class VerifiedToken {
+        private final String username;
+        private final List<String> roles;
+        private final long issuedAt;
+        private final long tokenExpiresAt;
+        private volatile SignedHeader signed;
+
+        private VerifiedToken(String username, List<String> roles, long issuedAt, long tokenExpiresAt) {
+            this.username = username;
+            this.roles = roles;
+            this.issuedAt = issuedAt;
+            this.tokenExpiresAt = tokenExpiresAt;
+        }
+
+        String header(long now) {
+            SignedHeader current = signed;
+            if (current == null || current.expiresAt - now < identityTtlSeconds / 2) {
+                long expiresAt = Math.min(tokenExpiresAt, now + identityTtlSeconds);
+                current = new SignedHeader(
+                        identityHeaderCodec.encode(new AuthenticatedIdentity(username, roles, issuedAt, expiresAt)), expiresAt);
+                signed = current;
+            }
+            return current.value;
+        }
+    }
+
+    private record SignedHeader(String value, long expiresAt) {
+    }
+
+    private record TokenDigest(long a, long b, long c, long d) {
+        static TokenDigest of(String token) {
+            ByteBuffer hash = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        }
+    }
+}
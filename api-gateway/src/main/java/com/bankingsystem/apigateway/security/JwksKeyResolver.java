@@ -0,0 +1,191 @@
+package com.bankingsystem.apigateway.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Verification keys for bearer tokens, fetched from user-service's JWKS endpoint and cached so
+ * tokens are verified locally.
+ * <p>
+ * The key set is refreshed every {@code jwks-refresh-ms}, which has to be shorter than the time
+ * user-service publishes a key before signing with it. A token with an unknown key id is rejected
+ * and triggers an early refresh, at most once per {@code jwks-min-refresh-interval-ms}, so a
+ * client presenting forged key ids cannot drive load onto user-service. Tokens without a key id
+ * were signed with the legacy HMAC secret and are verified with it while {@code jwtSecret} and
+ * {@code jwtSecretCutover} are set, but only if issued before the cutover and expiring within one
+ * token lifetime of it, so a leaked secret cannot mint new tokens.
+ */
+@Component
+public class JwksKeyResolver extends SigningKeyResolverAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwksKeyResolver.class);
+
+    private static final String LOAD_BALANCED_SCHEME = "lb://";
+
+    @Autowired
+    private WebClient.Builder webClientBuilder;
+
+    @Autowired(required = false)
+    private ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction;
+
+    @Value("${bankingsystem.gateway.auth.jwks-uri:lb://user-service/api/auth/jwks}")
+    private String jwksUri = "lb://user-service/api/auth/jwks";
+
+    @Value("${bankingsystem.gateway.auth.jwks-min-refresh-interval-ms:10000}")
+    private long minRefreshIntervalMs = 10000;
+
+    @Value("${bankingsystem.app.jwtSecret:}")
+    private String jwtSecret;
+
+    @Value("${bankingsystem.app.jwtSecretCutover:}")
+    private String jwtSecretCutover;
+
+    @Value("${bankingsystem.app.jwtExpirationMs:86400000}")
+    private long jwtExpirationMs = 86400000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong lastRefreshAttempt = new AtomicLong();
+    private volatile Map<String, PublicKey> keys = Map.of();
+    private SecretKey legacyKey;
+    private Instant legacyCutover;
+    private WebClient webClient;
+
+    @PostConstruct
+    public void init() {
+        if (jwtSecret != null && !jwtSecret.isEmpty() && jwtSecretCutover != null && !jwtSecretCutover.isEmpty()) {
+            legacyKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+            legacyCutover = Instant.parse(jwtSecretCutover);
+        }
+        if (webClientBuilder == null) {
+            return;
+        }
+        String uri = jwksUri;
+        WebClient.Builder builder = webClientBuilder.clone();
+        if (uri.startsWith(LOAD_BALANCED_SCHEME) && loadBalancerFunction != null) {
+            uri = "http://" + uri.substring(LOAD_BALANCED_SCHEME.length());
+            builder.filter(loadBalancerFunction);
+        }
+        webClient = builder.baseUrl(uri).build();
+        // user-service may not be registered yet; the scheduled refresh retries
+        refreshAsync();
+    }
+
+    @Scheduled(initialDelayString = "${bankingsystem.gateway.auth.jwks-refresh-ms:300000}",
+            fixedDelayString = "${bankingsystem.gateway.auth.jwks-refresh-ms:300000}")
+    public void refresh() {
+        lastRefreshAttempt.set(System.currentTimeMillis());
+        refreshAsync();
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            if (legacyKey == null) {
+                throw new SignatureException("Token has no key id");
+            }
+            Date issuedAt = claims.getIssuedAt();
+            Date expiration = claims.getExpiration();
+            if (issuedAt == null || issuedAt.toInstant().isAfter(legacyCutover)
+                    || expiration == null || expiration.toInstant().isAfter(legacyCutover.plusMillis(jwtExpirationMs))) {
+                throw new SignatureException("HMAC token issued after the RS256 cutover");
+            }
+            // The parser rejects an HMAC key for an RSA-signed token and vice versa
+            return legacyKey;
+        }
+        PublicKey key = keys.get(kid);
+        if (key == null) {
+            long now = System.currentTimeMillis();
+            long last = lastRefreshAttempt.get();
+            if (now - last >= minRefreshIntervalMs && lastRefreshAttempt.compareAndSet(last, now)) {
+                refreshAsync();
+            }
+            throw new SignatureException("Unknown signing key " + kid);
+        }
+        return key;
+    }
+
+    /**
+     * Replace the cached keys with those in a JWKS document. Keys that are not RSA signing keys
+     * are ignored.
+     *
+     * @throws IllegalArgumentException if the document cannot be parsed
+     */
+    void update(String jwks) {
+        Map<String, PublicKey> parsed = new HashMap<>();
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+            for (JsonNode jwk : objectMapper.readTree(jwks).path("keys")) {
+                if (!"RSA".equals(jwk.path("kty").asText()) || jwk.path("kid").isMissingNode()
+                        || (jwk.hasNonNull("use") && !"sig".equals(jwk.get("use").asText()))) {
+                    continue;
+                }
+                parsed.put(jwk.get("kid").asText(), keyFactory.generatePublic(new RSAPublicKeySpec(
+                        unsigned(jwk.path("n").asText()), unsigned(jwk.path("e").asText()))));
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalArgumentException("Malformed JWKS: " + e.getMessage(), e);
+        }
+        keys = Map.copyOf(parsed);
+        logger.debug("Loaded {} token verification keys", parsed.size());
+    }
+
+    int size() {
+        return keys.size();
+    }
+
+    private void refreshAsync() {
+        if (webClient == null) {
+            return;
+        }
+        webClient.get()
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(Duration.ofSeconds(5))
+                .subscribe(this::updateQuietly,
+                        error -> logger.warn("Could not fetch JWKS from {}: {}", jwksUri, error.getMessage()));
+    }
+
+    private void updateQuietly(String jwks) {
+        try {
+            update(jwks);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring JWKS from {}: {}", jwksUri, e.getMessage());
+        }
+    }
+
+    private static BigInteger unsigned(String base64Url) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(base64Url));
+    }
+}
@@ -0,0 +1,82 @@
+package com.bankingsystem.apigateway.security;
+
+import com.bankingsystem.identity.IdentityHeaderCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Authenticates every routed request once, at the edge.
+ * <p>
+ * Any identity header sent by the client is removed. A valid bearer token is replaced by a
+ * signed {@link IdentityHeaderCodec#HEADER} that downstream services verify with a single HMAC
+ * instead of parsing the JWT again. Requests without a valid token are rejected with 401 unless
+ * their path is public.
+ */
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Autowired
+    private IdentityHeaderIssuer identityHeaderIssuer;
+
+    @Value("${bankingsystem.gateway.auth.public-paths:/api/auth/**,/api/v1/auth/**,/actuator/**}")
+    private List<String> publicPaths = List.of("/api/auth/**", "/api/v1/auth/**", "/actuator/**");
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        boolean publicPath = isPublic(request.getPath().value());
+
+        String identity = null;
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            identity = identityHeaderIssuer.issue(authorization.substring(BEARER_PREFIX.length()));
+        }
+        if (identity == null && !publicPath) {
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            return exchange.getResponse().setComplete();
+        }
+
+        String forwardedIdentity = identity;
+        ServerHttpRequest forwarded = request.mutate()
+                .headers(headers -> {
+                    headers.remove(IdentityHeaderCodec.HEADER);
+                    if (forwardedIdentity != null) {
+                        headers.set(IdentityHeaderCodec.HEADER, forwardedIdentity);
+                    }
+                })
+                .build();
+        return chain.filter(exchange.mutate().request(forwarded).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // Before routing and load balancing, so rejected requests never pick an instance
+        return Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+
+    private boolean isPublic(String path) {
+        for (String pattern : publicPaths) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,214 @@
+package com.bankingsystem.apigateway.security;
+
+import com.bankingsystem.identity.AuthenticatedIdentity;
+import com.bankingsystem.identity.IdentityHeaderCodec;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdentityHeaderIssuerTest {
+
+    static final String JWT_SECRET = "VyX6ycVG8Wg1qNfaNxN5KqZ1ELOfP6sYPeJvoR4JEoynMjcMUDK7QR1m3bmci55y";
+    static final Instant CUTOVER = Instant.now().minusSeconds(3600);
+    static final IdentityHeaderCodec CODEC =
+            new IdentityHeaderCodec("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII));
+    static final String KID = "key-1";
+    static final KeyPair KEY_PAIR = rsaKeyPair();
+
+    private IdentityHeaderIssuer issuer;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        issuer = new IdentityHeaderIssuer();
+        ReflectionTestUtils.setField(issuer, "identityHeaderCodec", CODEC);
+        ReflectionTestUtils.setField(issuer, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(issuer, "jwksKeyResolver", resolver());
+        ReflectionTestUtils.setField(issuer, "maxSize", 2);
+        issuer.init();
+    }
+
+    @Test
+    void issue_shouldCarrySubjectAndRolesAndReuseVerifiedTokens() {
+        String token = token("alice", List.of("ROLE_USER"), 3_600_000);
+
+        String first = issuer.issue(token);
+        String second = issuer.issue(token);
+
+        AuthenticatedIdentity identity = CODEC.decode(first);
+        assertEquals("alice", identity.username());
+        assertEquals(List.of("ROLE_USER"), identity.roles());
+        assertTrue(identity.expiresAt() <= System.currentTimeMillis() / 1000 + 60);
+        assertSame(first, second, "the signed header is reused while fresh");
+        assertEquals(1.0, meterRegistry.get("gateway.auth.tokens").tag("result", "miss").counter().count());
+        assertEquals(1.0, meterRegistry.get("gateway.auth.tokens").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void issue_shouldNotOutliveTheToken() {
+        String token = token("alice", List.of("ROLE_USER"), 5_000);
+
+        AuthenticatedIdentity identity = CODEC.decode(issuer.issue(token));
+
+        assertTrue(identity.expiresAt() <= System.currentTimeMillis() / 1000 + 5);
+    }
+
+    @Test
+    void issue_shouldRejectInvalidTokens() {
+        String foreign = Jwts.builder()
+                .setSubject("mallory")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(new byte[32]))
+                .compact();
+
+        assertNull(issuer.issue(foreign));
+        assertNull(issuer.issue(token("alice", List.of("ROLE_USER"), -1_000)));
+        assertNull(issuer.issue("not-a-jwt"));
+        assertEquals(3.0, meterRegistry.get("gateway.auth.tokens").tag("result", "rejected").counter().count());
+    }
+
+    @Test
+    void issue_shouldAcceptLegacyHmacTokensWithoutKeyId() {
+        String legacy = Jwts.builder()
+                .setSubject("alice")
+                .claim(IdentityHeaderIssuer.ROLES_CLAIM, List.of("ROLE_USER"))
+                .setIssuedAt(Date.from(CUTOVER.minusSeconds(60)))
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(JWT_SECRET)))
+                .compact();
+
+        assertEquals("alice", CODEC.decode(issuer.issue(legacy)).username());
+    }
+
+    @Test
+    void issue_shouldRejectHmacTokensMintedAfterTheCutover() {
+        // Signed with the legacy secret today, as anyone holding it could
+        String minted = Jwts.builder()
+                .setSubject("mallory")
+                .claim(IdentityHeaderIssuer.ROLES_CLAIM, List.of("ROLE_ADMIN"))
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(JWT_SECRET)))
+                .compact();
+
+        assertNull(issuer.issue(minted));
+    }
+
+    @Test
+    void issue_shouldRejectHmacTokenClaimingAnRsaKeyId() {
+        // Signed with the shared secret but naming a published key, so the RSA key would apply
+        String confused = Jwts.builder()
+                .setHeaderParam("kid", KID)
+                .setSubject("mallory")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(JWT_SECRET)))
+                .compact();
+
+        assertNull(issuer.issue(confused));
+    }
+
+    @Test
+    void onUserEvent_userDeleted_shouldRejectTheirEarlierTokens() {
+        long deletedAt = System.currentTimeMillis();
+        String before = token("alice", List.of("ROLE_USER"), 3_600_000);
+        String after = Jwts.builder()
+                .setHeaderParam("kid", KID)
+                .setSubject("alice")
+                .setIssuedAt(new Date(deletedAt + 1_000))
+                .setExpiration(new Date(deletedAt + 3_600_000))
+                .signWith(KEY_PAIR.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+        assertNotNull(issuer.issue(before));
+
+        issuer.onUserEvent("user-deleted:{\"username\":\"alice\",\"deleted\":true,\"version\":" + deletedAt + "}");
+
+        assertEquals(0, issuer.size(), "the deleted user's cached tokens are dropped");
+        assertNull(issuer.issue(before));
+        assertEquals(deletedAt / 1000 + 1, CODEC.decode(issuer.issue(after)).issuedAt());
+    }
+
+    @Test
+    void onUserEvent_shouldIgnoreOtherEventsAndTombstones() {
+        String token = token("alice", List.of("ROLE_USER"), 3_600_000);
+
+        issuer.onUserEvent("user-updated:{\"username\":\"alice\",\"version\":" + System.currentTimeMillis() + "}");
+        issuer.onUserEvent(null);
+
+        assertNotNull(issuer.issue(token));
+    }
+
+    @Test
+    void issue_shouldStayWithinCacheBound() {
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(issuer.issue(token("user" + i, List.of("ROLE_USER"), 3_600_000)));
+        }
+
+        assertTrue(issuer.size() <= 2);
+    }
+
+    static String token(String username, List<String> roles, long validForMs) {
+        return Jwts.builder()
+                .setHeaderParam("kid", KID)
+                .setSubject(username)
+                .claim(IdentityHeaderIssuer.ROLES_CLAIM, roles)
+                .setExpiration(new Date(System.currentTimeMillis() + validForMs))
+                .signWith(KEY_PAIR.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+    }
+
+    /**
+     * Resolver holding {@link #KEY_PAIR} as {@link #KID} and the legacy secret.
+     */
+    static JwksKeyResolver resolver() {
+        JwksKeyResolver resolver = new JwksKeyResolver();
+        ReflectionTestUtils.setField(resolver, "jwtSecret", JWT_SECRET);
+        ReflectionTestUtils.setField(resolver, "jwtSecretCutover", CUTOVER.toString());
+        resolver.init();
+        resolver.update(jwks(KID, KEY_PAIR));
+        return resolver;
+    }
+
+    static String jwks(String kid, KeyPair keyPair) {
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        return "{\"keys\":[{\"kty\":\"RSA\",\"kid\":\"" + kid + "\",\"use\":\"sig\",\"alg\":\"RS256\","
+                + "\"n\":\"" + base64Url(publicKey.getModulus()) + "\",\"e\":\"" + base64Url(publicKey.getPublicExponent()) + "\"}]}";
+    }
+
+    static KeyPair rsaKeyPair() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            return generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
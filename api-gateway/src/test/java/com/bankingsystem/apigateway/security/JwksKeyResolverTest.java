@@ -0,0 +1,94 @@
+package com.bankingsystem.apigateway.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwksKeyResolverTest {
+
+    private JwksKeyResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = IdentityHeaderIssuerTest.resolver();
+    }
+
+    @Test
+    void resolveSigningKey_shouldReturnPublishedKeyForKid() {
+        assertEquals(IdentityHeaderIssuerTest.KEY_PAIR.getPublic(),
+                resolver.resolveSigningKey(header(IdentityHeaderIssuerTest.KID), claims()));
+    }
+
+    @Test
+    void resolveSigningKey_shouldRejectUnknownKid() {
+        assertThrows(SignatureException.class, () -> resolver.resolveSigningKey(header("unknown"), claims()));
+    }
+
+    @Test
+    void resolveSigningKey_withoutKidAndLegacySecret_shouldReject() {
+        JwksKeyResolver withoutSecret = new JwksKeyResolver();
+        withoutSecret.init();
+
+        assertThrows(SignatureException.class, () -> withoutSecret.resolveSigningKey(header(null), claims()));
+    }
+
+    @Test
+    void resolveSigningKey_withoutKid_shouldOnlyAcceptTokensFromBeforeTheCutover() {
+        Instant cutover = IdentityHeaderIssuerTest.CUTOVER;
+        Claims legacy = Jwts.claims()
+                .setIssuedAt(Date.from(cutover.minusSeconds(60)))
+                .setExpiration(Date.from(cutover.plusSeconds(60)));
+        Claims minted = Jwts.claims()
+                .setIssuedAt(Date.from(cutover.plusSeconds(1)))
+                .setExpiration(Date.from(cutover.plusSeconds(60)));
+        Claims outliving = Jwts.claims()
+                .setIssuedAt(Date.from(cutover.minusSeconds(60)))
+                .setExpiration(Date.from(cutover.plusMillis(86_400_000L).plusSeconds(1)));
+
+        assertNotNull(resolver.resolveSigningKey(header(null), legacy));
+        assertThrows(SignatureException.class, () -> resolver.resolveSigningKey(header(null), minted));
+        assertThrows(SignatureException.class, () -> resolver.resolveSigningKey(header(null), outliving));
+        assertThrows(SignatureException.class, () -> resolver.resolveSigningKey(header(null), claims()));
+    }
+
+    @Test
+    void update_shouldReplaceKeysOnRotation() {
+        KeyPair rotated = IdentityHeaderIssuerTest.rsaKeyPair();
+
+        resolver.update(IdentityHeaderIssuerTest.jwks("key-2", rotated));
+
+        assertEquals(1, resolver.size());
+        assertEquals(rotated.getPublic(), resolver.resolveSigningKey(header("key-2"), claims()));
+        assertThrows(SignatureException.class,
+                () -> resolver.resolveSigningKey(header(IdentityHeaderIssuerTest.KID), claims()));
+    }
+
+    @Test
+    void update_shouldIgnoreNonSigningKeysAndRejectMalformedDocuments() {
+        resolver.update("{\"keys\":[{\"kty\":\"EC\",\"kid\":\"ec-1\"},{\"kty\":\"RSA\",\"kid\":\"enc-1\",\"use\":\"enc\"}]}");
+
+        assertEquals(0, resolver.size());
+        assertThrows(IllegalArgumentException.class, () -> resolver.update("not json"));
+    }
+
+    private static JwsHeader header(String kid) {
+        JwsHeader header = Jwts.jwsHeader();
+        if (kid != null) {
+            header.setKeyId(kid);
+        }
+        return header;
+    }
+
+    private static Claims claims() {
+        return Jwts.claims();
+    }
+}
@@ -0,0 +1,85 @@
+package com.bankingsystem.apigateway.security;
+
+import com.bankingsystem.identity.IdentityHeaderCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthenticationFilterTest {
+
+    private JwtAuthenticationFilter filter;
+    private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange);
+        return Mono.empty();
+    };
+
+    @BeforeEach
+    void setUp() {
+        IdentityHeaderIssuer issuer = new IdentityHeaderIssuer();
+        ReflectionTestUtils.setField(issuer, "identityHeaderCodec", IdentityHeaderIssuerTest.CODEC);
+        ReflectionTestUtils.setField(issuer, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(issuer, "jwksKeyResolver", IdentityHeaderIssuerTest.resolver());
+        issuer.init();
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "identityHeaderIssuer", issuer);
+    }
+
+    @Test
+    void filter_withValidToken_shouldForwardSignedIdentity() {
+        String token = IdentityHeaderIssuerTest.token("alice", List.of("ROLE_USER"), 3_600_000);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/accounts/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+
+        filter.filter(exchange, chain).block();
+
+        String identity = forwarded.get().getRequest().getHeaders().getFirst(IdentityHeaderCodec.HEADER);
+        assertEquals("alice", IdentityHeaderIssuerTest.CODEC.decode(identity).username());
+    }
+
+    @Test
+    void filter_withoutToken_shouldRejectProtectedPaths() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/accounts/1"));
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertNull(forwarded.get());
+    }
+
+    @Test
+    void filter_withInvalidToken_shouldRejectProtectedPaths() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/transactions")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer not-a-jwt"));
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertNull(forwarded.get());
+    }
+
+    @Test
+    void filter_shouldStripClientSuppliedIdentityOnPublicPaths() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/auth/login")
+                .header(IdentityHeaderCodec.HEADER, "v1.spoofed.identity"));
+
+        filter.filter(exchange, chain).block();
+
+        assertNotNull(forwarded.get());
+        assertNull(forwarded.get().getRequest().getHeaders().getFirst(IdentityHeaderCodec.HEADER));
+    }
+}
@@ -0,0 +1,85 @@
+package com.bankingsystem.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Applies {@link JdbcPerformanceTuning} to every Hikari pool and to Hibernate, and publishes
+ * histograms of the time spent waiting for a connection ({@code hikaricp.connections.acquire})
+ * and holding one ({@code hikaricp.connections.usage}). Switched off with
+ * {@code bankingsystem.datasource.tuning.enabled=false}.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "bankingsystem.datasource.tuning", name = "enabled", matchIfMissing = true)
+public class JdbcPerformanceAutoConfiguration {
+
+    private static final String REPLICA_POOL_BEAN = "replicaDataSource";
+    private static final String PRIMARY_POOL_PREFIX = "spring.datasource.hikari";
+    private static final String REPLICA_POOL_PREFIX = "bankingsystem.datasource.replica.hikari";
+
+    @Bean
+    public JdbcPerformanceTuning jdbcPerformanceTuning(Environment environment) {
+        return fromEnvironment(environment);
+    }
+
+    /**
+     * Tunes Hikari pools once their {@code hikari.*} properties are bound, so that explicit
+     * settings can be told apart from defaults.
+     */
+    @Bean
+    public static BeanPostProcessor hikariTuningPostProcessor(Environment environment) {
+        JdbcPerformanceTuning tuning = fromEnvironment(environment);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    String prefix = REPLICA_POOL_BEAN.equals(beanName) ? REPLICA_POOL_PREFIX : PRIMARY_POOL_PREFIX;
+                    boolean sizeConfigured = Binder.get(environment)
+                            .bind(prefix + ".maximum-pool-size", Integer.class)
+                            .isBound();
+                    tuning.tune(dataSource, sizeConfigured);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer(JdbcPerformanceTuning jdbcPerformanceTuning) {
+        return jdbcPerformanceTuning::customize;
+    }
+
+    @Bean
+    public MeterFilter hikariHistogramMeterFilter() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getName().equals("hikaricp.connections.acquire") || id.getName().equals("hikaricp.connections.usage")) {
+                    return DistributionStatisticConfig.builder()
+                            .percentilesHistogram(true)
+                            .build()
+                            .merge(config);
+                }
+                return config;
+            }
+        };
+    }
+
+    private static JdbcPerformanceTuning fromEnvironment(Environment environment) {
+        return new JdbcPerformanceTuning(
+                environment.getProperty("bankingsystem.datasource.tuning.pool-size", Integer.class, 0),
+                environment.getProperty("bankingsystem.datasource.tuning.prepare-threshold", Integer.class, 1),
+                environment.getProperty("bankingsystem.datasource.tuning.statement-cache-queries", Integer.class, 256),
+                environment.getProperty("bankingsystem.datasource.tuning.statement-cache-size-mib", Integer.class, 5),
+                environment.getProperty("bankingsystem.datasource.tuning.batch-size", Integer.class, 50));
+    }
+}
@@ -0,0 +1,83 @@
+package com.bankingsystem.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.Map;
+
+/**
+ * Pool, driver and Hibernate settings shared by every service that owns a schema.
+ * <ul>
+ *   <li>Pool size: {@code 2 * cores + 1} unless set explicitly. The pool only needs enough
+ *   connections to keep the database busy; more of them just queue inside PostgreSQL instead of
+ *   inside the pool, where the wait is at least measured.</li>
+ *   <li>PostgreSQL server-side prepared statements from the first execution, with a per-connection
+ *   statement cache, so the fixed set of queries Hibernate issues is parsed and planned once per
+ *   connection. Batched inserts are rewritten into multi-row inserts.</li>
+ *   <li>Hibernate JDBC batching, with inserts and updates ordered by entity so consecutive
+ *   statements can share a batch. Entities with identity ids are still inserted one by one.</li>
+ * </ul>
+ * Settings the service configures itself are left alone.
+ */
+public class JdbcPerformanceTuning {
+
+    private final int poolSize;
+    private final int prepareThreshold;
+    private final int statementCacheQueries;
+    private final int statementCacheSizeMib;
+    private final int batchSize;
+
+    /**
+     * @param poolSize maximum pool size, or 0 for {@link #defaultPoolSize()}
+     */
+    public JdbcPerformanceTuning(int poolSize, int prepareThreshold, int statementCacheQueries,
+                                 int statementCacheSizeMib, int batchSize) {
+        this.poolSize = poolSize > 0 ? poolSize : defaultPoolSize();
+        this.prepareThreshold = prepareThreshold;
+        this.statementCacheQueries = statementCacheQueries;
+        this.statementCacheSizeMib = statementCacheSizeMib;
+        this.batchSize = batchSize;
+    }
+
+    public static int defaultPoolSize() {
+        return 2 * Runtime.getRuntime().availableProcessors() + 1;
+    }
+
+    /**
+     * Size the pool and, for PostgreSQL, set the statement caching and batching driver properties
+     * that are not already set. Must be called before the pool is first used.
+     *
+     * @param sizeConfigured whether the service set the maximum pool size itself
+     */
+    public void tune(HikariDataSource dataSource, boolean sizeConfigured) {
+        if (!sizeConfigured) {
+            dataSource.setMaximumPoolSize(poolSize);
+        }
+        String url = dataSource.getJdbcUrl();
+        if (url != null && url.startsWith("jdbc:postgresql:")) {
+            setIfAbsent(dataSource, "prepareThreshold", prepareThreshold);
+            setIfAbsent(dataSource, "preparedStatementCacheQueries", statementCacheQueries);
+            setIfAbsent(dataSource, "preparedStatementCacheSizeMiB", statementCacheSizeMib);
+            setIfAbsent(dataSource, "reWriteBatchedInserts", true);
+        }
+    }
+
+    /**
+     * Add the batching settings to Hibernate's properties unless they are already present.
+     */
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+        hibernateProperties.putIfAbsent("hibernate.order_inserts", true);
+        hibernateProperties.putIfAbsent("hibernate.order_updates", true);
+        hibernateProperties.putIfAbsent("hibernate.jdbc.batch_versioned_data", true);
+    }
+
+    public int poolSize() {
+        return poolSize;
+    }
+
+    private static void setIfAbsent(HikariDataSource dataSource, String name, Object value) {
+        if (!dataSource.getDataSourceProperties().containsKey(name)) {
+            dataSource.addDataSourceProperty(name, value);
+        }
+    }
+}
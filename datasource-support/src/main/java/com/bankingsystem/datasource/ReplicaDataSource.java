@@ -0,0 +1,60 @@
+package com.bankingsystem.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Connections for read-only transactions: from the replica while {@link ReplicaLagMonitor} reports
+ * it available, otherwise, and whenever connecting to it fails, from the primary.
+ * <p>
+ * Connections are counted as {@code datasource.read_only.connections} tagged with the pool they
+ * came from, fallbacks as {@code datasource.replica.fallbacks} tagged with the reason.
+ */
+public class ReplicaDataSource extends DelegatingDataSource {
+
+    private final DataSource primary;
+    private final ReplicaLagMonitor monitor;
+    private final Counter fromReplica;
+    private final Counter fromPrimary;
+    private final Counter lagging;
+    private final Counter unreachable;
+
+    public ReplicaDataSource(DataSource replica, DataSource primary, ReplicaLagMonitor monitor, MeterRegistry meterRegistry) {
+        super(replica);
+        this.primary = primary;
+        this.monitor = monitor;
+        fromReplica = Counter.builder("datasource.read_only.connections").tag("target", "replica").register(meterRegistry);
+        fromPrimary = Counter.builder("datasource.read_only.connections").tag("target", "primary").register(meterRegistry);
+        lagging = Counter.builder("datasource.replica.fallbacks").tag("reason", "lagging").register(meterRegistry);
+        unreachable = Counter.builder("datasource.replica.fallbacks").tag("reason", "unreachable").register(meterRegistry);
+        Gauge.builder("datasource.replica.lag", monitor, ReplicaLagMonitor::lagMillis)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.available", monitor, m -> m.isAvailable() ? 1 : 0).register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        ReplicaLagMonitor.Status status = monitor.status();
+        if (status == ReplicaLagMonitor.Status.AVAILABLE) {
+            try {
+                Connection connection = obtainTargetDataSource().getConnection();
+                fromReplica.increment();
+                return connection;
+            } catch (SQLException e) {
+                monitor.markUnreachable(e);
+                status = ReplicaLagMonitor.Status.UNREACHABLE;
+            }
+        }
+        (status == ReplicaLagMonitor.Status.LAGGING ? lagging : unreachable).increment();
+        Connection connection = primary.getConnection();
+        fromPrimary.increment();
+        return connection;
+    }
+}
@@ -0,0 +1,132 @@
+package com.bankingsystem.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Periodically asks the replica how far it is behind the primary and decides whether read-only
+ * transactions may use it.
+ * <p>
+ * The replica is usable while its last check succeeded, reported a lag of at most
+ * {@code maxLagMs}, and is no older than three check intervals, so a hung check cannot keep a
+ * lagging replica in use. Until the first check has succeeded the replica is treated as
+ * unreachable. Checks run on a single daemon thread; {@link #check()} may also be called directly.
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    /**
+     * Replay lag of a PostgreSQL standby in milliseconds. A standby that has replayed everything
+     * it received is not lagging, however long ago its last transaction was.
+     */
+    public static final String POSTGRES_LAG_QUERY = "select case"
+            + " when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0"
+            + " else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, 0) end";
+
+    public enum Status { AVAILABLE, LAGGING, UNREACHABLE }
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private final long checkIntervalMs;
+    private LongSupplier clock = System::currentTimeMillis;
+    private ScheduledExecutorService scheduler;
+
+    private volatile Status status = Status.UNREACHABLE;
+    private volatile long lagMs = -1;
+    private volatile long checkedAt;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagMs, long checkIntervalMs) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+        this.checkIntervalMs = checkIntervalMs;
+    }
+
+    /**
+     * Start checking in the background. The first check runs straight away but does not block,
+     * so an unreachable replica cannot hold up startup.
+     */
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ReplicaLagMonitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, 0, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Measure the replica's lag now and update its status.
+     */
+    public void check() {
+        Status previous = status;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(checkIntervalMs)));
+            try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                resultSet.next();
+                long lag = Math.round(resultSet.getDouble(1));
+                lagMs = lag;
+                status = lag <= maxLagMs ? Status.AVAILABLE : Status.LAGGING;
+            }
+        } catch (SQLException | RuntimeException e) {
+            lagMs = -1;
+            status = Status.UNREACHABLE;
+            if (previous != Status.UNREACHABLE) {
+                logger.warn("Replica unreachable, read-only transactions use the primary: {}", e.getMessage());
+            }
+        }
+        checkedAt = clock.getAsLong();
+        if (previous != status && status != Status.UNREACHABLE) {
+            logger.info("Replica is {} with a lag of {} ms", status, lagMs);
+        }
+    }
+
+    /**
+     * Record that a connection to the replica just failed, so reads stay on the primary until the
+     * next successful check.
+     */
+    public void markUnreachable(SQLException cause) {
+        if (status != Status.UNREACHABLE) {
+            logger.warn("Replica connection failed, read-only transactions use the primary: {}", cause.getMessage());
+        }
+        status = Status.UNREACHABLE;
+    }
+
+    public Status status() {
+        if (status == Status.AVAILABLE && clock.getAsLong() - checkedAt > 3 * checkIntervalMs) {
+            return Status.LAGGING;
+        }
+        return status;
+    }
+
+    public boolean isAvailable() {
+        return status() == Status.AVAILABLE;
+    }
+
+    /**
+     * @return the lag measured by the last check in milliseconds, or -1 if it failed
+     */
+    public long lagMillis() {
+        return lagMs;
+    }
+}
@@ -0,0 +1,93 @@
+package com.bankingsystem.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Sends read-only transactions to a replica when {@code bankingsystem.datasource.replica.url} is
+ * set to a non-empty value.
+ * <p>
+ * The application's {@link DataSource} becomes a {@link LazyConnectionDataSourceProxy} over the
+ * {@code spring.datasource} pool. It only fetches a physical connection at the first statement,
+ * after the transaction manager has marked the connection read-only, and takes read-only
+ * connections from {@link ReplicaDataSource}. Everything else, including work outside a
+ * transaction, uses the primary.
+ */
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnExpression("!'${bankingsystem.datasource.replica.url:}'.isEmpty()")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReplicaRoutingAutoConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("bankingsystem.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${bankingsystem.datasource.replica.url}") String url,
+            @Value("${bankingsystem.datasource.replica.username:}") String username,
+            @Value("${bankingsystem.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create(properties.getClassLoader())
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username.isEmpty() ? properties.determineUsername() : username)
+                .password(password.isEmpty() ? properties.determinePassword() : password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        // Fail over to the primary quickly if the replica goes away between two lag checks
+        dataSource.setConnectionTimeout(2000);
+        return dataSource;
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            @Value("${bankingsystem.datasource.replica.lag-query:" + ReplicaLagMonitor.POSTGRES_LAG_QUERY + "}") String lagQuery,
+            @Value("${bankingsystem.datasource.replica.max-lag-ms:1000}") long maxLagMs,
+            @Value("${bankingsystem.datasource.replica.check-interval-ms:1000}") long checkIntervalMs) {
+        return new ReplicaLagMonitor(replicaDataSource, lagQuery, maxLagMs, checkIntervalMs);
+    }
+
+    @Bean
+    @Primary
+    public LazyConnectionDataSourceProxy dataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaDataSource") DataSource replicaDataSource,
+            ReplicaLagMonitor replicaLagMonitor,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy();
+        dataSource.setTargetDataSource(primaryDataSource);
+        dataSource.setReadOnlyDataSource(new ReplicaDataSource(replicaDataSource, primaryDataSource,
+                replicaLagMonitor, meterRegistry.getIfAvailable(SimpleMeterRegistry::new)));
+        // Known up front, so creating the proxy does not have to open a connection to find out
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+}
@@ -0,0 +1,134 @@
+package com.bankingsystem.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcPerformanceAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(JdbcPerformanceAutoConfiguration.class,
+                    ReplicaRoutingAutoConfiguration.class, DataSourceAutoConfiguration.class))
+            .withPropertyValues("spring.datasource.url=jdbc:h2:mem:" + UUID.randomUUID());
+
+    @Test
+    void pool_withoutExplicitSize_shouldBeSizedFromCoreCount() {
+        contextRunner.run(context -> {
+            HikariDataSource dataSource = context.getBean(HikariDataSource.class);
+            assertEquals(2 * Runtime.getRuntime().availableProcessors() + 1, dataSource.getMaximumPoolSize());
+        });
+    }
+
+    @Test
+    void pool_withExplicitSize_shouldKeepIt() {
+        contextRunner
+                .withPropertyValues("spring.datasource.hikari.maximumPoolSize=7")
+                .run(context -> assertEquals(7, context.getBean(HikariDataSource.class).getMaximumPoolSize()));
+    }
+
+    @Test
+    void replicaPool_shouldBeSizedFromItsOwnProperties() {
+        contextRunner
+                .withPropertyValues(
+                        "bankingsystem.datasource.replica.url=jdbc:h2:mem:" + UUID.randomUUID(),
+                        "bankingsystem.datasource.replica.hikari.maximum-pool-size=3",
+                        "bankingsystem.datasource.replica.check-interval-ms=60000")
+                .run(context -> {
+                    assertEquals(3, context.getBean("replicaDataSource", HikariDataSource.class).getMaximumPoolSize());
+                    assertEquals(JdbcPerformanceTuning.defaultPoolSize(),
+                            context.getBean("primaryDataSource", HikariDataSource.class).getMaximumPoolSize());
+                });
+    }
+
+    @Test
+    void disabled_shouldLeavePoolAndHibernateAlone() {
+        contextRunner
+                .withPropertyValues("bankingsystem.datasource.tuning.enabled=false")
+                .run(context -> {
+                    assertNotEquals(JdbcPerformanceTuning.defaultPoolSize(),
+                            ((HikariDataSource) context.getBean(DataSource.class)).getMaximumPoolSize());
+                    assertTrue(context.getBeansOfType(HibernatePropertiesCustomizer.class).isEmpty());
+                });
+    }
+
+    @Test
+    void hibernateCustomizer_shouldEnableOrderedBatchingWithoutOverridingServiceSettings() {
+        contextRunner
+                .withPropertyValues("bankingsystem.datasource.tuning.batch-size=25")
+                .run(context -> {
+                    // Arrange
+                    Map<String, Object> properties = new HashMap<>();
+                    properties.put("hibernate.order_updates", false);
+
+                    // Act
+                    context.getBean(HibernatePropertiesCustomizer.class).customize(properties);
+
+                    // Assert
+                    assertEquals(25, properties.get("hibernate.jdbc.batch_size"));
+                    assertEquals(true, properties.get("hibernate.order_inserts"));
+                    assertEquals(false, properties.get("hibernate.order_updates"));
+                    assertEquals(true, properties.get("hibernate.jdbc.batch_versioned_data"));
+                });
+    }
+
+    @Test
+    void tune_withPostgresUrl_shouldEnableServerSidePreparedStatements() {
+        // Arrange
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:postgresql://localhost:5432/bankdb");
+        dataSource.addDataSourceProperty("preparedStatementCacheQueries", 64);
+
+        // Act
+        new JdbcPerformanceTuning(0, 1, 256, 5, 50).tune(dataSource, false);
+
+        // Assert
+        assertEquals(1, dataSource.getDataSourceProperties().get("prepareThreshold"));
+        assertEquals(64, dataSource.getDataSourceProperties().get("preparedStatementCacheQueries"));
+        assertEquals(5, dataSource.getDataSourceProperties().get("preparedStatementCacheSizeMiB"));
+        assertEquals(true, dataSource.getDataSourceProperties().get("reWriteBatchedInserts"));
+    }
+
+    @Test
+    void tune_withOtherDatabase_shouldOnlySizeThePool() {
+        // Arrange
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:other");
+
+        // Act
+        new JdbcPerformanceTuning(4, 1, 256, 5, 50).tune(dataSource, false);
+
+        // Assert
+        assertEquals(4, dataSource.getMaximumPoolSize());
+        assertTrue(dataSource.getDataSourceProperties().isEmpty());
+    }
+
+    @Test
+    void meterFilter_shouldPublishHistogramsForConnectionWaitAndUsage() {
+        contextRunner.run(context -> {
+            MeterFilter filter = context.getBean(MeterFilter.class);
+
+            assertTrue(histogram(filter, "hikaricp.connections.acquire"));
+            assertTrue(histogram(filter, "hikaricp.connections.usage"));
+            assertFalse(histogram(filter, "hikaricp.connections.creation"));
+        });
+    }
+
+    private static boolean histogram(MeterFilter filter, String name) {
+        Meter.Id id = new Meter.Id(name, Tags.of("pool", "primary"), null, null, Meter.Type.TIMER);
+        return Boolean.TRUE.equals(filter.configure(id, DistributionStatisticConfig.NONE).isPercentileHistogram());
+    }
+}
@@ -0,0 +1,162 @@
+package com.bankingsystem.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two in-memory H2 databases stand in for a PostgreSQL primary and its replica. Each holds a row
+ * naming itself, and the replica's lag is read from a table the test controls.
+ */
+class ReplicaRoutingAutoConfigurationTest {
+
+    private String primaryUrl;
+    private String replicaUrl;
+    private ApplicationContextRunner contextRunner;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        String suffix = UUID.randomUUID().toString();
+        primaryUrl = "jdbc:h2:mem:primary-" + suffix + ";DB_CLOSE_DELAY=-1";
+        replicaUrl = "jdbc:h2:mem:replica-" + suffix + ";DB_CLOSE_DELAY=-1";
+        execute(primaryUrl, "create table node (name varchar(16))", "insert into node values ('primary')");
+        execute(replicaUrl, "create table node (name varchar(16))", "insert into node values ('replica')",
+                "create table replica_status (lag_ms bigint)", "insert into replica_status values (0)");
+
+        contextRunner = new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ReplicaRoutingAutoConfiguration.class,
+                        DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+                        JdbcTemplateAutoConfiguration.class))
+                .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withPropertyValues(
+                        "spring.datasource.url=" + primaryUrl,
+                        "spring.datasource.username=sa",
+                        "bankingsystem.datasource.replica.url=" + replicaUrl,
+                        "bankingsystem.datasource.replica.lag-query=select lag_ms from replica_status",
+                        "bankingsystem.datasource.replica.max-lag-ms=1000",
+                        "bankingsystem.datasource.replica.check-interval-ms=60000");
+    }
+
+    @Test
+    void withoutReplicaUrl_shouldLeaveDataSourceAlone() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(ReplicaRoutingAutoConfiguration.class, DataSourceAutoConfiguration.class))
+                .withPropertyValues("spring.datasource.url=" + primaryUrl, "bankingsystem.datasource.replica.url=")
+                .run(context -> {
+                    assertInstanceOf(HikariDataSource.class, context.getBean(DataSource.class));
+                    assertFalse(context.containsBean("replicaLagMonitor"));
+                });
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUseReplica_andEverythingElseThePrimary() {
+        contextRunner.run(context -> {
+            // Arrange
+            assertInstanceOf(LazyConnectionDataSourceProxy.class, context.getBean(DataSource.class));
+            context.getBean(ReplicaLagMonitor.class).check();
+
+            // Act & Assert
+            assertEquals("replica", readNode(context, true));
+            assertEquals("primary", readNode(context, false));
+            assertEquals("primary", context.getBean(JdbcTemplate.class).queryForObject("select name from node", String.class));
+            assertEquals(1.0, connections(context, "replica"));
+        });
+    }
+
+    @Test
+    void readOnlyTransaction_whenReplicaLagsTooFarBehind_shouldUsePrimaryUntilItCatchesUp() {
+        contextRunner.run(context -> {
+            // Arrange
+            ReplicaLagMonitor monitor = context.getBean(ReplicaLagMonitor.class);
+            execute(replicaUrl, "update replica_status set lag_ms = 5000");
+            monitor.check();
+
+            // Act & Assert
+            assertEquals(ReplicaLagMonitor.Status.LAGGING, monitor.status());
+            assertEquals(5000, monitor.lagMillis());
+            assertEquals("primary", readNode(context, true));
+            assertEquals(1.0, context.getBean(MeterRegistry.class)
+                    .counter("datasource.replica.fallbacks", "reason", "lagging").count());
+
+            // Act: the replica catches up
+            execute(replicaUrl, "update replica_status set lag_ms = 20");
+            monitor.check();
+
+            // Assert
+            assertEquals("replica", readNode(context, true));
+        });
+    }
+
+    @Test
+    void readOnlyTransaction_whenLagCannotBeMeasured_shouldUsePrimary() {
+        contextRunner.run(context -> {
+            // Arrange
+            ReplicaLagMonitor monitor = context.getBean(ReplicaLagMonitor.class);
+            execute(replicaUrl, "drop table replica_status");
+            monitor.check();
+
+            // Act & Assert
+            assertEquals(ReplicaLagMonitor.Status.UNREACHABLE, monitor.status());
+            assertEquals(-1, monitor.lagMillis());
+            assertEquals("primary", readNode(context, true));
+        });
+    }
+
+    @Test
+    void readOnlyTransaction_whenReplicaConnectionFails_shouldFallBackToPrimary() {
+        contextRunner.run(context -> {
+            // Arrange
+            ReplicaLagMonitor monitor = context.getBean(ReplicaLagMonitor.class);
+            monitor.check();
+            context.getBean("replicaDataSource", HikariDataSource.class).close();
+
+            // Act & Assert: the failed connection is not surfaced, and later reads skip the replica
+            assertEquals("primary", readNode(context, true));
+            assertEquals(ReplicaLagMonitor.Status.UNREACHABLE, monitor.status());
+            assertEquals("primary", readNode(context, true));
+            assertEquals(2.0, context.getBean(MeterRegistry.class)
+                    .counter("datasource.replica.fallbacks", "reason", "unreachable").count());
+        });
+    }
+
+    private static String readNode(ApplicationContext context, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                context.getBean(JdbcTemplate.class).queryForObject("select name from node", String.class));
+    }
+
+    private static double connections(ApplicationContext context, String target) {
+        return context.getBean(MeterRegistry.class).counter("datasource.read_only.connections", "target", target).count();
+    }
+
+    private static void execute(String url, String... statements) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.bankingsystem.identity;
+
+import java.util.List;
+
+/**
+ * Caller authenticated by the API gateway, as carried in the identity header.
+ *
+ * @param username  subject of the caller's access token
+ * @param roles     authorities granted to the caller, e.g. {@code ROLE_USER}
+ * @param issuedAt  epoch second the access token was issued, or 0 if it carried none; services
+ *                  that track revocations check it as they would the token's own {@code iat}
+ * @param expiresAt epoch second after which the header is no longer accepted
+ */
+public record AuthenticatedIdentity(String username, List<String> roles, long issuedAt, long expiresAt) {
+
+    public boolean hasRole(String role) {
+        return roles.contains(role) || roles.contains("ROLE_" + role);
+    }
+}
@@ -0,0 +1,44 @@
+package com.bankingsystem.identity;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.Base64;
+
+/**
+ * Creates the {@link IdentityHeaderCodec} from {@code bankingsystem.identity.secret} (base64) and,
+ * in servlet services, registers {@link IdentityHeaderFilter} ahead of Spring Security.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "bankingsystem.identity", name = "secret")
+public class IdentityHeaderAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public IdentityHeaderCodec identityHeaderCodec(@Value("${bankingsystem.identity.secret}") String secret) {
+        return new IdentityHeaderCodec(Base64.getDecoder().decode(secret));
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class ServletConfiguration {
+
+        @Bean
+        public FilterRegistrationBean<IdentityHeaderFilter> identityHeaderFilter(
+                IdentityHeaderCodec identityHeaderCodec,
+                @Value("${bankingsystem.identity.required:false}") boolean required) {
+            FilterRegistrationBean<IdentityHeaderFilter> registration =
+                    new FilterRegistrationBean<>(new IdentityHeaderFilter(identityHeaderCodec, required));
+            // Spring Security's filter chain runs at -100
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+            return registration;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.bankingsystem.identity;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Signs and verifies the identity header the API gateway attaches once it has validated a JWT.
+ * <p>
+ * The header is {@code v2.<payload>.<mac>}: a base64url payload holding the username, roles,
+ * token issue time and expiry, and an HMAC-SHA256 of it under a secret shared by the gateway and the services behind
+ * it. Verifying costs one HMAC over a few dozen bytes instead of a full JWT parse. The gateway
+ * strips any incoming copy of the header, so only it can produce one that verifies.
+ */
+public class IdentityHeaderCodec {
+
+    public static final String HEADER = "X-Authenticated-Identity";
+
+    private static final String VERSION = "v2";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> mac;
+    private final Clock clock;
+
+    public IdentityHeaderCodec(byte[] secret) {
+        this(secret, Clock.systemUTC());
+    }
+
+    IdentityHeaderCodec(byte[] secret, Clock clock) {
+        if (secret == null || secret.length < 32) {
+            throw new IllegalArgumentException("Identity header secret must be at least 256 bits");
+        }
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.clock = clock;
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+            }
+        });
+    }
+
+    public String encode(AuthenticatedIdentity identity) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(identity.username());
+            out.writeShort(identity.roles().size());
+            for (String role : identity.roles()) {
+                out.writeUTF(role);
+            }
+            out.writeLong(identity.issuedAt());
+            out.writeLong(identity.expiresAt());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot encode identity of " + identity.username(), e);
+        }
+        String payload = ENCODER.encodeToString(bytes.toByteArray());
+        return VERSION + "." + payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * @return the identity, or null if the header is malformed, wrongly signed or expired
+     */
+    public AuthenticatedIdentity decode(String header) {
+        if (header == null || !header.startsWith(VERSION + ".")) {
+            return null;
+        }
+        int macStart = header.lastIndexOf('.');
+        if (macStart <= VERSION.length()) {
+            return null;
+        }
+        String payload = header.substring(VERSION.length() + 1, macStart);
+        try {
+            byte[] expected = sign(payload);
+            byte[] actual = DECODER.decode(header.substring(macStart + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return null;
+            }
+            AuthenticatedIdentity identity = read(DECODER.decode(payload));
+            return identity.expiresAt() > clock.instant().getEpochSecond() ? identity : null;
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String payload) {
+        return mac.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static AuthenticatedIdentity read(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            String username = in.readUTF();
+            int roleCount = in.readUnsignedShort();
+            List<String> roles = new ArrayList<>(roleCount);
+            for (int i = 0; i < roleCount; i++) {
+                roles.add(in.readUTF());
+            }
+            long issuedAt = in.readLong();
+            return new AuthenticatedIdentity(username, List.copyOf(roles), issuedAt, in.readLong());
+        }
+    }
+}
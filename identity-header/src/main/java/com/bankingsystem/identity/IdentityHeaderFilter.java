@@ -0,0 +1,81 @@
+package com.bankingsystem.identity;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+
+/**
+ * Trusts the gateway's identity header in servlet services: a valid header becomes the request's
+ * principal and the {@link #IDENTITY_ATTRIBUTE} attribute, an invalid one is rejected with 401,
+ * and a missing one is rejected only when {@code required}.
+ */
+public class IdentityHeaderFilter extends OncePerRequestFilter {
+
+    public static final String IDENTITY_ATTRIBUTE = AuthenticatedIdentity.class.getName();
+
+    private final IdentityHeaderCodec codec;
+    private final boolean required;
+
+    public IdentityHeaderFilter(IdentityHeaderCodec codec, boolean required) {
+        this.codec = codec;
+        this.required = required;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(IdentityHeaderCodec.HEADER);
+        if (header == null) {
+            if (required) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Missing identity");
+                return;
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        AuthenticatedIdentity identity = codec.decode(header);
+        if (identity == null) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid identity");
+            return;
+        }
+        request.setAttribute(IDENTITY_ATTRIBUTE, identity);
+        filterChain.doFilter(new IdentifiedRequest(request, identity), response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Health checks and metrics are scraped directly, not through the gateway
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    private static final class IdentifiedRequest extends HttpServletRequestWrapper {
+        private final AuthenticatedIdentity identity;
+
+        private IdentifiedRequest(HttpServletRequest request, AuthenticatedIdentity identity) {
+            super(request);
+            this.identity = identity;
+        }
+
+        @Override
+        public String getRemoteUser() {
+            return identity.username();
+        }
+
+        @Override
+        public Principal getUserPrincipal() {
+            return identity::username;
+        }
+
+        @Override
+        public boolean isUserInRole(String role) {
+            return identity.hasRole(role);
+        }
+    }
+}
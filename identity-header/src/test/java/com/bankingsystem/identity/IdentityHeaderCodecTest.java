@@ -0,0 +1,53 @@
+package com.bankingsystem.identity;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdentityHeaderCodecTest {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final Instant NOW = Instant.parse("2024-06-15T12:00:00Z");
+
+    private final IdentityHeaderCodec codec = new IdentityHeaderCodec(SECRET, Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void decode_shouldReturnEncodedIdentity() {
+        AuthenticatedIdentity identity = new AuthenticatedIdentity("zoë", List.of("ROLE_USER", "ROLE_ADMIN"),
+                NOW.getEpochSecond() - 600, NOW.getEpochSecond() + 60);
+
+        AuthenticatedIdentity decoded = codec.decode(codec.encode(identity));
+
+        assertEquals(identity, decoded);
+        assertTrue(decoded.hasRole("ADMIN"));
+        assertFalse(decoded.hasRole("AUDITOR"));
+    }
+
+    @Test
+    void decode_shouldRejectExpiredTamperedAndForeignHeaders() {
+        String header = codec.encode(new AuthenticatedIdentity("alice", List.of("ROLE_USER"), 0, NOW.getEpochSecond() + 60));
+        String expired = codec.encode(new AuthenticatedIdentity("alice", List.of("ROLE_USER"), 0, NOW.getEpochSecond()));
+        String escalated = codec.encode(new AuthenticatedIdentity("alice", List.of("ROLE_ADMIN"), 0, NOW.getEpochSecond() + 60));
+        String forged = header.substring(0, header.lastIndexOf('.')) + escalated.substring(escalated.lastIndexOf('.'));
+        IdentityHeaderCodec otherSecret = new IdentityHeaderCodec(
+                "fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.US_ASCII), Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertNull(codec.decode(expired));
+        assertNull(codec.decode(forged));
+        assertNull(otherSecret.decode(header));
+        assertNull(codec.decode("v2.not-base64!.abc"));
+        assertNull(codec.decode("Bearer something"));
+        assertNull(codec.decode(null));
+    }
+
+    @Test
+    void constructor_shouldRejectShortSecrets() {
+        assertThrows(IllegalArgumentException.class, () -> new IdentityHeaderCodec(new byte[16]));
+    }
+}
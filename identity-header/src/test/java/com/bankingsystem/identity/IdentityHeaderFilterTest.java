@@ -0,0 +1,73 @@
+package com.bankingsystem.identity;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdentityHeaderFilterTest {
+
+    private final IdentityHeaderCodec codec =
+            new IdentityHeaderCodec("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.US_ASCII));
+
+    @Test
+    void doFilter_withValidHeader_shouldExposeIdentityAsPrincipal() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts/1");
+        request.addHeader(IdentityHeaderCodec.HEADER, codec.encode(new AuthenticatedIdentity("alice",
+                List.of("ROLE_USER"), 0, System.currentTimeMillis() / 1000 + 60)));
+        MockFilterChain chain = new MockFilterChain();
+
+        new IdentityHeaderFilter(codec, true).doFilter(request, new MockHttpServletResponse(), chain);
+
+        HttpServletRequest forwarded = (HttpServletRequest) chain.getRequest();
+        assertEquals("alice", forwarded.getUserPrincipal().getName());
+        assertTrue(forwarded.isUserInRole("USER"));
+        assertEquals("alice", ((AuthenticatedIdentity) request.getAttribute(IdentityHeaderFilter.IDENTITY_ATTRIBUTE)).username());
+    }
+
+    @Test
+    void doFilter_withInvalidHeader_shouldRespondUnauthorized() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts/1");
+        request.addHeader(IdentityHeaderCodec.HEADER, "v2.forged.header");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        new IdentityHeaderFilter(codec, false).doFilter(request, response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void doFilter_withoutHeader_shouldRejectOnlyWhenRequired() throws Exception {
+        MockHttpServletResponse optionalResponse = new MockHttpServletResponse();
+        MockFilterChain optionalChain = new MockFilterChain();
+        new IdentityHeaderFilter(codec, false).doFilter(new MockHttpServletRequest("GET", "/api/accounts/1"),
+                optionalResponse, optionalChain);
+
+        MockHttpServletResponse requiredResponse = new MockHttpServletResponse();
+        new IdentityHeaderFilter(codec, true).doFilter(new MockHttpServletRequest("GET", "/api/accounts/1"),
+                requiredResponse, new MockFilterChain());
+
+        assertNotNull(optionalChain.getRequest());
+        assertEquals(200, optionalResponse.getStatus());
+        assertEquals(401, requiredResponse.getStatus());
+    }
+
+    @Test
+    void doFilter_shouldNotGuardActuatorEndpoints() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+        request.setRequestURI("/actuator/health");
+        MockFilterChain chain = new MockFilterChain();
+
+        new IdentityHeaderFilter(codec, true).doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+    }
+}
@@ -1,9 +1,10 @@
 package com.bankingsystem.notificationservice.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
 
@@ -11,14 +12,18 @@ import java.util.concurrent.Executor;
 @EnableScheduling
 public class AsyncConfig {
 
-    @Bean(name = "taskExecutor")
-    public Executor taskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(5);
-        executor.setMaxPoolSize(10);
-        executor.setQueueCapacity(25);
-        executor.setThreadNamePrefix("Notification-");
-        executor.initialize();
-        return executor;
+    @Value("${bankingsystem.notification.executor.send-pool-size:10}")
+    private int sendPoolSize;
+
+    @Value("${bankingsystem.notification.executor.send-queue-capacity:100}")
+    private int sendQueueCapacity;
+
+    /**
+     * Runs the {@code @Async} provider sends, urgent alerts ahead of everything else.
+     */
+    @Bean(name = "taskExecutor", destroyMethod = "shutdown")
+    public Executor taskExecutor(MeterRegistry meterRegistry) {
+        return new PriorityThreadPoolExecutor("Notification-", sendPoolSize, sendQueueCapacity,
+                meterRegistry, true);
     }
 }
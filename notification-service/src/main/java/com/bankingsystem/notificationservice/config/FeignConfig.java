@@ -0,0 +1,13 @@
+package com.bankingsystem.notificationservice.config;
+
+import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Kept off the application class so test slices such as {@code @DataJpaTest} do not register the
+ * Feign clients.
+ */
+@Configuration
+@EnableFeignClients(basePackages = "com.bankingsystem.notificationservice")
+public class FeignConfig {
+}
@@ -0,0 +1,25 @@
+package com.bankingsystem.notificationservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Topics this service is the first reader of; the shared event topics belong to their producers.
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    /**
+     * Security alerts, read by a listener container of their own so they never queue behind the
+     * shared topics.
+     */
+    @Bean
+    public NewTopic securityEventsTopic() {
+        return TopicBuilder.name("security-events")
+                .partitions(1)
+                .replicas(1)
+                .build();
+    }
+}
@@ -0,0 +1,162 @@
+package com.bankingsystem.notificationservice.config;
+
+import com.bankingsystem.notificationservice.model.NotificationPriority;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size thread pool whose queue is ordered by {@link NotificationPriority}, FIFO within a lane.
+ * <p>
+ * The priority of a task is taken from the dispatch context of the submitting thread, so work
+ * spawned while handling an urgent event (e.g. {@code @Async} email sends) stays in the urgent
+ * lane. Once the queue holds {@code queueCapacity} tasks, non-urgent work runs on the caller
+ * thread instead, which pushes back on the Kafka listener; urgent work is always queued.
+ */
+public class PriorityThreadPoolExecutor extends ThreadPoolExecutor {
+
+    private static final ThreadLocal<DispatchContext> CURRENT_CONTEXT = new ThreadLocal<>();
+
+    private final int queueCapacity;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<NotificationPriority, Timer> queueWaitTimers = new EnumMap<>(NotificationPriority.class);
+    private final Map<NotificationPriority, Timer> timeToSendTimers = new EnumMap<>(NotificationPriority.class);
+
+    /**
+     * @param recordTimeToSend whether tasks on this pool complete a send, in which case the
+     *                         elapsed time since the originating event is recorded per priority
+     */
+    public PriorityThreadPoolExecutor(String threadNamePrefix, int poolSize, int queueCapacity,
+                                      MeterRegistry meterRegistry, boolean recordTimeToSend) {
+        super(poolSize, poolSize, 60L, TimeUnit.SECONDS, new PriorityBlockingQueue<>(),
+                new CustomizableThreadFactory(threadNamePrefix), new CallerRunsPolicy());
+        this.queueCapacity = queueCapacity;
+
+        String executorName = threadNamePrefix.replaceAll("-$", "").toLowerCase();
+        for (NotificationPriority priority : NotificationPriority.values()) {
+            queueWaitTimers.put(priority, Timer.builder("notification.queue.wait")
+                    .description("Time a notification task spent queued before a worker picked it up")
+                    .tag("executor", executorName)
+                    .tag("priority", priority.name())
+                    .register(meterRegistry));
+            if (recordTimeToSend) {
+                timeToSendTimers.put(priority, Timer.builder("notification.time-to-send")
+                        .description("Time from receiving an event to completing the provider send")
+                        .tag("priority", priority.name())
+                        .serviceLevelObjectives(Duration.ofMillis(500), Duration.ofSeconds(1),
+                                Duration.ofSeconds(5), Duration.ofSeconds(30))
+                        .register(meterRegistry));
+            }
+        }
+    }
+
+    /**
+     * Run {@code task} in the given lane, starting a new dispatch context at the current time.
+     */
+    public void execute(NotificationPriority priority, Runnable task) {
+        execute(new PrioritizedTask(new DispatchContext(priority, System.nanoTime()),
+                sequence.getAndIncrement(), task));
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        PrioritizedTask task = command instanceof PrioritizedTask prioritized
+                ? prioritized
+                : new PrioritizedTask(currentContext(), sequence.getAndIncrement(), command);
+
+        if (task.context.priority() != NotificationPriority.URGENT
+                && getQueue().size() >= queueCapacity && getActiveCount() >= getMaximumPoolSize()) {
+            getRejectedExecutionHandler().rejectedExecution(task, this);
+            return;
+        }
+        super.execute(task);
+    }
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable runnable) {
+        super.beforeExecute(thread, runnable);
+        PrioritizedTask task = (PrioritizedTask) runnable;
+        CURRENT_CONTEXT.set(task.context);
+        queueWaitTimers.get(task.context.priority())
+                .record(System.nanoTime() - task.enqueuedAtNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    protected void afterExecute(Runnable runnable, Throwable throwable) {
+        try {
+            DispatchContext context = ((PrioritizedTask) runnable).context;
+            Timer timer = timeToSendTimers.get(context.priority());
+            if (timer != null && throwable == null) {
+                timer.record(System.nanoTime() - context.receivedAtNanos(), TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            CURRENT_CONTEXT.remove();
+            super.afterExecute(runnable, throwable);
+        }
+    }
+
+    /**
+     * Run {@code task} on the calling thread in the given lane, so work it submits to a pool
+     * (e.g. {@code @Async} sends) is queued in that lane and timed from now.
+     */
+    public static void runInLane(NotificationPriority priority, Runnable task) {
+        DispatchContext previous = CURRENT_CONTEXT.get();
+        CURRENT_CONTEXT.set(new DispatchContext(priority, System.nanoTime()));
+        try {
+            task.run();
+        } finally {
+            if (previous != null) {
+                CURRENT_CONTEXT.set(previous);
+            } else {
+                CURRENT_CONTEXT.remove();
+            }
+        }
+    }
+
+    /**
+     * Priority lane of the task running on the current thread, {@code NORMAL} outside a pool.
+     */
+    public static NotificationPriority currentPriority() {
+        return currentContext().priority();
+    }
+
+    private static DispatchContext currentContext() {
+        DispatchContext context = CURRENT_CONTEXT.get();
+        return context != null ? context : new DispatchContext(NotificationPriority.NORMAL, System.nanoTime());
+    }
+
+    private record DispatchContext(NotificationPriority priority, long receivedAtNanos) {
+    }
+
+    private static final class PrioritizedTask implements Runnable, Comparable<PrioritizedTask> {
+        private final DispatchContext context;
+        private final long sequence;
+        private final long enqueuedAtNanos = System.nanoTime();
+        private final Runnable delegate;
+
+        private PrioritizedTask(DispatchContext context, long sequence, Runnable delegate) {
+            this.context = context;
+            this.sequence = sequence;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            delegate.run();
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask other) {
+            int byPriority = context.priority().compareTo(other.context.priority());
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.bankingsystem.notificationservice.controller;
+
+import com.bankingsystem.notificationservice.dto.DlqReplayRequest;
+import com.bankingsystem.notificationservice.dto.DlqReplayStatusDto;
+import com.bankingsystem.notificationservice.service.DlqReplayJob;
+import com.bankingsystem.notificationservice.service.DlqReplayService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/notifications/dlq/replays")
+public class DlqReplayController {
+
+    @Autowired
+    private DlqReplayService dlqReplayService;
+
+    @PostMapping
+    public ResponseEntity<DlqReplayStatusDto> startReplay(@Valid @RequestBody DlqReplayRequest request) {
+        DlqReplayJob job = dlqReplayService.startReplay(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.toStatusDto());
+    }
+
+    @GetMapping
+    public ResponseEntity<List<DlqReplayStatusDto>> getReplays() {
+        List<DlqReplayStatusDto> replays = dlqReplayService.getJobs().stream()
+                .map(DlqReplayJob::toStatusDto)
+                .toList();
+        return ResponseEntity.ok(replays);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<DlqReplayStatusDto> getReplay(@PathVariable String jobId) {
+        return dlqReplayService.getJob(jobId)
+                .map(job -> ResponseEntity.ok(job.toStatusDto()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{jobId}/cancel")
+    public ResponseEntity<Void> cancelReplay(@PathVariable String jobId) {
+        if (!dlqReplayService.cancelReplay(jobId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().build();
+    }
+}
@@ -1,5 +1,7 @@
 package com.bankingsystem.notificationservice.controller;
 
+import com.bankingsystem.notificationservice.dto.InboxSummaryDto;
+import com.bankingsystem.notificationservice.dto.NotificationInboxPage;
 import com.bankingsystem.notificationservice.dto.NotificationRequest;
 import com.bankingsystem.notificationservice.dto.NotificationResponseDto;
 import com.bankingsystem.notificationservice.model.NotificationType;
@@ -12,6 +14,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/notifications")
 public class NotificationController {
@@ -46,12 +50,49 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    @GetMapping("/user/{userId}/inbox")
+    public ResponseEntity<NotificationInboxPage> getInbox(
+            @PathVariable Long userId,
+            @RequestParam(required = false) NotificationType type,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            return ResponseEntity.ok(notificationService.getInbox(userId, type, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Cheap badge endpoint: unread count and latest headers without a paged query.
+     */
+    @GetMapping("/user/{userId}/summary")
+    public ResponseEntity<InboxSummaryDto> getInboxSummary(@PathVariable Long userId) {
+        return ResponseEntity.ok(notificationService.getInboxSummary(userId));
+    }
+
+    @PostMapping("/user/{userId}/read")
+    public ResponseEntity<Integer> markRead(@PathVariable Long userId, @RequestBody List<Long> notificationIds) {
+        return ResponseEntity.ok(notificationService.markRead(userId, notificationIds));
+    }
+
+    @PostMapping("/user/{userId}/read-all")
+    public ResponseEntity<Integer> markAllRead(@PathVariable Long userId) {
+        return ResponseEntity.ok(notificationService.markAllRead(userId));
+    }
+
     @PostMapping
     public ResponseEntity<NotificationResponseDto> createNotification(@Valid @RequestBody NotificationRequest request) {
         NotificationResponseDto notification = notificationService.createNotification(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(notification);
     }
     
+    @GetMapping("/dead-letter")
+    public ResponseEntity<Page<NotificationResponseDto>> getDeadLetteredNotifications(Pageable pageable) {
+        Page<NotificationResponseDto> notifications = notificationService.getDeadLetteredNotifications(pageable);
+        return ResponseEntity.ok(notifications);
+    }
+    
     @PostMapping("/resend-pending")
     public ResponseEntity<Void> resendPendingNotifications() {
         notificationService.sendPendingNotifications();
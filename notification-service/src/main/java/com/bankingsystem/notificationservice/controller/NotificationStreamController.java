@@ -0,0 +1,28 @@
+package com.bankingsystem.notificationservice.controller;
+
+import com.bankingsystem.notificationservice.service.NotificationStreamRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-sent event stream of new notifications, one long-lived connection per device. Events
+ * are named {@code notification} and carry the same body as the REST endpoints; clients should
+ * page the inbox after reconnecting to pick up anything missed while disconnected.
+ */
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationStreamController {
+
+    @Autowired
+    private NotificationStreamRegistry streamRegistry;
+
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable Long userId) {
+        return streamRegistry.subscribe(userId);
+    }
+}
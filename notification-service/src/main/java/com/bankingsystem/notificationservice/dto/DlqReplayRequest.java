@@ -0,0 +1,34 @@
+package com.bankingsystem.notificationservice.dto;
+
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DlqReplayRequest {
+    
+    // Event types to replay (e.g. "transaction-created"); empty means all
+    private Set<String> eventTypes;
+    
+    // Only replay records that failed within [from, to]; either bound may be omitted
+    private LocalDateTime from;
+    
+    private LocalDateTime to;
+    
+    @Positive(message = "Rate must be positive")
+    private Double maxRatePerSecond;
+    
+    // Publish to this topic instead of the one recorded on the dead-letter record
+    private String targetTopic;
+    
+    // Scan and count matching records without republishing them
+    private boolean dryRun;
+}
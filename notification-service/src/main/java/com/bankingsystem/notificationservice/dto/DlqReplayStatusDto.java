@@ -0,0 +1,27 @@
+package com.bankingsystem.notificationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DlqReplayStatusDto {
+    private String jobId;
+    private String state;
+    private boolean dryRun;
+    private long totalRecords;
+    private long scanned;
+    private long matched;
+    private long replayed;
+    private long failed;
+    private long unparseable;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String errorMessage;
+}
@@ -0,0 +1,21 @@
+package com.bankingsystem.notificationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboxSummaryDto {
+    private Long userId;
+    private long unreadCount;
+    /**
+     * Newest notifications first.
+     */
+    private List<NotificationHeaderDto> latest;
+}
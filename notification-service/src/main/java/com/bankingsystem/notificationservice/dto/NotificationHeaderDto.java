@@ -0,0 +1,24 @@
+package com.bankingsystem.notificationservice.dto;
+
+import com.bankingsystem.notificationservice.model.NotificationType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Just enough of a notification to render an inbox preview row.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationHeaderDto {
+    private Long id;
+    private String subject;
+    private NotificationType type;
+    private LocalDateTime createdAt;
+    private boolean read;
+}
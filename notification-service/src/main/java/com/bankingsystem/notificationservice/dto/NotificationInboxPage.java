@@ -0,0 +1,21 @@
+package com.bankingsystem.notificationservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationInboxPage {
+    private List<NotificationResponseDto> notifications;
+    /**
+     * Pass back as {@code cursor} to fetch the next page; null on the last page.
+     */
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -23,6 +23,10 @@ public class NotificationResponseDto {
     private LocalDateTime sentAt;
     private LocalDateTime createdAt;
     private String errorMessage;
+    private Integer attempts;
+    private LocalDateTime nextAttemptAt;
+    private Boolean deadLettered;
+    private LocalDateTime readAt;
     private String message;
 
     public String getMessage() {
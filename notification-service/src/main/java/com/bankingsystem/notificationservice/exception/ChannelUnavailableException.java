@@ -0,0 +1,21 @@
+package com.bankingsystem.notificationservice.exception;
+
+import java.time.LocalDateTime;
+
+/**
+ * Thrown when a channel refuses a send because its provider is rate limited or its circuit
+ * breaker is open. The notification itself is fine and should simply be tried again later.
+ */
+public class ChannelUnavailableException extends RuntimeException {
+    
+    private final LocalDateTime retryAt;
+    
+    public ChannelUnavailableException(String message, LocalDateTime retryAt) {
+        super(message);
+        this.retryAt = retryAt;
+    }
+    
+    public LocalDateTime getRetryAt() {
+        return retryAt;
+    }
+}
@@ -0,0 +1,72 @@
+package com.bankingsystem.notificationservice.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * A record from the notification dead-letter topic, parsed back into the event that failed.
+ * <p>
+ * Records written by {@link NotificationEventConsumer#handleError} carry the original topic, key
+ * and payload as headers. Older records only have the formatted value
+ * {@code "ERROR: <topic> - <payload> - <exception message>"}, which is parsed as a fallback.
+ */
+public record DlqRecord(String originalTopic, String originalKey, String payload, String eventType, Instant failedAt,
+                        int partition, long offset) {
+
+    public static final String DLQ_TOPIC = "notification-events-dlq";
+
+    public static final String HEADER_ORIGINAL_TOPIC = "dlq-original-topic";
+    public static final String HEADER_ORIGINAL_KEY = "dlq-original-key";
+    public static final String HEADER_ORIGINAL_PAYLOAD = "dlq-original-payload";
+    public static final String HEADER_FAILED_AT = "dlq-failed-at";
+
+    private static final String LEGACY_PREFIX = "ERROR: ";
+    private static final String LEGACY_SEPARATOR = " - ";
+
+    /**
+     * @return the parsed record, or null if the record cannot be mapped back to an event
+     */
+    public static DlqRecord parse(ConsumerRecord<String, String> record) {
+        String topic = header(record, HEADER_ORIGINAL_TOPIC);
+        String payload = header(record, HEADER_ORIGINAL_PAYLOAD);
+        String failedAtHeader = header(record, HEADER_FAILED_AT);
+        Instant failedAt = Instant.ofEpochMilli(record.timestamp());
+
+        if (topic == null || payload == null) {
+            String value = record.value();
+            if (value == null || !value.startsWith(LEGACY_PREFIX)) {
+                return null;
+            }
+            // Topic names never contain the separator and event payloads do not either; the
+            // exception message, which may, is always last
+            int topicEnd = value.indexOf(LEGACY_SEPARATOR, LEGACY_PREFIX.length());
+            int payloadEnd = topicEnd < 0 ? -1 : value.indexOf(LEGACY_SEPARATOR, topicEnd + LEGACY_SEPARATOR.length());
+            if (payloadEnd < 0) {
+                return null;
+            }
+            topic = value.substring(LEGACY_PREFIX.length(), topicEnd);
+            payload = value.substring(topicEnd + LEGACY_SEPARATOR.length(), payloadEnd);
+        }
+
+        if (failedAtHeader != null) {
+            try {
+                failedAt = Instant.ofEpochMilli(Long.parseLong(failedAtHeader));
+            } catch (NumberFormatException e) {
+                // keep the record timestamp
+            }
+        }
+
+        int separator = payload.indexOf(':');
+        String eventType = separator >= 0 ? payload.substring(0, separator) : null;
+
+        return new DlqRecord(topic, header(record, HEADER_ORIGINAL_KEY), payload, eventType, failedAt, record.partition(), record.offset());
+    }
+
+    private static String header(ConsumerRecord<String, String> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
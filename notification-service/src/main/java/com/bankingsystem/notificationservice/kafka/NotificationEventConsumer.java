@@ -1,10 +1,15 @@
 package com.bankingsystem.notificationservice.kafka;
 
+import com.bankingsystem.notificationservice.config.PriorityThreadPoolExecutor;
 import com.bankingsystem.notificationservice.dto.NotificationRequest;
 import com.bankingsystem.notificationservice.dto.UserDto;
+import com.bankingsystem.notificationservice.model.NotificationPriority;
 import com.bankingsystem.notificationservice.model.NotificationType;
+import com.bankingsystem.notificationservice.service.NotificationDigestService;
 import com.bankingsystem.notificationservice.service.NotificationService;
-import com.bankingsystem.notificationservice.client.UserServiceClient;
+import com.bankingsystem.notificationservice.service.UserContactProjection;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,63 +17,183 @@ import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
 @Component
 public class NotificationEventConsumer {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationEventConsumer.class);
     
+    static final String USER_EVENTS_TOPIC = "user-events";
+    static final String ACCOUNT_EVENTS_TOPIC = "account-events";
+    static final String TRANSACTION_EVENTS_TOPIC = "transaction-events";
+    static final String SECURITY_EVENTS_TOPIC = "security-events";
+    
     @Autowired
     private NotificationService notificationService;
     
     @Autowired
-    private UserServiceClient userServiceClient;
+    private NotificationDigestService notificationDigestService;
+    
+    @Autowired
+    private UserContactProjection userContacts;
     
     @Autowired
     private KafkaTemplate<String, String> kafkaTemplate;
     
-    @KafkaListener(topics = {"account-events", "transaction-events", "user-events"}, groupId = "notification-service")
-    public void consumeEvents(String message) {
-        logger.info("Received event: {}", message);
-        
-        try {
-            String[] parts = message.split(":", 2);
-            if (parts.length != 2) {
-                logger.error("Invalid event format: {}", message);
-                return;
+    /**
+     * Security alerts get a topic and listener container of their own, so they are never polled
+     * behind a backlog on the shared topics. Everything on it runs in the urgent lane.
+     */
+    @KafkaListener(topics = SECURITY_EVENTS_TOPIC, groupId = "notification-service",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void receiveSecurityEvents(List<ConsumerRecord<String, String>> records) {
+        process(records, message -> NotificationPriority.URGENT);
+    }
+    
+    /**
+     * Transaction notifications, on their own container so welcome mail never holds them up.
+     */
+    @KafkaListener(topics = TRANSACTION_EVENTS_TOPIC, groupId = "notification-service",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void receiveTransactionEvents(List<ConsumerRecord<String, String>> records) {
+        process(records, NotificationEventConsumer::priorityOf);
+    }
+    
+    /**
+     * Account and user events, mostly bulk welcome mail. Alerts that still arrive on these topics
+     * go first within the poll.
+     */
+    @KafkaListener(topics = {ACCOUNT_EVENTS_TOPIC, USER_EVENTS_TOPIC}, groupId = "notification-service",
+            containerFactory = "batchKafkaListenerContainerFactory")
+    public void receiveEvents(List<ConsumerRecord<String, String>> records) {
+        process(records, NotificationEventConsumer::priorityOf);
+    }
+    
+    /**
+     * Process one poll on the listener thread, so its offsets are only committed once every event
+     * has been handled or dead-lettered. Events run most urgent first; order is kept within a
+     * priority.
+     */
+    private void process(List<ConsumerRecord<String, String>> records,
+                         Function<String, NotificationPriority> priority) {
+        List<ConsumerRecord<String, String>> ready = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            if (record.value() == null) {
+                // Tombstone from compacting user-events; there is nothing to notify
+                continue;
             }
-            
-            String eventType = parts[0];
-            String eventData = parts[1];
-              switch (eventType) {
-                case "account-created":
-                    processAccountCreated(eventData);
-                    break;
-                case "transaction-created":
-                    processTransactionCreated(eventData);
-                    break;
-                case "user-created":
-                    processUserCreated(eventData);
-                    break;
-                case "account-balance-low":
-                    processLowBalanceAlert(eventData);
-                    break;
-                case "suspicious-activity":
-                    processSuspiciousActivityAlert(eventData);
-                    break;
-                case "password-changed":
-                    processPasswordChanged(eventData);
-                    break;
-                default:
-                    logger.warn("Unhandled event type: {}", eventType);
+            if (USER_EVENTS_TOPIC.equals(record.topic())) {
+                // Applied in partition order before any notification of the poll is sent
+                try {
+                    userContacts.apply(record.value());
+                } catch (Exception e) {
+                    handleError(e, record.key(), record.value(), record.topic());
+                    continue;
+                }
             }
+            ready.add(record);
+        }
+        
+        ready.sort(Comparator.comparing(record -> priority.apply(record.value())));
+        for (ConsumerRecord<String, String> record : ready) {
+            PriorityThreadPoolExecutor.runInLane(priority.apply(record.value()),
+                    () -> consumeEvents(record.key(), record.value(), record.topic()));
+        }
+    }
+    
+    static NotificationPriority priorityOf(String message) {
+        if (message == null) {
+            return NotificationPriority.NORMAL;
+        }
+        int separator = message.indexOf(':');
+        String eventType = separator >= 0 ? message.substring(0, separator) : message;
+        
+        switch (eventType) {
+            case "suspicious-activity":
+            case "password-changed":
+                return NotificationPriority.URGENT;
+            case "user-created":
+            case "account-created":
+                return NotificationPriority.BULK;
+            default:
+                return NotificationPriority.NORMAL;
+        }
+    }
+    
+    /**
+     * Process an event read from {@code topic}; failures are published to the dead-letter topic
+     * together with the original topic and payload so they can be replayed later.
+     */
+    public void consumeEvents(String message, String topic) {
+        consumeEvents(null, message, topic);
+    }
+    
+    public void consumeEvents(String key, String message, String topic) {
+        try {
+            routeEvent(message);
+        } catch (Exception e) {
+            handleError(e, key, message, topic);
+        }
+    }
+    
+    public void consumeEvents(String message) {
+        try {
+            routeEvent(message);
         } catch (Exception e) {
             logger.error("Error processing event: {}", e.getMessage(), e);
         }
     }
     
+    private void routeEvent(String message) {
+        logger.info("Received event: {}", message);
+        
+        String[] parts = message.split(":", 2);
+        if (parts.length != 2) {
+            logger.error("Invalid event format: {}", message);
+            return;
+        }
+        
+        String eventType = parts[0];
+        String eventData = parts[1];
+        switch (eventType) {
+            case "account-created":
+                processAccountCreated(eventData);
+                break;
+            case "transaction-created":
+                processTransactionCreated(eventData);
+                break;
+            case "user-created":
+                processUserCreated(eventData);
+                break;
+            case "user-updated":
+            case "user-deleted":
+                // Only feed the contact projection, which receiveEvent has already updated
+                break;
+            case "interest-accrued":
+                // Nightly batch of interest credits, nothing to tell customers about
+                break;
+            case "account-balance-low":
+                processLowBalanceAlert(eventData);
+                break;
+            case "suspicious-activity":
+                processSuspiciousActivityAlert(eventData);
+                break;
+            case "password-changed":
+                processPasswordChanged(eventData);
+                break;
+            default:
+                logger.warn("Unhandled event type: {}", eventType);
+        }
+    }
+    
     private void processAccountCreated(String userId) {
         try {
-            UserDto user = userServiceClient.getUserById(Long.parseLong(userId));
+            UserDto user = userContacts.getUser(Long.parseLong(userId));
             
             NotificationRequest emailRequest = NotificationRequest.builder()
                     .userId(user.getId())
@@ -94,7 +219,7 @@ public class NotificationEventConsumer {
             }
             
         } catch (Exception e) {
-            logger.error("Error processing account creation notification: {}", e.getMessage(), e);
+            throw new IllegalStateException("Error processing account creation notification: " + e.getMessage(), e);
         }
     }
       private void processTransactionCreated(String data) {
@@ -111,7 +236,7 @@ public class NotificationEventConsumer {
             String amount = parts[1];
             String transactionType = parts[2];
             
-            UserDto user = userServiceClient.getUserById(userId);
+            UserDto user = userContacts.getUser(userId);
               // Create email notification with custom message based on transaction type
             String subject = "Transaction Alert: " + transactionType;
             String content;
@@ -146,7 +271,9 @@ public class NotificationEventConsumer {
                     .recipient(user.getEmail())
                     .build();
             
-            notificationService.createNotification(emailRequest);
+            // Busy accounts produce bursts of these; let the digest service coalesce them
+            String digestLine = String.format("%s %s", transactionType.toUpperCase(), amount);
+            notificationDigestService.submit("transaction-created", emailRequest, digestLine);
             
             // Send SMS if phone number is available
             if (user.getPhoneNumber() != null && !user.getPhoneNumber().isEmpty()) {                // Create more specific SMS content based on transaction type
@@ -177,17 +304,17 @@ public class NotificationEventConsumer {
                         .recipient(user.getPhoneNumber())
                         .build();
                 
-                notificationService.createNotification(smsRequest);
+                notificationDigestService.submit("transaction-created", smsRequest, digestLine);
             }
             
             logger.info("Processed transaction notification for user ID: {}, transaction type: {}", userId, transactionType);
         } catch (Exception e) {
-            logger.error("Error processing transaction notification: {}", e.getMessage(), e);
+            throw new IllegalStateException("Error processing transaction notification: " + e.getMessage(), e);
         }
     }
-      private void processUserCreated(String userId) {
+      private void processUserCreated(String data) {
         try {
-            UserDto user = userServiceClient.getUserById(Long.parseLong(userId));
+            UserDto user = userContacts.getUser(userContacts.userIdOf(data));
             
             NotificationRequest welcomeEmail = NotificationRequest.builder()
                     .userId(user.getId())
@@ -201,7 +328,7 @@ public class NotificationEventConsumer {
             notificationService.createNotification(welcomeEmail);
             
         } catch (Exception e) {
-            logger.error("Error processing user creation notification: {}", e.getMessage(), e);
+            throw new IllegalStateException("Error processing user creation notification: " + e.getMessage(), e);
         }
     }
     
@@ -218,7 +345,7 @@ public class NotificationEventConsumer {
             String accountNumber = parts[1];
             String balance = parts[2];
             
-            UserDto user = userServiceClient.getUserById(userId);
+            UserDto user = userContacts.getUser(userId);
             
             // Create email notification
             NotificationRequest emailRequest = NotificationRequest.builder()
@@ -248,7 +375,7 @@ public class NotificationEventConsumer {
             
             logger.info("Processed low balance notification for user ID: {}", userId);
         } catch (Exception e) {
-            logger.error("Error processing low balance notification: {}", e.getMessage(), e);
+            throw new IllegalStateException("Error processing low balance notification: " + e.getMessage(), e);
         }
     }
     
@@ -265,7 +392,7 @@ public class NotificationEventConsumer {
             String activity = parts[1];
             String location = parts[2];
             
-            UserDto user = userServiceClient.getUserById(userId);
+            UserDto user = userContacts.getUser(userId);
             
             // Create high-priority email notification
             NotificationRequest emailRequest = NotificationRequest.builder()
@@ -295,13 +422,13 @@ public class NotificationEventConsumer {
             
             logger.info("Processed suspicious activity notification for user ID: {}", userId);
         } catch (Exception e) {
-            logger.error("Error processing suspicious activity notification: {}", e.getMessage(), e);
+            throw new IllegalStateException("Error processing suspicious activity notification: " + e.getMessage(), e);
         }
     }
     
     private void processPasswordChanged(String userId) {
         try {
-            UserDto user = userServiceClient.getUserById(Long.parseLong(userId));
+            UserDto user = userContacts.getUser(Long.parseLong(userId));
             
             // Email notification
             NotificationRequest emailRequest = NotificationRequest.builder()
@@ -330,7 +457,7 @@ public class NotificationEventConsumer {
             
             logger.info("Processed password change notification for user ID: {}", userId);
         } catch (Exception e) {
-            logger.error("Error processing password change notification: {}", e.getMessage(), e);
+            throw new IllegalStateException("Error processing password change notification: " + e.getMessage(), e);
         }
     }
     
@@ -343,7 +470,7 @@ public class NotificationEventConsumer {
             // In a real implementation, we would get the user ID from the account service
             // For now, we'll assume accountId is userId for simplicity
             Long userId = accountId;
-            UserDto user = userServiceClient.getUserById(userId);
+            UserDto user = userContacts.getUser(userId);
             
             NotificationRequest request = NotificationRequest.builder()
                     .userId(user.getId())
@@ -370,7 +497,7 @@ public class NotificationEventConsumer {
             // In a real implementation, we would get the user ID from the account service
             // For now, we'll assume accountId is userId for simplicity
             Long userId = accountId;
-            UserDto user = userServiceClient.getUserById(userId);
+            UserDto user = userContacts.getUser(userId);
             
             NotificationRequest request = NotificationRequest.builder()
                     .userId(user.getId())
@@ -414,7 +541,7 @@ public class NotificationEventConsumer {
             // In a real implementation, we would get the user ID from the account service
             // For now, we'll assume accountId is userId for simplicity
             Long userId = accountId;
-            UserDto user = userServiceClient.getUserById(userId);
+            UserDto user = userContacts.getUser(userId);
             
             NotificationRequest request = NotificationRequest.builder()
                     .userId(user.getId())
@@ -438,7 +565,7 @@ public class NotificationEventConsumer {
     public void consumeUserEvent(String payload, String topic) {
         try {
             Long userId = Long.parseLong(payload);
-            UserDto user = userServiceClient.getUserById(userId);
+            UserDto user = userContacts.getUser(userId);
             
             String message = "User account " + topic.replace("-", " ");
             
@@ -462,8 +589,28 @@ public class NotificationEventConsumer {
      * Handle error - method required for tests
      */
     public void handleError(Exception exception, String payload, String topic) {
+        handleError(exception, null, payload, topic);
+    }
+    
+    /**
+     * Publish a failed event to the dead-letter topic, keyed like the original record when it had a key.
+     */
+    public void handleError(Exception exception, String key, String payload, String topic) {
         logger.error("Error processing Kafka message: topic={}, payload={}", topic, payload, exception);
         String errorMessage = String.format("ERROR: %s - %s - %s", topic, payload, exception.getMessage());
-        kafkaTemplate.send("notification-events-dlq", topic, errorMessage);
+        
+        // Headers carry the exact original topic, key and payload for DlqReplayService
+        ProducerRecord<String, String> record = new ProducerRecord<>(DlqRecord.DLQ_TOPIC,
+                key != null ? key : topic, errorMessage);
+        if (key != null) {
+            record.headers().add(DlqRecord.HEADER_ORIGINAL_KEY, key.getBytes(StandardCharsets.UTF_8));
+        }
+        if (payload != null) {
+            record.headers().add(DlqRecord.HEADER_ORIGINAL_PAYLOAD, payload.getBytes(StandardCharsets.UTF_8));
+        }
+        record.headers()
+                .add(DlqRecord.HEADER_ORIGINAL_TOPIC, topic.getBytes(StandardCharsets.UTF_8))
+                .add(DlqRecord.HEADER_FAILED_AT, Long.toString(System.currentTimeMillis()).getBytes(StandardCharsets.UTF_8));
+        kafkaTemplate.send(record);
     }
 }
@@ -1,6 +1,5 @@
 package com.bankingsystem.notificationservice.kafka;
 
-import com.bankingsystem.notificationservice.client.UserServiceClient;
 import com.bankingsystem.notificationservice.dto.UserDto;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -7,9 +7,14 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_retry", columnList = "sent, next_attempt_at"),
+        @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_notifications_user_type_created", columnList = "user_id, type, created_at, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -41,17 +46,41 @@ public class Notification {
     
     private LocalDateTime sentAt;
     
-    @Column(nullable = false)
+    /**
+     * Partition key of the notifications table, so it is never updated once written.
+     */
+    @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
     private String errorMessage;
     
+    private Integer attempts;
+    
+    /**
+     * When the retry scheduler may next pick this notification up; null once it is sent or dead-lettered.
+     */
+    private LocalDateTime nextAttemptAt;
+    
+    private Boolean deadLettered;
+    
+    /**
+     * When the user opened the notification in their inbox; null while unread.
+     */
+    private LocalDateTime readAt;
+    
     @PrePersist
     protected void onCreate() {
-        this.createdAt = LocalDateTime.now();
+        // Stored with microsecond precision; truncate so inbox cursors built from this instance match the row
+        this.createdAt = (this.createdAt != null ? this.createdAt : LocalDateTime.now()).truncatedTo(ChronoUnit.MICROS);
         
         if (this.sent == null) {
             this.sent = false;
         }
+        if (this.attempts == null) {
+            this.attempts = 0;
+        }
+        if (this.deadLettered == null) {
+            this.deadLettered = false;
+        }
     }
 }
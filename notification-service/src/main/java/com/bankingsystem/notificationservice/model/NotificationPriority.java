@@ -0,0 +1,10 @@
+package com.bankingsystem.notificationservice.model;
+
+/**
+ * Dispatch lanes, highest priority first.
+ */
+public enum NotificationPriority {
+    URGENT,
+    NORMAL,
+    BULK
+}
@@ -0,0 +1,42 @@
+package com.bankingsystem.notificationservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Local copy of a user's contact details, kept up to date from {@code user-events}. One row per
+ * user: each event overwrites the row, like a compacted topic.
+ */
+@Entity
+@Table(name = "user_contacts")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserContact {
+    
+    @Id
+    private Long userId;
+    
+    private String username;
+    
+    private String firstName;
+    
+    private String lastName;
+    
+    private String email;
+    
+    private String phoneNumber;
+    
+    @Column(nullable = false)
+    private Boolean deleted;
+    
+    /**
+     * Version of the event this row was built from; older events are ignored.
+     */
+    @Column(nullable = false)
+    private Long version;
+}
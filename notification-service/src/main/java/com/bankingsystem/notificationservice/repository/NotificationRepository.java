@@ -4,20 +4,97 @@ import com.bankingsystem.notificationservice.model.Notification;
 import com.bankingsystem.notificationservice.model.NotificationType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     
     Page<Notification> findByUserId(Long userId, Pageable pageable);
     
-    List<Notification> findBySentFalse();
+    /**
+     * Lock a batch of notifications that are due for another send attempt. Rows already locked by
+     * another instance are skipped (lock timeout -2 renders as SKIP LOCKED), so several instances
+     * can drain the retry backlog concurrently without double-sending.
+     * <p>
+     * Unsent rows written before retries were scheduled have no next attempt time; they are due
+     * now and claimed first. Dead-lettered rows also have none and are never claimed.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT n FROM Notification n WHERE n.sent = false AND (n.nextAttemptAt <= :now"
+            + " OR (n.nextAttemptAt IS NULL AND (n.deadLettered IS NULL OR n.deadLettered = false)))"
+            + " ORDER BY n.nextAttemptAt NULLS FIRST")
+    List<Notification> claimDueForRetry(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    /**
+     * Record the outcome of a send attempt. Runs in its own transaction once the provider call
+     * completes, and leaves columns the user may have changed meanwhile (readAt) alone.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.sent = :sent, n.sentAt = :sentAt, n.attempts = :attempts,"
+            + " n.errorMessage = :errorMessage, n.nextAttemptAt = :nextAttemptAt, n.deadLettered = :deadLettered"
+            + " WHERE n.id = :id")
+    int recordAttempt(@Param("id") Long id, @Param("sent") Boolean sent, @Param("sentAt") LocalDateTime sentAt,
+                      @Param("attempts") Integer attempts, @Param("errorMessage") String errorMessage,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("deadLettered") Boolean deadLettered);
+    
+    Page<Notification> findByDeadLetteredTrue(Pageable pageable);
     
     Page<Notification> findByType(NotificationType type, Pageable pageable);
     
     Page<Notification> findByUserIdAndType(Long userId, NotificationType type, Pageable pageable);
     
+    /*
+     * Inbox keyset paging, newest first. The first page has no cursor; later pages continue strictly
+     * after the (createdAt, id) of the last row returned. Both shapes are served by the
+     * (user_id[, type], created_at, id) indexes without an OFFSET scan or a count query.
+     */
+    
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInboxFirstPage(@Param("userId") Long userId, Pageable pageable);
+    
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId"
+            + " AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id))"
+            + " ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInboxPageAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id, Pageable pageable);
+    
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId AND n.type = :type"
+            + " ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInboxFirstPageByType(@Param("userId") Long userId, @Param("type") NotificationType type,
+                                                Pageable pageable);
+    
+    @Query("SELECT n FROM Notification n WHERE n.userId = :userId AND n.type = :type"
+            + " AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id))"
+            + " ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findInboxPageAfterByType(@Param("userId") Long userId, @Param("type") NotificationType type,
+                                                @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                Pageable pageable);
+    
+    long countByUserIdAndReadAtIsNull(Long userId);
+    
+    @Modifying
+    @Query("UPDATE Notification n SET n.readAt = :readAt"
+            + " WHERE n.userId = :userId AND n.id IN :ids AND n.readAt IS NULL")
+    int markRead(@Param("userId") Long userId, @Param("ids") Collection<Long> ids,
+                 @Param("readAt") LocalDateTime readAt);
+    
+    @Modifying
+    @Query("UPDATE Notification n SET n.readAt = :readAt WHERE n.userId = :userId AND n.readAt IS NULL")
+    int markAllRead(@Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
+    
     Page<Notification> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
 }
@@ -0,0 +1,7 @@
+package com.bankingsystem.notificationservice.repository;
+
+import com.bankingsystem.notificationservice.model.UserContact;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface UserContactRepository extends JpaRepository<UserContact, Long> {
+}
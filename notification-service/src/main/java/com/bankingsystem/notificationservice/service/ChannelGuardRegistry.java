@@ -0,0 +1,144 @@
+package com.bankingsystem.notificationservice.service;
+
+import com.bankingsystem.notificationservice.exception.ChannelUnavailableException;
+import com.bankingsystem.notificationservice.model.NotificationType;
+import com.bankingsystem.notificationservice.util.CircuitBreaker;
+import com.bankingsystem.notificationservice.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-provider rate limiting and circuit breaking for the EMAIL, SMS and PUSH channels.
+ * <p>
+ * {@link NotificationService} asks for a permit before handing a notification to a channel and
+ * sheds it into the retry queue when refused. The channel services report the outcome of each
+ * provider call so the breaker can open when a provider starts failing.
+ */
+@Component
+public class ChannelGuardRegistry {
+
+    private static final String PROPERTY_PREFIX = "bankingsystem.notification.channels.";
+
+    // Spread rate-limited retries over a short window instead of bunching them on the next poll
+    private static final long RATE_LIMITED_RETRY_MAX_JITTER_MS = 5000;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<NotificationType, ChannelGuard> guards = new EnumMap<>(NotificationType.class);
+
+    @PostConstruct
+    public void init() {
+        guards.put(NotificationType.EMAIL, createGuard(NotificationType.EMAIL, 50, 5, 30000));
+        guards.put(NotificationType.SMS, createGuard(NotificationType.SMS, 20, 5, 30000));
+        guards.put(NotificationType.PUSH, createGuard(NotificationType.PUSH, 200, 10, 15000));
+    }
+
+    /**
+     * Take a send permit for {@code channel}.
+     *
+     * @throws ChannelUnavailableException if the channel is rate limited or its breaker is open
+     */
+    public void acquire(NotificationType channel) {
+        ChannelGuard guard = guards.get(channel);
+        if (guard == null) {
+            return;
+        }
+
+        if (!guard.rateLimiter.tryAcquire()) {
+            guard.rateLimitedRejections.increment();
+            throw new ChannelUnavailableException(channel + " channel is rate limited",
+                    LocalDateTime.now().plusNanos((1000 + jitter()) * 1_000_000L));
+        }
+        if (!guard.circuitBreaker.allowRequest()) {
+            guard.circuitOpenRejections.increment();
+            long waitMs = guard.circuitBreaker.remainingOpenMillis() + jitter();
+            throw new ChannelUnavailableException(channel + " channel circuit breaker is open",
+                    LocalDateTime.now().plusNanos(waitMs * 1_000_000L));
+        }
+        guard.permits.increment();
+    }
+
+    public void recordSuccess(NotificationType channel) {
+        ChannelGuard guard = guards.get(channel);
+        if (guard != null) {
+            guard.circuitBreaker.recordSuccess();
+        }
+    }
+
+    public void recordFailure(NotificationType channel) {
+        ChannelGuard guard = guards.get(channel);
+        if (guard != null) {
+            guard.failures.increment();
+            guard.circuitBreaker.recordFailure();
+        }
+    }
+
+    public CircuitBreaker.State getState(NotificationType channel) {
+        ChannelGuard guard = guards.get(channel);
+        return guard != null ? guard.circuitBreaker.getState() : CircuitBreaker.State.CLOSED;
+    }
+
+    private ChannelGuard createGuard(NotificationType channel, double defaultRate, int defaultFailureThreshold,
+                                     long defaultOpenDurationMs) {
+        String prefix = PROPERTY_PREFIX + channel.name().toLowerCase() + ".";
+        double rate = environment.getProperty(prefix + "rate-per-second", Double.class, defaultRate);
+        int burst = environment.getProperty(prefix + "burst", Integer.class, (int) Math.ceil(rate));
+        int failureThreshold = environment.getProperty(prefix + "failure-threshold", Integer.class, defaultFailureThreshold);
+        long openDurationMs = environment.getProperty(prefix + "open-duration-ms", Long.class, defaultOpenDurationMs);
+
+        ChannelGuard guard = new ChannelGuard(new TokenBucket(rate, burst),
+                new CircuitBreaker(failureThreshold, openDurationMs), channel, meterRegistry);
+        Gauge.builder("notification.channel.circuit.state", guard.circuitBreaker, breaker -> breaker.getState().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 half-open, 2 open")
+                .tag("channel", channel.name())
+                .register(meterRegistry);
+        return guard;
+    }
+
+    private static long jitter() {
+        return ThreadLocalRandom.current().nextLong(RATE_LIMITED_RETRY_MAX_JITTER_MS);
+    }
+
+    private static final class ChannelGuard {
+        private final TokenBucket rateLimiter;
+        private final CircuitBreaker circuitBreaker;
+        private final Counter permits;
+        private final Counter rateLimitedRejections;
+        private final Counter circuitOpenRejections;
+        private final Counter failures;
+
+        private ChannelGuard(TokenBucket rateLimiter, CircuitBreaker circuitBreaker, NotificationType channel,
+                             MeterRegistry meterRegistry) {
+            this.rateLimiter = rateLimiter;
+            this.circuitBreaker = circuitBreaker;
+            this.permits = Counter.builder("notification.channel.permits")
+                    .tag("channel", channel.name())
+                    .register(meterRegistry);
+            this.rateLimitedRejections = Counter.builder("notification.channel.rejections")
+                    .tag("channel", channel.name())
+                    .tag("reason", "rate_limited")
+                    .register(meterRegistry);
+            this.circuitOpenRejections = Counter.builder("notification.channel.rejections")
+                    .tag("channel", channel.name())
+                    .tag("reason", "circuit_open")
+                    .register(meterRegistry);
+            this.failures = Counter.builder("notification.channel.failures")
+                    .tag("channel", channel.name())
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.bankingsystem.notificationservice.service;
+
+import com.bankingsystem.notificationservice.dto.DlqReplayRequest;
+import com.bankingsystem.notificationservice.dto.DlqReplayStatusDto;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a single dead-letter replay run. Counters are updated by the replay thread and by
+ * producer callbacks, and read concurrently by the status endpoint.
+ */
+public class DlqReplayJob {
+
+    public enum State {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        FAILED
+    }
+
+    private final String id;
+    private final DlqReplayRequest request;
+    private final AtomicLong totalRecords = new AtomicLong();
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong matched = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong unparseable = new AtomicLong();
+    private volatile State state = State.PENDING;
+    private volatile boolean cancelRequested;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String errorMessage;
+
+    public DlqReplayJob(String id, DlqReplayRequest request) {
+        this.id = id;
+        this.request = request;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public DlqReplayRequest getRequest() {
+        return request;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+    }
+
+    void markRunning() {
+        startedAt = LocalDateTime.now();
+        state = State.RUNNING;
+    }
+
+    void markFinished(State finalState, String error) {
+        errorMessage = error;
+        finishedAt = LocalDateTime.now();
+        state = finalState;
+    }
+
+    AtomicLong totalRecords() {
+        return totalRecords;
+    }
+
+    AtomicLong scanned() {
+        return scanned;
+    }
+
+    AtomicLong matched() {
+        return matched;
+    }
+
+    AtomicLong replayed() {
+        return replayed;
+    }
+
+    AtomicLong failed() {
+        return failed;
+    }
+
+    AtomicLong unparseable() {
+        return unparseable;
+    }
+
+    public DlqReplayStatusDto toStatusDto() {
+        return DlqReplayStatusDto.builder()
+                .jobId(id)
+                .state(state.name())
+                .dryRun(request.isDryRun())
+                .totalRecords(totalRecords.get())
+                .scanned(scanned.get())
+                .matched(matched.get())
+                .replayed(replayed.get())
+                .failed(failed.get())
+                .unparseable(unparseable.get())
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .errorMessage(errorMessage)
+                .build();
+    }
+}
@@ -0,0 +1,245 @@
+package com.bankingsystem.notificationservice.service;
+
+import com.bankingsystem.notificationservice.dto.DlqReplayRequest;
+import com.bankingsystem.notificationservice.kafka.DlqRecord;
+import com.bankingsystem.notificationservice.util.TokenBucket;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Replays records from the notification dead-letter topic back onto their original topics.
+ * <p>
+ * Each run reads the DLQ with its own consumer (assigned partitions, no committed offsets) from
+ * the start of the requested time range up to the end offsets observed when the run started, so
+ * a replay never chases records that fail again while it is running. Republishing is paced by a
+ * token bucket to avoid flooding downstream services. Runs execute one at a time.
+ */
+@Service
+public class DlqReplayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DlqReplayService.class);
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    @Autowired
+    private ConsumerFactory<String, String> consumerFactory;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Value("${bankingsystem.notification.dlq.replay.default-rate-per-second:200}")
+    private double defaultRatePerSecond = 200;
+
+    @Value("${bankingsystem.notification.dlq.replay.max-rate-per-second:2000}")
+    private double maxRatePerSecond = 2000;
+
+    @Value("${bankingsystem.notification.dlq.replay.job-retention-minutes:60}")
+    private long jobRetentionMinutes = 60;
+
+    private final ExecutorService replayExecutor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("DlqReplay-"));
+
+    private final Map<String, DlqReplayJob> jobs = new ConcurrentHashMap<>();
+
+    public DlqReplayJob startReplay(DlqReplayRequest request) {
+        pruneFinishedJobs();
+        DlqReplayJob job = new DlqReplayJob(UUID.randomUUID().toString(), request);
+        jobs.put(job.getId(), job);
+        replayExecutor.execute(() -> runReplay(job));
+        logger.info("Queued DLQ replay {} for event types {}", job.getId(), request.getEventTypes());
+        return job;
+    }
+
+    public Optional<DlqReplayJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public Collection<DlqReplayJob> getJobs() {
+        pruneFinishedJobs();
+        return jobs.values();
+    }
+
+    public boolean cancelReplay(String jobId) {
+        DlqReplayJob job = jobs.get(jobId);
+        if (job == null) {
+            return false;
+        }
+        job.requestCancel();
+        return true;
+    }
+
+    /**
+     * Forget runs that finished longer ago than the retention period; queued and running ones stay.
+     */
+    void pruneFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(jobRetentionMinutes);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(DlqReplayJob::requestCancel);
+        replayExecutor.shutdown();
+    }
+
+    void runReplay(DlqReplayJob job) {
+        if (job.isCancelRequested()) {
+            job.markFinished(DlqReplayJob.State.CANCELLED, null);
+            return;
+        }
+        job.markRunning();
+        DlqReplayRequest request = job.getRequest();
+
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, "500");
+
+        try (Consumer<String, String> consumer = consumerFactory.createConsumer(
+                "notification-dlq-replay", "dlq-replay-", job.getId(), overrides)) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo info : consumer.partitionsFor(DlqRecord.DLQ_TOPIC)) {
+                partitions.add(new TopicPartition(info.topic(), info.partition()));
+            }
+            consumer.assign(partitions);
+
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            seekToStart(consumer, partitions, request.getFrom(), endOffsets);
+            for (TopicPartition partition : partitions) {
+                job.totalRecords().addAndGet(Math.max(0, endOffsets.get(partition) - consumer.position(partition)));
+            }
+
+            TokenBucket rateLimiter = new TokenBucket(effectiveRate(request), 1);
+            while (!job.isCancelRequested() && !reachedEnd(consumer, partitions, endOffsets)) {
+                for (ConsumerRecord<String, String> record : consumer.poll(POLL_TIMEOUT)) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (record.offset() >= endOffsets.get(partition)) {
+                        continue;
+                    }
+                    if (job.isCancelRequested()) {
+                        break;
+                    }
+                    replayRecord(job, record, rateLimiter);
+                }
+            }
+
+            kafkaTemplate.flush();
+            job.markFinished(job.isCancelRequested() ? DlqReplayJob.State.CANCELLED : DlqReplayJob.State.COMPLETED, null);
+            logger.info("DLQ replay {} finished: {}", job.getId(), job.toStatusDto());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.markFinished(DlqReplayJob.State.CANCELLED, "Interrupted");
+        } catch (Exception e) {
+            logger.error("DLQ replay {} failed: {}", job.getId(), e.getMessage(), e);
+            job.markFinished(DlqReplayJob.State.FAILED, e.getMessage());
+        }
+    }
+
+    private void replayRecord(DlqReplayJob job, ConsumerRecord<String, String> record, TokenBucket rateLimiter)
+            throws InterruptedException {
+        job.scanned().incrementAndGet();
+        DlqRecord dlqRecord = DlqRecord.parse(record);
+        if (dlqRecord == null) {
+            job.unparseable().incrementAndGet();
+            return;
+        }
+
+        DlqReplayRequest request = job.getRequest();
+        if (!matches(dlqRecord, request)) {
+            return;
+        }
+        job.matched().incrementAndGet();
+        if (request.isDryRun()) {
+            return;
+        }
+
+        rateLimiter.acquire();
+        String targetTopic = request.getTargetTopic() != null ? request.getTargetTopic() : dlqRecord.originalTopic();
+        // Keep the original key: compacted topics reject keyless records and per-key ordering depends on it
+        kafkaTemplate.send(targetTopic, dlqRecord.originalKey(), dlqRecord.payload()).whenComplete((result, exception) -> {
+            if (exception != null) {
+                job.failed().incrementAndGet();
+                logger.warn("Failed to replay DLQ record {}-{}: {}",
+                        dlqRecord.partition(), dlqRecord.offset(), exception.getMessage());
+            } else {
+                job.replayed().incrementAndGet();
+            }
+        });
+    }
+
+    private boolean matches(DlqRecord record, DlqReplayRequest request) {
+        if (request.getEventTypes() != null && !request.getEventTypes().isEmpty()
+                && !request.getEventTypes().contains(record.eventType())) {
+            return false;
+        }
+        if (request.getFrom() != null && record.failedAt().isBefore(toInstant(request.getFrom()))) {
+            return false;
+        }
+        return request.getTo() == null || !record.failedAt().isAfter(toInstant(request.getTo()));
+    }
+
+    private void seekToStart(Consumer<String, String> consumer, List<TopicPartition> partitions,
+                             LocalDateTime from, Map<TopicPartition, Long> endOffsets) {
+        if (from == null) {
+            consumer.seekToBeginning(partitions);
+            return;
+        }
+
+        // Records are appended roughly in failure order, so skip straight to the time range
+        Map<TopicPartition, Long> timestamps = new HashMap<>();
+        long fromMillis = toInstant(from).toEpochMilli();
+        partitions.forEach(partition -> timestamps.put(partition, fromMillis));
+        Map<TopicPartition, OffsetAndTimestamp> offsets = consumer.offsetsForTimes(timestamps);
+        for (TopicPartition partition : partitions) {
+            OffsetAndTimestamp offset = offsets.get(partition);
+            consumer.seek(partition, offset != null ? offset.offset() : endOffsets.get(partition));
+        }
+    }
+
+    private boolean reachedEnd(Consumer<String, String> consumer, List<TopicPartition> partitions,
+                               Map<TopicPartition, Long> endOffsets) {
+        for (TopicPartition partition : partitions) {
+            if (consumer.position(partition) < endOffsets.get(partition)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double effectiveRate(DlqReplayRequest request) {
+        double rate = request.getMaxRatePerSecond() != null ? request.getMaxRatePerSecond() : defaultRatePerSecond;
+        return Math.min(rate, maxRatePerSecond);
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -1,6 +1,7 @@
 package com.bankingsystem.notificationservice.service;
 
 import com.bankingsystem.notificationservice.model.Notification;
+import com.bankingsystem.notificationservice.model.NotificationType;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.slf4j.Logger;
@@ -11,6 +12,8 @@ import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class EmailService {
     
@@ -19,8 +22,15 @@ public class EmailService {
     @Autowired
     private JavaMailSender mailSender;
     
+    @Autowired
+    private ChannelGuardRegistry channelGuards;
+    
+    /**
+     * @return a future that completes once the provider has accepted the message, or
+     *         exceptionally if it refused it
+     */
     @Async
-    public void sendEmail(Notification notification) {
+    public CompletableFuture<Void> sendEmail(Notification notification) {
         try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
@@ -30,10 +40,16 @@ public class EmailService {
             helper.setText(notification.getContent(), true);
             
             mailSender.send(message);
+            channelGuards.recordSuccess(NotificationType.EMAIL);
             logger.info("Email sent to: {}", notification.getRecipient());
+            return CompletableFuture.completedFuture(null);
         } catch (MessagingException e) {
+            channelGuards.recordFailure(NotificationType.EMAIL);
             logger.error("Failed to send email to: {}", notification.getRecipient(), e);
             throw new RuntimeException("Failed to send email", e);
+        } catch (RuntimeException e) {
+            channelGuards.recordFailure(NotificationType.EMAIL);
+            throw e;
         }
     }
 }
@@ -0,0 +1,230 @@
+package com.bankingsystem.notificationservice.service;
+
+import com.bankingsystem.notificationservice.dto.InboxSummaryDto;
+import com.bankingsystem.notificationservice.dto.NotificationHeaderDto;
+import com.bankingsystem.notificationservice.model.Notification;
+import com.bankingsystem.notificationservice.util.LongObjectHashMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongFunction;
+
+/**
+ * In-memory per-user inbox summaries (unread count and latest few headers) for badge polling.
+ * <p>
+ * A summary is loaded from the database on first request and then maintained incrementally as
+ * notifications are created and read, so repeated polls are a hash lookup. Entries are keyed by
+ * primitive user id in lock-striped {@link LongObjectHashMap}s, bounded in total, and expire
+ * after {@code ttl-ms} so changes made through another instance show up within that window.
+ */
+@Component
+public class InboxSummaryCache {
+
+    private static final int STRIPES = 64;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bankingsystem.notification.inbox.summary.headers:5}")
+    private int headersPerUser = 5;
+
+    @Value("${bankingsystem.notification.inbox.summary.max-users:200000}")
+    private int maxUsers = 200000;
+
+    @Value("${bankingsystem.notification.inbox.summary.ttl-ms:30000}")
+    private long ttlMs = 30000;
+
+    private Stripe[] stripes;
+    private Counter hits;
+    private Counter misses;
+    private Counter evictions;
+
+    @PostConstruct
+    public void init() {
+        int perStripe = Math.max(1, maxUsers / STRIPES);
+        stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        hits = Counter.builder("notification.inbox.summary.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("notification.inbox.summary.requests").tag("result", "miss").register(meterRegistry);
+        evictions = Counter.builder("notification.inbox.summary.evictions").register(meterRegistry);
+        Gauge.builder("notification.inbox.summary.size", this, InboxSummaryCache::size).register(meterRegistry);
+    }
+
+    public int getHeadersPerUser() {
+        return headersPerUser;
+    }
+
+    /**
+     * Return the cached summary for {@code userId}, calling {@code loader} on a miss. The loader
+     * runs outside any lock; if the user's stripe changed meanwhile the fresh result is returned
+     * but not cached, so a concurrent update is never lost.
+     */
+    public InboxSummaryDto get(long userId, LongFunction<InboxSummaryDto> loader) {
+        Stripe stripe = stripeFor(userId);
+        long version;
+        synchronized (stripe) {
+            Summary summary = stripe.summaries.get(userId);
+            if (summary != null && System.currentTimeMillis() - summary.loadedAtMillis < ttlMs) {
+                hits.increment();
+                return summary.toDto(userId);
+            }
+            if (summary != null) {
+                stripe.summaries.remove(userId);
+            }
+            version = stripe.version;
+        }
+
+        misses.increment();
+        InboxSummaryDto loaded = loader.apply(userId);
+        synchronized (stripe) {
+            if (stripe.version == version) {
+                if (stripe.summaries.size() >= stripe.capacity) {
+                    stripe.summaries.remove(stripe.summaries.keyNear(ThreadLocalRandom.current().nextInt()));
+                    evictions.increment();
+                }
+                stripe.summaries.put(userId, Summary.from(loaded, headersPerUser));
+            }
+        }
+        return loaded;
+    }
+
+    public void onCreated(Notification notification) {
+        Stripe stripe = stripeFor(notification.getUserId());
+        synchronized (stripe) {
+            stripe.version++;
+            Summary summary = stripe.summaries.get(notification.getUserId());
+            if (summary != null) {
+                summary.prepend(NotificationHeaderDto.builder()
+                        .id(notification.getId())
+                        .subject(notification.getSubject())
+                        .type(notification.getType())
+                        .createdAt(notification.getCreatedAt())
+                        .read(notification.getReadAt() != null)
+                        .build());
+            }
+        }
+    }
+
+    /**
+     * @param notificationIds the notifications marked read, or null when all were
+     * @param markedCount     how many were actually unread before
+     */
+    public void onRead(long userId, Collection<Long> notificationIds, int markedCount) {
+        Stripe stripe = stripeFor(userId);
+        synchronized (stripe) {
+            stripe.version++;
+            Summary summary = stripe.summaries.get(userId);
+            if (summary != null) {
+                summary.markRead(notificationIds, markedCount);
+            }
+        }
+    }
+
+    public void invalidate(long userId) {
+        Stripe stripe = stripeFor(userId);
+        synchronized (stripe) {
+            stripe.version++;
+            stripe.summaries.remove(userId);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.summaries.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(long userId) {
+        return stripes[(int) ((userId ^ (userId >>> 32)) & (STRIPES - 1))];
+    }
+
+    private static final class Stripe {
+        private final int capacity;
+        private final LongObjectHashMap<Summary> summaries;
+        private long version;
+
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+            this.summaries = new LongObjectHashMap<>(Math.min(capacity, 1024));
+        }
+    }
+
+    /**
+     * Mutable summary guarded by its stripe's lock. Headers are replaced rather than modified, so
+     * the DTOs handed out stay consistent after the lock is released.
+     */
+    private static final class Summary {
+        private final NotificationHeaderDto[] latest;
+        private int latestCount;
+        private long unreadCount;
+        private final long loadedAtMillis;
+
+        private Summary(int headers, long loadedAtMillis) {
+            this.latest = new NotificationHeaderDto[headers];
+            this.loadedAtMillis = loadedAtMillis;
+        }
+
+        static Summary from(InboxSummaryDto dto, int headers) {
+            Summary summary = new Summary(headers, System.currentTimeMillis());
+            summary.unreadCount = dto.getUnreadCount();
+            List<NotificationHeaderDto> latest = dto.getLatest() != null ? dto.getLatest() : List.of();
+            summary.latestCount = Math.min(headers, latest.size());
+            for (int i = 0; i < summary.latestCount; i++) {
+                summary.latest[i] = latest.get(i);
+            }
+            return summary;
+        }
+
+        void prepend(NotificationHeaderDto header) {
+            if (!header.isRead()) {
+                unreadCount++;
+            }
+            if (latest.length == 0) {
+                return;
+            }
+            System.arraycopy(latest, 0, latest, 1, Math.min(latestCount, latest.length - 1));
+            latest[0] = header;
+            latestCount = Math.min(latestCount + 1, latest.length);
+        }
+
+        void markRead(Collection<Long> ids, int markedCount) {
+            unreadCount = Math.max(0, unreadCount - markedCount);
+            for (int i = 0; i < latestCount; i++) {
+                NotificationHeaderDto header = latest[i];
+                if (!header.isRead() && (ids == null || ids.contains(header.getId()))) {
+                    latest[i] = NotificationHeaderDto.builder()
+                            .id(header.getId())
+                            .subject(header.getSubject())
+                            .type(header.getType())
+                            .createdAt(header.getCreatedAt())
+                            .read(true)
+                            .build();
+                }
+            }
+        }
+
+        InboxSummaryDto toDto(long userId) {
+            return InboxSummaryDto.builder()
+                    .userId(userId)
+                    .unreadCount(unreadCount)
+                    .latest(new ArrayList<>(Arrays.asList(latest).subList(0, latestCount)))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.bankingsystem.notificationservice.service;
+
+import com.bankingsystem.notificationservice.dto.NotificationRequest;
+import com.bankingsystem.notificationservice.model.NotificationType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces bursts of high-frequency notifications (e.g. transaction alerts for busy
+ * merchant accounts) into a single digest per user and channel.
+ * <p>
+ * The first notification for a user/channel is sent immediately and opens a coalescing
+ * window. Anything arriving while the window is open is buffered and sent as one digest
+ * when the window closes or when the buffer reaches the configured maximum batch size.
+ * <p>
+ * A failure while sending on the caller's thread propagates so the consumer can dead-letter
+ * the event; entries buffered from earlier events go back into the window and are retried on
+ * the next flush. Buffered entries live in memory only and are flushed on shutdown.
+ */
+@Service
+public class NotificationDigestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDigestService.class);
+
+    private static final int MAX_SMS_DIGEST_LINES = 5;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Value("${bankingsystem.notification.digest.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${bankingsystem.notification.digest.window-ms:60000}")
+    private long windowMs = 60000;
+
+    @Value("${bankingsystem.notification.digest.max-batch:50}")
+    private int maxBatch = 50;
+
+    private final Map<DigestKey, DigestWindow> windows = new ConcurrentHashMap<>();
+
+    /**
+     * Submit a notification for coalescing.
+     *
+     * @param eventType the event that produced the notification, e.g. {@code transaction-created};
+     *                  only notifications for the same event type are coalesced together
+     * @param request the fully built notification that would be sent on its own
+     * @param summaryLine a one-line summary of the event used when it ends up in a digest
+     */
+    public void submit(String eventType, NotificationRequest request, String summaryLine) {
+        if (!enabled) {
+            notificationService.createNotification(request);
+            return;
+        }
+
+        DigestKey key = new DigestKey(request.getUserId(), request.getType(), eventType);
+        long now = System.currentTimeMillis();
+        Dispatch dispatch = new Dispatch();
+
+        windows.compute(key, (k, window) -> {
+            if (window == null || (window.isExpired(now) && window.pending.isEmpty())) {
+                // Quiet user: send straight away and start coalescing what follows
+                dispatch.single = request;
+                return new DigestWindow(now + windowMs);
+            }
+
+            window.add(request, summaryLine);
+            if (window.isExpired(now)) {
+                // Burst is still going on past the deadline: flush and keep coalescing
+                dispatch.batch = window.drain();
+                return new DigestWindow(now + windowMs);
+            }
+            if (window.pending.size() >= maxBatch) {
+                dispatch.batch = window.drain();
+            }
+            return window;
+        });
+
+        try {
+            dispatch.send(key);
+        } catch (RuntimeException e) {
+            if (dispatch.batch != null) {
+                // The submitted entry is the last one drained; it is dead-lettered with its event
+                requeue(key, dispatch.batch.subList(0, dispatch.batch.size() - 1), now);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Flush every window whose coalescing period has elapsed.
+     */
+    @Scheduled(fixedDelayString = "${bankingsystem.notification.digest.flush-interval-ms:5000}")
+    public void flushExpiredDigests() {
+        long now = System.currentTimeMillis();
+
+        for (DigestKey key : windows.keySet()) {
+            Dispatch dispatch = new Dispatch();
+            windows.computeIfPresent(key, (k, window) -> {
+                if (!window.isExpired(now)) {
+                    return window;
+                }
+                if (!window.pending.isEmpty()) {
+                    dispatch.batch = window.drain();
+                }
+                return null;
+            });
+            try {
+                dispatch.send(key);
+            } catch (RuntimeException e) {
+                logger.error("Failed to send digest of {} notifications, retrying on next flush: {}",
+                        dispatch.batch.size(), e.getMessage(), e);
+                requeue(key, dispatch.batch, now);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        for (DigestKey key : windows.keySet()) {
+            Dispatch dispatch = new Dispatch();
+            windows.computeIfPresent(key, (k, window) -> {
+                if (!window.pending.isEmpty()) {
+                    dispatch.batch = window.drain();
+                }
+                return null;
+            });
+            try {
+                dispatch.send(key);
+            } catch (RuntimeException e) {
+                logger.error("Failed to send digest of {} notifications on shutdown: {}",
+                        dispatch.batch.size(), e.getMessage(), e);
+            }
+        }
+    }
+
+    int getOpenWindowCount() {
+        return windows.size();
+    }
+
+    int getPendingCount() {
+        return windows.values().stream().mapToInt(window -> window.pending.size()).sum();
+    }
+
+    /**
+     * Put entries whose digest failed back at the head of the window, already due for the next flush.
+     */
+    private void requeue(DigestKey key, List<PendingEntry> entries, long now) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        List<PendingEntry> retry = new ArrayList<>(entries);
+        windows.merge(key, new DigestWindow(now, retry), (window, failed) -> {
+            window.pending.addAll(0, retry);
+            return window;
+        });
+    }
+
+    private void sendDigest(DigestKey key, List<PendingEntry> batch) {
+        if (batch.size() == 1) {
+            // Nothing to coalesce, keep the original wording
+            notificationService.createNotification(batch.get(0).request());
+            return;
+        }
+
+        NotificationRequest latest = batch.get(batch.size() - 1).request();
+        String noun = subjectNoun(key.eventType());
+        String subject = String.format("%s Summary: %d %ss",
+                Character.toUpperCase(noun.charAt(0)) + noun.substring(1), batch.size(), noun);
+        String content = latest.getType() == NotificationType.SMS
+                ? buildSmsContent(noun, batch)
+                : buildEmailContent(noun, batch);
+
+        NotificationRequest digest = NotificationRequest.builder()
+                .userId(latest.getUserId())
+                .subject(subject)
+                .content(content)
+                .type(latest.getType())
+                .recipient(latest.getRecipient())
+                .build();
+
+        notificationService.createNotification(digest);
+        logger.info("Sent {} digest of {} notifications for user ID: {}",
+                latest.getType(), batch.size(), latest.getUserId());
+    }
+
+    /**
+     * What a digest is a summary of, taken from the event type: {@code transaction-created}
+     * gives "transaction".
+     */
+    static String subjectNoun(String eventType) {
+        int separator = eventType.indexOf('-');
+        return separator > 0 ? eventType.substring(0, separator) : eventType;
+    }
+
+    private String buildEmailContent(String noun, List<PendingEntry> batch) {
+        StringBuilder content = new StringBuilder();
+        content.append("The following ").append(batch.size()).append(' ').append(noun)
+                .append("s have been processed on your account:\n\n");
+        for (PendingEntry entry : batch) {
+            content.append("- ").append(entry.summaryLine()).append('\n');
+        }
+        content.append("\nIf you did not authorize any of these ").append(noun).append("s, please contact us immediately.")
+                .append("\n\nThank you for using our banking services.");
+        return content.toString();
+    }
+
+    private String buildSmsContent(String noun, List<PendingEntry> batch) {
+        StringBuilder content = new StringBuilder();
+        content.append(batch.size()).append(' ').append(noun).append("s: ");
+        int shown = Math.min(batch.size(), MAX_SMS_DIGEST_LINES);
+        for (int i = 0; i < shown; i++) {
+            if (i > 0) {
+                content.append("; ");
+            }
+            content.append(batch.get(i).summaryLine());
+        }
+        if (batch.size() > shown) {
+            content.append("; +").append(batch.size() - shown).append(" more");
+        }
+        content.append(". - Your Bank");
+        return content.toString();
+    }
+
+    private record DigestKey(Long userId, NotificationType type, String eventType) {
+    }
+
+    private record PendingEntry(NotificationRequest request, String summaryLine) {
+    }
+
+    /**
+     * Mutable per-key state; only ever touched inside ConcurrentHashMap compute callbacks.
+     */
+    private static final class DigestWindow {
+        private final long deadline;
+        private List<PendingEntry> pending;
+
+        private DigestWindow(long deadline) {
+            this(deadline, new ArrayList<>());
+        }
+
+        private DigestWindow(long deadline, List<PendingEntry> pending) {
+            this.deadline = deadline;
+            this.pending = pending;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= deadline;
+        }
+
+        private void add(NotificationRequest request, String summaryLine) {
+            pending.add(new PendingEntry(request, summaryLine));
+        }
+
+        private List<PendingEntry> drain() {
+            List<PendingEntry> drained = pending;
+            pending = new ArrayList<>();
+            return drained;
+        }
+    }
+
+    /**
+     * Work decided inside a compute callback, performed after the map lock is released.
+     */
+    private final class Dispatch {
+        private NotificationRequest single;
+        private List<PendingEntry> batch;
+
+        private void send(DigestKey key) {
+            if (single != null) {
+                notificationService.createNotification(single);
+            }
+            if (batch != null && !batch.isEmpty()) {
+                sendDigest(key, batch);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.bankingsystem.notificationservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps the monthly partitions of the PostgreSQL {@code notifications} table in shape: creates
+ * partitions a few months ahead of time and drops whole partitions once they fall out of the
+ * retention window, which is far cheaper than deleting old rows.
+ * <p>
+ * The table must first be converted with {@code db/notifications-partitioning.sql}. Until then
+ * this job only logs that the table is not partitioned.
+ */
+@Component
+@ConditionalOnProperty(name = "bankingsystem.notification.partitioning.enabled", havingValue = "true")
+public class NotificationPartitionMaintenance {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationPartitionMaintenance.class);
+
+    static final String PARENT_TABLE = "notifications";
+    static final String PARTITION_PREFIX = "notifications_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${bankingsystem.notification.partitioning.months-ahead:3}")
+    private int monthsAhead = 3;
+
+    @Value("${bankingsystem.notification.partitioning.retention-months:13}")
+    private int retentionMonths = 13;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${bankingsystem.notification.partitioning.cron:0 15 3 * * *}")
+    public void maintainPartitions() {
+        try {
+            if (!isPartitioned()) {
+                logger.warn("Table {} is not partitioned; skipping partition maintenance", PARENT_TABLE);
+                return;
+            }
+            YearMonth current = YearMonth.now();
+            for (int i = 0; i <= monthsAhead; i++) {
+                createPartition(current.plusMonths(i));
+            }
+            dropExpiredPartitions(current.minusMonths(retentionMonths));
+        } catch (Exception e) {
+            logger.error("Notification partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private boolean isPartitioned() {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid"
+                        + " WHERE c.relname = ? AND pg_table_is_visible(c.oid))",
+                Boolean.class, PARENT_TABLE);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    private void createPartition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                + " PARTITION OF " + PARENT_TABLE
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    /**
+     * Drop every monthly partition older than {@code oldestKept}. Partitions are detached first so
+     * the parent is only briefly locked.
+     */
+    private void dropExpiredPartitions(YearMonth oldestKept) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid"
+                        + " JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ?",
+                String.class, PARENT_TABLE);
+
+        for (String partition : partitions) {
+            YearMonth month = partitionMonth(partition);
+            if (month == null || !month.isBefore(oldestKept)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            logger.info("Dropped expired notification partition {}", partition);
+        }
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+
+    /**
+     * @return the month a partition covers, or null for tables not created by this job (such as
+     *         the default partition)
+     */
+    static YearMonth partitionMonth(String partitionName) {
+        if (!partitionName.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(partitionName.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
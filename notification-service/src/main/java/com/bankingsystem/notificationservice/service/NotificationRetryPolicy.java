@@ -0,0 +1,48 @@
+package com.bankingsystem.notificationservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter for failed notification sends.
+ * <p>
+ * The n-th retry is scheduled after {@code initialBackoff * 2^(n-1)}, capped at {@code maxBackoff},
+ * with the upper half of that delay randomised so notifications that failed together (e.g. during a
+ * provider outage) do not all come due again in the same instant.
+ */
+@Component
+public class NotificationRetryPolicy {
+
+    @Value("${bankingsystem.notification.retry.max-attempts:6}")
+    private int maxAttempts = 6;
+
+    @Value("${bankingsystem.notification.retry.initial-backoff-ms:30000}")
+    private long initialBackoffMs = 30000;
+
+    @Value("${bankingsystem.notification.retry.max-backoff-ms:3600000}")
+    private long maxBackoffMs = 3600000;
+
+    /**
+     * @param attempts number of send attempts made so far, including the one that just failed
+     */
+    public boolean isExhausted(int attempts) {
+        return attempts >= maxAttempts;
+    }
+
+    /**
+     * @param attempts number of send attempts made so far, including the one that just failed
+     */
+    public LocalDateTime nextAttemptAt(int attempts, LocalDateTime now) {
+        return now.plusNanos(backoffMillis(attempts) * 1_000_000L);
+    }
+
+    long backoffMillis(int attempts) {
+        int exponent = Math.max(0, Math.min(attempts - 1, 30));
+        long delay = Math.min(maxBackoffMs, initialBackoffMs << exponent);
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(delay - half + 1);
+    }
+}
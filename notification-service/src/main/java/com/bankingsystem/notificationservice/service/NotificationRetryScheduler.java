@@ -0,0 +1,43 @@
+package com.bankingsystem.notificationservice.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically drains notifications whose next retry is due, one locked batch per transaction.
+ */
+@Component
+public class NotificationRetryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetryScheduler.class);
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Value("${bankingsystem.notification.retry.max-batches-per-run:50}")
+    private int maxBatchesPerRun = 50;
+
+    @Scheduled(fixedDelayString = "${bankingsystem.notification.retry.poll-interval-ms:15000}")
+    public void retryDueNotifications() {
+        int total = 0;
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                int claimed = notificationService.sendPendingNotifications();
+                if (claimed == 0) {
+                    break;
+                }
+                total += claimed;
+            }
+        } catch (Exception e) {
+            logger.error("Notification retry run failed: {}", e.getMessage(), e);
+        }
+
+        if (total > 0) {
+            logger.info("Retried {} due notifications", total);
+        }
+    }
+}
@@ -1,20 +1,32 @@
 package com.bankingsystem.notificationservice.service;
 
+import com.bankingsystem.notificationservice.dto.InboxCursor;
+import com.bankingsystem.notificationservice.dto.InboxSummaryDto;
+import com.bankingsystem.notificationservice.dto.NotificationHeaderDto;
+import com.bankingsystem.notificationservice.dto.NotificationInboxPage;
 import com.bankingsystem.notificationservice.dto.NotificationRequest;
 import com.bankingsystem.notificationservice.dto.NotificationResponseDto;
+import com.bankingsystem.notificationservice.exception.ChannelUnavailableException;
 import com.bankingsystem.notificationservice.model.Notification;
 import com.bankingsystem.notificationservice.model.NotificationType;
 import com.bankingsystem.notificationservice.repository.NotificationRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 
 @Service
 public class NotificationService {
@@ -33,6 +45,28 @@ public class NotificationService {
     @Autowired
     private PushNotificationService pushNotificationService;
     
+    @Autowired
+    private NotificationRetryPolicy retryPolicy;
+    
+    @Autowired
+    private ChannelGuardRegistry channelGuards;
+    
+    @Autowired
+    private InboxSummaryCache inboxSummaryCache;
+    
+    @Autowired
+    private NotificationStreamRegistry streamRegistry;
+    
+    @Value("${bankingsystem.notification.retry.batch-size:100}")
+    private int retryBatchSize = 100;
+    
+    @Value("${bankingsystem.notification.inbox.max-page-size:100}")
+    private int maxInboxPageSize = 100;
+    
+    // How long a send may be in flight before the retry scheduler treats it as lost
+    @Value("${bankingsystem.notification.retry.send-lease-ms:300000}")
+    private long sendLeaseMs = 300000;
+    
     public Page<NotificationResponseDto> getAllNotifications(Pageable pageable) {
         return notificationRepository.findAll(pageable)
                 .map(this::mapToResponseDto);
@@ -54,6 +88,75 @@ public class NotificationService {
                 .map(this::mapToResponseDto);
     }
     
+    /**
+     * One page of a user's inbox, newest first, optionally restricted to one type.
+     * <p>
+     * Uses keyset paging: the cursor pins the last row of the previous page, so every page costs
+     * the same index range scan however deep the client has scrolled, and rows inserted meanwhile
+     * do not shift later pages. One extra row is fetched to tell whether another page exists.
+     *
+     * @param cursor token from a previous page's {@code nextCursor}, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    @Transactional(readOnly = true)
+    public NotificationInboxPage getInbox(Long userId, NotificationType type, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxInboxPageSize));
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        InboxCursor after = cursor != null && !cursor.isBlank() ? InboxCursor.decode(cursor) : null;
+        
+        List<Notification> rows;
+        if (type == null) {
+            rows = after == null
+                    ? notificationRepository.findInboxFirstPage(userId, limit)
+                    : notificationRepository.findInboxPageAfter(userId, after.createdAt(), after.id(), limit);
+        } else {
+            rows = after == null
+                    ? notificationRepository.findInboxFirstPageByType(userId, type, limit)
+                    : notificationRepository.findInboxPageAfterByType(userId, type, after.createdAt(), after.id(), limit);
+        }
+        
+        boolean hasMore = rows.size() > pageSize;
+        List<Notification> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            Notification last = page.get(page.size() - 1);
+            nextCursor = new InboxCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        
+        return NotificationInboxPage.builder()
+                .notifications(page.stream().map(this::mapToResponseDto).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+    
+    /**
+     * Unread count and latest headers for badge polling, served from {@link InboxSummaryCache}.
+     */
+    public InboxSummaryDto getInboxSummary(Long userId) {
+        return inboxSummaryCache.get(userId, this::loadInboxSummary);
+    }
+    
+    /**
+     * @return how many of the given notifications were unread and are now marked read
+     */
+    @Transactional
+    public int markRead(Long userId, List<Long> notificationIds) {
+        if (notificationIds == null || notificationIds.isEmpty()) {
+            return 0;
+        }
+        int marked = notificationRepository.markRead(userId, notificationIds, LocalDateTime.now());
+        afterCommit(() -> inboxSummaryCache.onRead(userId, notificationIds, marked));
+        return marked;
+    }
+    
+    @Transactional
+    public int markAllRead(Long userId) {
+        int marked = notificationRepository.markAllRead(userId, LocalDateTime.now());
+        afterCommit(() -> inboxSummaryCache.onRead(userId, null, marked));
+        return marked;
+    }
+    
     @Transactional
     public NotificationResponseDto createNotification(NotificationRequest request) {
         Notification notification = Notification.builder()
@@ -63,61 +166,160 @@ public class NotificationService {
                 .type(request.getType())
                 .recipient(request.getRecipient())
                 .sent(false)
+                .attempts(0)
+                .deadLettered(false)
+                // Leased to this send; the retry scheduler picks it up if we die before recording it
+                .nextAttemptAt(LocalDateTime.now().plusNanos(sendLeaseMs * 1_000_000L))
                 .createdAt(LocalDateTime.now())
                 .build();
         
         Notification savedNotification = notificationRepository.save(notification);
+        afterCommit(() -> inboxSummaryCache.onCreated(savedNotification));
+        
+        // Send only once the row is committed, so no connection is held during the provider call
+        afterCommit(() -> attemptSend(savedNotification));
         
-        // Send notification asynchronously
+        NotificationResponseDto response = mapToResponseDto(savedNotification);
+        afterCommit(() -> streamRegistry.publish(response.getUserId(), response));
+        return response;
+    }
+    
+    /**
+     * Claim one batch of notifications whose next attempt is due and try to send them again.
+     * Claimed rows are locked (rows locked by another instance are skipped) and leased by pushing
+     * their next attempt out, then the claim commits and the sends start, so each due notification
+     * is retried by exactly one instance without holding locks across provider calls.
+     *
+     * @return the number of notifications claimed
+     */
+    @Transactional
+    public int sendPendingNotifications() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Notification> dueNotifications = notificationRepository.claimDueForRetry(
+                now, PageRequest.of(0, retryBatchSize));
+        
+        LocalDateTime leaseExpiry = now.plusNanos(sendLeaseMs * 1_000_000L);
+        dueNotifications.forEach(notification -> notification.setNextAttemptAt(leaseExpiry));
+        notificationRepository.saveAll(dueNotifications);
+        afterCommit(() -> dueNotifications.forEach(this::attemptSend));
+        
+        return dueNotifications.size();
+    }
+    
+    public Page<NotificationResponseDto> getDeadLetteredNotifications(Pageable pageable) {
+        return notificationRepository.findByDeadLetteredTrue(pageable)
+                .map(this::mapToResponseDto);
+    }
+    
+    private InboxSummaryDto loadInboxSummary(long userId) {
+        List<NotificationHeaderDto> latest = notificationRepository
+                .findInboxFirstPage(userId, PageRequest.of(0, Math.max(1, inboxSummaryCache.getHeadersPerUser())))
+                .stream()
+                .limit(inboxSummaryCache.getHeadersPerUser())
+                .map(n -> NotificationHeaderDto.builder()
+                        .id(n.getId())
+                        .subject(n.getSubject())
+                        .type(n.getType())
+                        .createdAt(n.getCreatedAt())
+                        .read(n.getReadAt() != null)
+                        .build())
+                .toList();
+        return InboxSummaryDto.builder()
+                .userId(userId)
+                .unreadCount(notificationRepository.countByUserIdAndReadAtIsNull(userId))
+                .latest(latest)
+                .build();
+    }
+    
+    /**
+     * Run {@code action} once the current transaction commits, or straight away outside one, so
+     * in-memory views never reflect a write that was rolled back.
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    /**
+     * Start a send and record its outcome once the provider call completes, on whichever thread
+     * completes it.
+     */
+    private void attemptSend(Notification notification) {
+        CompletableFuture<Void> send;
         try {
-            sendNotification(savedNotification);
-            
-            // Update notification status
-            savedNotification.setSent(true);
-            savedNotification.setSentAt(LocalDateTime.now());
-            notificationRepository.save(savedNotification);
+            send = sendNotification(notification);
         } catch (Exception e) {
-            logger.error("Failed to send notification: {}", e.getMessage(), e);
-            
-            savedNotification.setErrorMessage(e.getMessage());
-            notificationRepository.save(savedNotification);
+            send = CompletableFuture.failedFuture(e);
         }
-        
-        return mapToResponseDto(savedNotification);
+        send.whenComplete((ignored, failure) -> recordOutcome(notification, failure));
     }
     
-    @Transactional
-    public void sendPendingNotifications() {
-        List<Notification> pendingNotifications = notificationRepository.findBySentFalse();
+    private void recordOutcome(Notification notification, Throwable failure) {
+        int attempts = (notification.getAttempts() != null ? notification.getAttempts() : 0) + 1;
+        Throwable cause = unwrap(failure);
         
-        pendingNotifications.forEach(notification -> {
-            try {
-                sendNotification(notification);
-                
-                notification.setSent(true);
-                notification.setSentAt(LocalDateTime.now());
-                notification.setErrorMessage(null);
-            } catch (Exception e) {
-                logger.error("Failed to send notification: {}", e.getMessage(), e);
-                
-                notification.setErrorMessage(e.getMessage());
-            }
+        if (cause == null) {
+            notification.setAttempts(attempts);
+            notification.setSent(true);
+            notification.setSentAt(LocalDateTime.now());
+            notification.setNextAttemptAt(null);
+            notification.setErrorMessage(null);
+        } else if (cause instanceof ChannelUnavailableException e) {
+            // Shed into the retry queue; the provider was never called, so this is not an attempt
+            logger.debug("Deferring notification {}: {}", notification.getId(), e.getMessage());
+            notification.setErrorMessage(e.getMessage());
+            notification.setNextAttemptAt(e.getRetryAt());
+        } else {
+            logger.error("Failed to send notification: {}", cause.getMessage(), cause);
             
-            notificationRepository.save(notification);
-        });
+            notification.setAttempts(attempts);
+            notification.setErrorMessage(cause.getMessage());
+            if (retryPolicy.isExhausted(attempts)) {
+                logger.warn("Notification {} dead-lettered after {} attempts", notification.getId(), attempts);
+                notification.setDeadLettered(true);
+                notification.setNextAttemptAt(null);
+            } else {
+                notification.setNextAttemptAt(retryPolicy.nextAttemptAt(attempts, LocalDateTime.now()));
+            }
+        }
+        
+        try {
+            notificationRepository.recordAttempt(notification.getId(), notification.getSent(),
+                    notification.getSentAt(), notification.getAttempts(), notification.getErrorMessage(),
+                    notification.getNextAttemptAt(), notification.getDeadLettered());
+        } catch (Exception e) {
+            // The lease runs out and the retry scheduler sends it again
+            logger.error("Failed to record send outcome for notification {}: {}", notification.getId(), e.getMessage(), e);
+        }
+    }
+    
+    private static Throwable unwrap(Throwable failure) {
+        while ((failure instanceof CompletionException || failure instanceof ExecutionException)
+                && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        return failure;
     }
     
-    private void sendNotification(Notification notification) {
+    private CompletableFuture<Void> sendNotification(Notification notification) {
         switch (notification.getType()) {
             case EMAIL:
-                emailService.sendEmail(notification);
-                break;
+                channelGuards.acquire(NotificationType.EMAIL);
+                return emailService.sendEmail(notification);
             case SMS:
-                smsService.sendSms(notification);
-                break;
+                channelGuards.acquire(NotificationType.SMS);
+                return smsService.sendSms(notification);
             case PUSH:
-                pushNotificationService.sendPushNotification(notification);
-                break;
+                channelGuards.acquire(NotificationType.PUSH);
+                return pushNotificationService.sendPushNotification(notification);
             default:
                 throw new IllegalArgumentException("Unsupported notification type: " + notification.getType());
         }
@@ -135,6 +337,10 @@ public class NotificationService {
                 .sentAt(notification.getSentAt())
                 .createdAt(notification.getCreatedAt())
                 .errorMessage(notification.getErrorMessage())
+                .attempts(notification.getAttempts())
+                .nextAttemptAt(notification.getNextAttemptAt())
+                .deadLettered(notification.getDeadLettered())
+                .readAt(notification.getReadAt())
                 .build();
     }
 }
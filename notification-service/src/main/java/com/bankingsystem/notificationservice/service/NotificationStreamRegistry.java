@@ -0,0 +1,211 @@
+package com.bankingsystem.notificationservice.service;
+
+import com.bankingsystem.notificationservice.dto.NotificationResponseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open server-sent event streams, by user, and non-blocking fan-out of new notifications to them.
+ * <p>
+ * {@link #publish} only appends to each session's bounded outbox and schedules a drain on a small
+ * writer pool, so the Kafka and request threads creating notifications never wait on a slow
+ * client. Each session is drained by at most one writer at a time, which keeps events in order.
+ * A session whose outbox overflows loses its oldest events (the client can page the inbox to
+ * catch up) and a session whose write fails is closed and removed.
+ */
+@Component
+public class NotificationStreamRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStreamRegistry.class);
+
+    static final String NOTIFICATION_EVENT = "notification";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bankingsystem.notification.stream.timeout-ms:1800000}")
+    private long timeoutMs = 1800000;
+
+    @Value("${bankingsystem.notification.stream.max-sessions-per-user:5}")
+    private int maxSessionsPerUser = 5;
+
+    @Value("${bankingsystem.notification.stream.max-pending-events:100}")
+    private int maxPendingEvents = 100;
+
+    @Value("${bankingsystem.notification.stream.writer-threads:4}")
+    private int writerThreads = 4;
+
+    private final Map<Long, Set<StreamSession>> sessionsByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private ExecutorService writers;
+    private Counter published;
+    private Counter dropped;
+
+    @PostConstruct
+    public void init() {
+        writers = Executors.newFixedThreadPool(writerThreads, new CustomizableThreadFactory("NotificationStream-"));
+        published = Counter.builder("notification.stream.events").tag("result", "sent").register(meterRegistry);
+        dropped = Counter.builder("notification.stream.events").tag("result", "dropped").register(meterRegistry);
+        Gauge.builder("notification.stream.connections", connections, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+        sessionsByUser.values().forEach(sessions -> sessions.forEach(session -> session.emitter.complete()));
+        sessionsByUser.clear();
+    }
+
+    public SseEmitter subscribe(long userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        register(userId, emitter);
+        return emitter;
+    }
+
+    /**
+     * Queue {@code notification} for every open stream of {@code userId}. Never blocks.
+     */
+    public void publish(long userId, NotificationResponseDto notification) {
+        Set<StreamSession> sessions = sessionsByUser.get(userId);
+        if (sessions == null) {
+            return;
+        }
+        for (StreamSession session : sessions) {
+            enqueue(session, SseEmitter.event()
+                    .id(String.valueOf(notification.getId()))
+                    .name(NOTIFICATION_EVENT)
+                    .data(notification));
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies and flushes out sessions whose client vanished.
+     */
+    @Scheduled(fixedDelayString = "${bankingsystem.notification.stream.heartbeat-ms:15000}")
+    public void sendHeartbeats() {
+        sessionsByUser.values().forEach(sessions -> sessions.forEach(session ->
+                enqueue(session, SseEmitter.event().comment("keepalive"))));
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    void register(long userId, SseEmitter emitter) {
+        StreamSession session = new StreamSession(userId, emitter);
+        emitter.onCompletion(() -> remove(session));
+        emitter.onTimeout(() -> remove(session));
+        emitter.onError(error -> remove(session));
+
+        // Add and remove inside compute so a session never lands in a set that was just unmapped
+        Set<StreamSession> sessions = sessionsByUser.compute(userId, (id, current) -> {
+            Set<StreamSession> updated = current != null ? current : ConcurrentHashMap.newKeySet();
+            updated.add(session);
+            return updated;
+        });
+        connections.incrementAndGet();
+
+        // A device that reconnects without closing its old stream should not pile up sessions
+        while (sessions.size() > maxSessionsPerUser) {
+            StreamSession oldest = sessions.stream()
+                    .min((a, b) -> Long.compare(a.openedAtNanos, b.openedAtNanos))
+                    .orElse(null);
+            if (oldest == null || !remove(oldest)) {
+                break;
+            }
+            oldest.emitter.complete();
+        }
+    }
+
+    private boolean remove(StreamSession session) {
+        AtomicBoolean removed = new AtomicBoolean();
+        sessionsByUser.computeIfPresent(session.userId, (id, current) -> {
+            removed.set(current.remove(session));
+            return current.isEmpty() ? null : current;
+        });
+        if (removed.get()) {
+            connections.decrementAndGet();
+        }
+        return removed.get();
+    }
+
+    private void enqueue(StreamSession session, SseEmitter.SseEventBuilder event) {
+        session.outbox.offer(event);
+        if (session.pending.incrementAndGet() > maxPendingEvents) {
+            if (session.outbox.poll() != null) {
+                session.pending.decrementAndGet();
+                dropped.increment();
+            }
+        }
+        scheduleDrain(session);
+    }
+
+    private void scheduleDrain(StreamSession session) {
+        if (session.draining.compareAndSet(false, true)) {
+            try {
+                writers.execute(() -> drain(session));
+            } catch (RuntimeException e) {
+                session.draining.set(false);
+                logger.warn("Could not schedule stream write for user {}: {}", session.userId, e.getMessage());
+            }
+        }
+    }
+
+    private void drain(StreamSession session) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = session.outbox.poll()) != null) {
+                session.pending.decrementAndGet();
+                session.emitter.send(event);
+                published.increment();
+            }
+        } catch (Exception e) {
+            logger.debug("Closing notification stream for user {}: {}", session.userId, e.getMessage());
+            remove(session);
+            session.outbox.clear();
+            session.emitter.completeWithError(e);
+            return;
+        } finally {
+            session.draining.set(false);
+        }
+        // An event may have been queued after the last poll but before the flag was cleared
+        if (!session.outbox.isEmpty()) {
+            scheduleDrain(session);
+        }
+    }
+
+    private static final class StreamSession {
+        private final long userId;
+        private final SseEmitter emitter;
+        private final long openedAtNanos = System.nanoTime();
+        private final Queue<SseEmitter.SseEventBuilder> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private StreamSession(long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+}
@@ -1,27 +1,37 @@
 package com.bankingsystem.notificationservice.service;
 
 import com.bankingsystem.notificationservice.model.Notification;
+import com.bankingsystem.notificationservice.model.NotificationType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class PushNotificationService {
     
     private static final Logger logger = LoggerFactory.getLogger(PushNotificationService.class);
     
+    @Autowired
+    private ChannelGuardRegistry channelGuards;
+    
     @Async
-    public void sendPushNotification(Notification notification) {
+    public CompletableFuture<Void> sendPushNotification(Notification notification) {
         // In a real application, this would integrate with a push notification service like Firebase Cloud Messaging
         logger.info("Sending push notification to: {}", notification.getRecipient());
         
         try {
             // Simulate push notification delay
             Thread.sleep(100);
+            channelGuards.recordSuccess(NotificationType.PUSH);
             logger.info("Push notification sent to: {}", notification.getRecipient());
+            return CompletableFuture.completedFuture(null);
         } catch (InterruptedException e) {
             logger.error("Push notification sending interrupted", e);
+            channelGuards.recordFailure(NotificationType.PUSH);
             Thread.currentThread().interrupt();
             throw new RuntimeException("Failed to send push notification", e);
         }
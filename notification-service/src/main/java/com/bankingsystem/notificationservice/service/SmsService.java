@@ -1,27 +1,37 @@
 package com.bankingsystem.notificationservice.service;
 
 import com.bankingsystem.notificationservice.model.Notification;
+import com.bankingsystem.notificationservice.model.NotificationType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class SmsService {
     
     private static final Logger logger = LoggerFactory.getLogger(SmsService.class);
     
+    @Autowired
+    private ChannelGuardRegistry channelGuards;
+    
     @Async
-    public void sendSms(Notification notification) {
+    public CompletableFuture<Void> sendSms(Notification notification) {
         // In a real application, this would integrate with an SMS provider like Twilio
         logger.info("Sending SMS to: {}", notification.getRecipient());
         
         try {
             // Simulate SMS sending delay
             Thread.sleep(200);
+            channelGuards.recordSuccess(NotificationType.SMS);
             logger.info("SMS sent to: {}", notification.getRecipient());
+            return CompletableFuture.completedFuture(null);
         } catch (InterruptedException e) {
             logger.error("SMS sending interrupted", e);
+            channelGuards.recordFailure(NotificationType.SMS);
             Thread.currentThread().interrupt();
             throw new RuntimeException("Failed to send SMS", e);
         }
@@ -0,0 +1,154 @@
+package com.bankingsystem.notificationservice.service;
+
+import com.bankingsystem.notificationservice.client.UserServiceClient;
+import com.bankingsystem.notificationservice.dto.UserContactEvent;
+import com.bankingsystem.notificationservice.dto.UserDto;
+import com.bankingsystem.notificationservice.model.UserContact;
+import com.bankingsystem.notificationservice.repository.UserContactRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Contact details of every user, projected locally from the enriched {@code user-events} topic so
+ * that handling an event needs no call to user-service.
+ * <p>
+ * While the projection is being populated for users created before events carried contact
+ * details, a miss can fall back to user-service ({@code user-contacts.remote-fallback}). Turn the
+ * fallback off once the topic has been replayed; misses then fail the event into the DLQ.
+ */
+@Service
+public class UserContactProjection {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserContactProjection.class);
+
+    @Autowired
+    private UserContactRepository userContactRepository;
+
+    @Autowired
+    private UserServiceClient userServiceClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bankingsystem.notification.user-contacts.remote-fallback:true}")
+    private boolean remoteFallback = true;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter remoteLookups;
+
+    @PostConstruct
+    public void init() {
+        hits = Counter.builder("notification.user_contacts.lookups").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("notification.user_contacts.lookups").tag("result", "miss").register(meterRegistry);
+        remoteLookups = Counter.builder("notification.user_contacts.lookups").tag("result", "remote").register(meterRegistry);
+    }
+
+    /**
+     * Apply a {@code user-events} record to the projection. Events older than the stored version
+     * are ignored, and legacy events that carry only the user id leave the projection unchanged.
+     *
+     * @throws IllegalArgumentException if the event data is not valid JSON
+     */
+    @Transactional
+    public void apply(String message) {
+        int separator = message.indexOf(':');
+        if (separator < 0) {
+            return;
+        }
+        UserContactEvent event = parseEvent(message.substring(separator + 1));
+        if (event == null) {
+            return;
+        }
+
+        Optional<UserContact> existing = userContactRepository.findById(event.getUserId());
+        if (existing.isPresent() && existing.get().getVersion() > event.getVersion()) {
+            logger.debug("Ignoring stale user event for user {}", event.getUserId());
+            return;
+        }
+
+        UserContact contact = existing.orElseGet(() -> UserContact.builder().userId(event.getUserId()).build());
+        contact.setDeleted(event.isDeleted());
+        contact.setVersion(event.getVersion());
+        if (!event.isDeleted()) {
+            contact.setUsername(event.getUsername());
+            contact.setFirstName(event.getFirstName());
+            contact.setLastName(event.getLastName());
+            contact.setEmail(event.getEmail());
+            contact.setPhoneNumber(event.getPhoneNumber());
+        }
+        userContactRepository.save(contact);
+    }
+
+    /**
+     * @throws IllegalStateException if the user is unknown (and the fallback is off) or deleted
+     */
+    public UserDto getUser(Long userId) {
+        Optional<UserContact> contact = userContactRepository.findById(userId);
+        if (contact.isPresent()) {
+            if (Boolean.TRUE.equals(contact.get().getDeleted())) {
+                throw new IllegalStateException("User " + userId + " has been deleted");
+            }
+            hits.increment();
+            return toUserDto(contact.get());
+        }
+
+        misses.increment();
+        if (!remoteFallback) {
+            throw new IllegalStateException("No contact details for user " + userId);
+        }
+        remoteLookups.increment();
+        return userServiceClient.getUserById(userId);
+    }
+
+    /**
+     * User id carried by a user event's data: the legacy bare id or the JSON event.
+     */
+    public Long userIdOf(String data) {
+        UserContactEvent event = parseEvent(data);
+        return event != null ? event.getUserId() : Long.valueOf(data.trim());
+    }
+
+    /**
+     * @return the parsed event, or null for a legacy bare-id payload
+     */
+    private UserContactEvent parseEvent(String data) {
+        String trimmed = data.trim();
+        if (!trimmed.startsWith("{")) {
+            return null;
+        }
+        try {
+            UserContactEvent event = objectMapper.readValue(trimmed, UserContactEvent.class);
+            if (event.getUserId() == null) {
+                throw new IllegalArgumentException("User event without userId: " + trimmed);
+            }
+            return event;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed user event: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static UserDto toUserDto(UserContact contact) {
+        return UserDto.builder()
+                .id(contact.getUserId())
+                .username(contact.getUsername())
+                .firstName(contact.getFirstName())
+                .lastName(contact.getLastName())
+                .email(contact.getEmail())
+                .phoneNumber(contact.getPhoneNumber())
+                .build();
+    }
+}
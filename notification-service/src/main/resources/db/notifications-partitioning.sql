@@ -0,0 +1,63 @@
+-- One-time conversion of the notifications table to monthly range partitions on created_at.
+--
+-- Run once against PostgreSQL 12+ while the notification service is stopped, then start the
+-- service with bankingsystem.notification.partitioning.enabled=true so that
+-- NotificationPartitionMaintenance keeps creating future partitions and dropping expired ones.
+-- The old table is kept as notifications_legacy until it is dropped by hand.
+
+BEGIN;
+
+ALTER TABLE notifications RENAME TO notifications_legacy;
+ALTER INDEX IF EXISTS idx_notifications_retry RENAME TO idx_notifications_legacy_retry;
+ALTER INDEX IF EXISTS idx_notifications_user_created RENAME TO idx_notifications_legacy_user_created;
+ALTER INDEX IF EXISTS idx_notifications_user_type_created RENAME TO idx_notifications_legacy_user_type_created;
+
+-- The partition key has to be part of the primary key
+CREATE TABLE notifications (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id BIGINT NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    content TEXT NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    sent BOOLEAN NOT NULL,
+    sent_at TIMESTAMP(6),
+    created_at TIMESTAMP(6) NOT NULL,
+    error_message VARCHAR(255),
+    attempts INTEGER,
+    next_attempt_at TIMESTAMP(6),
+    dead_lettered BOOLEAN,
+    read_at TIMESTAMP(6),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Monthly partitions from the oldest row up to three months ahead
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT min(created_at) FROM notifications_legacy), now()));
+    last_month DATE := date_trunc('month', now()) + INTERVAL '3 months';
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE notifications_p%s PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+                       to_char(month_start, 'YYYYMM'), month_start, month_start + INTERVAL '1 month');
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO notifications (id, user_id, subject, content, type, recipient, sent, sent_at, created_at,
+                           error_message, attempts, next_attempt_at, dead_lettered, read_at)
+SELECT id, user_id, subject, content, type, recipient, sent, sent_at, created_at,
+       error_message, attempts, next_attempt_at, dead_lettered, read_at
+FROM notifications_legacy;
+
+SELECT setval(pg_get_serial_sequence('notifications', 'id'), COALESCE(max(id), 0) + 1, false)
+FROM notifications;
+
+-- Created on the parent so every partition, present and future, gets them
+CREATE INDEX idx_notifications_retry ON notifications (sent, next_attempt_at);
+CREATE INDEX idx_notifications_user_created ON notifications (user_id, created_at, id);
+CREATE INDEX idx_notifications_user_type_created ON notifications (user_id, type, created_at, id);
+
+COMMIT;
+
+ANALYZE notifications;
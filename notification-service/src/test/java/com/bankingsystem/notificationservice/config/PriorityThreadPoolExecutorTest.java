@@ -0,0 +1,128 @@
+package com.bankingsystem.notificationservice.config;
+
+import com.bankingsystem.notificationservice.model.NotificationPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriorityThreadPoolExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PriorityThreadPoolExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new PriorityThreadPoolExecutor("Test-", 1, 10, meterRegistry, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_shouldRunUrgentTasksBeforeQueuedNormalAndBulkTasks() throws InterruptedException {
+        // Arrange - occupy the only worker so everything else queues up
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(4);
+        List<String> order = new CopyOnWriteArrayList<>();
+        executor.execute(NotificationPriority.NORMAL, () -> await(release));
+
+        // Act
+        executor.execute(NotificationPriority.BULK, record(order, "bulk", done));
+        executor.execute(NotificationPriority.NORMAL, record(order, "normal-1", done));
+        executor.execute(NotificationPriority.NORMAL, record(order, "normal-2", done));
+        executor.execute(NotificationPriority.URGENT, record(order, "urgent", done));
+        release.countDown();
+
+        // Assert
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("urgent", "normal-1", "normal-2", "bulk"), order);
+    }
+
+    @Test
+    void execute_shouldInheritPriorityOfSubmittingTask() throws InterruptedException {
+        // Arrange
+        CountDownLatch done = new CountDownLatch(1);
+        NotificationPriority[] observed = new NotificationPriority[1];
+
+        // Act - a plain Runnable submitted from inside an urgent task stays urgent
+        executor.execute(NotificationPriority.URGENT, () -> executor.execute(() -> {
+            observed[0] = PriorityThreadPoolExecutor.currentPriority();
+            done.countDown();
+        }));
+
+        // Assert
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(NotificationPriority.URGENT, observed[0]);
+        assertEquals(NotificationPriority.NORMAL, PriorityThreadPoolExecutor.currentPriority());
+    }
+
+    @Test
+    void execute_whenQueueFull_shouldRunNonUrgentTaskOnCallerThread() throws InterruptedException {
+        // Arrange
+        PriorityThreadPoolExecutor saturated = new PriorityThreadPoolExecutor("Full-", 1, 0, meterRegistry, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        saturated.execute(NotificationPriority.NORMAL, () -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread caller = Thread.currentThread();
+        Thread[] ranOn = new Thread[1];
+
+        try {
+            // Act
+            saturated.execute(NotificationPriority.BULK, () -> ranOn[0] = Thread.currentThread());
+
+            // Assert
+            assertSame(caller, ranOn[0]);
+        } finally {
+            release.countDown();
+            saturated.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_shouldRecordTimeToSendPerPriority() throws InterruptedException {
+        // Arrange
+        CountDownLatch done = new CountDownLatch(1);
+
+        // Act
+        executor.execute(NotificationPriority.URGENT, done::countDown);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(1, meterRegistry.get("notification.time-to-send")
+                .tag("priority", "URGENT").timer().count());
+        assertEquals(1, meterRegistry.get("notification.queue.wait")
+                .tag("priority", "URGENT").timer().count());
+    }
+
+    private static Runnable record(List<String> order, String name, CountDownLatch done) {
+        return () -> {
+            order.add(name);
+            done.countDown();
+        };
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.bankingsystem.notificationservice.controller;
 
+import com.bankingsystem.notificationservice.dto.InboxSummaryDto;
+import com.bankingsystem.notificationservice.dto.NotificationInboxPage;
 import com.bankingsystem.notificationservice.dto.NotificationRequest;
 import com.bankingsystem.notificationservice.dto.NotificationResponseDto;
 import com.bankingsystem.notificationservice.model.NotificationType;
@@ -138,6 +140,65 @@ class NotificationControllerTest {
         verify(notificationService).getNotificationsByUserIdAndType(eq(userId), eq(type), any(Pageable.class));
     }
 
+    @Test
+    void getInbox_shouldReturnPage() {
+        // Arrange
+        NotificationInboxPage page = NotificationInboxPage.builder()
+                .notifications(Arrays.asList(testNotification))
+                .nextCursor("abc")
+                .hasMore(true)
+                .build();
+        when(notificationService.getInbox(1L, NotificationType.EMAIL, null, 20)).thenReturn(page);
+
+        // Act
+        ResponseEntity<NotificationInboxPage> response =
+            notificationController.getInbox(1L, NotificationType.EMAIL, null, 20);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("abc", response.getBody().getNextCursor());
+    }
+
+    @Test
+    void getInbox_shouldReturnBadRequestForMalformedCursor() {
+        // Arrange
+        when(notificationService.getInbox(1L, null, "bogus", 20))
+                .thenThrow(new IllegalArgumentException("Malformed inbox cursor"));
+
+        // Act
+        ResponseEntity<NotificationInboxPage> response = notificationController.getInbox(1L, null, "bogus", 20);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void getInboxSummary_shouldReturnSummary() {
+        // Arrange
+        InboxSummaryDto summary = InboxSummaryDto.builder().userId(1L).unreadCount(7).latest(List.of()).build();
+        when(notificationService.getInboxSummary(1L)).thenReturn(summary);
+
+        // Act
+        ResponseEntity<InboxSummaryDto> response = notificationController.getInboxSummary(1L);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(7, response.getBody().getUnreadCount());
+    }
+
+    @Test
+    void markRead_shouldReturnMarkedCount() {
+        // Arrange
+        when(notificationService.markRead(1L, List.of(5L))).thenReturn(1);
+
+        // Act
+        ResponseEntity<Integer> response = notificationController.markRead(1L, List.of(5L));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody());
+    }
+
     @Test
     void createNotification_shouldReturnCreatedNotification() {
         // Arrange
@@ -162,4 +223,20 @@ class NotificationControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         verify(notificationService).sendPendingNotifications();
     }
+
+    @Test
+    void getDeadLetteredNotifications_shouldReturnDeadLetteredNotifications() {
+        // Arrange
+        Page<NotificationResponseDto> page = new PageImpl<>(Arrays.asList(testNotification));
+        when(notificationService.getDeadLetteredNotifications(any(Pageable.class))).thenReturn(page);
+
+        // Act
+        ResponseEntity<Page<NotificationResponseDto>> response =
+            notificationController.getDeadLetteredNotifications(Pageable.unpaged());
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getTotalElements());
+        verify(notificationService).getDeadLetteredNotifications(any(Pageable.class));
+    }
 }
@@ -0,0 +1,61 @@
+package com.bankingsystem.notificationservice.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DlqRecordTest {
+
+    @Test
+    void parse_shouldPreferHeaders() {
+        // Arrange
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(DlqRecord.DLQ_TOPIC, 0, 7L, "user-events",
+                "ERROR: user-events - user-created:1 - boom");
+        record.headers()
+                .add(DlqRecord.HEADER_ORIGINAL_TOPIC, bytes("user-events"))
+                .add(DlqRecord.HEADER_ORIGINAL_KEY, bytes("1"))
+                .add(DlqRecord.HEADER_ORIGINAL_PAYLOAD, bytes("user-created:1 - with separator"))
+                .add(DlqRecord.HEADER_FAILED_AT, bytes("1700000000000"));
+
+        // Act
+        DlqRecord result = DlqRecord.parse(record);
+
+        // Assert
+        assertEquals("user-events", result.originalTopic());
+        assertEquals("1", result.originalKey());
+        assertEquals("user-created:1 - with separator", result.payload());
+        assertEquals("user-created", result.eventType());
+        assertEquals(Instant.ofEpochMilli(1700000000000L), result.failedAt());
+        assertEquals(7L, result.offset());
+    }
+
+    @Test
+    void parse_shouldFallBackToLegacyValueFormat() {
+        // Arrange
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(DlqRecord.DLQ_TOPIC, 1, 3L, "transaction-events",
+                "ERROR: transaction-events - transaction-created:1,100,DEPOSIT - Connection refused - retry later");
+
+        // Act
+        DlqRecord result = DlqRecord.parse(record);
+
+        // Assert
+        assertEquals("transaction-events", result.originalTopic());
+        assertEquals("transaction-created:1,100,DEPOSIT", result.payload());
+        assertEquals("transaction-created", result.eventType());
+        assertEquals(1, result.partition());
+    }
+
+    @Test
+    void parse_shouldReturnNullForUnrecognisedRecords() {
+        assertNull(DlqRecord.parse(new ConsumerRecord<>(DlqRecord.DLQ_TOPIC, 0, 0L, null, "garbage")));
+        assertNull(DlqRecord.parse(new ConsumerRecord<>(DlqRecord.DLQ_TOPIC, 0, 0L, null, "ERROR: topic-only")));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,10 +1,15 @@
 package com.bankingsystem.notificationservice.kafka;
 
-import com.bankingsystem.notificationservice.client.UserServiceClient;
+import com.bankingsystem.notificationservice.config.PriorityThreadPoolExecutor;
 import com.bankingsystem.notificationservice.dto.NotificationRequest;
 import com.bankingsystem.notificationservice.dto.UserDto;
+import com.bankingsystem.notificationservice.model.NotificationPriority;
 import com.bankingsystem.notificationservice.model.NotificationType;
+import com.bankingsystem.notificationservice.service.NotificationDigestService;
 import com.bankingsystem.notificationservice.service.NotificationService;
+import com.bankingsystem.notificationservice.service.UserContactProjection;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,6 +18,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -24,7 +33,10 @@ class NotificationEventConsumerTest {
     private NotificationService notificationService;
 
     @Mock
-    private UserServiceClient userServiceClient;
+    private NotificationDigestService notificationDigestService;
+
+    @Mock
+    private UserContactProjection userContacts;
     
     @Mock
     private KafkaTemplate<String, String> kafkaTemplate;
@@ -48,7 +60,7 @@ class NotificationEventConsumerTest {
     void consumeAccountCreatedEvent_shouldCreateNotification() {
         // Arrange
         String payload = "1";  // Account ID
-        when(userServiceClient.getUserById(anyLong())).thenReturn(testUser);
+        when(userContacts.getUser(anyLong())).thenReturn(testUser);
 
         // Act
         notificationEventConsumer.consumeAccountCreatedEvent(payload, "account-created");
@@ -61,7 +73,7 @@ class NotificationEventConsumerTest {
     void consumeAccountDeactivatedEvent_shouldCreateNotification() {
         // Arrange
         String payload = "1";  // Account ID
-        when(userServiceClient.getUserById(anyLong())).thenReturn(testUser);
+        when(userContacts.getUser(anyLong())).thenReturn(testUser);
 
         // Act
         notificationEventConsumer.consumeAccountDeactivatedEvent(payload, "account-deactivated");
@@ -74,7 +86,7 @@ class NotificationEventConsumerTest {
     void consumeTransactionEvent_deposit_shouldCreateNotification() {
         // Arrange
         String payload = "1:100:1100";  // AccountId:Amount:NewBalance
-        when(userServiceClient.getUserById(anyLong())).thenReturn(testUser);
+        when(userContacts.getUser(anyLong())).thenReturn(testUser);
 
         // Act
         notificationEventConsumer.consumeTransactionEvent(payload, "deposit");
@@ -90,7 +102,7 @@ class NotificationEventConsumerTest {
     void consumeTransactionEvent_withdrawal_shouldCreateNotification() {
         // Arrange
         String payload = "1:50:950";  // AccountId:Amount:NewBalance
-        when(userServiceClient.getUserById(anyLong())).thenReturn(testUser);
+        when(userContacts.getUser(anyLong())).thenReturn(testUser);
 
         // Act
         notificationEventConsumer.consumeTransactionEvent(payload, "withdrawal");
@@ -106,7 +118,7 @@ class NotificationEventConsumerTest {
     void consumeTransactionEvent_transfer_shouldCreateNotification() {
         // Arrange
         String payload = "1:2:100:900";  // FromAccountId:ToAccountId:Amount:NewBalance
-        when(userServiceClient.getUserById(anyLong())).thenReturn(testUser);
+        when(userContacts.getUser(anyLong())).thenReturn(testUser);
 
         // Act
         notificationEventConsumer.consumeTransactionEvent(payload, "transfer");
@@ -122,7 +134,7 @@ class NotificationEventConsumerTest {
     void consumeUserEvent_shouldCreateNotification() {
         // Arrange
         String payload = "1";  // User ID
-        when(userServiceClient.getUserById(anyLong())).thenReturn(testUser);
+        when(userContacts.getUser(anyLong())).thenReturn(testUser);
 
         // Act
         notificationEventConsumer.consumeUserEvent(payload, "user-created");
@@ -145,14 +157,65 @@ class NotificationEventConsumerTest {
         notificationEventConsumer.handleError(exception, payload, topic);
 
         // Assert
-        verify(kafkaTemplate).send(eq("notification-events-dlq"), eq(topic), contains("ERROR"));
+        verify(kafkaTemplate).send(argThat((ProducerRecord<String, String> record) ->
+            record.topic().equals("notification-events-dlq") &&
+            record.key().equals(topic) &&
+            record.value().contains("ERROR") &&
+            new String(record.headers().lastHeader(DlqRecord.HEADER_ORIGINAL_PAYLOAD).value()).equals(payload)
+        ));
+    }
+
+    @Test
+    void handleError_withoutPayload_shouldStillSendToDlq() {
+        // Act
+        notificationEventConsumer.handleError(new RuntimeException("Test exception"), "key-1", null, "user-events");
+
+        // Assert
+        verify(kafkaTemplate).send(argThat((ProducerRecord<String, String> record) ->
+            record.key().equals("key-1") &&
+            record.headers().lastHeader(DlqRecord.HEADER_ORIGINAL_PAYLOAD) == null
+        ));
+    }
+
+    @Test
+    void receiveEvents_whenProcessingFails_shouldDeadLetterWithTheOriginalKey() {
+        // Arrange
+        when(userContacts.getUser(anyLong())).thenThrow(new IllegalStateException("user-service unavailable"));
+
+        // Act
+        notificationEventConsumer.receiveEvents(List.of(
+                new ConsumerRecord<>("user-events", 0, 0L, "42", "user-created:42")));
+
+        // Assert
+        verify(kafkaTemplate).send(argThat((ProducerRecord<String, String> record) ->
+            record.key().equals("42") &&
+            new String(record.headers().lastHeader(DlqRecord.HEADER_ORIGINAL_KEY).value()).equals("42") &&
+            new String(record.headers().lastHeader(DlqRecord.HEADER_ORIGINAL_TOPIC).value()).equals("user-events")
+        ));
+    }
+
+    @Test
+    void consumeEvents_withTopic_shouldSendFailedEventToDlq() {
+        // Arrange
+        String message = "account-created:1";
+        when(userContacts.getUser(anyLong())).thenThrow(new IllegalStateException("No contact details for user 1"));
+
+        // Act
+        notificationEventConsumer.consumeEvents(message, "account-events");
+
+        // Assert
+        verify(kafkaTemplate).send(argThat((ProducerRecord<String, String> record) ->
+            new String(record.headers().lastHeader(DlqRecord.HEADER_ORIGINAL_TOPIC).value()).equals("account-events") &&
+            new String(record.headers().lastHeader(DlqRecord.HEADER_ORIGINAL_PAYLOAD).value()).equals(message)
+        ));
+        verify(notificationService, never()).createNotification(any(NotificationRequest.class));
     }
 
     @Test
     void consumeEvents_shouldProcessAccountCreatedEvent() {
         // Arrange
         String message = "account-created:1";
-        when(userServiceClient.getUserById(anyLong())).thenReturn(testUser);
+        when(userContacts.getUser(anyLong())).thenReturn(testUser);
 
         // Act
         notificationEventConsumer.consumeEvents(message);
@@ -165,13 +228,17 @@ class NotificationEventConsumerTest {
         // Arrange
         // Format should match what the implementation expects: userId,amount,transactionType
         String message = "transaction-created:1,100,DEPOSIT";
-        when(userServiceClient.getUserById(anyLong())).thenReturn(testUser);
+        when(userContacts.getUser(anyLong())).thenReturn(testUser);
 
         // Act
         notificationEventConsumer.consumeEvents(message);
 
         // Assert
-        verify(notificationService, atLeastOnce()).createNotification(any(NotificationRequest.class));
+        verify(notificationDigestService).submit(eq("transaction-created"), argThat(request ->
+            request.getType() == NotificationType.EMAIL &&
+            request.getRecipient().equals("user@example.com")
+        ), eq("DEPOSIT 100"));
+        verify(notificationService, never()).createNotification(any(NotificationRequest.class));
     }
 
     @Test
@@ -202,7 +269,7 @@ class NotificationEventConsumerTest {
     void consumeEvents_shouldHandleExceptions() {
         // Arrange
         String message = "account-created:1";
-        when(userServiceClient.getUserById(anyLong())).thenThrow(new RuntimeException("Test exception"));
+        when(userContacts.getUser(anyLong())).thenThrow(new RuntimeException("Test exception"));
 
         // Act
         notificationEventConsumer.consumeEvents(message);
@@ -210,4 +277,143 @@ class NotificationEventConsumerTest {
         // Assert
         verify(notificationService, never()).createNotification(any(NotificationRequest.class));
     }
+
+    @Test
+    void receiveEvents_shouldProcessSecurityAlertsFirstAndKeepOrderWithinPriority() {
+        // Arrange
+        when(userContacts.getUser(anyLong())).thenReturn(testUser);
+        List<ConsumerRecord<String, String>> records = List.of(
+                record("user-events", "user-created:1"),
+                record("transaction-events", "transaction-created:1,100,DEPOSIT"),
+                record("account-events", "suspicious-activity:1,login,Unknown"),
+                record("transaction-events", "transaction-created:1,200,WITHDRAWAL"));
+        when(userContacts.userIdOf("1")).thenReturn(1L);
+
+        // Act
+        notificationEventConsumer.receiveEvents(records);
+
+        // Assert
+        var inOrder = inOrder(notificationService, notificationDigestService);
+        inOrder.verify(notificationService).createNotification(argThat(request ->
+                request.getSubject().startsWith("URGENT")));
+        inOrder.verify(notificationDigestService).submit(eq("transaction-created"), any(NotificationRequest.class), eq("DEPOSIT 100"));
+        inOrder.verify(notificationDigestService).submit(eq("transaction-created"), any(NotificationRequest.class), eq("WITHDRAWAL 200"));
+        inOrder.verify(notificationService).createNotification(argThat(request ->
+                request.getSubject().startsWith("Welcome")));
+    }
+
+    @Test
+    void receiveEvents_shouldRunHandlersInTheEventsLane() {
+        // Arrange
+        List<NotificationPriority> lanes = new ArrayList<>();
+        when(userContacts.getUser(anyLong())).thenReturn(testUser);
+        when(notificationService.createNotification(any(NotificationRequest.class))).thenAnswer(invocation -> {
+            lanes.add(PriorityThreadPoolExecutor.currentPriority());
+            return null;
+        });
+
+        // Act
+        notificationEventConsumer.receiveEvents(List.of(
+                record("account-events", "account-created:1"),
+                record("account-events", "password-changed:1")));
+
+        // Assert
+        assertEquals(List.of(NotificationPriority.URGENT, NotificationPriority.BULK), lanes);
+        assertEquals(NotificationPriority.NORMAL, PriorityThreadPoolExecutor.currentPriority());
+    }
+
+    @Test
+    void receiveSecurityEvents_shouldRunEveryEventInTheUrgentLane() {
+        // Arrange
+        List<NotificationPriority> lanes = new ArrayList<>();
+        when(userContacts.getUser(anyLong())).thenReturn(testUser);
+        when(notificationService.createNotification(any(NotificationRequest.class))).thenAnswer(invocation -> {
+            lanes.add(PriorityThreadPoolExecutor.currentPriority());
+            return null;
+        });
+
+        // Act
+        notificationEventConsumer.receiveSecurityEvents(List.of(
+                record("security-events", "account-created:1")));
+
+        // Assert
+        assertEquals(List.of(NotificationPriority.URGENT), lanes);
+    }
+
+    @Test
+    void receiveEvents_shouldSkipTombstones() {
+        // Arrange
+        when(userContacts.getUser(anyLong())).thenReturn(testUser);
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        records.add(record("user-events", null));
+        records.add(record("account-events", "password-changed:1"));
+
+        // Act
+        notificationEventConsumer.receiveEvents(records);
+
+        // Assert
+        verify(userContacts, never()).apply(any());
+        verify(notificationService, atLeastOnce()).createNotification(any(NotificationRequest.class));
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    void receiveEvents_shouldApplyUserEventsToProjectionBeforeProcessing() {
+        // Arrange
+        String message = "user-updated:{\"userId\":1,\"email\":\"new@example.com\",\"version\":5}";
+        when(userContacts.getUser(anyLong())).thenReturn(testUser);
+
+        // Act
+        notificationEventConsumer.receiveEvents(List.of(
+                record("account-events", "password-changed:1"),
+                record("user-events", message)));
+
+        // Assert
+        var inOrder = inOrder(userContacts, notificationService);
+        inOrder.verify(userContacts).apply(message);
+        inOrder.verify(notificationService).createNotification(any(NotificationRequest.class));
+    }
+
+    @Test
+    void receiveEvents_shouldSendMalformedUserEventToDlq() {
+        // Arrange
+        String message = "user-created:{not json";
+        doThrow(new IllegalArgumentException("Malformed user event")).when(userContacts).apply(message);
+
+        // Act
+        notificationEventConsumer.receiveEvents(List.of(record("user-events", message)));
+
+        // Assert
+        verify(kafkaTemplate).send(any(ProducerRecord.class));
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void consumeEvents_shouldSendWelcomeEmailFromEnrichedUserCreatedEvent() {
+        // Arrange
+        String data = "{\"userId\":1,\"email\":\"user@example.com\",\"version\":5}";
+        when(userContacts.userIdOf(data)).thenReturn(1L);
+        when(userContacts.getUser(1L)).thenReturn(testUser);
+
+        // Act
+        notificationEventConsumer.consumeEvents("user-created:" + data, "user-events");
+
+        // Assert
+        verify(notificationService).createNotification(argThat(request ->
+            request.getRecipient().equals("user@example.com") && request.getType() == NotificationType.EMAIL));
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void priorityOf_shouldMapEventTypesToLanes() {
+        assertEquals(NotificationPriority.URGENT, NotificationEventConsumer.priorityOf("password-changed:1"));
+        assertEquals(NotificationPriority.NORMAL, NotificationEventConsumer.priorityOf("account-balance-low:1,ACC,5"));
+        assertEquals(NotificationPriority.BULK, NotificationEventConsumer.priorityOf("user-created:1"));
+        assertEquals(NotificationPriority.NORMAL, NotificationEventConsumer.priorityOf("invalid-format"));
+        assertEquals(NotificationPriority.NORMAL, NotificationEventConsumer.priorityOf(null));
+    }
+
+    private static ConsumerRecord<String, String> record(String topic, String value) {
+        return new ConsumerRecord<>(topic, 0, 0L, null, value);
+    }
 }
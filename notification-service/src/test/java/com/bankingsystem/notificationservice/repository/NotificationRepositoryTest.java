@@ -67,15 +67,6 @@ public class NotificationRepositoryTest {
     }
     
     @Test
-    void findBySentFalse_shouldReturnPendingNotifications() {
-        // Act
-        List<Notification> result = notificationRepository.findBySentFalse();
-        
-        // Assert
-        assertEquals(1, result.size());
-        assertEquals("Test Subject 2", result.get(0).getSubject());
-        assertFalse(result.get(0).getSent());
-    }      @Test
     void findByType_shouldReturnTypedNotifications() {
         // Act
         Page<Notification> result = notificationRepository.findByType(
@@ -158,4 +149,29 @@ public class NotificationRepositoryTest {
         // Assert
         assertEquals(2, result.getTotalElements());
     }
+
+    @Test
+    void findInboxPageAfter_shouldContinueStrictlyAfterCursor() {
+        Notification sameInstant = notificationRepository.save(Notification.builder()
+                .userId(1L)
+                .subject("Test Subject 3")
+                .content("Test Content 3")
+                .type(NotificationType.EMAIL)
+                .recipient("user1@example.com")
+                .sent(true)
+                .createdAt(notification1.getCreatedAt())
+                .build());
+
+        List<Notification> firstPage = notificationRepository.findInboxFirstPage(1L, PageRequest.of(0, 1));
+        assertEquals(1, firstPage.size());
+        Notification last = firstPage.get(0);
+
+        List<Notification> nextPage = notificationRepository.findInboxPageAfter(
+                1L, last.getCreatedAt(), last.getId(), PageRequest.of(0, 10));
+
+        // Same createdAt as the cursor row: only the lower id is strictly after it
+        assertEquals(sameInstant.getId(), last.getId());
+        assertEquals(1, nextPage.size());
+        assertEquals(notification1.getId(), nextPage.get(0).getId());
+    }
 }
@@ -0,0 +1,88 @@
+package com.bankingsystem.notificationservice.service;
+
+import com.bankingsystem.notificationservice.exception.ChannelUnavailableException;
+import com.bankingsystem.notificationservice.model.NotificationType;
+import com.bankingsystem.notificationservice.util.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChannelGuardRegistryTest {
+
+    private ChannelGuardRegistry registry;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("bankingsystem.notification.channels.sms.rate-per-second", "1")
+                .withProperty("bankingsystem.notification.channels.sms.burst", "2")
+                .withProperty("bankingsystem.notification.channels.email.failure-threshold", "2")
+                .withProperty("bankingsystem.notification.channels.email.open-duration-ms", "50");
+        meterRegistry = new SimpleMeterRegistry();
+
+        registry = new ChannelGuardRegistry();
+        ReflectionTestUtils.setField(registry, "environment", environment);
+        ReflectionTestUtils.setField(registry, "meterRegistry", meterRegistry);
+        registry.init();
+    }
+
+    @Test
+    void acquire_shouldRejectOnceBurstIsExhausted() {
+        registry.acquire(NotificationType.SMS);
+        registry.acquire(NotificationType.SMS);
+
+        ChannelUnavailableException e = assertThrows(ChannelUnavailableException.class,
+                () -> registry.acquire(NotificationType.SMS));
+        assertTrue(e.getRetryAt().isAfter(LocalDateTime.now()));
+        assertEquals(1.0, meterRegistry.get("notification.channel.rejections")
+                .tag("channel", "SMS").tag("reason", "rate_limited").counter().count());
+    }
+
+    @Test
+    void acquire_shouldIgnoreUnguardedTypes() {
+        assertDoesNotThrow(() -> registry.acquire(NotificationType.ACCOUNT_NOTIFICATION));
+    }
+
+    @Test
+    void recordFailure_shouldOpenBreakerAfterThresholdAndRecoverThroughHalfOpen() throws InterruptedException {
+        registry.recordFailure(NotificationType.EMAIL);
+        assertEquals(CircuitBreaker.State.CLOSED, registry.getState(NotificationType.EMAIL));
+        registry.recordFailure(NotificationType.EMAIL);
+        assertEquals(CircuitBreaker.State.OPEN, registry.getState(NotificationType.EMAIL));
+
+        assertThrows(ChannelUnavailableException.class, () -> registry.acquire(NotificationType.EMAIL));
+        assertEquals(2.0, meterRegistry.get("notification.channel.circuit.state")
+                .tag("channel", "EMAIL").gauge().value());
+
+        Thread.sleep(80);
+
+        // Exactly one trial call is let through while half-open
+        registry.acquire(NotificationType.EMAIL);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, registry.getState(NotificationType.EMAIL));
+        assertThrows(ChannelUnavailableException.class, () -> registry.acquire(NotificationType.EMAIL));
+
+        registry.recordSuccess(NotificationType.EMAIL);
+        assertEquals(CircuitBreaker.State.CLOSED, registry.getState(NotificationType.EMAIL));
+        assertDoesNotThrow(() -> registry.acquire(NotificationType.EMAIL));
+    }
+
+    @Test
+    void recordFailure_duringHalfOpenTrial_shouldReopenBreaker() throws InterruptedException {
+        registry.recordFailure(NotificationType.EMAIL);
+        registry.recordFailure(NotificationType.EMAIL);
+        Thread.sleep(80);
+
+        registry.acquire(NotificationType.EMAIL);
+        registry.recordFailure(NotificationType.EMAIL);
+
+        assertEquals(CircuitBreaker.State.OPEN, registry.getState(NotificationType.EMAIL));
+        assertThrows(ChannelUnavailableException.class, () -> registry.acquire(NotificationType.EMAIL));
+    }
+}
@@ -0,0 +1,181 @@
+package com.bankingsystem.notificationservice.service;
+
+import com.bankingsystem.notificationservice.dto.DlqReplayRequest;
+import com.bankingsystem.notificationservice.dto.DlqReplayStatusDto;
+import com.bankingsystem.notificationservice.kafka.DlqRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DlqReplayServiceTest {
+
+    @Mock
+    private ConsumerFactory<String, String> consumerFactory;
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @InjectMocks
+    private DlqReplayService dlqReplayService;
+
+    private MockConsumer<String, String> consumer;
+    private TopicPartition partition;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(dlqReplayService, "defaultRatePerSecond", 1000.0);
+        ReflectionTestUtils.setField(dlqReplayService, "maxRatePerSecond", 1000.0);
+
+        now = LocalDateTime.now();
+        partition = new TopicPartition(DlqRecord.DLQ_TOPIC, 0);
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.updatePartitions(DlqRecord.DLQ_TOPIC, List.of(
+                new PartitionInfo(DlqRecord.DLQ_TOPIC, 0, Node.noNode(), new Node[0], new Node[0])));
+        consumer.updateBeginningOffsets(Map.of(partition, 0L));
+        consumer.updateEndOffsets(Map.of(partition, 4L));
+        consumer.schedulePollTask(() -> {
+            consumer.addRecord(dlqRecord(0, "transaction-events", "transaction-created:1,100,DEPOSIT", now.minusHours(1)));
+            ConsumerRecord<String, String> keyed = dlqRecord(1, "user-events", "user-created:2", now.minusHours(1));
+            keyed.headers().add(DlqRecord.HEADER_ORIGINAL_KEY, "2".getBytes(StandardCharsets.UTF_8));
+            consumer.addRecord(keyed);
+            consumer.addRecord(new ConsumerRecord<>(DlqRecord.DLQ_TOPIC, 0, 2L, null, "not a dlq record"));
+            consumer.addRecord(dlqRecord(3, "transaction-events", "transaction-created:3,50,DEPOSIT", now.minusDays(3)));
+        });
+
+        lenient().when(consumerFactory.createConsumer(anyString(), anyString(), anyString(), any(Properties.class)))
+                .thenReturn(consumer);
+    }
+
+    @Test
+    void runReplay_shouldRepublishMatchingRecordsToOriginalTopic() {
+        // Arrange
+        when(kafkaTemplate.send(anyString(), any(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        DlqReplayJob job = new DlqReplayJob("job-1", DlqReplayRequest.builder()
+                .eventTypes(Set.of("transaction-created"))
+                .to(now)
+                .build());
+
+        // Act
+        dlqReplayService.runReplay(job);
+
+        // Assert
+        DlqReplayStatusDto status = job.toStatusDto();
+        assertEquals("COMPLETED", status.getState());
+        assertEquals(4, status.getTotalRecords());
+        assertEquals(4, status.getScanned());
+        assertEquals(2, status.getMatched());
+        assertEquals(2, status.getReplayed());
+        assertEquals(1, status.getUnparseable());
+        verify(kafkaTemplate).send("transaction-events", null, "transaction-created:1,100,DEPOSIT");
+        verify(kafkaTemplate).send("transaction-events", null, "transaction-created:3,50,DEPOSIT");
+        verify(kafkaTemplate, never()).send(eq("user-events"), any(), anyString());
+    }
+
+    @Test
+    void runReplay_dryRun_shouldOnlyCountMatches() {
+        // Arrange
+        DlqReplayJob job = new DlqReplayJob("job-2", DlqReplayRequest.builder()
+                .to(now.minusDays(1))
+                .dryRun(true)
+                .build());
+
+        // Act
+        dlqReplayService.runReplay(job);
+
+        // Assert
+        DlqReplayStatusDto status = job.toStatusDto();
+        assertEquals("COMPLETED", status.getState());
+        assertEquals(1, status.getMatched());
+        assertEquals(0, status.getReplayed());
+        verify(kafkaTemplate, never()).send(anyString(), any(), anyString());
+    }
+
+    @Test
+    void runReplay_shouldStopWhenCancelled() {
+        // Arrange
+        DlqReplayJob job = new DlqReplayJob("job-3", DlqReplayRequest.builder().build());
+        job.requestCancel();
+
+        // Act
+        dlqReplayService.runReplay(job);
+
+        // Assert
+        assertEquals(DlqReplayJob.State.CANCELLED, job.getState());
+        verify(kafkaTemplate, never()).send(anyString(), any(), anyString());
+    }
+
+    @Test
+    void runReplay_shouldReplayWithTheOriginalKey() {
+        // Arrange
+        when(kafkaTemplate.send(anyString(), any(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        DlqReplayJob job = new DlqReplayJob("job-4", DlqReplayRequest.builder()
+                .eventTypes(Set.of("user-created"))
+                .build());
+
+        // Act
+        dlqReplayService.runReplay(job);
+
+        // Assert
+        verify(kafkaTemplate).send("user-events", "2", "user-created:2");
+    }
+
+    @Test
+    void getJobs_shouldEvictJobsFinishedBeforeTheRetentionPeriod() throws InterruptedException {
+        // Arrange
+        DlqReplayJob finished = dlqReplayService.startReplay(DlqReplayRequest.builder().dryRun(true).build());
+        DlqReplayJob recent = dlqReplayService.startReplay(DlqReplayRequest.builder().dryRun(true).build());
+        dlqReplayService.shutdown();
+        ExecutorService replayExecutor = (ExecutorService) ReflectionTestUtils.getField(dlqReplayService, "replayExecutor");
+        assertTrue(replayExecutor.awaitTermination(5, TimeUnit.SECONDS));
+        ReflectionTestUtils.setField(finished, "finishedAt", now.minusHours(2));
+
+        // Act
+        Collection<DlqReplayJob> jobs = dlqReplayService.getJobs();
+
+        // Assert
+        assertEquals(List.of(recent), List.copyOf(jobs));
+        assertTrue(dlqReplayService.getJob(finished.getId()).isEmpty());
+    }
+
+    private ConsumerRecord<String, String> dlqRecord(long offset, String topic, String payload, LocalDateTime failedAt) {
+        ConsumerRecord<String, String> record = new ConsumerRecord<>(DlqRecord.DLQ_TOPIC, 0, offset, topic,
+                "ERROR: " + topic + " - " + payload + " - failure");
+        long failedAtMillis = failedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        record.headers()
+                .add(DlqRecord.HEADER_ORIGINAL_TOPIC, topic.getBytes(StandardCharsets.UTF_8))
+                .add(DlqRecord.HEADER_ORIGINAL_PAYLOAD, payload.getBytes(StandardCharsets.UTF_8))
+                .add(DlqRecord.HEADER_FAILED_AT, Long.toString(failedAtMillis).getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
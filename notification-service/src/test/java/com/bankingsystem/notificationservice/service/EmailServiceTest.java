@@ -27,6 +27,9 @@ class EmailServiceTest {
     @Mock
     private MimeMessage mimeMessage;
 
+    @Mock
+    private ChannelGuardRegistry channelGuards;
+
     @InjectMocks
     private EmailService emailService;
 
@@ -60,6 +63,7 @@ class EmailServiceTest {
         // Assert
         verify(mailSender).createMimeMessage();
         verify(mailSender).send(any(MimeMessage.class));
+        verify(channelGuards).recordSuccess(NotificationType.EMAIL);
     }    @Test
     void sendEmail_shouldThrowExceptionWhenSendingFails() throws MessagingException {
         // Arrange
@@ -72,5 +76,6 @@ class EmailServiceTest {
         // Verify
         verify(mailSender).createMimeMessage();
         verify(mailSender).send(any(MimeMessage.class));
+        verify(channelGuards).recordFailure(NotificationType.EMAIL);
     }
 }
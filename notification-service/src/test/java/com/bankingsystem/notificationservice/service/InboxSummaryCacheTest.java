@@ -0,0 +1,136 @@
+package com.bankingsystem.notificationservice.service;
+
+import com.bankingsystem.notificationservice.dto.InboxSummaryDto;
+import com.bankingsystem.notificationservice.dto.NotificationHeaderDto;
+import com.bankingsystem.notificationservice.model.Notification;
+import com.bankingsystem.notificationservice.model.NotificationType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InboxSummaryCacheTest {
+
+    private InboxSummaryCache cache;
+    private AtomicInteger loads;
+    private LongFunction<InboxSummaryDto> loader;
+
+    @BeforeEach
+    void setUp() {
+        cache = new InboxSummaryCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "headersPerUser", 2);
+        ReflectionTestUtils.setField(cache, "maxUsers", 64);
+        cache.init();
+
+        loads = new AtomicInteger();
+        loader = userId -> {
+            loads.incrementAndGet();
+            return InboxSummaryDto.builder()
+                    .userId(userId)
+                    .unreadCount(1)
+                    .latest(List.of(header(10L, false)))
+                    .build();
+        };
+    }
+
+    @Test
+    void get_shouldLoadOnceAndServeFromMemory() {
+        cache.get(1L, loader);
+        InboxSummaryDto summary = cache.get(1L, loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(1, summary.getUnreadCount());
+        assertEquals(1, summary.getLatest().size());
+    }
+
+    @Test
+    void onCreated_shouldIncrementUnreadAndKeepLatestHeaders() {
+        cache.get(1L, loader);
+
+        cache.onCreated(notification(11L));
+        cache.onCreated(notification(12L));
+        InboxSummaryDto summary = cache.get(1L, loader);
+
+        assertEquals(1, loads.get());
+        assertEquals(3, summary.getUnreadCount());
+        assertEquals(List.of(12L, 11L), summary.getLatest().stream().map(NotificationHeaderDto::getId).toList());
+    }
+
+    @Test
+    void onRead_shouldDecrementUnreadAndFlagHeaders() {
+        cache.get(1L, loader);
+        cache.onCreated(notification(11L));
+
+        cache.onRead(1L, List.of(11L), 1);
+        InboxSummaryDto summary = cache.get(1L, loader);
+
+        assertEquals(1, summary.getUnreadCount());
+        assertTrue(summary.getLatest().get(0).isRead());
+        assertFalse(summary.getLatest().get(1).isRead());
+
+        cache.onRead(1L, null, 5);
+        assertEquals(0, cache.get(1L, loader).getUnreadCount());
+    }
+
+    @Test
+    void get_shouldNotCacheResultLoadedDuringConcurrentUpdate() {
+        cache.get(1L, userId -> {
+            // An insert lands while the summary is being read from the database
+            cache.onCreated(notification(11L));
+            return loader.apply(userId);
+        });
+
+        cache.get(1L, loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_shouldReloadAfterTtl() {
+        ReflectionTestUtils.setField(cache, "ttlMs", 0L);
+
+        cache.get(1L, loader);
+        cache.get(1L, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_shouldStayWithinCapacity() {
+        for (long userId = 0; userId < 1_000; userId++) {
+            cache.get(userId, loader);
+        }
+
+        assertTrue(cache.size() <= 64);
+    }
+
+    private NotificationHeaderDto header(Long id, boolean read) {
+        return NotificationHeaderDto.builder()
+                .id(id)
+                .subject("Subject " + id)
+                .type(NotificationType.EMAIL)
+                .createdAt(LocalDateTime.now())
+                .read(read)
+                .build();
+    }
+
+    private Notification notification(Long id) {
+        return Notification.builder()
+                .id(id)
+                .userId(1L)
+                .subject("Subject " + id)
+                .content("Content")
+                .type(NotificationType.EMAIL)
+                .recipient("user@example.com")
+                .sent(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
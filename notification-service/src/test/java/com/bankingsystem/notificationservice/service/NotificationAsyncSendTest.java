@@ -0,0 +1,96 @@
+package com.bankingsystem.notificationservice.service;
+
+import com.bankingsystem.notificationservice.dto.NotificationRequest;
+import com.bankingsystem.notificationservice.model.Notification;
+import com.bankingsystem.notificationservice.model.NotificationType;
+import com.bankingsystem.notificationservice.repository.NotificationRepository;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Sends through the real {@code @Async} proxy, so provider failures have to travel back through
+ * the returned future to be recorded.
+ */
+@SpringJUnitConfig(classes = {NotificationService.class, EmailService.class, NotificationAsyncSendTest.AsyncTestConfig.class})
+class NotificationAsyncSendTest {
+
+    @Configuration
+    @EnableAsync
+    static class AsyncTestConfig {
+    }
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @MockBean
+    private NotificationRepository notificationRepository;
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    @MockBean
+    private SmsService smsService;
+
+    @MockBean
+    private PushNotificationService pushNotificationService;
+
+    @MockBean
+    private NotificationRetryPolicy retryPolicy;
+
+    @MockBean
+    private ChannelGuardRegistry channelGuards;
+
+    @MockBean
+    private InboxSummaryCache inboxSummaryCache;
+
+    @MockBean
+    private NotificationStreamRegistry streamRegistry;
+
+    @Test
+    void createNotification_whenProviderThrowsOnAsyncThread_shouldRecordFailureForRetry() {
+        // Arrange
+        LocalDateTime retryAt = LocalDateTime.now().plusMinutes(1);
+        when(notificationRepository.save(any(Notification.class))).thenAnswer(invocation -> {
+            Notification notification = invocation.getArgument(0);
+            notification.setId(7L);
+            return notification;
+        });
+        when(mailSender.createMimeMessage()).thenReturn(new MimeMessage((Session) null));
+        doThrow(new MailSendException("SMTP server unavailable")).when(mailSender).send(any(MimeMessage.class));
+        when(retryPolicy.isExhausted(1)).thenReturn(false);
+        when(retryPolicy.nextAttemptAt(eq(1), any(LocalDateTime.class))).thenReturn(retryAt);
+
+        // Act
+        notificationService.createNotification(NotificationRequest.builder()
+                .userId(1L)
+                .subject("Test Subject")
+                .content("Test Content")
+                .type(NotificationType.EMAIL)
+                .recipient("user@example.com")
+                .build());
+
+        // Assert
+        assertTrue(AopUtils.isAopProxy(emailService));
+        verify(notificationRepository, timeout(5000)).recordAttempt(eq(7L), eq(false), isNull(), eq(1),
+                eq("SMTP server unavailable"), eq(retryAt), eq(false));
+        verify(channelGuards).recordFailure(NotificationType.EMAIL);
+    }
+}
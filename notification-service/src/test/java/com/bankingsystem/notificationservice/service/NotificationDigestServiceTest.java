@@ -0,0 +1,166 @@
+package com.bankingsystem.notificationservice.service;
+
+import com.bankingsystem.notificationservice.dto.NotificationRequest;
+import com.bankingsystem.notificationservice.model.NotificationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDigestServiceTest {
+
+    @Mock
+    private NotificationService notificationService;
+
+    @InjectMocks
+    private NotificationDigestService notificationDigestService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationDigestService, "enabled", true);
+        ReflectionTestUtils.setField(notificationDigestService, "windowMs", 60000L);
+        ReflectionTestUtils.setField(notificationDigestService, "maxBatch", 3);
+    }
+
+    @Test
+    void submit_firstNotification_shouldSendImmediately() {
+        // Act
+        notificationDigestService.submit("transaction-created", request(1L, NotificationType.EMAIL, "Deposit 100"), "DEPOSIT 100");
+
+        // Assert
+        verify(notificationService).createNotification(argThat(request ->
+            request.getContent().equals("Deposit 100")
+        ));
+        assertEquals(1, notificationDigestService.getOpenWindowCount());
+    }
+
+    @Test
+    void submit_burstWithinWindow_shouldCoalesceUntilMaxBatch() {
+        // Act
+        notificationDigestService.submit("transaction-created", request(1L, NotificationType.EMAIL, "Deposit 1"), "DEPOSIT 1");
+        notificationDigestService.submit("transaction-created", request(1L, NotificationType.EMAIL, "Deposit 2"), "DEPOSIT 2");
+        notificationDigestService.submit("transaction-created", request(1L, NotificationType.EMAIL, "Deposit 3"), "DEPOSIT 3");
+
+        // Assert - only the leading notification has gone out so far
+        verify(notificationService, times(1)).createNotification(any(NotificationRequest.class));
+
+        // Act - third buffered entry reaches max batch
+        notificationDigestService.submit("transaction-created", request(1L, NotificationType.EMAIL, "Deposit 4"), "DEPOSIT 4");
+
+        // Assert
+        verify(notificationService).createNotification(argThat(request ->
+            request.getSubject().equals("Transaction Summary: 3 transactions") &&
+            request.getContent().contains("- DEPOSIT 2") &&
+            request.getContent().contains("- DEPOSIT 4")
+        ));
+    }
+
+    @Test
+    void submit_shouldKeepSeparateWindowsPerUserAndChannel() {
+        // Act
+        notificationDigestService.submit("transaction-created", request(1L, NotificationType.EMAIL, "Deposit 1"), "DEPOSIT 1");
+        notificationDigestService.submit("transaction-created", request(1L, NotificationType.SMS, "Deposit 1"), "DEPOSIT 1");
+        notificationDigestService.submit("transaction-created", request(2L, NotificationType.EMAIL, "Deposit 1"), "DEPOSIT 1");
+
+        // Assert
+        verify(notificationService, times(3)).createNotification(any(NotificationRequest.class));
+        assertEquals(3, notificationDigestService.getOpenWindowCount());
+    }
+
+    @Test
+    void flushExpiredDigests_shouldSendBufferedSmsDigestAndCloseWindow() {
+        // Arrange
+        notificationDigestService.submit("transaction-created", request(1L, NotificationType.SMS, "Deposit 1"), "DEPOSIT 1");
+        notificationDigestService.submit("transaction-created", request(1L, NotificationType.SMS, "Deposit 2"), "DEPOSIT 2");
+        notificationDigestService.submit("transaction-created", request(1L, NotificationType.SMS, "Deposit 3"), "DEPOSIT 3");
+        ReflectionTestUtils.setField(notificationDigestService, "windowMs", 0L);
+        notificationDigestService.flushExpiredDigests();
+
+        // Assert - windows opened before the change still use their original deadline
+        verify(notificationService, times(1)).createNotification(any(NotificationRequest.class));
+
+        // Act
+        notificationDigestService.flushAll();
+
+        // Assert
+        verify(notificationService).createNotification(argThat(request ->
+            request.getType() == NotificationType.SMS &&
+            request.getContent().equals("2 transactions: DEPOSIT 2; DEPOSIT 3. - Your Bank")
+        ));
+        assertEquals(0, notificationDigestService.getOpenWindowCount());
+    }
+
+    @Test
+    void submit_whenDisabled_shouldSendEveryNotification() {
+        // Arrange
+        ReflectionTestUtils.setField(notificationDigestService, "enabled", false);
+
+        // Act
+        notificationDigestService.submit("transaction-created", request(1L, NotificationType.EMAIL, "Deposit 1"), "DEPOSIT 1");
+        notificationDigestService.submit("transaction-created", request(1L, NotificationType.EMAIL, "Deposit 2"), "DEPOSIT 2");
+
+        // Assert
+        verify(notificationService, times(2)).createNotification(any(NotificationRequest.class));
+        assertEquals(0, notificationDigestService.getOpenWindowCount());
+    }
+
+    @Test
+    void submit_whenSendFails_shouldPropagate_andKeepEarlierEntriesForRetry() {
+        // Arrange
+        notificationDigestService.submit("transaction-created", request(1L, NotificationType.EMAIL, "Deposit 1"), "DEPOSIT 1");
+        notificationDigestService.submit("transaction-created", request(1L, NotificationType.EMAIL, "Deposit 2"), "DEPOSIT 2");
+        notificationDigestService.submit("transaction-created", request(1L, NotificationType.EMAIL, "Deposit 3"), "DEPOSIT 3");
+        doThrow(new IllegalStateException("database unavailable"))
+                .when(notificationService).createNotification(any(NotificationRequest.class));
+
+        // Act & Assert - the event that triggered the flush fails back to the consumer
+        assertThrows(IllegalStateException.class, () -> notificationDigestService.submit("transaction-created",
+                request(1L, NotificationType.EMAIL, "Deposit 4"), "DEPOSIT 4"));
+        assertEquals(2, notificationDigestService.getPendingCount());
+
+        // Act - the database is back by the next flush
+        doReturn(null).when(notificationService).createNotification(any(NotificationRequest.class));
+        notificationDigestService.flushAll();
+
+        // Assert
+        verify(notificationService).createNotification(argThat(request ->
+            request.getSubject().equals("Transaction Summary: 2 transactions") &&
+            request.getContent().contains("- DEPOSIT 2") &&
+            !request.getContent().contains("- DEPOSIT 4")
+        ));
+    }
+
+    @Test
+    void submit_shouldTakeDigestWordingFromEventType() {
+        // Act
+        for (int i = 1; i <= 4; i++) {
+            notificationDigestService.submit("account-balance-low",
+                    request(1L, NotificationType.SMS, "Low " + i), "LOW " + i);
+        }
+
+        // Assert
+        verify(notificationService).createNotification(argThat(request ->
+            request.getSubject().equals("Account Summary: 3 accounts") &&
+            request.getContent().equals("3 accounts: LOW 2; LOW 3; LOW 4. - Your Bank")
+        ));
+    }
+
+    private NotificationRequest request(Long userId, NotificationType type, String content) {
+        return NotificationRequest.builder()
+                .userId(userId)
+                .subject("Transaction Alert: DEPOSIT")
+                .content(content)
+                .type(type)
+                .recipient(type == NotificationType.SMS ? "+1234567890" : "user@example.com")
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.bankingsystem.notificationservice.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationRetryPolicyTest {
+
+    private NotificationRetryPolicy retryPolicy;
+
+    @BeforeEach
+    void setUp() {
+        retryPolicy = new NotificationRetryPolicy();
+        ReflectionTestUtils.setField(retryPolicy, "maxAttempts", 4);
+        ReflectionTestUtils.setField(retryPolicy, "initialBackoffMs", 1000L);
+        ReflectionTestUtils.setField(retryPolicy, "maxBackoffMs", 5000L);
+    }
+
+    @Test
+    void backoffMillis_shouldGrowExponentiallyWithinJitterBounds() {
+        for (int i = 0; i < 100; i++) {
+            assertBetween(500, 1000, retryPolicy.backoffMillis(1));
+            assertBetween(1000, 2000, retryPolicy.backoffMillis(2));
+            assertBetween(2000, 4000, retryPolicy.backoffMillis(3));
+        }
+    }
+
+    @Test
+    void backoffMillis_shouldBeCappedAtMaxBackoff() {
+        for (int i = 0; i < 100; i++) {
+            assertBetween(2500, 5000, retryPolicy.backoffMillis(4));
+            assertBetween(2500, 5000, retryPolicy.backoffMillis(60));
+        }
+    }
+
+    @Test
+    void nextAttemptAt_shouldAddBackoffToNow() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+
+        // Act
+        LocalDateTime next = retryPolicy.nextAttemptAt(1, now);
+
+        // Assert
+        assertBetween(500, 1000, Duration.between(now, next).toMillis());
+    }
+
+    @Test
+    void isExhausted_shouldTripAtMaxAttempts() {
+        assertFalse(retryPolicy.isExhausted(3));
+        assertTrue(retryPolicy.isExhausted(4));
+    }
+
+    private static void assertBetween(long min, long max, long actual) {
+        assertTrue(actual >= min && actual <= max, () -> actual + " not in [" + min + ", " + max + "]");
+    }
+}
@@ -1,7 +1,11 @@
 package com.bankingsystem.notificationservice.service;
 
+import com.bankingsystem.notificationservice.dto.InboxCursor;
+import com.bankingsystem.notificationservice.dto.InboxSummaryDto;
+import com.bankingsystem.notificationservice.dto.NotificationInboxPage;
 import com.bankingsystem.notificationservice.dto.NotificationRequest;
 import com.bankingsystem.notificationservice.dto.NotificationResponseDto;
+import com.bankingsystem.notificationservice.exception.ChannelUnavailableException;
 import com.bankingsystem.notificationservice.model.Notification;
 import com.bankingsystem.notificationservice.model.NotificationType;
 import com.bankingsystem.notificationservice.repository.NotificationRepository;
@@ -19,10 +23,13 @@ import org.springframework.data.domain.Pageable;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongFunction;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +47,18 @@ class NotificationServiceTest {
     @Mock
     private PushNotificationService pushNotificationService;
     
+    @Mock
+    private NotificationRetryPolicy retryPolicy;
+    
+    @Mock
+    private ChannelGuardRegistry channelGuards;
+    
+    @Mock
+    private InboxSummaryCache inboxSummaryCache;
+    
+    @Mock
+    private NotificationStreamRegistry streamRegistry;
+    
     @InjectMocks
     private NotificationService notificationService;
     
@@ -140,7 +159,7 @@ class NotificationServiceTest {
         request.setRecipient("user@example.com");
         
         when(notificationRepository.save(any(Notification.class))).thenReturn(testNotification);
-        doNothing().when(emailService).sendEmail(any(Notification.class));
+        when(emailService.sendEmail(any(Notification.class))).thenReturn(CompletableFuture.completedFuture(null));
         
         // Act
         NotificationResponseDto result = notificationService.createNotification(request);
@@ -149,8 +168,11 @@ class NotificationServiceTest {
         assertEquals(1L, result.getId());
         assertEquals(request.getUserId(), result.getUserId());
         assertEquals(request.getSubject(), result.getSubject());
-        verify(notificationRepository, times(2)).save(any(Notification.class));
+        verify(notificationRepository).save(any(Notification.class));
         verify(emailService).sendEmail(any(Notification.class));
+        verify(notificationRepository).recordAttempt(eq(1L), eq(true), any(LocalDateTime.class), eq(1),
+                isNull(), isNull(), any());
+        verify(streamRegistry).publish(1L, result);
     }
     
     @Test
@@ -166,7 +188,7 @@ class NotificationServiceTest {
         request.setRecipient("+1234567890");
         
         when(notificationRepository.save(any(Notification.class))).thenReturn(testNotification);
-        doNothing().when(smsService).sendSms(any(Notification.class));
+        when(smsService.sendSms(any(Notification.class))).thenReturn(CompletableFuture.completedFuture(null));
         
         // Act
         NotificationResponseDto result = notificationService.createNotification(request);
@@ -174,8 +196,120 @@ class NotificationServiceTest {
         // Assert
         assertEquals(1L, result.getId());
         assertEquals(NotificationType.SMS, result.getType());
-        verify(notificationRepository, times(2)).save(any(Notification.class));
+        verify(notificationRepository).save(any(Notification.class));
         verify(smsService).sendSms(any(Notification.class));
+        verify(notificationRepository).recordAttempt(eq(1L), eq(true), any(LocalDateTime.class), eq(1),
+                isNull(), isNull(), any());
+    }
+    
+    @Test
+    void getInbox_shouldReturnCursorWhenMoreRowsExist() {
+        // Arrange
+        Notification older = Notification.builder()
+                .id(7L)
+                .userId(1L)
+                .subject("Older")
+                .content("Older Content")
+                .type(NotificationType.EMAIL)
+                .recipient("user@example.com")
+                .sent(true)
+                .createdAt(now.minusHours(1))
+                .build();
+        Notification oldest = Notification.builder()
+                .id(3L)
+                .userId(1L)
+                .subject("Oldest")
+                .content("Oldest Content")
+                .type(NotificationType.EMAIL)
+                .recipient("user@example.com")
+                .sent(true)
+                .createdAt(now.minusHours(2))
+                .build();
+        when(notificationRepository.findInboxFirstPage(eq(1L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(testNotification, older, oldest));
+        
+        // Act
+        NotificationInboxPage result = notificationService.getInbox(1L, null, null, 2);
+        
+        // Assert
+        assertEquals(2, result.getNotifications().size());
+        assertTrue(result.isHasMore());
+        InboxCursor cursor = InboxCursor.decode(result.getNextCursor());
+        assertEquals(older.getCreatedAt(), cursor.createdAt());
+        assertEquals(7L, cursor.id());
+        verify(notificationRepository).findInboxFirstPage(1L, PageRequest.of(0, 3));
+    }
+    
+    @Test
+    void getInbox_withCursorAndType_shouldContinueAfterCursor() {
+        // Arrange
+        LocalDateTime cursorTime = now.minusDays(1);
+        String cursor = new InboxCursor(cursorTime, 42L).encode();
+        when(notificationRepository.findInboxPageAfterByType(
+                eq(1L), eq(NotificationType.EMAIL), eq(cursorTime), eq(42L), any(Pageable.class)))
+                .thenReturn(notifications);
+        
+        // Act
+        NotificationInboxPage result = notificationService.getInbox(1L, NotificationType.EMAIL, cursor, 20);
+        
+        // Assert
+        assertEquals(1, result.getNotifications().size());
+        assertFalse(result.isHasMore());
+        assertNull(result.getNextCursor());
+    }
+    
+    @Test
+    void getInbox_shouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> notificationService.getInbox(1L, null, "not-a-cursor", 20));
+        verifyNoInteractions(notificationRepository);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void getInboxSummary_shouldLoadCountAndLatestHeadersOnMiss() {
+        // Arrange
+        when(inboxSummaryCache.getHeadersPerUser()).thenReturn(5);
+        when(inboxSummaryCache.get(eq(1L), any(LongFunction.class)))
+                .thenAnswer(invocation -> ((LongFunction<InboxSummaryDto>) invocation.getArgument(1)).apply(1L));
+        when(notificationRepository.countByUserIdAndReadAtIsNull(1L)).thenReturn(3L);
+        when(notificationRepository.findInboxFirstPage(1L, PageRequest.of(0, 5))).thenReturn(notifications);
+        
+        // Act
+        InboxSummaryDto result = notificationService.getInboxSummary(1L);
+        
+        // Assert
+        assertEquals(3, result.getUnreadCount());
+        assertEquals(1, result.getLatest().size());
+        assertEquals("Test Subject", result.getLatest().get(0).getSubject());
+        assertFalse(result.getLatest().get(0).isRead());
+    }
+    
+    @Test
+    void markRead_shouldUpdateRepositoryAndCache() {
+        // Arrange
+        List<Long> ids = List.of(1L, 2L);
+        when(notificationRepository.markRead(eq(1L), eq(ids), any(LocalDateTime.class))).thenReturn(2);
+        
+        // Act
+        int marked = notificationService.markRead(1L, ids);
+        
+        // Assert
+        assertEquals(2, marked);
+        verify(inboxSummaryCache).onRead(1L, ids, 2);
+    }
+    
+    @Test
+    void markAllRead_shouldUpdateRepositoryAndCache() {
+        // Arrange
+        when(notificationRepository.markAllRead(eq(1L), any(LocalDateTime.class))).thenReturn(4);
+        
+        // Act
+        int marked = notificationService.markAllRead(1L);
+        
+        // Assert
+        assertEquals(4, marked);
+        verify(inboxSummaryCache).onRead(1L, null, 4);
     }
     
     @Test
@@ -192,16 +326,23 @@ class NotificationServiceTest {
                 .createdAt(now.minusDays(1))
                 .build();
                 
-        when(notificationRepository.findBySentFalse()).thenReturn(Arrays.asList(pendingNotification));
-        when(notificationRepository.save(any(Notification.class))).thenReturn(pendingNotification);
+        when(notificationRepository.claimDueForRetry(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Arrays.asList(pendingNotification));
+        when(emailService.sendEmail(pendingNotification)).thenReturn(CompletableFuture.completedFuture(null));
         
         // Act
-        notificationService.sendPendingNotifications();
+        int claimed = notificationService.sendPendingNotifications();
         
         // Assert
-        verify(notificationRepository).findBySentFalse();
+        assertEquals(1, claimed);
+        verify(notificationRepository).claimDueForRetry(any(LocalDateTime.class), any(Pageable.class));
         verify(emailService).sendEmail(pendingNotification);
-        verify(notificationRepository).save(pendingNotification);
+        verify(notificationRepository).saveAll(Arrays.asList(pendingNotification));
+        verify(notificationRepository).recordAttempt(eq(2L), eq(true), any(LocalDateTime.class), eq(1),
+                isNull(), isNull(), any());
+        assertTrue(pendingNotification.getSent());
+        assertEquals(1, pendingNotification.getAttempts());
+        assertNull(pendingNotification.getNextAttemptAt());
     }
     
     @Test
@@ -229,27 +370,98 @@ class NotificationServiceTest {
                 .createdAt(now.minusDays(1))
                 .build();
                 
-        when(notificationRepository.findBySentFalse()).thenReturn(Arrays.asList(emailNotification, smsNotification));
-        when(notificationRepository.save(any(Notification.class))).thenAnswer(i -> i.getArguments()[0]);
-        doThrow(new RuntimeException("Email service error")).when(emailService).sendEmail(any(Notification.class));
+        LocalDateTime retryAt = now.plusMinutes(1);
+        when(notificationRepository.claimDueForRetry(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Arrays.asList(emailNotification, smsNotification));
+        when(retryPolicy.isExhausted(1)).thenReturn(false);
+        when(retryPolicy.nextAttemptAt(eq(1), any(LocalDateTime.class))).thenReturn(retryAt);
+        when(emailService.sendEmail(any(Notification.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Email service error")));
+        when(smsService.sendSms(any(Notification.class))).thenReturn(CompletableFuture.completedFuture(null));
         
         // Act
         notificationService.sendPendingNotifications();
         
         // Assert
-        verify(notificationRepository).findBySentFalse();
         verify(emailService).sendEmail(any(Notification.class));
         verify(smsService).sendSms(any(Notification.class));
+        verify(notificationRepository).saveAll(Arrays.asList(emailNotification, smsNotification));
+        
+        // Verify the error was recorded and the failed notification rescheduled
+        assertTrue(emailNotification.getErrorMessage().contains("Email service error"));
+        assertFalse(emailNotification.getSent());
+        assertEquals(retryAt, emailNotification.getNextAttemptAt());
+        verify(notificationRepository).recordAttempt(eq(2L), eq(false), isNull(), eq(1),
+                eq("Email service error"), eq(retryAt), any());
+        assertTrue(smsNotification.getSent());
+    }
+    
+    @Test
+    void sendPendingNotifications_shouldDeadLetterWhenAttemptsExhausted() {
+        // Arrange
+        Notification failingNotification = Notification.builder()
+                .id(4L)
+                .userId(2L)
+                .subject("Email Subject")
+                .content("Email Content")
+                .type(NotificationType.EMAIL)
+                .recipient("email@example.com")
+                .sent(false)
+                .attempts(5)
+                .nextAttemptAt(now.minusMinutes(1))
+                .deadLettered(false)
+                .createdAt(now.minusDays(1))
+                .build();
+        
+        when(notificationRepository.claimDueForRetry(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Arrays.asList(failingNotification));
+        when(retryPolicy.isExhausted(6)).thenReturn(true);
+        when(emailService.sendEmail(any(Notification.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Email service error")));
         
-        // Verify the error was recorded
-        verify(notificationRepository, times(2)).save(argThat(notification -> {
-            if (notification.getId().equals(2L)) {
-                return notification.getErrorMessage() != null && 
-                       notification.getErrorMessage().contains("Email service error") &&
-                       !notification.getSent();
-            }
-            return true;
-        }));
+        // Act
+        notificationService.sendPendingNotifications();
+        
+        // Assert
+        assertEquals(6, failingNotification.getAttempts());
+        assertTrue(failingNotification.getDeadLettered());
+        assertNull(failingNotification.getNextAttemptAt());
+        verify(retryPolicy, never()).nextAttemptAt(anyInt(), any(LocalDateTime.class));
+    }
+    
+    @Test
+    void sendPendingNotifications_shouldDeferWithoutCountingAttemptWhenChannelUnavailable() {
+        // Arrange
+        Notification smsNotification = Notification.builder()
+                .id(5L)
+                .userId(2L)
+                .subject("SMS Subject")
+                .content("SMS Content")
+                .type(NotificationType.SMS)
+                .recipient("+1234567890")
+                .sent(false)
+                .attempts(2)
+                .nextAttemptAt(now.minusMinutes(1))
+                .deadLettered(false)
+                .createdAt(now.minusDays(1))
+                .build();
+        
+        LocalDateTime retryAt = now.plusSeconds(30);
+        when(notificationRepository.claimDueForRetry(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Arrays.asList(smsNotification));
+        doThrow(new ChannelUnavailableException("SMS channel circuit breaker is open", retryAt))
+                .when(channelGuards).acquire(NotificationType.SMS);
+        
+        // Act
+        notificationService.sendPendingNotifications();
+        
+        // Assert
+        verify(smsService, never()).sendSms(any(Notification.class));
+        verify(retryPolicy, never()).isExhausted(anyInt());
+        assertFalse(smsNotification.getSent());
+        assertEquals(2, smsNotification.getAttempts());
+        assertEquals(retryAt, smsNotification.getNextAttemptAt());
+        assertTrue(smsNotification.getErrorMessage().contains("circuit breaker is open"));
     }
     
     @Test
@@ -282,6 +494,6 @@ class NotificationServiceTest {
         assertEquals("Test Subject", result.getSubject());
         assertNotNull(result.getErrorMessage());
         assertTrue(result.getErrorMessage().contains("Unsupported notification type"));
-        verify(notificationRepository, times(2)).save(any(Notification.class));
+        verify(notificationRepository).save(any(Notification.class));
     }
 }
@@ -0,0 +1,176 @@
+package com.bankingsystem.notificationservice.service;
+
+import com.bankingsystem.notificationservice.dto.NotificationResponseDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationStreamRegistryTest {
+
+    private NotificationStreamRegistry registry;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registry = new NotificationStreamRegistry();
+        ReflectionTestUtils.setField(registry, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(registry, "maxPendingEvents", 3);
+        ReflectionTestUtils.setField(registry, "maxSessionsPerUser", 2);
+        registry.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    void publish_shouldFanOutToTenThousandConnectionsWithoutBlockingPublisher() throws InterruptedException {
+        int connections = 10_000;
+        int stalled = 3;
+        CountDownLatch delivered = new CountDownLatch(connections);
+        CountDownLatch unstall = new CountDownLatch(1);
+        List<RecordingEmitter> emitters = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            // A few clients stop reading altogether, fewer than there are writer threads
+            RecordingEmitter emitter = new RecordingEmitter(delivered, i < stalled ? unstall : null);
+            emitters.add(emitter);
+            registry.register(i, emitter);
+        }
+        assertEquals(connections, registry.getConnectionCount());
+
+        // A publisher that wrote synchronously would never get past the first stalled client
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+            for (int i = 0; i < connections; i++) {
+                registry.publish(i, notification(i));
+            }
+        });
+
+        waitUntil(() -> sentEvents() == connections - stalled);
+        assertEquals(stalled, delivered.getCount());
+        unstall.countDown();
+
+        assertTrue(delivered.await(30, TimeUnit.SECONDS), "all connections should receive their event");
+        assertTrue(emitters.stream().allMatch(emitter -> emitter.sent.get() == 1));
+        waitUntil(() -> sentEvents() == connections);
+        assertEquals(0.0, meterRegistry.get("notification.stream.events").tag("result", "dropped").counter().count());
+    }
+
+    @Test
+    void publish_shouldDeliverInOrderAndDropOldestWhenOutboxOverflows() throws InterruptedException {
+        CountDownLatch firstSendStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> received = new ArrayList<>();
+        SseEmitter emitter = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                firstSendStarted.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                synchronized (received) {
+                    received.add(builder.build().iterator().next().getData().toString().split("\n")[0]);
+                }
+            }
+        };
+        registry.register(1L, emitter);
+
+        registry.publish(1L, notification(1));
+        assertTrue(firstSendStarted.await(5, TimeUnit.SECONDS));
+        for (long id = 2; id <= 6; id++) {
+            registry.publish(1L, notification(id));
+        }
+        release.countDown();
+
+        waitUntil(() -> {
+            synchronized (received) {
+                return received.size() == 4;
+            }
+        });
+        synchronized (received) {
+            assertEquals(List.of("id:1", "id:4", "id:5", "id:6"), received);
+        }
+        assertEquals(2.0, meterRegistry.get("notification.stream.events").tag("result", "dropped").counter().count());
+    }
+
+    @Test
+    void publish_shouldRemoveSessionWhenWriteFails() throws InterruptedException {
+        registry.register(1L, new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        });
+
+        registry.publish(1L, notification(1));
+
+        waitUntil(() -> registry.getConnectionCount() == 0);
+    }
+
+    @Test
+    void register_shouldCloseOldestSessionsBeyondPerUserLimit() {
+        registry.register(1L, new SseEmitter());
+        registry.register(1L, new SseEmitter());
+        registry.register(1L, new SseEmitter());
+        registry.register(2L, new SseEmitter());
+
+        assertEquals(3, registry.getConnectionCount());
+    }
+
+    private static NotificationResponseDto notification(long id) {
+        return NotificationResponseDto.builder().id(id).userId(id).subject("Subject " + id).build();
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+
+    private double sentEvents() {
+        return meterRegistry.get("notification.stream.events").tag("result", "sent").counter().count();
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch delivered;
+        private final CountDownLatch stall;
+        private final AtomicInteger sent = new AtomicInteger();
+
+        private RecordingEmitter(CountDownLatch delivered, CountDownLatch stall) {
+            this.delivered = delivered;
+            this.stall = stall;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (stall != null) {
+                try {
+                    stall.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.incrementAndGet();
+            delivered.countDown();
+        }
+    }
+}
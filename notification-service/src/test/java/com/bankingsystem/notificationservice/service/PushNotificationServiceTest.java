@@ -6,15 +6,22 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class PushNotificationServiceTest {
 
+    @Mock
+    private ChannelGuardRegistry channelGuards;
+
     @InjectMocks
     private PushNotificationService pushNotificationService;
 
@@ -41,6 +48,7 @@ class PushNotificationServiceTest {
     void sendPushNotification_shouldNotThrowException() {
         // Act & Assert
         assertDoesNotThrow(() -> pushNotificationService.sendPushNotification(testNotification));
+        verify(channelGuards).recordSuccess(NotificationType.PUSH);
     }
 
     @Test
@@ -48,14 +56,16 @@ class PushNotificationServiceTest {
         // Create a subclass of PushNotificationService that will throw InterruptedException
         PushNotificationService testService = new PushNotificationService() {
             @Override
-            public void sendPushNotification(Notification notification) {
+            public CompletableFuture<Void> sendPushNotification(Notification notification) {
                 // Immediately interrupt the thread to simulate InterruptedException
                 Thread.currentThread().interrupt();
-                super.sendPushNotification(notification);
+                return super.sendPushNotification(notification);
             }
         };
+        ReflectionTestUtils.setField(testService, "channelGuards", channelGuards);
         
         // Act & Assert
         assertThrows(RuntimeException.class, () -> testService.sendPushNotification(testNotification));
+        verify(channelGuards).recordFailure(NotificationType.PUSH);
     }
 }
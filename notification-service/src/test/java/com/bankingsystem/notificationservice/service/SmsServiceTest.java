@@ -6,15 +6,22 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
+import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class SmsServiceTest {
 
+    @Mock
+    private ChannelGuardRegistry channelGuards;
+
     @InjectMocks
     private SmsService smsService;
 
@@ -41,6 +48,7 @@ class SmsServiceTest {
     void sendSms_shouldNotThrowException() {
         // Act & Assert
         assertDoesNotThrow(() -> smsService.sendSms(testNotification));
+        verify(channelGuards).recordSuccess(NotificationType.SMS);
     }
 
     @Test
@@ -48,14 +56,16 @@ class SmsServiceTest {
         // Create a subclass of SmsService that will throw InterruptedException
         SmsService testService = new SmsService() {
             @Override
-            public void sendSms(Notification notification) {
+            public CompletableFuture<Void> sendSms(Notification notification) {
                 // Immediately interrupt the thread to simulate InterruptedException
                 Thread.currentThread().interrupt();
-                super.sendSms(notification);
+                return super.sendSms(notification);
             }
         };
+        ReflectionTestUtils.setField(testService, "channelGuards", channelGuards);
         
         // Act & Assert
         assertThrows(RuntimeException.class, () -> testService.sendSms(testNotification));
+        verify(channelGuards).recordFailure(NotificationType.SMS);
     }
 }
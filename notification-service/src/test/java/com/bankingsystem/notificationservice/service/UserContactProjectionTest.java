@@ -0,0 +1,137 @@
+package com.bankingsystem.notificationservice.service;
+
+import com.bankingsystem.notificationservice.client.UserServiceClient;
+import com.bankingsystem.notificationservice.dto.UserDto;
+import com.bankingsystem.notificationservice.model.UserContact;
+import com.bankingsystem.notificationservice.repository.UserContactRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserContactProjectionTest {
+
+    @Mock
+    private UserContactRepository userContactRepository;
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    @InjectMocks
+    private UserContactProjection projection;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(projection, "meterRegistry", new SimpleMeterRegistry());
+        projection.init();
+    }
+
+    @Test
+    void apply_shouldUpsertContactFromEnrichedEvent() {
+        // Arrange
+        when(userContactRepository.findById(7L)).thenReturn(Optional.empty());
+
+        // Act
+        projection.apply("user-created:{\"userId\":7,\"firstName\":\"John\",\"email\":\"john@example.com\","
+                + "\"phoneNumber\":\"+15550100\",\"deleted\":false,\"version\":10,\"extra\":\"ignored\"}");
+
+        // Assert
+        ArgumentCaptor<UserContact> saved = ArgumentCaptor.forClass(UserContact.class);
+        verify(userContactRepository).save(saved.capture());
+        assertEquals(7L, saved.getValue().getUserId());
+        assertEquals("john@example.com", saved.getValue().getEmail());
+        assertEquals("+15550100", saved.getValue().getPhoneNumber());
+        assertEquals(10L, saved.getValue().getVersion());
+        assertFalse(saved.getValue().getDeleted());
+    }
+
+    @Test
+    void apply_shouldIgnoreStaleEvents() {
+        // Arrange
+        when(userContactRepository.findById(7L)).thenReturn(Optional.of(contact(7L, 20L)));
+
+        // Act
+        projection.apply("user-updated:{\"userId\":7,\"email\":\"old@example.com\",\"version\":10}");
+
+        // Assert
+        verify(userContactRepository, never()).save(any(UserContact.class));
+    }
+
+    @Test
+    void apply_shouldIgnoreLegacyIdOnlyEvents() {
+        projection.apply("user-created:7");
+
+        verifyNoInteractions(userContactRepository);
+    }
+
+    @Test
+    void apply_shouldRejectMalformedJson() {
+        assertThrows(IllegalArgumentException.class, () -> projection.apply("user-created:{\"userId\":"));
+    }
+
+    @Test
+    void getUser_shouldServeFromProjectionWithoutRemoteCall() {
+        // Arrange
+        when(userContactRepository.findById(7L)).thenReturn(Optional.of(contact(7L, 1L)));
+
+        // Act
+        UserDto user = projection.getUser(7L);
+
+        // Assert
+        assertEquals("user7@example.com", user.getEmail());
+        verifyNoInteractions(userServiceClient);
+    }
+
+    @Test
+    void getUser_shouldRejectDeletedUsers() {
+        // Arrange
+        UserContact deleted = contact(7L, 1L);
+        deleted.setDeleted(true);
+        when(userContactRepository.findById(7L)).thenReturn(Optional.of(deleted));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> projection.getUser(7L));
+    }
+
+    @Test
+    void getUser_onMiss_shouldFallBackToUserServiceOnlyWhenEnabled() {
+        // Arrange
+        when(userContactRepository.findById(7L)).thenReturn(Optional.empty());
+        when(userServiceClient.getUserById(7L)).thenReturn(UserDto.builder().id(7L).build());
+
+        // Act & Assert
+        assertEquals(7L, projection.getUser(7L).getId());
+
+        ReflectionTestUtils.setField(projection, "remoteFallback", false);
+        assertThrows(IllegalStateException.class, () -> projection.getUser(7L));
+        verify(userServiceClient, times(1)).getUserById(7L);
+    }
+
+    @Test
+    void userIdOf_shouldHandleJsonAndLegacyPayloads() {
+        assertEquals(7L, projection.userIdOf("{\"userId\":7,\"version\":1}"));
+        assertEquals(7L, projection.userIdOf("7"));
+    }
+
+    private UserContact contact(Long userId, Long version) {
+        return UserContact.builder()
+                .userId(userId)
+                .firstName("User")
+                .email("user" + userId + "@example.com")
+                .deleted(false)
+                .version(version)
+                .build();
+    }
+}
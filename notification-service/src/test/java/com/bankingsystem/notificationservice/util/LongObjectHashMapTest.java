@@ -0,0 +1,61 @@
+package com.bankingsystem.notificationservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongObjectHashMapTest {
+
+    @Test
+    void putGetRemove_shouldBehaveLikeAMap() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>(2);
+
+        assertNull(map.put(1L, "one"));
+        assertNull(map.put(-7L, "minus seven"));
+        assertEquals("one", map.put(1L, "uno"));
+
+        assertEquals("uno", map.get(1L));
+        assertEquals("minus seven", map.get(-7L));
+        assertNull(map.get(2L));
+        assertEquals(2, map.size());
+
+        assertEquals("uno", map.remove(1L));
+        assertNull(map.get(1L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void randomOperations_shouldMatchHashMapAcrossResizesAndRemovals() {
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>(4);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    void keyNear_shouldReturnAnExistingKey() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>(16);
+        map.put(99L, "x");
+
+        assertEquals(99L, map.keyNear(12345));
+        map.clear();
+        assertThrows(IllegalStateException.class, () -> map.keyNear(0));
+    }
+}
@@ -0,0 +1,80 @@
+-- Inbox read benchmark over 50M notifications.
+--
+-- Run with psql against a scratch PostgreSQL database in which notifications-partitioning.sql
+-- has been applied (or against the plain table, for a before/after comparison):
+--
+--   psql -d bench -v ON_ERROR_STOP=1 -f inbox-paging-benchmark.sql
+--
+-- Loads 50M rows spread over 200k users and 12 months, then compares the old OFFSET paging
+-- used by GET /api/notifications/user/{userId} with the keyset queries behind
+-- GET /api/notifications/user/{userId}/inbox. Compare "Execution Time" and shared buffer hits.
+
+\timing on
+
+-- Rows land in the right monthly partitions; loading in 10 chunks keeps WAL and memory in check
+DO $$
+BEGIN
+    FOR chunk IN 0..9 LOOP
+        INSERT INTO notifications (user_id, subject, content, type, recipient, sent, sent_at, created_at,
+                                   attempts, dead_lettered)
+        SELECT (random() * 199999)::BIGINT + 1,
+               'Transaction Notification',
+               'A transaction of 100.00 has been processed on your account.',
+               (ARRAY['EMAIL', 'SMS', 'PUSH'])[1 + (g % 3)],
+               'user' || g || '@example.com',
+               TRUE,
+               ts,
+               ts,
+               1,
+               FALSE
+        FROM generate_series(chunk * 5000000 + 1, (chunk + 1) * 5000000) AS g,
+             LATERAL (SELECT now() - (random() * INTERVAL '360 days') AS ts) AS t;
+        COMMIT;
+    END LOOP;
+END $$;
+
+ANALYZE notifications;
+
+-- Pick a heavy user so deep pages actually exist
+SELECT user_id AS bench_user FROM notifications GROUP BY user_id ORDER BY count(*) DESC LIMIT 1 \gset
+
+-- OFFSET paging, page 1 and page 20 of 20 rows, plus the count query Page<> issues
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM notifications WHERE user_id = :bench_user ORDER BY created_at DESC LIMIT 20 OFFSET 0;
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM notifications WHERE user_id = :bench_user ORDER BY created_at DESC LIMIT 20 OFFSET 380;
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT count(*) FROM notifications WHERE user_id = :bench_user;
+
+-- Keyset paging: first page, then a page starting after the 380th row
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM notifications WHERE user_id = :bench_user ORDER BY created_at DESC, id DESC LIMIT 21;
+
+SELECT created_at AS cursor_created_at, id AS cursor_id FROM notifications
+WHERE user_id = :bench_user ORDER BY created_at DESC, id DESC OFFSET 379 LIMIT 1 \gset
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM notifications
+WHERE user_id = :bench_user
+  AND (created_at < :'cursor_created_at' OR (created_at = :'cursor_created_at' AND id < :cursor_id))
+ORDER BY created_at DESC, id DESC LIMIT 21;
+
+-- Type-filtered inbox
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM notifications
+WHERE user_id = :bench_user AND type = 'SMS'
+  AND (created_at < :'cursor_created_at' OR (created_at = :'cursor_created_at' AND id < :cursor_id))
+ORDER BY created_at DESC, id DESC LIMIT 21;
+
+-- Retention: dropping a month is a catalog operation, unlike deleting the same rows
+SELECT c.relname AS oldest_partition FROM pg_inherits i
+JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent
+WHERE p.relname = 'notifications' ORDER BY c.relname LIMIT 1 \gset
+BEGIN;
+EXPLAIN (ANALYZE)
+DELETE FROM notifications WHERE created_at < date_trunc('month', now()) - INTERVAL '11 months';
+ROLLBACK;
+BEGIN;
+ALTER TABLE notifications DETACH PARTITION :oldest_partition;
+DROP TABLE :oldest_partition;
+ROLLBACK;
@@ -0,0 +1,67 @@
+package com.bankingsystem.transactionservice.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of issuing one transaction reference.
+ * <ul>
+ *   <li>{@code timeOrdered}: {@link TransactionReferenceGenerator}</li>
+ *   <li>{@code timeOrderedContended}: the same from four threads sharing one generator</li>
+ *   <li>{@code randomUuid}: the previous random UUID, stringified, stripped, cut and upper-cased</li>
+ * </ul>
+ * Run with {@code -prof gc} to compare allocation per reference as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionReferenceGeneratorBenchmark {
+
+    private TransactionReferenceGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new TransactionReferenceGenerator();
+        ReflectionTestUtils.setField(generator, "nodeId", 1);
+        generator.init();
+    }
+
+    @Benchmark
+    public String timeOrdered() {
+        return generator.generateTransactionReference();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String timeOrderedContended() {
+        return generator.generateTransactionReference();
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 16).toUpperCase();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TransactionReferenceGeneratorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -4,6 +4,7 @@ import com.bankingsystem.transactionservice.model.Transaction;
 import com.bankingsystem.transactionservice.model.TransactionStatus;
 import com.bankingsystem.transactionservice.model.TransactionType;
 import com.bankingsystem.transactionservice.repository.TransactionRepository;
+import com.bankingsystem.transactionservice.util.TransactionReferenceGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,7 +13,6 @@ import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @Component
 public class TransactionEventConsumer {
@@ -22,6 +22,9 @@ public class TransactionEventConsumer {
     @Autowired
     private TransactionRepository transactionRepository;
     
+    @Autowired
+    private TransactionReferenceGenerator transactionReferenceGenerator;
+    
     @KafkaListener(topics = "transaction-events", groupId = "transaction-service")
     public void consumeTransactionEvents(String message) {
         logger.info("Received transaction event: {}", message);
@@ -67,7 +70,7 @@ public class TransactionEventConsumer {
             BigDecimal finalBalance = new BigDecimal(parts[2]);
             
             Transaction transaction = Transaction.builder()
-                    .transactionReference(generateTransactionReference())
+                    .transactionReference(transactionReferenceGenerator.generateTransactionReference())
                     .type(TransactionType.DEPOSIT)
                     .sourceAccountNumber(accountId)
                     .destinationAccountNumber(accountId)
@@ -98,7 +101,7 @@ public class TransactionEventConsumer {
             BigDecimal finalBalance = new BigDecimal(parts[2]);
             
             Transaction transaction = Transaction.builder()
-                    .transactionReference(generateTransactionReference())
+                    .transactionReference(transactionReferenceGenerator.generateTransactionReference())
                     .type(TransactionType.WITHDRAWAL)
                     .sourceAccountNumber(accountId)
                     .amount(amount)
@@ -129,7 +132,7 @@ public class TransactionEventConsumer {
             BigDecimal sourceBalance = new BigDecimal(parts[3]);
             
             Transaction transaction = Transaction.builder()
-                    .transactionReference(generateTransactionReference())
+                    .transactionReference(transactionReferenceGenerator.generateTransactionReference())
                     .type(TransactionType.TRANSFER)
                     .sourceAccountNumber(sourceAccountId)
                     .destinationAccountNumber(destinationAccountId)
@@ -146,8 +149,4 @@ public class TransactionEventConsumer {
             logger.error("Error processing transfer: {}", e.getMessage(), e);
         }
     }
-    
-    private String generateTransactionReference() {
-        return UUID.randomUUID().toString().replace("-", "").substring(0, 16).toUpperCase();
-    }
 }
@@ -10,18 +10,22 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = Transaction.REFERENCE_INDEX, columnList = "transactionReference", unique = true)
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transaction {
+
+    public static final String REFERENCE_INDEX = "uk_transactions_reference";
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @Column(nullable = false)
+    @Column(nullable = false, length = 16)
     private String transactionReference;
     
     @Enumerated(EnumType.STRING)
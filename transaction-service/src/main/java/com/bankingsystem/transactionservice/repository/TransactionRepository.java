@@ -5,23 +5,34 @@ import com.bankingsystem.transactionservice.model.TransactionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * History queries run in read-only transactions, which are served by the read replica when one is
+ * configured. Like the inherited {@code findById} and {@code findAll}, they may trail the primary
+ * by up to {@code bankingsystem.datasource.replica.max-lag-ms}.
+ */
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     
+    @Transactional(readOnly = true)
     Optional<Transaction> findByTransactionReference(String transactionReference);
     
+    @Transactional(readOnly = true)
     Page<Transaction> findBySourceAccountNumber(String sourceAccountNumber, Pageable pageable);
     
+    @Transactional(readOnly = true)
     Page<Transaction> findByDestinationAccountNumber(String destinationAccountNumber, Pageable pageable);
     
+    @Transactional(readOnly = true)
     Page<Transaction> findBySourceAccountNumberOrDestinationAccountNumber(
             String sourceAccountNumber, String destinationAccountNumber, Pageable pageable);
     
     List<Transaction> findByStatusAndTimestampBefore(TransactionStatus status, LocalDateTime timestamp);
     
+    @Transactional(readOnly = true)
     Page<Transaction> findByTimestampBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
 }
@@ -6,14 +6,15 @@ import com.bankingsystem.transactionservice.exception.TransactionNotFoundExcepti
 import com.bankingsystem.transactionservice.model.Transaction;
 import com.bankingsystem.transactionservice.model.TransactionStatus;
 import com.bankingsystem.transactionservice.repository.TransactionRepository;
+import com.bankingsystem.transactionservice.util.TransactionReferenceGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @Service
 public class TransactionService {
@@ -24,6 +25,9 @@ public class TransactionService {
     @Autowired
     private KafkaTemplate<String, String> kafkaTemplate;
     
+    @Autowired
+    private TransactionReferenceGenerator transactionReferenceGenerator;
+    
     public Page<TransactionResponseDto> getAllTransactions(Pageable pageable) {
         return transactionRepository.findAll(pageable)
                 .map(this::mapToResponseDto);
@@ -64,7 +68,7 @@ public class TransactionService {
     }
     
     public TransactionResponseDto createTransaction(TransactionRequest request) {
-        String transactionReference = generateTransactionReference();
+        String transactionReference = transactionReferenceGenerator.generateTransactionReference();
         
         Transaction transaction = Transaction.builder()
                 .transactionReference(transactionReference)
@@ -87,6 +91,8 @@ public class TransactionService {
         return mapToResponseDto(savedTransaction);
     }
     
+    // Read-modify-write: the lookup must come from the primary, not the replica
+    @Transactional
     public TransactionResponseDto updateTransactionStatus(Long id, TransactionStatus status) {
         Transaction transaction = transactionRepository.findById(id)
                 .orElseThrow(() -> new TransactionNotFoundException("Transaction not found with ID: " + id));
@@ -115,8 +121,4 @@ public class TransactionService {
                 .status(transaction.getStatus())
                 .build();
     }
-    
-    private String generateTransactionReference() {
-        return UUID.randomUUID().toString().replace("-", "").substring(0, 16).toUpperCase();
-    }
 }
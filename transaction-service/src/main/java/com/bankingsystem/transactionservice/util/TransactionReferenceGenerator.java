@@ -0,0 +1,81 @@
+package com.bankingsystem.transactionservice.util;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Issues transaction references without coordinating with other instances or the database.
+ * <p>
+ * Each reference is a 64-bit id of 41 bits of milliseconds since {@link #EPOCH}, a 10-bit node id
+ * and a 12-bit per-millisecond sequence, written as 16 upper-case hex digits. Ids from one node
+ * strictly increase, so references sort by creation time and new rows land at the right-hand
+ * edge of the unique index. Generation is lock-free: the last timestamp and sequence are packed
+ * into one {@link AtomicLong}. Beyond 4096 ids in a millisecond, or if the clock steps back, the
+ * sequence carries into the timestamp, borrowing from the next milliseconds rather than waiting.
+ * <p>
+ * The node id must differ between instances running at the same time, or two of them can issue
+ * the same reference. It is read from {@code node-id}, which has no default: deployments assign
+ * each instance its own, such as its StatefulSet pod ordinal, and startup fails without one.
+ */
+@Component
+public class TransactionReferenceGenerator {
+
+    static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+
+    @Value("${bankingsystem.app.transaction-reference.node-id}")
+    private int nodeId = -1;
+
+    private LongSupplier clock = System::currentTimeMillis;
+
+    // (milliseconds since EPOCH << SEQUENCE_BITS) | sequence of the last id issued
+    private final AtomicLong lastState = new AtomicLong();
+    private long nodeBits;
+
+    @PostConstruct
+    public void init() {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("Transaction reference node id must be between 0 and " + MAX_NODE_ID);
+        }
+        nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    public String generateTransactionReference() {
+        return encode(nextId());
+    }
+
+    long nextId() {
+        long now = (clock.getAsLong() - EPOCH) << SEQUENCE_BITS;
+        long state;
+        long next;
+        do {
+            state = lastState.get();
+            next = Math.max(state + 1, now);
+        } while (!lastState.compareAndSet(state, next));
+        return ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+    }
+
+    /**
+     * {@code id} as 16 zero-padded upper-case hex digits. Writes straight into the bytes of the
+     * resulting Latin-1 string, without the intermediate strings of {@link Long#toHexString}.
+     */
+    static String encode(long id) {
+        byte[] digits = new byte[16];
+        for (int i = 15; i >= 0; i--) {
+            digits[i] = HEX[(int) (id & 0xF)];
+            id >>>= 4;
+        }
+        return new String(digits, StandardCharsets.ISO_8859_1);
+    }
+
+}
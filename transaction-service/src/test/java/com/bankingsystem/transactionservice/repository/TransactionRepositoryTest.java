@@ -6,6 +6,7 @@ import com.bankingsystem.transactionservice.model.TransactionType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -82,6 +83,24 @@ public class TransactionRepositoryTest {
         assertEquals(TransactionStatus.COMPLETED, result.get().getStatus());
     }
     
+    @Test
+    void save_withDuplicateReference_shouldViolateUniqueIndex() {
+        // Arrange
+        Transaction duplicate = Transaction.builder()
+                .transactionReference("TRX-12345")
+                .sourceAccountNumber("1111222233334444")
+                .amount(new BigDecimal("10.00"))
+                .type(TransactionType.DEPOSIT)
+                .status(TransactionStatus.COMPLETED)
+                .timestamp(now)
+                .build();
+        
+        // Act & Assert
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> transactionRepository.saveAndFlush(duplicate));
+        assertTrue(e.getMostSpecificCause().getMessage().toLowerCase().contains(Transaction.REFERENCE_INDEX));
+    }
+    
     @Test
     void findBySourceAccountNumber_shouldReturnTransactions() {
         // Act
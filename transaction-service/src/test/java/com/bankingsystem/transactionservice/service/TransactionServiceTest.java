@@ -7,6 +7,7 @@ import com.bankingsystem.transactionservice.model.Transaction;
 import com.bankingsystem.transactionservice.model.TransactionStatus;
 import com.bankingsystem.transactionservice.model.TransactionType;
 import com.bankingsystem.transactionservice.repository.TransactionRepository;
+import com.bankingsystem.transactionservice.util.TransactionReferenceGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -39,6 +40,9 @@ class TransactionServiceTest {
     @Mock
     private KafkaTemplate<String, String> kafkaTemplate;
     
+    @Mock
+    private TransactionReferenceGenerator transactionReferenceGenerator;
+    
     @InjectMocks
     private TransactionService transactionService;
     
@@ -211,6 +215,7 @@ class TransactionServiceTest {
         request.setType(TransactionType.TRANSFER);
         request.setDescription("Test transaction");
         
+        when(transactionReferenceGenerator.generateTransactionReference()).thenReturn("0123456789ABCDEF");
         when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> {
             Transaction savedTransaction = invocation.getArgument(0);
             savedTransaction.setId(1L);
@@ -227,6 +232,7 @@ class TransactionServiceTest {
         assertEquals(request.getDestinationAccountNumber(), result.getDestinationAccountNumber());
         assertEquals(request.getAmount(), result.getAmount());
         assertEquals(TransactionStatus.PENDING, result.getStatus());
+        assertEquals("0123456789ABCDEF", result.getTransactionReference());
         
         verify(transactionRepository).save(any(Transaction.class));
         verify(kafkaTemplate).send(eq("transaction-events"), eq("transaction-created"), anyString());
@@ -0,0 +1,159 @@
+package com.bankingsystem.transactionservice.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionReferenceGeneratorTest {
+
+    private static final long NOW = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+
+    private final AtomicLong clock = new AtomicLong(NOW);
+
+    @Test
+    void generateTransactionReference_shouldEncodeTimeNodeAndSequence() {
+        // Arrange
+        TransactionReferenceGenerator generator = generator(5);
+
+        // Act
+        String first = generator.generateTransactionReference();
+        String second = generator.generateTransactionReference();
+
+        // Assert
+        assertTrue(first.matches("[0-9A-F]{16}"), first);
+        long id = Long.parseUnsignedLong(first, 16);
+        assertEquals(NOW - TransactionReferenceGenerator.EPOCH,
+                id >>> (TransactionReferenceGenerator.NODE_BITS + TransactionReferenceGenerator.SEQUENCE_BITS));
+        assertEquals(5, (id >>> TransactionReferenceGenerator.SEQUENCE_BITS) & TransactionReferenceGenerator.MAX_NODE_ID);
+        assertEquals(id + 1, Long.parseUnsignedLong(second, 16));
+    }
+
+    @Test
+    void generateTransactionReference_shouldSortByCreationTime() {
+        // Arrange
+        TransactionReferenceGenerator generator = generator(1);
+        List<String> references = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 1000 == 0) {
+                clock.addAndGet(1);
+            }
+            references.add(generator.generateTransactionReference());
+        }
+
+        // Assert
+        List<String> sorted = new ArrayList<>(references);
+        sorted.sort(null);
+        assertEquals(references, sorted);
+    }
+
+    @Test
+    void generateTransactionReference_whenClockStepsBack_shouldStillIncrease() {
+        // Arrange
+        TransactionReferenceGenerator generator = generator(1);
+        String before = generator.generateTransactionReference();
+
+        // Act
+        clock.addAndGet(-10_000);
+        String after = generator.generateTransactionReference();
+
+        // Assert
+        assertTrue(after.compareTo(before) > 0);
+    }
+
+    @Test
+    void generateTransactionReference_beyondSequenceSpace_shouldBorrowNextMillisecond() {
+        // Arrange
+        TransactionReferenceGenerator generator = generator(1);
+        int perMillisecond = 1 << TransactionReferenceGenerator.SEQUENCE_BITS;
+
+        // Act
+        String last = null;
+        for (int i = 0; i <= perMillisecond; i++) {
+            last = generator.generateTransactionReference();
+        }
+
+        // Assert: the clock never moved, but the 4097th id is stamped one millisecond later
+        long id = Long.parseUnsignedLong(last, 16);
+        assertEquals(NOW - TransactionReferenceGenerator.EPOCH + 1,
+                id >>> (TransactionReferenceGenerator.NODE_BITS + TransactionReferenceGenerator.SEQUENCE_BITS));
+    }
+
+    @Test
+    void generateTransactionReference_acrossNodesAndThreads_shouldNeverRepeat() throws Exception {
+        // Arrange: two nodes on a real clock
+        List<TransactionReferenceGenerator> nodes = List.of(generator(1, System::currentTimeMillis),
+                generator(2, System::currentTimeMillis));
+        int threads = 8;
+        int perThread = 20_000;
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            TransactionReferenceGenerator generator = nodes.get(t % nodes.size());
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    issued.add(generator.generateTransactionReference());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(threads * perThread, issued.size());
+    }
+
+    @Test
+    void init_withNodeIdOutOfRange_shouldFail() {
+        // Arrange
+        TransactionReferenceGenerator generator = new TransactionReferenceGenerator();
+        ReflectionTestUtils.setField(generator, "nodeId", TransactionReferenceGenerator.MAX_NODE_ID + 1);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, generator::init);
+    }
+
+    @Test
+    void init_withoutNodeId_shouldFail() {
+        // Arrange: node-id unset, rather than guessed from the host name
+        TransactionReferenceGenerator generator = new TransactionReferenceGenerator();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, generator::init);
+    }
+
+    private TransactionReferenceGenerator generator(int nodeId) {
+        return generator(nodeId, clock::get);
+    }
+
+    private static TransactionReferenceGenerator generator(int nodeId, LongSupplier clock) {
+        TransactionReferenceGenerator generator = new TransactionReferenceGenerator();
+        ReflectionTestUtils.setField(generator, "nodeId", nodeId);
+        ReflectionTestUtils.setField(generator, "clock", clock);
+        generator.init();
+        return generator;
+    }
+}
@@ -0,0 +1,156 @@
+package com.bankingsystem.userservice.config;
+
+import com.bankingsystem.userservice.model.SigningKey;
+import com.bankingsystem.userservice.repository.SigningKeyRepository;
+import com.bankingsystem.userservice.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Per-request cost of {@link JwtAuthTokenFilter}.
+ * <ul>
+ *   <li>{@code filterWithRolesClaim}: the fast path, one parse and no user lookup</li>
+ *   <li>{@code filterWithLegacyToken}: a token without roles, which still loads the user (here
+ *       from an in-memory stub, so the database round trip is not included)</li>
+ *   <li>{@code filterWithCachedToken}: a token verified on an earlier request</li>
+ *   <li>{@code validateThenParseSubject}: the previous two-parse sequence, for comparison</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthTokenFilterBenchmark {
+
+    private static final String SECRET = "VyX6ycVG8Wg1qNfaNxN5KqZ1ELOfP6sYPeJvoR4JEoynMjcMUDK7QR1m3bmci55y";
+
+    private JwtUtils jwtUtils;
+    private JwtAuthTokenFilter filter;
+    private JwtAuthTokenFilter cachingFilter;
+    private String tokenWithRoles;
+    private String legacyToken;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(jwtUtils, "signingKeyManager", signingKeyManager());
+
+        UserDetails user = new User("benchmark", "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl() {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return user;
+            }
+        };
+
+        // A zero TTL keeps the uncached benchmarks verifying every token
+        filter = filter(userDetailsService, tokenCache(0));
+        cachingFilter = filter(userDetailsService, tokenCache(300_000));
+
+        tokenWithRoles = jwtUtils.generateJwtToken(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        legacyToken = Jwts.builder()
+                .setSubject("benchmark")
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .compact();
+    }
+
+    private static SigningKeyManager signingKeyManager() {
+        SigningKeyRepository repository = mock(SigningKeyRepository.class);
+        when(repository.save(any(SigningKey.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        SigningKeyManager signingKeyManager = new SigningKeyManager();
+        ReflectionTestUtils.setField(signingKeyManager, "signingKeyRepository", repository);
+        ReflectionTestUtils.setField(signingKeyManager, "jwtExpirationMs", 3_600_000L);
+        signingKeyManager.init();
+        return signingKeyManager;
+    }
+
+    @Benchmark
+    public Object filterWithRolesClaim() throws Exception {
+        return runFilter(filter, tokenWithRoles);
+    }
+
+    @Benchmark
+    public Object filterWithLegacyToken() throws Exception {
+        return runFilter(filter, legacyToken);
+    }
+
+    @Benchmark
+    public Object filterWithCachedToken() throws Exception {
+        return runFilter(cachingFilter, tokenWithRoles);
+    }
+
+    @Benchmark
+    public void validateThenParseSubject(Blackhole blackhole) {
+        blackhole.consume(jwtUtils.validateJwtToken(tokenWithRoles));
+        blackhole.consume(jwtUtils.getUserNameFromJwtToken(tokenWithRoles));
+    }
+
+    private JwtAuthTokenFilter filter(UserDetailsServiceImpl userDetailsService, VerifiedTokenCache cache) {
+        JwtAuthTokenFilter jwtFilter = new JwtAuthTokenFilter();
+        ReflectionTestUtils.setField(jwtFilter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(jwtFilter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(jwtFilter, "verifiedTokenCache", cache);
+        return jwtFilter;
+    }
+
+    private static VerifiedTokenCache tokenCache(long ttlMs) {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "ttlMs", ttlMs);
+        cache.init();
+        return cache;
+    }
+
+    private Object runFilter(JwtAuthTokenFilter filter, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtAuthTokenFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -1,6 +1,9 @@
 package com.bankingsystem.userservice.config;
 
+import com.bankingsystem.identity.AuthenticatedIdentity;
+import com.bankingsystem.identity.IdentityHeaderFilter;
 import com.bankingsystem.userservice.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -10,12 +13,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Date;
 
 public class JwtAuthTokenFilter extends OncePerRequestFilter {
 
@@ -25,17 +31,35 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthTokenFilter.class);
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
-            String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // The API gateway has already validated the token and vouches for the caller
+            UserDetails userDetails = gatewayIdentity(request);
+            String jwt = userDetails == null ? parseJwt(request) : null;
+            if (jwt != null) {
+                userDetails = verifiedTokenCache.get(jwt);
+            }
+            if (jwt != null && userDetails == null) {
+                // One signature check and parse; the roles claim saves loading the user from the database
+                Claims claims = jwtUtils.parseJwtToken(jwt);
+                if (claims != null && verifiedTokenCache.isRevoked(claims.getSubject(), claims.getIssuedAt())) {
+                    logger.warn("Rejecting revoked token of {}", claims.getSubject());
+                } else if (claims != null) {
+                    userDetails = jwtUtils.getUserDetailsFromClaims(claims);
+                    if (userDetails == null) {
+                        userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+                    }
+                    verifiedTokenCache.put(jwt, userDetails, claims.getIssuedAt(), claims.getExpiration());
+                }
+            }
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
@@ -54,6 +78,20 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails gatewayIdentity(HttpServletRequest request) {
+        if (!(request.getAttribute(IdentityHeaderFilter.IDENTITY_ATTRIBUTE) instanceof AuthenticatedIdentity identity)) {
+            return null;
+        }
+        // The gateway may not have heard of the deletion yet
+        if (verifiedTokenCache.isRevoked(identity.username(), new Date(identity.issuedAt() * 1000))) {
+            logger.warn("Rejecting gateway identity of {} from a revoked token", identity.username());
+            return null;
+        }
+        return new User(identity.username(), "", identity.roles().stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList());
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
 
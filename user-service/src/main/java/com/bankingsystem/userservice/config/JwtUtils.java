@@ -3,48 +3,135 @@ package com.bankingsystem.userservice.config;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
+import java.util.List;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-    @Value("${bankingsystem.app.jwtSecret}")
+    /**
+     * Authorities of the subject at login, so requests can be authorized without loading the user.
+     */
+    static final String ROLES_CLAIM = "roles";
+
+    @Autowired
+    private SigningKeyManager signingKeyManager;
+
+    /**
+     * Secret of the HMAC tokens issued before RS256 signing; only verifies those until they expire.
+     */
+    @Value("${bankingsystem.app.jwtSecret:}")
     private String jwtSecret;
 
+    /**
+     * When RS256 signing took over. An HMAC token issued after it, or valid beyond one token
+     * lifetime past it, is rejected, so a leaked {@code jwtSecret} cannot mint new tokens. Without
+     * it no HMAC token is accepted.
+     */
+    @Value("${bankingsystem.app.jwtSecretCutover:}")
+    private String jwtSecretCutover;
+
     @Value("${bankingsystem.app.jwtExpirationMs}")
-    private int jwtExpirationMs;    public String generateJwtToken(Authentication authentication) {
+    private int jwtExpirationMs;
+
+    // Built once; both are immutable and thread-safe
+    private volatile SecretKey legacyKey;
+    private volatile JwtParser parser;
+
+    public String generateJwtToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
+        SigningKeyManager.ActiveKey key = signingKeyManager.currentKey();
 
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, key.kid())
                 .setSubject(userPrincipal.getUsername())
+                .claim(ROLES_CLAIM, userPrincipal.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .toList())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(key())
+                .signWith(key.privateKey(), SignatureAlgorithm.RS256)
                 .compact();
     }
 
-    private SecretKey key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
-    }    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
+    private JwtParser parser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                @Override
+                public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    return verificationKey(header.getKeyId(), claims);
+                }
+            }).build();
+            parser = current;
+        }
+        return current;
+    }
+
+    /**
+     * The parser rejects a key that does not match the token's algorithm, so an RSA public key
+     * can never be used as an HMAC secret.
+     */
+    private Key verificationKey(String kid, Claims claims) {
+        if (kid == null) {
+            SecretKey key = legacyKey;
+            if (key == null) {
+                if (jwtSecret == null || jwtSecret.isEmpty() || jwtSecretCutover == null || jwtSecretCutover.isEmpty()) {
+                    throw new SignatureException("Token has no key id");
+                }
+                key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+                legacyKey = key;
+            }
+            Instant cutover = Instant.parse(jwtSecretCutover);
+            Date issuedAt = claims.getIssuedAt();
+            Date expiration = claims.getExpiration();
+            if (issuedAt == null || issuedAt.toInstant().isAfter(cutover)
+                    || expiration == null || expiration.toInstant().isAfter(cutover.plusMillis(jwtExpirationMs))) {
+                throw new SignatureException("HMAC token issued after the RS256 cutover");
+            }
+            return key;
+        }
+        Key key = signingKeyManager.publicKey(kid);
+        if (key == null) {
+            throw new SignatureException("Unknown signing key " + kid);
+        }
+        return key;
+    }
+
+    public String getUserNameFromJwtToken(String token) {
+        return parser()
                 .parseClaimsJws(token)
                 .getBody()
                 .getSubject();
-    }    public boolean validateJwtToken(String authToken) {
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return parseJwtToken(authToken) != null;
+    }
+
+    /**
+     * Verify the token and return its claims in a single parse.
+     *
+     * @return the claims, or null if the token is malformed, expired, unsupported or wrongly signed
+     */
+    public Claims parseJwtToken(String authToken) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parseClaimsJws(authToken);
-            return true;
+            return parser().parseClaimsJws(authToken).getBody();
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
@@ -53,8 +140,25 @@ public class JwtUtils {
             logger.error("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            logger.error("Invalid JWT signature: {}", e.getMessage());
         }
 
-        return false;
+        return null;
+    }
+
+    /**
+     * Principal described by verified {@code claims}, or null for a token issued before roles were
+     * embedded, whose user has to be loaded instead.
+     */
+    public UserDetails getUserDetailsFromClaims(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(roles instanceof List<?> roleNames)) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = roleNames.stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority(role.toString()))
+                .toList();
+        return new org.springframework.security.core.userdetails.User(claims.getSubject(), "", authorities);
     }
 }
@@ -0,0 +1,31 @@
+package com.bankingsystem.userservice.config;
+
+import com.bankingsystem.userservice.service.UserEventPublisher;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    /**
+     * Every partition of {@code user-events}, for listeners that assign themselves the whole
+     * topic. Must cover the partition count below.
+     */
+    public static final String USER_EVENTS_PARTITIONS = "0-2";
+
+    /**
+     * Compacted so a new consumer can rebuild the latest state of every user from the topic alone.
+     * Only applied when the topic is created; an existing topic needs
+     * {@code cleanup.policy=compact} set by hand.
+     */
+    @Bean
+    public NewTopic userEventsTopic() {
+        return TopicBuilder.name(UserEventPublisher.USER_EVENTS_TOPIC)
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+}
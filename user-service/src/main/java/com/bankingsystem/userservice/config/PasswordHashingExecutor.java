@@ -0,0 +1,109 @@
+package com.bankingsystem.userservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Small bounded pool that runs the BCrypt work of login and registration off the servlet threads.
+ * <p>
+ * BCrypt is deliberately CPU-bound, so more hashing threads than cores only adds queueing. Work
+ * beyond the pool and its short queue is rejected straight away rather than parked, so a login
+ * storm is shed with 503s while the request threads stay free for every other endpoint.
+ * End-to-end latency is recorded per operation as {@code user.auth.latency} with a percentile
+ * histogram, and time spent queued as {@code user.password_hashing.wait}.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    public static final String LOGIN = "login";
+    public static final String REGISTER = "register";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 0 uses one thread per available processor.
+     */
+    @Value("${bankingsystem.app.password.hashing-threads:0}")
+    private int threads = 0;
+
+    @Value("${bankingsystem.app.password.queue-capacity:32}")
+    private int queueCapacity = 32;
+
+    private ThreadPoolExecutor executor;
+    private Timer queueWait;
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("PasswordHashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        queueWait = Timer.builder("user.password_hashing.wait")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        rejected = Counter.builder("user.password_hashing.rejected").register(meterRegistry);
+        Gauge.builder("user.password_hashing.queue", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("user.password_hashing.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Run {@code task} on the hashing pool.
+     *
+     * @return the task's result; completed exceptionally with a {@link RejectedExecutionException}
+     *         if the pool and its queue are full, or with whatever the task threw
+     */
+    public <T> CompletableFuture<T> submit(String operation, Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                long startedAt = System.nanoTime();
+                queueWait.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    T value = task.get();
+                    record(operation, "success", submittedAt);
+                    result.complete(value);
+                } catch (Throwable e) {
+                    record(operation, "error", submittedAt);
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            record(operation, "rejected", submittedAt);
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private void record(String operation, String outcome, long submittedAt) {
+        Timer.builder("user.auth.latency")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+    }
+}
@@ -1,6 +1,7 @@
 package com.bankingsystem.userservice.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -26,6 +27,12 @@ public class SecurityConfig {
     
     @Autowired
     private JwtAuthEntryPoint unauthorizedHandler;
+
+    /**
+     * Raising it rehashes each password at its owner's next successful login.
+     */
+    @Value("${bankingsystem.app.password.bcrypt-strength:10}")
+    private int bcryptStrength = 10;
     
     @Bean
     public JwtAuthTokenFilter authenticationJwtTokenFilter() {
@@ -34,7 +41,7 @@ public class SecurityConfig {
     
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
     
     @Bean
@@ -0,0 +1,218 @@
+package com.bankingsystem.userservice.config;
+
+import com.bankingsystem.userservice.model.SigningKey;
+import com.bankingsystem.userservice.repository.SigningKeyRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Rotating RSA key pairs that access tokens are signed with, and the JWKS document that lets the
+ * gateway verify them without calling back into user-service.
+ * <p>
+ * Keys live in the {@code signing_keys} table so every instance signs with the same key. A new key
+ * is generated {@code publish-ahead-ms} before the current one is due for rotation and is only
+ * published until then, so verifiers refreshing their JWKS within that window already hold it when
+ * the first token signed with it arrives. Retired keys stay published until the last token they
+ * signed has expired. Two instances rotating at the same moment each add a key; both are
+ * published and valid, so the race is harmless.
+ */
+@Component
+public class SigningKeyManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(SigningKeyManager.class);
+
+    static final String ALGORITHM = "RS256";
+    private static final int KEY_SIZE = 2048;
+
+    @Autowired
+    private SigningKeyRepository signingKeyRepository;
+
+    @Value("${bankingsystem.app.signing-keys.rotation-period-ms:604800000}")
+    private long rotationPeriodMs = 604800000;
+
+    @Value("${bankingsystem.app.signing-keys.publish-ahead-ms:600000}")
+    private long publishAheadMs = 600000;
+
+    @Value("${bankingsystem.app.signing-keys.min-reload-interval-ms:5000}")
+    private long minReloadIntervalMs = 5000;
+
+    @Value("${bankingsystem.app.jwtExpirationMs}")
+    private long jwtExpirationMs;
+
+    private Clock clock = Clock.systemUTC();
+
+    private volatile KeySet keys = new KeySet(List.of(), 0);
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    /**
+     * Delete expired keys, generate the next key when rotation is due and reload the published set.
+     */
+    @Scheduled(initialDelayString = "${bankingsystem.app.signing-keys.refresh-ms:60000}",
+            fixedDelayString = "${bankingsystem.app.signing-keys.refresh-ms:60000}")
+    public synchronized void refresh() {
+        Instant now = clock.instant();
+        signingKeyRepository.deleteByExpiresAtBefore(now);
+        List<SigningKey> stored = new ArrayList<>(signingKeyRepository.findByExpiresAtAfterOrderByActivatesAtDesc(now));
+
+        if (stored.isEmpty() || !stored.get(0).getActivatesAt().plusMillis(rotationPeriodMs - publishAheadMs).isAfter(now)) {
+            // The very first key has nothing to take over from, so it signs straight away
+            Instant activatesAt = stored.isEmpty() ? now : now.plusMillis(publishAheadMs);
+            SigningKey created = signingKeyRepository.save(generate(now, activatesAt));
+            logger.info("Generated signing key {} active from {}", created.getKid(), created.getActivatesAt());
+            stored.add(0, created);
+        }
+        keys = load(stored);
+    }
+
+    /**
+     * Key to sign new tokens with: the most recently activated one.
+     */
+    public ActiveKey currentKey() {
+        long now = clock.millis();
+        List<LoadedKey> loaded = keys.keys;
+        for (LoadedKey key : loaded) {
+            if (key.activatesAtMillis <= now) {
+                return new ActiveKey(key.kid, key.privateKey);
+            }
+        }
+        if (loaded.isEmpty()) {
+            throw new IllegalStateException("No signing key available");
+        }
+        return new ActiveKey(loaded.get(loaded.size() - 1).kid, loaded.get(loaded.size() - 1).privateKey);
+    }
+
+    /**
+     * Public key for {@code kid}. An unknown kid may have been generated by another instance since
+     * the last refresh, so it triggers a reload, at most once per {@code min-reload-interval-ms}.
+     *
+     * @return the key, or null if it is unknown or has expired
+     */
+    public PublicKey publicKey(String kid) {
+        PublicKey key = keys.find(kid);
+        if (key == null && clock.millis() - keys.loadedAtMillis >= minReloadIntervalMs) {
+            reload();
+            key = keys.find(kid);
+        }
+        return key;
+    }
+
+    /**
+     * Every published public key as a JSON Web Key Set (RFC 7517).
+     */
+    public Map<String, Object> jwks() {
+        List<Map<String, Object>> published = new ArrayList<>();
+        for (LoadedKey key : keys.keys) {
+            RSAPublicKey publicKey = (RSAPublicKey) key.publicKey;
+            Map<String, Object> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "RSA");
+            jwk.put("kid", key.kid);
+            jwk.put("use", "sig");
+            jwk.put("alg", ALGORITHM);
+            jwk.put("n", base64Url(publicKey.getModulus()));
+            jwk.put("e", base64Url(publicKey.getPublicExponent()));
+            published.add(jwk);
+        }
+        return Map.of("keys", published);
+    }
+
+    private synchronized void reload() {
+        if (clock.millis() - keys.loadedAtMillis < minReloadIntervalMs) {
+            return;
+        }
+        keys = load(signingKeyRepository.findByExpiresAtAfterOrderByActivatesAtDesc(clock.instant()));
+    }
+
+    private SigningKey generate(Instant now, Instant activatesAt) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(KEY_SIZE);
+            KeyPair pair = generator.generateKeyPair();
+            return SigningKey.builder()
+                    .kid(UUID.randomUUID().toString())
+                    .publicKey(Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()))
+                    .privateKey(Base64.getEncoder().encodeToString(pair.getPrivate().getEncoded()))
+                    .createdAt(now)
+                    .activatesAt(activatesAt)
+                    // Signs for one rotation period, then verifies what it signed until that expires
+                    .expiresAt(activatesAt.plusMillis(rotationPeriodMs + publishAheadMs + jwtExpirationMs))
+                    .build();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not generate signing key", e);
+        }
+    }
+
+    private KeySet load(List<SigningKey> stored) {
+        List<LoadedKey> loaded = new ArrayList<>(stored.size());
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+            for (SigningKey key : stored) {
+                loaded.add(new LoadedKey(
+                        key.getKid(),
+                        key.getActivatesAt().toEpochMilli(),
+                        keyFactory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(key.getPublicKey()))),
+                        keyFactory.generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(key.getPrivateKey())))));
+            }
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalStateException("Could not load signing keys", e);
+        }
+        return new KeySet(List.copyOf(loaded), clock.millis());
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        // JWK integers are unsigned big-endian, without the sign byte BigInteger may prepend
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    public record ActiveKey(String kid, PrivateKey privateKey) {
+    }
+
+    private record LoadedKey(String kid, long activatesAtMillis, PublicKey publicKey, PrivateKey privateKey) {
+    }
+
+    /**
+     * Immutable snapshot of the published keys, newest activation first.
+     */
+    private record KeySet(List<LoadedKey> keys, long loadedAtMillis) {
+        PublicKey find(String kid) {
+            for (LoadedKey key : keys) {
+                if (key.kid.equals(kid)) {
+                    return key.publicKey;
+                }
+            }
+            return null;
+        }
+    }
+}
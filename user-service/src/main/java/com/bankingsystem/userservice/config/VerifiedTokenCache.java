@@ -0,0 +1,217 @@
+package com.bankingsystem.userservice.config;
+
+import com.bankingsystem.userservice.service.UserEventPublisher;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recently verified bearer tokens and the principal each one authenticated, so a client reusing
+ * its token skips signature verification and principal construction on every call.
+ * <p>
+ * Entries are keyed by the SHA-256 digest of the token (the token itself is never held) and live
+ * until the token expires or {@code ttl-ms} passes, whichever is first.
+ * <p>
+ * When a user is deleted, every instance hears it on {@code user-events} and from then on rejects
+ * the user's tokens issued before the deletion, whether cached or presented afresh, until they
+ * would have expired anyway. Each instance reads every partition itself and, on startup, replays
+ * the last token lifetime of events so revocations survive a restart.
+ */
+@Component
+public class VerifiedTokenCache implements ConsumerSeekAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${bankingsystem.app.token-cache.max-size:100000}")
+    private int maxSize = 100000;
+
+    @Value("${bankingsystem.app.token-cache.ttl-ms:300000}")
+    private long ttlMs = 300000;
+
+    // A revocation has to outlive every token issued before it
+    @Value("${bankingsystem.app.jwtExpirationMs:86400000}")
+    private long tokenLifetimeMs = 86400000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<TokenDigest, Entry> entries = new ConcurrentHashMap<>();
+    // Username -> time of the last event that revoked the user's tokens
+    private final Map<String, Long> revokedAt = new ConcurrentHashMap<>();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter evictions;
+
+    @PostConstruct
+    public void init() {
+        hits = Counter.builder("user.token_cache.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("user.token_cache.requests").tag("result", "miss").register(meterRegistry);
+        evictions = Counter.builder("user.token_cache.evictions").register(meterRegistry);
+        Gauge.builder("user.token_cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * @return the principal {@code token} authenticated, or null if it has to be verified again
+     */
+    public UserDetails get(String token) {
+        TokenDigest digest = TokenDigest.of(token);
+        Entry entry = entries.get(digest);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (!isValid(entry, System.currentTimeMillis())) {
+            entries.remove(digest, entry);
+            evictions.increment();
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.principal;
+    }
+
+    /**
+     * Remember that {@code token}, issued at {@code issuedAt}, was verified and authenticated
+     * {@code principal}.
+     */
+    public void put(String token, UserDetails principal, Date issuedAt, Date expiration) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + ttlMs;
+        if (expiration != null) {
+            expiresAt = Math.min(expiresAt, expiration.getTime());
+        }
+        if (expiresAt <= now || isRevoked(principal.getUsername(), issuedAt)) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            makeRoom(now);
+        }
+        entries.put(TokenDigest.of(token), new Entry(principal, issuedAt == null ? 0 : issuedAt.getTime(), expiresAt));
+    }
+
+    /**
+     * @return whether a token of {@code username} issued at {@code issuedAt} has since been revoked
+     */
+    public boolean isRevoked(String username, Date issuedAt) {
+        return isRevoked(username, issuedAt == null ? 0 : issuedAt.getTime());
+    }
+
+    /**
+     * Reject every token issued to {@code username} so far.
+     */
+    public void revoke(String username) {
+        revoke(username, System.currentTimeMillis());
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        callback.seekToTimestamp(assignments.keySet(), System.currentTimeMillis() - tokenLifetimeMs);
+    }
+
+    // Assigned rather than subscribed, so every instance reads every partition without leaving a
+    // consumer group behind per restart; the seek above replaces committed offsets
+    @KafkaListener(groupId = "user-service-token-cache",
+            topicPartitions = @org.springframework.kafka.annotation.TopicPartition(
+                    topic = UserEventPublisher.USER_EVENTS_TOPIC, partitions = KafkaTopicConfig.USER_EVENTS_PARTITIONS),
+            properties = "enable.auto.commit=false")
+    public void onUserEvent(String message) {
+        if (!message.startsWith(UserEventPublisher.USER_DELETED + ":")) {
+            return;
+        }
+        try {
+            JsonNode event = objectMapper.readTree(message.substring(UserEventPublisher.USER_DELETED.length() + 1));
+            JsonNode username = event.get("username");
+            JsonNode version = event.get("version");
+            if (username != null && !username.isNull()) {
+                // The version is the publish time, which still applies when the event is replayed
+                revoke(username.asText(), version != null && version.canConvertToLong()
+                        ? version.asLong() : System.currentTimeMillis());
+            }
+        } catch (Exception e) {
+            logger.warn("Ignoring unreadable user event for the token cache: {}", e.getMessage());
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private boolean isValid(Entry entry, long now) {
+        return entry.expiresAt > now && !isRevoked(entry.principal.getUsername(), entry.issuedAt);
+    }
+
+    private boolean isRevoked(String username, long issuedAt) {
+        Long revoked = revokedAt.get(username);
+        return revoked != null && issuedAt < revoked;
+    }
+
+    private void revoke(String username, long at) {
+        long now = System.currentTimeMillis();
+        if (at <= now - tokenLifetimeMs) {
+            return;
+        }
+        revokedAt.merge(username, at, Math::max);
+        // Every token issued before these has expired
+        revokedAt.values().removeIf(time -> time <= now - tokenLifetimeMs);
+    }
+
+    /**
+     * Drop expired and revoked entries, then arbitrary ones if the cache is still full.
+     */
+    private void makeRoom(long now) {
+        entries.entrySet().removeIf(e -> {
+            boolean stale = !isValid(e.getValue(), now);
+            if (stale) {
+                evictions.increment();
+            }
+            return stale;
+        });
+        Iterator<TokenDigest> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Entry(UserDetails principal, long issuedAt, long expiresAt) {
+    }
+
+    private record TokenDigest(long a, long b, long c, long d) {
+        static TokenDigest of(String token) {
+            ByteBuffer hash = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenDigest(hash.getLong(), hash.getLong(), hash.getLong(), hash.getLong());
+        }
+    }
+}
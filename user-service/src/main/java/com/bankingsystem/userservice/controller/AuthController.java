@@ -1,29 +1,47 @@
 package com.bankingsystem.userservice.controller;
 
 import com.bankingsystem.userservice.config.JwtUtils;
+import com.bankingsystem.userservice.config.PasswordHashingExecutor;
+import com.bankingsystem.userservice.config.SigningKeyManager;
 import com.bankingsystem.userservice.dto.JwtResponse;
 import com.bankingsystem.userservice.dto.LoginRequest;
 import com.bankingsystem.userservice.dto.UserRegistrationRequest;
 import com.bankingsystem.userservice.dto.UserResponseDto;
 import com.bankingsystem.userservice.service.UserService;
 import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
     @Autowired
     private AuthenticationManager authenticationManager;
     
@@ -32,33 +50,86 @@ public class AuthController {
     
     @Autowired
     private JwtUtils jwtUtils;
+
+    @Autowired
+    private SigningKeyManager signingKeyManager;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
     
+    /**
+     * Authentication runs on the password hashing pool, which releases the request thread while
+     * BCrypt works and sheds the request with a 503 when the pool is saturated.
+     */
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager
-                .authenticate(new UsernamePasswordAuthenticationToken(
-                        loginRequest.getUsername(),
-                        loginRequest.getPassword()));
-        
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken(authentication);
-        
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        
-        return ResponseEntity.ok(new JwtResponse(
-                jwt,
-                "Bearer",
-                null, // ID is not available in userDetails, can be fetched from repository if needed
-                userDetails.getUsername()));
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        return passwordHashingExecutor.<ResponseEntity<?>>submit(PasswordHashingExecutor.LOGIN, () -> {
+            Authentication authentication = authenticationManager
+                    .authenticate(new UsernamePasswordAuthenticationToken(
+                            loginRequest.getUsername(),
+                            loginRequest.getPassword()));
+
+            String jwt = jwtUtils.generateJwtToken(authentication);
+
+            UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+
+            return ResponseEntity.ok(new JwtResponse(
+                    jwt,
+                    "Bearer",
+                    null, // ID is not available in userDetails, can be fetched from repository if needed
+                    userDetails.getUsername()));
+        }).exceptionally(AuthController::failed);
     }
     
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody UserRegistrationRequest registrationRequest) {
-        try {
-            UserResponseDto userResponseDto = userService.registerUser(registrationRequest);
-            return ResponseEntity.status(HttpStatus.CREATED).body(userResponseDto);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody UserRegistrationRequest registrationRequest) {
+        return passwordHashingExecutor.<ResponseEntity<?>>submit(PasswordHashingExecutor.REGISTER, () -> {
+            try {
+                UserResponseDto userResponseDto = userService.registerUser(registrationRequest);
+                return ResponseEntity.status(HttpStatus.CREATED).body(userResponseDto);
+            } catch (RuntimeException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }).exceptionally(AuthController::failed);
+    }
+
+    /**
+     * Whether {@code username} can still be registered. Most free names are answered from memory;
+     * a registration can still lose the name to a concurrent one.
+     */
+    @GetMapping("/username-available")
+    public ResponseEntity<Map<String, Object>> isUsernameAvailable(@RequestParam String username) {
+        return ResponseEntity.ok(Map.of(
+                "username", username,
+                "available", userService.isUsernameAvailable(username)));
+    }
+
+    /**
+     * Public keys that tokens are signed with. New keys are published well before they sign
+     * anything, so a short client-side cache is safe.
+     */
+    @GetMapping("/jwks")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(signingKeyManager.jwks());
+    }
+
+    /**
+     * Responses for failures of work on the hashing pool: 401 for bad credentials, as
+     * {@link com.bankingsystem.userservice.config.JwtAuthEntryPoint} answers, and 503 when shed.
+     */
+    private static ResponseEntity<?> failed(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof AuthenticationException) {
+            logger.error("Unauthorized error: {}", cause.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Error: Unauthorized");
+        }
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .body("Error: Too many concurrent requests, retry later");
         }
+        throw cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
     }
 }
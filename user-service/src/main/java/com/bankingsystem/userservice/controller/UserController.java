@@ -3,22 +3,34 @@ package com.bankingsystem.userservice.controller;
 import com.bankingsystem.userservice.dto.UserRegistrationRequest;
 import com.bankingsystem.userservice.dto.UserResponseDto;
 import com.bankingsystem.userservice.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
     
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<UserResponseDto>> getAllUsers() {
@@ -26,6 +38,40 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
     
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Page<UserResponseDto>> getUsersPage(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(userService.getUsers(page, size));
+    }
+    
+    /**
+     * Every user as newline-delimited JSON, written as it is read so neither side holds the
+     * whole list.
+     */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        ObjectWriter writer = objectMapper.writerFor(UserResponseDto.class);
+        StreamingResponseBody body = out -> {
+            try {
+                userService.streamUsers(user -> {
+                    try {
+                        // writeValue(OutputStream) would close the response stream
+                        out.write(writer.writeValueAsBytes(user));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+    
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or @userSecurity.isCurrentUser(#id)")
     public ResponseEntity<UserResponseDto> getUserById(@PathVariable Long id) {
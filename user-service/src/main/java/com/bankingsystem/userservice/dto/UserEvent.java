@@ -0,0 +1,28 @@
+package com.bankingsystem.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Body of a {@code user-events} record. Every event carries the user's full contact details so
+ * consumers can keep their own copy instead of calling back into user-service.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserEvent {
+    private Long userId;
+    private String username;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String phoneNumber;
+    private boolean deleted;
+    /**
+     * Epoch millis of the change; consumers ignore an event older than the state they hold.
+     */
+    private long version;
+}
@@ -0,0 +1,52 @@
+package com.bankingsystem.userservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * RSA key pair used to sign access tokens, shared by every user-service instance.
+ */
+@Entity
+@Table(name = "signing_keys")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SigningKey {
+
+    @Id
+    private String kid;
+
+    /**
+     * Base64 X.509 SubjectPublicKeyInfo.
+     */
+    @Column(nullable = false, length = 4096)
+    private String publicKey;
+
+    /**
+     * Base64 PKCS#8.
+     */
+    @Column(nullable = false, length = 4096)
+    private String privateKey;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    /**
+     * When instances start signing with this key. Until then it is only published, so verifiers
+     * have picked it up before the first token signed with it arrives.
+     */
+    @Column(nullable = false)
+    private Instant activatesAt;
+
+    /**
+     * When the last token this key can have signed has expired; the key is deleted after that.
+     */
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
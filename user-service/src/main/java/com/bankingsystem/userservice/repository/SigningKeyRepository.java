@@ -0,0 +1,18 @@
+package com.bankingsystem.userservice.repository;
+
+import com.bankingsystem.userservice.model.SigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+
+    List<SigningKey> findByExpiresAtAfterOrderByActivatesAtDesc(Instant now);
+
+    @Modifying
+    @Transactional
+    int deleteByExpiresAtBefore(Instant now);
+}
@@ -1,11 +1,31 @@
 package com.bankingsystem.userservice.repository;
 
 import com.bankingsystem.userservice.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    /**
+     * Every user with their roles, fetched in one joined query.
+     */
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    List<User> findAll();
+
+    /**
+     * The next {@code limit} users after {@code id} in id order, for keyset iteration.
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
     
     Optional<User> findByUsername(String username);
     
@@ -14,4 +34,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
+
+    /**
+     * Every username, streamed with a JDBC fetch size so the whole table is never held in memory.
+     * Must be consumed inside a transaction and closed.
+     */
+    @Query("select u.username from User u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamAllUsernames();
 }
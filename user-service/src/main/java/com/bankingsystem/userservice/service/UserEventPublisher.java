@@ -0,0 +1,71 @@
+package com.bankingsystem.userservice.service;
+
+import com.bankingsystem.userservice.dto.UserEvent;
+import com.bankingsystem.userservice.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes user lifecycle events to {@code user-events}.
+ * <p>
+ * Records are keyed by user id, so all events for a user stay in order on one partition and the
+ * compacted topic keeps the latest state of every user. Values keep the
+ * {@code "<event-type>:<data>"} shape consumers already route on, with the data now a JSON
+ * {@link UserEvent} instead of the bare id.
+ */
+@Component
+public class UserEventPublisher {
+
+    public static final String USER_EVENTS_TOPIC = "user-events";
+
+    public static final String USER_CREATED = "user-created";
+    public static final String USER_UPDATED = "user-updated";
+    public static final String USER_DELETED = "user-deleted";
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public void publishCreated(User user) {
+        send(USER_CREATED, toEvent(user));
+    }
+
+    public void publishUpdated(User user) {
+        send(USER_UPDATED, toEvent(user));
+    }
+
+    public void publishDeleted(User user) {
+        send(USER_DELETED, UserEvent.builder()
+                .userId(user.getId())
+                .username(user.getUsername())
+                .deleted(true)
+                .version(System.currentTimeMillis())
+                .build());
+    }
+
+    private UserEvent toEvent(User user) {
+        return UserEvent.builder()
+                .userId(user.getId())
+                .username(user.getUsername())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .phoneNumber(user.getPhoneNumber())
+                .version(System.currentTimeMillis())
+                .build();
+    }
+
+    private void send(String eventType, UserEvent event) {
+        try {
+            kafkaTemplate.send(USER_EVENTS_TOPIC, event.getUserId().toString(),
+                    eventType + ":" + objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + eventType + " event", e);
+        }
+    }
+}
@@ -6,15 +6,22 @@ import com.bankingsystem.userservice.model.User;
 import com.bankingsystem.userservice.model.UserRole;
 import com.bankingsystem.userservice.repository.UserRepository;
 import jakarta.transaction.Transactional;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,7 +34,16 @@ public class UserService {
     private PasswordEncoder passwordEncoder;
     
     @Autowired
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private UserEventPublisher userEventPublisher;
+    
+    @Autowired
+    private UsernameAvailabilityIndex usernameAvailabilityIndex;
+    
+    /**
+     * Largest page served, and the chunk size of {@link #streamUsers}; matches the role batch
+     * size on {@link User}, so a page costs one role query.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
     
     public List<UserResponseDto> getAllUsers() {
         List<User> users = userRepository.findAll();
@@ -36,6 +52,31 @@ public class UserService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * One page of users in id order; {@code size} is capped at {@link #MAX_PAGE_SIZE}.
+     */
+    public Page<UserResponseDto> getUsers(int page, int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE),
+                Sort.by("id"));
+        return userRepository.findAll(pageRequest).map(this::mapToResponseDto);
+    }
+    
+    /**
+     * Pass every user to {@code consumer} in id order, reading {@link #MAX_PAGE_SIZE} at a time
+     * by keyset so memory stays flat and no query scans past an offset.
+     */
+    public void streamUsers(Consumer<UserResponseDto> consumer) {
+        long lastId = 0;
+        List<User> chunk;
+        do {
+            chunk = userRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(MAX_PAGE_SIZE));
+            for (User user : chunk) {
+                consumer.accept(mapToResponseDto(user));
+                lastId = user.getId();
+            }
+        } while (chunk.size() == MAX_PAGE_SIZE);
+    }
+    
     public Optional<UserResponseDto> getUserById(Long userId) {
         return userRepository.findById(userId)
                 .map(this::mapToResponseDto);
@@ -46,18 +87,12 @@ public class UserService {
                 .map(this::mapToResponseDto);
     }
     
+    /**
+     * Username and email uniqueness are enforced by the unique constraints on {@code users}, so
+     * registration is a single insert; a conflict is reported from the violated constraint.
+     */
     @Transactional
     public UserResponseDto registerUser(UserRegistrationRequest registrationRequest) {
-        // Check if username exists
-        if (userRepository.existsByUsername(registrationRequest.getUsername())) {
-            throw new RuntimeException("Username is already taken!");
-        }
-        
-        // Check if email exists
-        if (userRepository.existsByEmail(registrationRequest.getEmail())) {
-            throw new RuntimeException("Email is already in use!");
-        }
-        
         // Create new user
         User user = User.builder()
                 .username(registrationRequest.getUsername())
@@ -72,14 +107,28 @@ public class UserService {
                         registrationRequest.getRoles() : Collections.singleton(UserRole.ROLE_USER))
                 .build();
         
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException(conflictMessage(e));
+        }
+        usernameAvailabilityIndex.add(savedUser.getUsername());
         
         // Send user created event to Kafka
-        kafkaTemplate.send("user-events", "user-created", savedUser.getId().toString());
+        userEventPublisher.publishCreated(savedUser);
         
         return mapToResponseDto(savedUser);
     }
     
+    /**
+     * Answered from {@link UsernameAvailabilityIndex} when the name is certainly free, otherwise
+     * from the database.
+     */
+    public boolean isUsernameAvailable(String username) {
+        return usernameAvailabilityIndex.isDefinitelyFree(username) || !userRepository.existsByUsername(username);
+    }
+    
     @Transactional
     public Optional<UserResponseDto> updateUser(Long userId, UserRegistrationRequest updateRequest) {
         return userRepository.findById(userId)
@@ -100,7 +149,7 @@ public class UserService {
                     User updatedUser = userRepository.save(user);
                     
                     // Send user updated event to Kafka
-                    kafkaTemplate.send("user-events", "user-updated", user.getId().toString());
+                    userEventPublisher.publishUpdated(updatedUser);
                     
                     return mapToResponseDto(updatedUser);
                 });
@@ -112,10 +161,30 @@ public class UserService {
             userRepository.delete(user);
             
             // Send user deleted event to Kafka
-            kafkaTemplate.send("user-events", "user-deleted", userId.toString());
+            userEventPublisher.publishDeleted(user);
         });
     }
     
+    private static String conflictMessage(DataIntegrityViolationException e) {
+        String detail = constraintName(e).toLowerCase(Locale.ROOT);
+        if (detail.contains(User.USERNAME_CONSTRAINT)) {
+            return "Username is already taken!";
+        }
+        if (detail.contains(User.EMAIL_CONSTRAINT)) {
+            return "Email is already in use!";
+        }
+        return "Username or email is already in use!";
+    }
+
+    private static String constraintName(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName();
+            }
+        }
+        return String.valueOf(e.getMostSpecificCause().getMessage());
+    }
+    
     private UserResponseDto mapToResponseDto(User user) {
         return UserResponseDto.builder()
                 .id(user.getId())
@@ -0,0 +1,147 @@
+package com.bankingsystem.userservice.service;
+
+import com.bankingsystem.userservice.config.KafkaTopicConfig;
+import com.bankingsystem.userservice.repository.UserRepository;
+import com.bankingsystem.userservice.util.BloomFilter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-memory Bloom filter of every taken username, so most availability checks during signup are
+ * answered "definitely free" without a database query.
+ * <p>
+ * The filter is filled from {@code users} once the application is ready, and then from this
+ * instance's inserts and the {@code user-created} events of all instances. Until the initial scan
+ * has finished, and for any name the filter might contain, callers fall back to the database.
+ * Deleted usernames stay in the filter and are simply checked against the database; that only
+ * costs a query and never reports a taken name as free. A user created on another instance is
+ * known here once its event arrives, and registration itself relies on the unique constraint, so
+ * that lag can only make the check optimistic for a moment.
+ */
+@Component
+public class UsernameAvailabilityIndex implements ConsumerSeekAware {
+
+    private static final Logger logger = LoggerFactory.getLogger(UsernameAvailabilityIndex.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${bankingsystem.app.username-index.expected-users:1000000}")
+    private long expectedUsers = 1000000;
+
+    @Value("${bankingsystem.app.username-index.false-positive-rate:0.01}")
+    private double falsePositiveRate = 0.01;
+
+    private BloomFilter filter;
+    private volatile boolean ready;
+    private final AtomicLong entries = new AtomicLong();
+    private Counter definitelyFree;
+    private Counter maybeTaken;
+
+    @PostConstruct
+    public void init() {
+        filter = new BloomFilter(expectedUsers, falsePositiveRate);
+        definitelyFree = Counter.builder("user.username_index.checks").tag("result", "free").register(meterRegistry);
+        maybeTaken = Counter.builder("user.username_index.checks").tag("result", "maybe_taken").register(meterRegistry);
+        meterRegistry.gauge("user.username_index.entries", entries);
+    }
+
+    /**
+     * Add every stored username. Names added concurrently by inserts and events are kept, since
+     * the scan only ever sets more bits.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+                usernames.forEach(this::add);
+            }
+        });
+        ready = true;
+        logger.info("Username index loaded {} names in {} ms", entries.get(), System.currentTimeMillis() - start);
+        if (entries.get() > expectedUsers) {
+            logger.warn("Username index holds {} names but was sized for {}; raise "
+                    + "bankingsystem.app.username-index.expected-users", entries.get(), expectedUsers);
+        }
+    }
+
+    /**
+     * @return true only if {@code username} is certainly not taken; false means "ask the database"
+     */
+    public boolean isDefinitelyFree(String username) {
+        if (ready && !filter.mightContain(username)) {
+            definitelyFree.increment();
+            return true;
+        }
+        maybeTaken.increment();
+        return false;
+    }
+
+    public void add(String username) {
+        if (filter.put(username)) {
+            entries.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        // Users created before now are picked up by the initial scan
+        callback.seekToEnd(assignments.keySet());
+    }
+
+    // Assigned rather than subscribed, so every instance reads every partition without leaving a
+    // consumer group behind per restart
+    @KafkaListener(groupId = "user-service-username-index",
+            topicPartitions = @org.springframework.kafka.annotation.TopicPartition(
+                    topic = UserEventPublisher.USER_EVENTS_TOPIC, partitions = KafkaTopicConfig.USER_EVENTS_PARTITIONS),
+            properties = "enable.auto.commit=false")
+    public void onUserEvent(String message) {
+        if (!message.startsWith(UserEventPublisher.USER_CREATED + ":")) {
+            return;
+        }
+        try {
+            JsonNode username = objectMapper.readTree(message.substring(UserEventPublisher.USER_CREATED.length() + 1))
+                    .get("username");
+            if (username != null && !username.isNull()) {
+                add(username.asText());
+            }
+        } catch (Exception e) {
+            logger.warn("Ignoring unreadable user event for the username index: {}", e.getMessage());
+        }
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+}
@@ -1,20 +1,33 @@
 package com.bankingsystem.userservice.config;
 
+import com.bankingsystem.identity.AuthenticatedIdentity;
+import com.bankingsystem.identity.IdentityHeaderFilter;
 import com.bankingsystem.userservice.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.io.IOException;
+import java.util.Date;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class JwtAuthTokenFilterTest {
@@ -28,6 +41,9 @@ class JwtAuthTokenFilterTest {
     @Mock
     private UserDetailsServiceImpl userDetailsService;
 
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
     @Mock
     private HttpServletRequest request;
 
@@ -43,6 +59,12 @@ class JwtAuthTokenFilterTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
     }
 
     @Test
@@ -50,52 +72,145 @@ class JwtAuthTokenFilterTest {
         // Arrange
         String token = "validToken";
         String username = "testuser";
-        
+        Claims claims = Jwts.claims().setSubject(username);
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtUtils.parseJwtToken(token)).thenReturn(claims);
+        when(jwtUtils.getUserDetailsFromClaims(claims)).thenReturn(
+                new User(username, "", List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        // Act
+        jwtAuthTokenFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        verify(jwtUtils).parseJwtToken(token);
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(verifiedTokenCache).put(eq(token), any(UserDetails.class), any(), any());
+        assertEquals(username, SecurityContextHolder.getContext().getAuthentication().getName());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_RevokedToken_ShouldNotAuthenticate() throws ServletException, IOException {
+        // Arrange
+        String token = "revokedToken";
+        Claims claims = Jwts.claims().setSubject("testuser");
+        claims.setIssuedAt(new Date());
+
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtUtils.validateJwtToken(token)).thenReturn(true);
-        when(jwtUtils.getUserNameFromJwtToken(token)).thenReturn(username);
+        when(jwtUtils.parseJwtToken(token)).thenReturn(claims);
+        when(verifiedTokenCache.isRevoked("testuser", claims.getIssuedAt())).thenReturn(true);
+
+        // Act
+        jwtAuthTokenFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        verify(jwtUtils, never()).getUserDetailsFromClaims(any());
+        verify(verifiedTokenCache, never()).put(anyString(), any(), any(), any());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_CachedToken_ShouldSkipVerification() throws ServletException, IOException {
+        // Arrange
+        String token = "cachedToken";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(verifiedTokenCache.get(token)).thenReturn(
+                new User("testuser", "", List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        // Act
+        jwtAuthTokenFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        verifyNoInteractions(jwtUtils, userDetailsService);
+        assertEquals("testuser", SecurityContextHolder.getContext().getAuthentication().getName());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_TokenWithoutRoles_ShouldLoadUser() throws ServletException, IOException {
+        // Arrange
+        String token = "legacyToken";
+        String username = "testuser";
+        Claims claims = Jwts.claims().setSubject(username);
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtUtils.parseJwtToken(token)).thenReturn(claims);
+        when(jwtUtils.getUserDetailsFromClaims(claims)).thenReturn(null);
         when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
-        
+
         // Act
         jwtAuthTokenFilter.doFilterInternal(request, response, filterChain);
-        
+
         // Assert
-        verify(jwtUtils).validateJwtToken(token);
-        verify(jwtUtils).getUserNameFromJwtToken(token);
         verify(userDetailsService).loadUserByUsername(username);
         verify(filterChain).doFilter(request, response);
     }
-    
+
+    @Test
+    void testDoFilterInternal_GatewayIdentity_ShouldSkipTokenVerification() throws ServletException, IOException {
+        // Arrange
+        when(request.getAttribute(IdentityHeaderFilter.IDENTITY_ATTRIBUTE)).thenReturn(
+                new AuthenticatedIdentity("testuser", List.of("ROLE_ADMIN"), 1_700_000_000L, Long.MAX_VALUE));
+
+        // Act
+        jwtAuthTokenFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        verify(verifiedTokenCache).isRevoked("testuser", new Date(1_700_000_000_000L));
+        verifyNoInteractions(jwtUtils, userDetailsService);
+        assertEquals("testuser", SecurityContextHolder.getContext().getAuthentication().getName());
+        assertEquals("ROLE_ADMIN",
+                SecurityContextHolder.getContext().getAuthentication().getAuthorities().iterator().next().getAuthority());
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void testDoFilterInternal_GatewayIdentityFromRevokedToken_ShouldNotAuthenticate() throws ServletException, IOException {
+        // Arrange
+        when(request.getAttribute(IdentityHeaderFilter.IDENTITY_ATTRIBUTE)).thenReturn(
+                new AuthenticatedIdentity("testuser", List.of("ROLE_ADMIN"), 1_700_000_000L, Long.MAX_VALUE));
+        when(verifiedTokenCache.isRevoked("testuser", new Date(1_700_000_000_000L))).thenReturn(true);
+
+        // Act
+        jwtAuthTokenFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain).doFilter(request, response);
+    }
+
     @Test
     void testDoFilterInternal_NoToken() throws ServletException, IOException {
         // Arrange
         when(request.getHeader("Authorization")).thenReturn(null);
-        
+
         // Act
         jwtAuthTokenFilter.doFilterInternal(request, response, filterChain);
-        
+
         // Assert
-        verify(jwtUtils, never()).validateJwtToken(anyString());
-        verify(jwtUtils, never()).getUserNameFromJwtToken(anyString());
+        verify(jwtUtils, never()).parseJwtToken(anyString());
         verify(userDetailsService, never()).loadUserByUsername(anyString());
         verify(filterChain).doFilter(request, response);
     }
-    
+
     @Test
     void testDoFilterInternal_InvalidToken() throws ServletException, IOException {
         // Arrange
         String token = "invalidToken";
-        
+
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtUtils.validateJwtToken(token)).thenReturn(false);
-        
+        when(jwtUtils.parseJwtToken(token)).thenReturn(null);
+
         // Act
         jwtAuthTokenFilter.doFilterInternal(request, response, filterChain);
-        
+
         // Assert
-        verify(jwtUtils).validateJwtToken(token);
-        verify(jwtUtils, never()).getUserNameFromJwtToken(anyString());
+        verify(jwtUtils).parseJwtToken(token);
         verify(userDetailsService, never()).loadUserByUsername(anyString());
+        verify(verifiedTokenCache, never()).put(anyString(), any(), any(), any());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
         verify(filterChain).doFilter(request, response);
     }
 }
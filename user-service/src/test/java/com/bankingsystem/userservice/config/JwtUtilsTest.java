@@ -1,17 +1,33 @@
 package com.bankingsystem.userservice.config;
 
+import com.bankingsystem.userservice.model.SigningKey;
+import com.bankingsystem.userservice.repository.SigningKeyRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.security.KeyPairGenerator;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 class JwtUtilsTest {
@@ -25,14 +41,26 @@ class JwtUtilsTest {
     @Mock
     private UserDetails userDetails;
 
+    @Mock
+    private SigningKeyRepository signingKeyRepository;
+
     private final String jwtSecret = "cW1zeUxxVEhzSFFRUWh5UGlqK1J1UUlVdzBHWnZvTGdnS2ZXUTl5ZjJQYz0=";
     private final int jwtExpirationMs = 86400000;
+    private final Instant cutover = Instant.now().minusSeconds(3600);
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
         ReflectionTestUtils.setField(jwtUtils, "jwtSecret", jwtSecret);
         ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", jwtExpirationMs);
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecretCutover", cutover.toString());
+
+        when(signingKeyRepository.save(any(SigningKey.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        SigningKeyManager signingKeyManager = new SigningKeyManager();
+        ReflectionTestUtils.setField(signingKeyManager, "signingKeyRepository", signingKeyRepository);
+        ReflectionTestUtils.setField(signingKeyManager, "jwtExpirationMs", jwtExpirationMs);
+        signingKeyManager.init();
+        ReflectionTestUtils.setField(jwtUtils, "signingKeyManager", signingKeyManager);
     }
 
     @Test
@@ -79,4 +107,119 @@ class JwtUtilsTest {
         // Act & Assert
         assertFalse(jwtUtils.validateJwtToken("invalidToken"));
     }
+
+    @Test
+    void testGenerateJwtToken_ShouldEmbedRolesForDatabaseFreeAuthentication() {
+        // Arrange
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+        when(userDetails.getUsername()).thenReturn("testuser");
+        doReturn(List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")))
+                .when(userDetails).getAuthorities();
+        String token = jwtUtils.generateJwtToken(authentication);
+
+        // Act
+        Claims claims = jwtUtils.parseJwtToken(token);
+        UserDetails principal = jwtUtils.getUserDetailsFromClaims(claims);
+
+        // Assert
+        assertEquals("testuser", principal.getUsername());
+        assertEquals(Set.of("ROLE_USER", "ROLE_ADMIN"),
+                principal.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void testGetUserDetailsFromClaims_WithoutRoles_ShouldReturnNull() {
+        assertNull(jwtUtils.getUserDetailsFromClaims(Jwts.claims().setSubject("testuser")));
+    }
+
+    @Test
+    void testParseJwtToken_TamperedSignature_ShouldReturnNull() {
+        // Arrange
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+        when(userDetails.getUsername()).thenReturn("testuser");
+        String token = jwtUtils.generateJwtToken(authentication);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // Act & Assert
+        assertNull(jwtUtils.parseJwtToken(tampered));
+        assertFalse(jwtUtils.validateJwtToken(tampered));
+    }
+
+    @Test
+    void testGenerateJwtToken_ShouldSignWithRsaKeyAndKeyId() {
+        // Arrange
+        when(authentication.getPrincipal()).thenReturn(userDetails);
+        when(userDetails.getUsername()).thenReturn("testuser");
+
+        // Act
+        String token = jwtUtils.generateJwtToken(authentication);
+
+        // Assert
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        assertTrue(header.contains("\"alg\":\"RS256\""), header);
+        assertTrue(header.contains("\"kid\":"), header);
+    }
+
+    @Test
+    void testParseJwtToken_LegacyHmacToken_ShouldStillVerify() {
+        // Arrange
+        String legacyToken = hmacToken(Date.from(cutover.minusSeconds(60)), new Date(System.currentTimeMillis() + 60_000));
+
+        // Act & Assert
+        assertEquals("testuser", jwtUtils.parseJwtToken(legacyToken).getSubject());
+    }
+
+    @Test
+    void testParseJwtToken_HmacTokenMintedAfterCutover_ShouldReturnNull() {
+        // Arrange: signed with the legacy secret today, as anyone holding it could
+        String minted = hmacToken(new Date(), new Date(System.currentTimeMillis() + 60_000));
+
+        // Act & Assert
+        assertNull(jwtUtils.parseJwtToken(minted));
+    }
+
+    @Test
+    void testParseJwtToken_HmacTokenOutlivingCutover_ShouldReturnNull() {
+        // Arrange: backdated, but valid for longer than any token issued before the cutover
+        String backdated = hmacToken(Date.from(cutover.minusSeconds(60)),
+                Date.from(cutover.plusMillis(jwtExpirationMs).plusSeconds(60)));
+
+        // Act & Assert
+        assertNull(jwtUtils.parseJwtToken(backdated));
+    }
+
+    @Test
+    void testParseJwtToken_HmacTokenWithoutCutover_ShouldReturnNull() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecretCutover", "");
+        String legacyToken = hmacToken(Date.from(cutover.minusSeconds(60)), new Date(System.currentTimeMillis() + 60_000));
+
+        // Act & Assert
+        assertNull(jwtUtils.parseJwtToken(legacyToken));
+    }
+
+    private String hmacToken(Date issuedAt, Date expiration) {
+        return Jwts.builder()
+                .setSubject("testuser")
+                .setIssuedAt(issuedAt)
+                .setExpiration(expiration)
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret)))
+                .compact();
+    }
+
+    @Test
+    void testParseJwtToken_UnknownKeyId_ShouldReturnNull() throws Exception {
+        // Arrange
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        String foreignToken = Jwts.builder()
+                .setHeaderParam("kid", "unknown")
+                .setSubject("testuser")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(generator.generateKeyPair().getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+
+        // Act & Assert
+        assertNull(jwtUtils.parseJwtToken(foreignToken));
+    }
 }
@@ -0,0 +1,88 @@
+package com.bankingsystem.userservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private PasswordHashingExecutor executor;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(executor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(executor, "threads", 2);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 2);
+        executor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void submit_shouldRunOffTheCallingThreadAndRecordLatency() {
+        Thread caller = Thread.currentThread();
+
+        Thread worker = executor.submit(PasswordHashingExecutor.LOGIN, Thread::currentThread).join();
+
+        assertNotSame(caller, worker);
+        assertTrue(worker.getName().startsWith("PasswordHashing-"));
+        assertEquals(1, meterRegistry.get("user.auth.latency")
+                .tag("operation", "login").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void submit_shouldCompleteExceptionallyWithTheTaskFailure() {
+        CompletableFuture<Object> result = executor.submit(PasswordHashingExecutor.REGISTER, () -> {
+            throw new IllegalStateException("Username is already taken!");
+        });
+
+        CompletionException error = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertEquals(1, meterRegistry.get("user.auth.latency")
+                .tag("operation", "register").tag("outcome", "error").timer().count());
+    }
+
+    @Test
+    void submit_beyondPoolAndQueue_shouldRejectWithoutBlocking() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 4; i++) {
+            executor.submit(PasswordHashingExecutor.LOGIN, () -> {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            });
+        }
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Object> shed = executor.submit(PasswordHashingExecutor.LOGIN, () -> "never runs");
+        release.countDown();
+
+        assertTrue(shed.isCompletedExceptionally());
+        CompletionException error = assertThrows(CompletionException.class, shed::join);
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        assertEquals(1.0, meterRegistry.get("user.password_hashing.rejected").counter().count());
+        assertEquals(1, meterRegistry.get("user.auth.latency")
+                .tag("operation", "login").tag("outcome", "rejected").timer().count());
+    }
+}
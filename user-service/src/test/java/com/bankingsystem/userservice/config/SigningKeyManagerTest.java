@@ -0,0 +1,169 @@
+package com.bankingsystem.userservice.config;
+
+import com.bankingsystem.userservice.model.SigningKey;
+import com.bankingsystem.userservice.repository.SigningKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigInteger;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class SigningKeyManagerTest {
+
+    private static final long ROTATION_MS = Duration.ofDays(7).toMillis();
+    private static final long PUBLISH_AHEAD_MS = Duration.ofMinutes(10).toMillis();
+    private static final long JWT_EXPIRATION_MS = Duration.ofDays(1).toMillis();
+
+    private final List<SigningKey> stored = new ArrayList<>();
+    private SigningKeyRepository signingKeyRepository;
+    private SigningKeyManager manager;
+    private Instant now = Instant.parse("2024-03-01T00:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        signingKeyRepository = mock(SigningKeyRepository.class);
+        when(signingKeyRepository.save(any(SigningKey.class))).thenAnswer(invocation -> {
+            stored.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        when(signingKeyRepository.findByExpiresAtAfterOrderByActivatesAtDesc(any(Instant.class))).thenAnswer(invocation -> {
+            Instant at = invocation.getArgument(0);
+            return stored.stream()
+                    .filter(key -> key.getExpiresAt().isAfter(at))
+                    .sorted(Comparator.comparing(SigningKey::getActivatesAt).reversed())
+                    .toList();
+        });
+        when(signingKeyRepository.deleteByExpiresAtBefore(any(Instant.class))).thenAnswer(invocation -> {
+            Instant at = invocation.getArgument(0);
+            int before = stored.size();
+            stored.removeIf(key -> key.getExpiresAt().isBefore(at));
+            return before - stored.size();
+        });
+
+        manager = new SigningKeyManager();
+        ReflectionTestUtils.setField(manager, "signingKeyRepository", signingKeyRepository);
+        ReflectionTestUtils.setField(manager, "rotationPeriodMs", ROTATION_MS);
+        ReflectionTestUtils.setField(manager, "publishAheadMs", PUBLISH_AHEAD_MS);
+        ReflectionTestUtils.setField(manager, "jwtExpirationMs", JWT_EXPIRATION_MS);
+        setClock();
+    }
+
+    @Test
+    void init_shouldCreateFirstKeyActiveImmediately() {
+        // Act
+        manager.init();
+
+        // Assert
+        assertEquals(1, stored.size());
+        assertEquals(stored.get(0).getKid(), manager.currentKey().kid());
+        assertNotNull(manager.publicKey(stored.get(0).getKid()));
+    }
+
+    @Test
+    void refresh_shouldPublishNextKeyBeforeSigningWithIt() {
+        // Arrange
+        manager.init();
+        String first = manager.currentKey().kid();
+
+        // Act: rotation is due within the publish-ahead window
+        advance(ROTATION_MS - PUBLISH_AHEAD_MS);
+        manager.refresh();
+
+        // Assert: the new key is published but the old one still signs
+        assertEquals(2, stored.size());
+        String next = stored.get(1).getKid();
+        assertEquals(first, manager.currentKey().kid());
+        assertEquals(List.of(next, first), kids(manager.jwks()));
+
+        // Act: the new key activates
+        advance(PUBLISH_AHEAD_MS);
+
+        // Assert: it signs, and the old key still verifies the tokens it issued
+        assertEquals(next, manager.currentKey().kid());
+        assertNotNull(manager.publicKey(first));
+    }
+
+    @Test
+    void refresh_shouldDeleteKeysOnceTheirTokensHaveExpired() {
+        // Arrange
+        manager.init();
+        String first = manager.currentKey().kid();
+        advance(ROTATION_MS - PUBLISH_AHEAD_MS);
+        manager.refresh();
+
+        // Act
+        advance(ROTATION_MS + PUBLISH_AHEAD_MS + JWT_EXPIRATION_MS);
+        manager.refresh();
+
+        // Assert
+        assertFalse(kids(manager.jwks()).contains(first));
+        assertNull(manager.publicKey(first));
+    }
+
+    @Test
+    void publicKey_shouldReloadForKeyCreatedByAnotherInstance() {
+        // Arrange
+        manager.init();
+        SigningKeyManager other = new SigningKeyManager();
+        ReflectionTestUtils.setField(other, "signingKeyRepository", signingKeyRepository);
+        ReflectionTestUtils.setField(other, "rotationPeriodMs", 0L);
+        ReflectionTestUtils.setField(other, "publishAheadMs", 0L);
+        ReflectionTestUtils.setField(other, "jwtExpirationMs", JWT_EXPIRATION_MS);
+        ReflectionTestUtils.setField(other, "clock", Clock.fixed(now.plusMillis(1), ZoneOffset.UTC));
+        other.refresh();
+        String created = other.currentKey().kid();
+
+        // Act & Assert: within the reload interval the unknown kid is not looked up
+        assertNull(manager.publicKey(created));
+        advance(5000);
+        assertNotNull(manager.publicKey(created));
+    }
+
+    @Test
+    void jwks_shouldPublishRsaModulusAndExponent() {
+        // Arrange
+        manager.init();
+        RSAPublicKey publicKey = (RSAPublicKey) manager.publicKey(manager.currentKey().kid());
+
+        // Act
+        @SuppressWarnings("unchecked")
+        Map<String, Object> jwk = ((List<Map<String, Object>>) manager.jwks().get("keys")).get(0);
+
+        // Assert
+        assertEquals("RSA", jwk.get("kty"));
+        assertEquals("RS256", jwk.get("alg"));
+        assertEquals("sig", jwk.get("use"));
+        assertEquals(publicKey.getModulus(), new BigInteger(1, Base64.getUrlDecoder().decode((String) jwk.get("n"))));
+        assertEquals(publicKey.getPublicExponent(), new BigInteger(1, Base64.getUrlDecoder().decode((String) jwk.get("e"))));
+    }
+
+    private void advance(long millis) {
+        now = now.plusMillis(millis);
+        setClock();
+    }
+
+    private void setClock() {
+        ReflectionTestUtils.setField(manager, "clock", Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> kids(Map<String, Object> jwks) {
+        return ((List<Map<String, Object>>) jwks.get("keys")).stream()
+                .map(jwk -> (String) jwk.get("kid"))
+                .toList();
+    }
+}
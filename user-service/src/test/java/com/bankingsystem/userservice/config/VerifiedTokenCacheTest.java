@@ -0,0 +1,112 @@
+package com.bankingsystem.userservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private VerifiedTokenCache cache;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cache, "maxSize", 3);
+        cache.init();
+    }
+
+    @Test
+    void get_shouldReturnCachedPrincipalAndCountHitsAndMisses() {
+        UserDetails principal = user("alice");
+
+        assertNull(cache.get("token-1"));
+        cache.put("token-1", principal, new Date(), inOneHour());
+
+        assertSame(principal, cache.get("token-1"));
+        assertSame(principal, cache.get("token-1"));
+        assertNull(cache.get("token-2"));
+        assertEquals(2.0, meterRegistry.get("user.token_cache.requests").tag("result", "hit").counter().count());
+        assertEquals(2.0, meterRegistry.get("user.token_cache.requests").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void put_shouldNotCacheExpiredTokensAndGetShouldDropExpiredEntries() throws InterruptedException {
+        cache.put("expired", user("alice"), new Date(), new Date(System.currentTimeMillis() - 1000));
+        cache.put("short-lived", user("alice"), new Date(), new Date(System.currentTimeMillis() + 20));
+
+        assertNull(cache.get("expired"));
+        Thread.sleep(40);
+        assertNull(cache.get("short-lived"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void onUserEvent_shouldRevokeTokensIssuedBeforeTheDeletion() {
+        long deletedAt = System.currentTimeMillis();
+        Date before = new Date(deletedAt - 60_000);
+        cache.put("alice-token", user("alice"), before, inOneHour());
+        cache.put("bob-token", user("bob"), before, inOneHour());
+
+        cache.onUserEvent("user-deleted:{\"userId\":1,\"username\":\"alice\",\"deleted\":true,\"version\":" + deletedAt + "}");
+
+        assertNull(cache.get("alice-token"));
+        assertNotNull(cache.get("bob-token"));
+        // Evicted or not, the same token verified again stays rejected
+        assertTrue(cache.isRevoked("alice", before));
+        cache.put("alice-token", user("alice"), before, inOneHour());
+        assertNull(cache.get("alice-token"));
+        // A token issued after the deletion is unaffected
+        assertFalse(cache.isRevoked("alice", new Date(deletedAt + 1000)));
+    }
+
+    @Test
+    void onUserEvent_replayedAfterTokenLifetime_shouldNotRevoke() {
+        long longAgo = System.currentTimeMillis() - 2 * 86_400_000L;
+
+        cache.onUserEvent("user-deleted:{\"userId\":1,\"username\":\"alice\",\"version\":" + longAgo + "}");
+
+        assertFalse(cache.isRevoked("alice", new Date(longAgo - 1000)));
+    }
+
+    @Test
+    void onUserEvent_shouldIgnoreOtherAndUnreadableEvents() {
+        cache.put("alice-token", user("alice"), new Date(), inOneHour());
+
+        cache.onUserEvent("user-created:{\"userId\":1,\"username\":\"alice\",\"version\":5}");
+        cache.onUserEvent("user-updated:{\"userId\":1,\"username\":\"alice\",\"version\":5}");
+        cache.onUserEvent("user-deleted:{not json");
+
+        assertNotNull(cache.get("alice-token"));
+    }
+
+    @Test
+    void put_shouldStayWithinMaxSize() {
+        for (int i = 0; i < 10; i++) {
+            cache.put("token-" + i, user("user" + i), new Date(), inOneHour());
+        }
+
+        assertTrue(cache.size() <= 3);
+        assertNotNull(cache.get("token-9"));
+        assertTrue(meterRegistry.get("user.token_cache.evictions").counter().count() >= 7);
+    }
+
+    private static UserDetails user(String username) {
+        return new User(username, "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    private static Date inOneHour() {
+        return new Date(System.currentTimeMillis() + 3_600_000);
+    }
+}
@@ -1,11 +1,15 @@
 package com.bankingsystem.userservice.controller;
 
 import com.bankingsystem.userservice.config.JwtUtils;
+import com.bankingsystem.userservice.config.PasswordHashingExecutor;
+import com.bankingsystem.userservice.config.SigningKeyManager;
 import com.bankingsystem.userservice.dto.JwtResponse;
 import com.bankingsystem.userservice.dto.LoginRequest;
 import com.bankingsystem.userservice.dto.UserRegistrationRequest;
 import com.bankingsystem.userservice.dto.UserResponseDto;
 import com.bankingsystem.userservice.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,13 +19,20 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -40,6 +51,9 @@ class AuthControllerTest {
     @Mock
     private JwtUtils jwtUtils;
 
+    @Mock
+    private SigningKeyManager signingKeyManager;
+
     @InjectMocks
     private AuthController authController;
 
@@ -49,8 +63,17 @@ class AuthControllerTest {
     private UserDetails userDetails;
     private UserResponseDto userResponseDto;
 
+    private PasswordHashingExecutor passwordHashingExecutor;
+
     @BeforeEach
     void setUp() {
+        passwordHashingExecutor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(passwordHashingExecutor, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(passwordHashingExecutor, "threads", 1);
+        ReflectionTestUtils.setField(passwordHashingExecutor, "queueCapacity", 1);
+        passwordHashingExecutor.init();
+        ReflectionTestUtils.setField(authController, "passwordHashingExecutor", passwordHashingExecutor);
+
         // Setup login request
         loginRequest = new LoginRequest();
         loginRequest.setUsername("testuser");
@@ -89,6 +112,11 @@ class AuthControllerTest {
                 .build();
     }
 
+    @AfterEach
+    void tearDown() {
+        passwordHashingExecutor.shutdown();
+    }
+
     @Test
     void authenticateUser_shouldReturnJwtToken() {
         // Arrange
@@ -97,7 +125,7 @@ class AuthControllerTest {
         when(jwtUtils.generateJwtToken(authentication)).thenReturn("testjwttoken");
 
         // Act
-        ResponseEntity<?> response = authController.authenticateUser(loginRequest);
+        ResponseEntity<?> response = authController.authenticateUser(loginRequest).join();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -115,7 +143,7 @@ class AuthControllerTest {
         when(userService.registerUser(any(UserRegistrationRequest.class))).thenReturn(userResponseDto);
 
         // Act
-        ResponseEntity<?> response = authController.registerUser(registrationRequest);
+        ResponseEntity<?> response = authController.registerUser(registrationRequest).join();
 
         // Assert
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
@@ -133,7 +161,7 @@ class AuthControllerTest {
                 .thenThrow(new RuntimeException("Username is already taken!"));
 
         // Act
-        ResponseEntity<?> response = authController.registerUser(registrationRequest);
+        ResponseEntity<?> response = authController.registerUser(registrationRequest).join();
 
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -147,10 +175,78 @@ class AuthControllerTest {
                 .thenThrow(new RuntimeException("Email is already in use!"));
 
         // Act
-        ResponseEntity<?> response = authController.registerUser(registrationRequest);
+        ResponseEntity<?> response = authController.registerUser(registrationRequest).join();
 
         // Assert
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
         assertEquals("Email is already in use!", response.getBody());
     }
+
+    @Test
+    void authenticateUser_withBadCredentials_shouldReturnUnauthorized() {
+        // Arrange
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new BadCredentialsException("Bad credentials"));
+
+        // Act
+        ResponseEntity<?> response = authController.authenticateUser(loginRequest).join();
+
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verifyNoInteractions(jwtUtils);
+    }
+
+    @Test
+    void authenticateUser_whenHashingPoolIsSaturated_shouldShedWithServiceUnavailable() throws InterruptedException {
+        // Arrange: one login hashing and one queued fill the pool
+        CountDownLatch hashing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenAnswer(invocation -> {
+            hashing.countDown();
+            release.await();
+            return authentication;
+        });
+        when(jwtUtils.generateJwtToken(authentication)).thenReturn("testjwttoken");
+        CompletableFuture<ResponseEntity<?>> running = authController.authenticateUser(loginRequest);
+        assertTrue(hashing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ResponseEntity<?>> queued = authController.authenticateUser(loginRequest);
+
+        // Act
+        ResponseEntity<?> shed = authController.authenticateUser(loginRequest).join();
+        release.countDown();
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shed.getStatusCode());
+        assertEquals("1", shed.getHeaders().getFirst("Retry-After"));
+        assertEquals(HttpStatus.OK, running.join().getStatusCode());
+        assertEquals(HttpStatus.OK, queued.join().getStatusCode());
+    }
+
+    @Test
+    void isUsernameAvailable_shouldReportServiceAnswer() {
+        // Arrange
+        when(userService.isUsernameAvailable("newuser")).thenReturn(true);
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = authController.isUsernameAvailable("newuser");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Map.of("username", "newuser", "available", true), response.getBody());
+    }
+
+    @Test
+    void jwks_shouldReturnPublishedKeysWithCacheHeader() {
+        // Arrange
+        Map<String, Object> jwks = Map.of("keys", List.of(Map.of("kty", "RSA", "kid", "key-1")));
+        when(signingKeyManager.jwks()).thenReturn(jwks);
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = authController.jwks();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(jwks, response.getBody());
+        assertEquals("max-age=300, public", response.getHeaders().getCacheControl());
+    }
 }
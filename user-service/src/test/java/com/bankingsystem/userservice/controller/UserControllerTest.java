@@ -3,18 +3,26 @@ package com.bankingsystem.userservice.controller;
 import com.bankingsystem.userservice.dto.UserRegistrationRequest;
 import com.bankingsystem.userservice.dto.UserResponseDto;
 import com.bankingsystem.userservice.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -67,6 +75,46 @@ class UserControllerTest {
         assertEquals(testUserDto.getId(), response.getBody().get(0).getId());
     }
 
+    @Test
+    void getUsersPage_shouldReturnServicePage() {
+        // Arrange
+        Page<UserResponseDto> page = new PageImpl<>(List.of(testUserDto));
+        when(userService.getUsers(0, 50)).thenReturn(page);
+
+        // Act
+        ResponseEntity<Page<UserResponseDto>> response = userController.getUsersPage(0, 50);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(page, response.getBody());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamUsers_shouldWriteOneJsonLinePerUser() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(userController, "objectMapper", new ObjectMapper());
+        UserResponseDto second = UserResponseDto.builder().id(2L).username("other").build();
+        doAnswer(invocation -> {
+            Consumer<UserResponseDto> consumer = invocation.getArgument(0);
+            consumer.accept(testUserDto);
+            consumer.accept(second);
+            return null;
+        }).when(userService).streamUsers(any(Consumer.class));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = userController.streamUsers();
+        response.getBody().writeTo(out);
+
+        // Assert
+        assertEquals(UserController.NDJSON, response.getHeaders().getContentType());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"username\":\"testuser\""));
+        assertTrue(lines[1].contains("\"id\":2"));
+    }
+
     @Test
     void getUserById_whenUserExists_shouldReturnUser() {
         // Arrange
@@ -2,22 +2,35 @@ package com.bankingsystem.userservice.repository;
 
 import com.bankingsystem.userservice.model.User;
 import com.bankingsystem.userservice.model.UserRole;
+import org.hibernate.SessionFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.TestPropertySource;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
-@TestPropertySource(locations = "classpath:application.properties")
+@TestPropertySource(locations = "classpath:application.properties",
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 class UserRepositoryTest {
 
@@ -168,4 +181,123 @@ class UserRepositoryTest {
         // Assert
         assertNull(entityManager.find(User.class, savedUser.getId()));
     }
+
+    @Test
+    void saveAndFlush_withTakenUsername_shouldReportTheUsernameConstraint() {
+        // Arrange
+        entityManager.persist(testUser);
+        entityManager.flush();
+        User duplicate = User.builder()
+                .username("testuser")
+                .password("encodedpassword")
+                .firstName("Other")
+                .lastName("User")
+                .email("other@example.com")
+                .createdAt(LocalDateTime.now())
+                .roles(Collections.singleton(UserRole.ROLE_USER))
+                .build();
+
+        // Act
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.saveAndFlush(duplicate));
+
+        // Assert: H2 2.x messages defeat Hibernate's name extraction, so the message carries it
+        ConstraintViolationException violation = assertInstanceOf(ConstraintViolationException.class, exception.getCause());
+        String detail = violation.getConstraintName() != null
+                ? violation.getConstraintName()
+                : exception.getMostSpecificCause().getMessage();
+        assertTrue(detail.toLowerCase(Locale.ROOT).contains(User.USERNAME_CONSTRAINT), detail);
+    }
+
+    @Test
+    void streamAllUsernames_shouldReturnEveryUsername() {
+        // Arrange
+        entityManager.persist(testUser);
+        entityManager.flush();
+
+        // Act
+        List<String> usernames;
+        try (Stream<String> stream = userRepository.streamAllUsernames()) {
+            usernames = stream.toList();
+        }
+
+        // Assert
+        assertEquals(List.of("testuser"), usernames);
+    }
+
+    @Test
+    void findAll_shouldLoadUsersAndRolesInConstantStatements() {
+        // Arrange
+        persistUsers(0, 3);
+        long statementsForFew = statementsToLoad(() -> userRepository.findAll(), 3);
+        persistUsers(3, 60);
+
+        // Act
+        long statementsForMany = statementsToLoad(() -> userRepository.findAll(), 60);
+
+        // Assert
+        assertEquals(1, statementsForFew);
+        assertEquals(statementsForFew, statementsForMany);
+    }
+
+    @Test
+    void findAllPaged_shouldBatchRoleLoadingInConstantStatements() {
+        // Arrange
+        PageRequest firstPage = PageRequest.of(0, 100, Sort.by("id"));
+        persistUsers(0, 3);
+        long statementsForFew = statementsToLoad(() -> userRepository.findAll(firstPage).getContent(), 3);
+        persistUsers(3, 90);
+
+        // Act
+        long statementsForMany = statementsToLoad(() -> userRepository.findAll(firstPage).getContent(), 90);
+
+        // Assert: the users, then one batch of roles
+        assertEquals(2, statementsForFew);
+        assertEquals(statementsForFew, statementsForMany);
+    }
+
+    @Test
+    void findByIdGreaterThan_shouldReturnNextUsersInIdOrder() {
+        // Arrange
+        persistUsers(0, 5);
+        List<User> all = userRepository.findAll(Sort.by("id"));
+
+        // Act
+        List<User> next = userRepository.findByIdGreaterThanOrderByIdAsc(all.get(1).getId(), Limit.of(2));
+
+        // Assert
+        assertEquals(List.of(all.get(2).getId(), all.get(3).getId()), next.stream().map(User::getId).toList());
+    }
+
+    private void persistUsers(int from, int to) {
+        for (int i = from; i < to; i++) {
+            entityManager.persist(User.builder()
+                    .username("user" + i)
+                    .password("encodedpassword")
+                    .firstName("User")
+                    .lastName(String.valueOf(i))
+                    .email("user" + i + "@example.com")
+                    .createdAt(LocalDateTime.now())
+                    .roles(Set.of(UserRole.ROLE_USER, UserRole.ROLE_ADMIN))
+                    .build());
+        }
+        entityManager.flush();
+    }
+
+    /**
+     * SQL statements prepared while loading users with a cold persistence context, checking that
+     * every user came back with its roles.
+     */
+    private long statementsToLoad(Supplier<List<User>> query, int expectedUsers) {
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<User> users = query.get();
+        users.forEach(user -> assertEquals(2, user.getRoles().size()));
+
+        assertEquals(expectedUsers, users.size());
+        return statistics.getPrepareStatementCount();
+    }
 }
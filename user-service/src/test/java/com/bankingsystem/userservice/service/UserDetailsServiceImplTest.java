@@ -9,9 +9,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -20,7 +23,10 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -110,4 +116,40 @@ class UserDetailsServiceImplTest {
         assertTrue(authorities.contains("ROLE_USER"));
         assertTrue(authorities.contains("ROLE_ADMIN"));
     }
+
+    @Test
+    void authenticate_withHashBelowConfiguredStrength_shouldRehashAtConfiguredStrength() {
+        // Arrange
+        testUser.setPassword(new BCryptPasswordEncoder(4).encode("password"));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsService);
+        provider.setPasswordEncoder(new BCryptPasswordEncoder(5));
+
+        // Act
+        provider.authenticate(new UsernamePasswordAuthenticationToken("testuser", "password"));
+
+        // Assert
+        verify(userRepository).save(testUser);
+        assertTrue(testUser.getPassword().startsWith("$2a$05$"), testUser.getPassword());
+        assertTrue(new BCryptPasswordEncoder(5).matches("password", testUser.getPassword()));
+    }
+
+    @Test
+    void authenticate_withHashAtConfiguredStrength_shouldNotRehash() {
+        // Arrange
+        testUser.setPassword(new BCryptPasswordEncoder(5).encode("password"));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsService);
+        provider.setPasswordEncoder(new BCryptPasswordEncoder(5));
+
+        // Act
+        provider.authenticate(new UsernamePasswordAuthenticationToken("testuser", "password"));
+
+        // Assert
+        verify(userRepository, never()).save(any(User.class));
+    }
 }
@@ -0,0 +1,76 @@
+package com.bankingsystem.userservice.service;
+
+import com.bankingsystem.userservice.dto.UserEvent;
+import com.bankingsystem.userservice.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class UserEventPublisherTest {
+
+    @Mock
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @InjectMocks
+    private UserEventPublisher userEventPublisher;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(userEventPublisher, "objectMapper", objectMapper);
+    }
+
+    @Test
+    void publishCreated_shouldKeyByUserIdAndCarryContactDetails() throws Exception {
+        // Arrange
+        User user = User.builder()
+                .id(7L)
+                .username("jdoe")
+                .firstName("John")
+                .lastName("Doe")
+                .email("john@example.com")
+                .phoneNumber("+15550100")
+                .build();
+
+        // Act
+        userEventPublisher.publishCreated(user);
+
+        // Assert
+        ArgumentCaptor<String> value = ArgumentCaptor.forClass(String.class);
+        verify(kafkaTemplate).send(eq("user-events"), eq("7"), value.capture());
+        assertTrue(value.getValue().startsWith("user-created:"));
+        UserEvent event = objectMapper.readValue(value.getValue().substring("user-created:".length()), UserEvent.class);
+        assertEquals(7L, event.getUserId());
+        assertEquals("john@example.com", event.getEmail());
+        assertEquals("+15550100", event.getPhoneNumber());
+        assertFalse(event.isDeleted());
+        assertTrue(event.getVersion() > 0);
+    }
+
+    @Test
+    void publishDeleted_shouldMarkUserDeleted() throws Exception {
+        // Act
+        userEventPublisher.publishDeleted(User.builder().id(7L).username("jdoe").email("john@example.com").build());
+
+        // Assert
+        ArgumentCaptor<String> value = ArgumentCaptor.forClass(String.class);
+        verify(kafkaTemplate).send(eq("user-events"), eq("7"), value.capture());
+        UserEvent event = objectMapper.readValue(value.getValue().substring("user-deleted:".length()), UserEvent.class);
+        assertTrue(event.isDeleted());
+        assertEquals("jdoe", event.getUsername());
+        assertNull(event.getEmail());
+    }
+}
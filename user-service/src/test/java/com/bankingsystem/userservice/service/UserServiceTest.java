@@ -10,15 +10,24 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.hibernate.exception.ConstraintViolationException;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -32,7 +41,10 @@ class UserServiceTest {
     private PasswordEncoder passwordEncoder;
 
     @Mock
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private UserEventPublisher userEventPublisher;
+
+    @Mock
+    private UsernameAvailabilityIndex usernameAvailabilityIndex;
 
     @InjectMocks
     private UserService userService;
@@ -141,8 +153,6 @@ class UserServiceTest {
     @Test
     void registerUser_whenUsernameAndEmailAreUnique_shouldRegisterUser() {
         // Arrange
-        when(userRepository.existsByUsername("newuser")).thenReturn(false);
-        when(userRepository.existsByEmail("new@example.com")).thenReturn(false);
         when(passwordEncoder.encode("password")).thenReturn("encodedpassword");
         
         User newUser = User.builder()
@@ -158,7 +168,7 @@ class UserServiceTest {
                 .roles(Collections.singleton(UserRole.ROLE_USER))
                 .build();
         
-        when(userRepository.save(any(User.class))).thenReturn(newUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(newUser);
 
         // Act
         UserResponseDto result = userService.registerUser(registrationRequest);
@@ -167,17 +177,18 @@ class UserServiceTest {
         assertNotNull(result);
         assertEquals(newUser.getId(), result.getId());
         assertEquals(newUser.getUsername(), result.getUsername());
-        verify(userRepository).existsByUsername("newuser");
-        verify(userRepository).existsByEmail("new@example.com");
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
         verify(passwordEncoder).encode("password");
-        verify(userRepository).save(any(User.class));
-        verify(kafkaTemplate).send(eq("user-events"), eq("user-created"), anyString());
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(usernameAvailabilityIndex).add("newuser");
+        verify(userEventPublisher).publishCreated(newUser);
     }
 
     @Test
     void registerUser_whenUsernameExists_shouldThrowException() {
         // Arrange
-        when(userRepository.existsByUsername("newuser")).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(uniqueViolation(User.USERNAME_CONSTRAINT));
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> 
@@ -185,16 +196,15 @@ class UserServiceTest {
         );
         
         assertEquals("Username is already taken!", exception.getMessage());
-        verify(userRepository).existsByUsername("newuser");
-        verify(userRepository, never()).save(any(User.class));
-        verify(kafkaTemplate, never()).send(anyString(), anyString(), anyString());
+        verify(userRepository, never()).existsByUsername(anyString());
+        verifyNoInteractions(userEventPublisher, usernameAvailabilityIndex);
     }
 
     @Test
     void registerUser_whenEmailExists_shouldThrowException() {
-        // Arrange
-        when(userRepository.existsByUsername("newuser")).thenReturn(false);
-        when(userRepository.existsByEmail("new@example.com")).thenReturn(true);
+        // Arrange: PostgreSQL reports the constraint name in lower case, H2 in upper case
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(uniqueViolation(User.EMAIL_CONSTRAINT.toUpperCase()));
 
         // Act & Assert
         RuntimeException exception = assertThrows(RuntimeException.class, () -> 
@@ -202,10 +212,64 @@ class UserServiceTest {
         );
         
         assertEquals("Email is already in use!", exception.getMessage());
-        verify(userRepository).existsByUsername("newuser");
-        verify(userRepository).existsByEmail("new@example.com");
-        verify(userRepository, never()).save(any(User.class));
-        verify(kafkaTemplate, never()).send(anyString(), anyString(), anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
+        verifyNoInteractions(userEventPublisher, usernameAvailabilityIndex);
+    }
+
+    @Test
+    void getUsers_shouldCapPageSizeAndSortById() {
+        // Arrange
+        when(userRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(testUser)));
+
+        // Act
+        Page<UserResponseDto> result = userService.getUsers(2, 10_000);
+
+        // Assert
+        assertEquals(1, result.getContent().size());
+        verify(userRepository).findAll(PageRequest.of(2, UserService.MAX_PAGE_SIZE, Sort.by("id")));
+    }
+
+    @Test
+    void streamUsers_shouldWalkAllChunksByKeyset() {
+        // Arrange
+        List<User> firstChunk = new ArrayList<>();
+        for (long id = 1; id <= UserService.MAX_PAGE_SIZE; id++) {
+            firstChunk.add(User.builder().id(id).username("user" + id).build());
+        }
+        User last = User.builder().id(500L).username("last").build();
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(UserService.MAX_PAGE_SIZE))).thenReturn(firstChunk);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc((long) UserService.MAX_PAGE_SIZE, Limit.of(UserService.MAX_PAGE_SIZE)))
+                .thenReturn(List.of(last));
+        List<Long> streamed = new ArrayList<>();
+
+        // Act
+        userService.streamUsers(user -> streamed.add(user.getId()));
+
+        // Assert
+        assertEquals(UserService.MAX_PAGE_SIZE + 1, streamed.size());
+        assertEquals(500L, streamed.get(streamed.size() - 1));
+        verify(userRepository, times(2)).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+    }
+
+    @Test
+    void isUsernameAvailable_whenIndexSaysFree_shouldNotQueryDatabase() {
+        // Arrange
+        when(usernameAvailabilityIndex.isDefinitelyFree("newuser")).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(userService.isUsernameAvailable("newuser"));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void isUsernameAvailable_whenIndexMightContainName_shouldAskDatabase() {
+        // Arrange
+        when(usernameAvailabilityIndex.isDefinitelyFree("testuser")).thenReturn(false);
+        when(userRepository.existsByUsername("testuser")).thenReturn(true);
+
+        // Act & Assert
+        assertFalse(userService.isUsernameAvailable("testuser"));
+        verify(userRepository).existsByUsername("testuser");
     }
 
     @Test
@@ -231,7 +295,7 @@ class UserServiceTest {
         assertEquals("Updated Address", result.get().getAddress());
         verify(userRepository).findById(1L);
         verify(userRepository).save(any(User.class));
-        verify(kafkaTemplate).send(eq("user-events"), eq("user-updated"), anyString());
+        verify(userEventPublisher).publishUpdated(testUser);
     }
 
     @Test
@@ -250,7 +314,7 @@ class UserServiceTest {
         assertFalse(result.isPresent());
         verify(userRepository).findById(999L);
         verify(userRepository, never()).save(any(User.class));
-        verify(kafkaTemplate, never()).send(anyString(), anyString(), anyString());
+        verifyNoInteractions(userEventPublisher);
     }
 
     @Test
@@ -264,7 +328,7 @@ class UserServiceTest {
         // Assert
         verify(userRepository).findById(1L);
         verify(userRepository).delete(testUser);
-        verify(kafkaTemplate).send(eq("user-events"), eq("user-deleted"), eq("1"));
+        verify(userEventPublisher).publishDeleted(testUser);
     }
 
     @Test
@@ -278,6 +342,11 @@ class UserServiceTest {
         // Assert
         verify(userRepository).findById(999L);
         verify(userRepository, never()).delete(any(User.class));
-        verify(kafkaTemplate, never()).send(anyString(), anyString(), anyString());
+        verifyNoInteractions(userEventPublisher);
+    }
+
+    private static DataIntegrityViolationException uniqueViolation(String constraint) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key", new SQLException("duplicate key", "23505"), constraint));
     }
 }
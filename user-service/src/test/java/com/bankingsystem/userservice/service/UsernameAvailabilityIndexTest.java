@@ -0,0 +1,79 @@
+package com.bankingsystem.userservice.service;
+
+import com.bankingsystem.userservice.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UsernameAvailabilityIndexTest {
+
+    private UserRepository userRepository;
+    private UsernameAvailabilityIndex index;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any(TransactionDefinition.class))).thenReturn(new SimpleTransactionStatus());
+        meterRegistry = new SimpleMeterRegistry();
+
+        index = new UsernameAvailabilityIndex();
+        ReflectionTestUtils.setField(index, "userRepository", userRepository);
+        ReflectionTestUtils.setField(index, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(index, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(index, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(index, "expectedUsers", 1000L);
+        index.init();
+    }
+
+    @Test
+    void isDefinitelyFree_beforeRebuild_shouldDeferToDatabase() {
+        assertFalse(index.isDefinitelyFree("newuser"));
+        assertFalse(index.isReady());
+    }
+
+    @Test
+    void rebuild_shouldLoadStoredUsernames() {
+        // Arrange
+        when(userRepository.streamAllUsernames()).thenReturn(Stream.of("alice", "bob"));
+
+        // Act
+        index.rebuild();
+
+        // Assert
+        assertTrue(index.isReady());
+        assertFalse(index.isDefinitelyFree("alice"));
+        assertFalse(index.isDefinitelyFree("bob"));
+        assertTrue(index.isDefinitelyFree("carol"));
+        assertEquals(1.0, meterRegistry.get("user.username_index.checks").tag("result", "free").counter().count());
+        assertEquals(2.0, meterRegistry.get("user.username_index.entries").gauge().value());
+    }
+
+    @Test
+    void onUserEvent_shouldAddUsersCreatedElsewhere() {
+        // Arrange
+        when(userRepository.streamAllUsernames()).thenReturn(Stream.empty());
+        index.rebuild();
+
+        // Act
+        index.onUserEvent(UserEventPublisher.USER_CREATED + ":{\"userId\":7,\"username\":\"carol\"}");
+        index.onUserEvent(UserEventPublisher.USER_UPDATED + ":{\"userId\":8,\"username\":\"dave\"}");
+        index.onUserEvent(UserEventPublisher.USER_CREATED + ":not json");
+
+        // Assert
+        assertFalse(index.isDefinitelyFree("carol"));
+        assertTrue(index.isDefinitelyFree("dave"));
+    }
+}
@@ -0,0 +1,216 @@
+package com.bankingsystem.userstore;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a {@link UserStateStore} in step with the compacted {@code user-events} topic.
+ * <p>
+ * Every partition is assigned directly (no consumer group), so each instance holds all users.
+ * Consumption resumes from the offsets committed in the store, so a restart only reads what was
+ * published while the service was down; an empty store replays the topic from the beginning.
+ * The store counts as restored once the end offsets seen at startup have been reached, and
+ * callers should fall back to user-service until then.
+ * <p>
+ * Values have the {@code "<event-type>:<json>"} form written by user-service. Legacy events
+ * carrying only the user id and records that cannot be parsed are skipped.
+ */
+public class UserEventsMaterializer implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserEventsMaterializer.class);
+
+    private final Consumer<String, String> consumer;
+    private final UserStateStore store;
+    private final String topic;
+    private final Duration pollTimeout;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CountDownLatch restored = new CountDownLatch(1);
+
+    private volatile boolean running;
+    private Thread thread;
+    private List<TopicPartition> partitions = List.of();
+    private Map<TopicPartition, Long> restoreTarget = Map.of();
+    private long restoreStartedAt;
+    private long restoredRecords;
+
+    public UserEventsMaterializer(Consumer<String, String> consumer, UserStateStore store, String topic,
+                                  Duration pollTimeout) {
+        this.consumer = consumer;
+        this.store = store;
+        this.topic = topic;
+        this.pollTimeout = pollTimeout;
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "UserStateStore-" + topic);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public boolean isRestored() {
+        return restored.getCount() == 0;
+    }
+
+    public boolean awaitRestored(Duration timeout) throws InterruptedException {
+        return restored.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        consumer.wakeup();
+        if (thread != null) {
+            try {
+                thread.join(pollTimeout.multipliedBy(2).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        try {
+            while (running && !assignPartitions()) {
+                Thread.sleep(pollTimeout.toMillis());
+            }
+            while (running) {
+                pollOnce();
+            }
+        } catch (WakeupException e) {
+            if (running) {
+                logger.error("Unexpected wakeup of the {} state store consumer", topic, e);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("User state store consumer for {} stopped", topic, e);
+        } finally {
+            consumer.close();
+        }
+    }
+
+    /**
+     * Assign every partition of the topic and seek to the offsets committed in the store.
+     *
+     * @return false if the topic does not exist yet
+     */
+    boolean assignPartitions() {
+        List<PartitionInfo> infos = consumer.partitionsFor(topic);
+        if (infos == null || infos.isEmpty()) {
+            logger.info("Topic {} not available yet, waiting", topic);
+            return false;
+        }
+        partitions = infos.stream().map(info -> new TopicPartition(topic, info.partition())).toList();
+        consumer.assign(partitions);
+
+        Map<Integer, Long> committed = store.committedOffsets();
+        for (TopicPartition partition : partitions) {
+            Long offset = committed.get(partition.partition());
+            if (offset != null) {
+                consumer.seek(partition, offset);
+            } else {
+                consumer.seekToBeginning(List.of(partition));
+            }
+        }
+        restoreTarget = consumer.endOffsets(partitions);
+        restoreStartedAt = System.nanoTime();
+        logger.info("Restoring user state store from {} (committed offsets {}, end offsets {})",
+                topic, committed, restoreTarget);
+        checkRestored();
+        return true;
+    }
+
+    void pollOnce() {
+        ConsumerRecords<String, String> records = consumer.poll(pollTimeout);
+        if (!records.isEmpty()) {
+            try (UserStateStore.Batch batch = store.newBatch()) {
+                for (TopicPartition partition : records.partitions()) {
+                    List<ConsumerRecord<String, String>> partitionRecords = records.records(partition);
+                    for (ConsumerRecord<String, String> record : partitionRecords) {
+                        apply(batch, record);
+                    }
+                    batch.offset(partition.partition(), partitionRecords.get(partitionRecords.size() - 1).offset() + 1);
+                }
+                store.write(batch);
+            }
+            if (!isRestored()) {
+                restoredRecords += records.count();
+            }
+        }
+        checkRestored();
+    }
+
+    private void apply(UserStateStore.Batch batch, ConsumerRecord<String, String> record) {
+        if (record.value() == null) {
+            // Compaction tombstone
+            if (record.key() != null) {
+                batch.delete(Long.parseLong(record.key()));
+            }
+            return;
+        }
+        int separator = record.value().indexOf(':');
+        String data = separator >= 0 ? record.value().substring(separator + 1).trim() : "";
+        if (!data.startsWith("{")) {
+            return;
+        }
+        try {
+            JsonNode event = objectMapper.readTree(data);
+            if (!event.hasNonNull("userId")) {
+                logger.warn("Skipping user event without userId at {}-{}@{}", record.topic(), record.partition(), record.offset());
+                return;
+            }
+            long userId = event.get("userId").asLong();
+            if (event.path("deleted").asBoolean(false)) {
+                batch.delete(userId);
+            } else {
+                batch.put(UserRecord.builder()
+                        .userId(userId)
+                        .username(text(event, "username"))
+                        .firstName(text(event, "firstName"))
+                        .lastName(text(event, "lastName"))
+                        .email(text(event, "email"))
+                        .phoneNumber(text(event, "phoneNumber"))
+                        .version(event.path("version").asLong())
+                        .build());
+            }
+        } catch (JsonProcessingException e) {
+            logger.warn("Skipping malformed user event at {}-{}@{}: {}",
+                    record.topic(), record.partition(), record.offset(), e.getOriginalMessage());
+        }
+    }
+
+    private void checkRestored() {
+        if (isRestored()) {
+            return;
+        }
+        for (TopicPartition partition : partitions) {
+            if (consumer.position(partition) < restoreTarget.getOrDefault(partition, 0L)) {
+                return;
+            }
+        }
+        restored.countDown();
+        logger.info("User state store restored from {}: {} records in {} ms, ~{} users", topic, restoredRecords,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - restoreStartedAt), store.approximateSize());
+    }
+
+    private static String text(JsonNode event, String field) {
+        JsonNode value = event.get(field);
+        return value != null && !value.isNull() ? value.asText() : null;
+    }
+}
@@ -0,0 +1,200 @@
+package com.bankingsystem.userstore;
+
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.DBOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Embedded on-disk key-value store of users by id, backed by RocksDB.
+ * <p>
+ * SST files are read through memory-mapped I/O and the user column family is tuned for point
+ * lookups (hash index plus bloom filter), so a hit is served from the page cache without a
+ * system call. The next {@code user-events} offset of every partition is kept in a second column
+ * family and written in the same atomic batch as the users it covers, so after a restart the store
+ * is consistent with the offsets it reports and only the tail of the topic has to be read again.
+ */
+public class UserStateStore implements AutoCloseable {
+
+    private static final byte[] OFFSETS_COLUMN_FAMILY = "offsets".getBytes(StandardCharsets.UTF_8);
+
+    static {
+        RocksDB.loadLibrary();
+    }
+
+    private final DBOptions dbOptions;
+    private final ColumnFamilyOptions userOptions;
+    private final ColumnFamilyOptions offsetOptions;
+    private final WriteOptions writeOptions;
+    private final RocksDB db;
+    private final ColumnFamilyHandle users;
+    private final ColumnFamilyHandle offsets;
+
+    private UserStateStore(DBOptions dbOptions, ColumnFamilyOptions userOptions, ColumnFamilyOptions offsetOptions,
+                           RocksDB db, List<ColumnFamilyHandle> handles) {
+        this.dbOptions = dbOptions;
+        this.userOptions = userOptions;
+        this.offsetOptions = offsetOptions;
+        this.writeOptions = new WriteOptions();
+        this.db = db;
+        this.users = handles.get(0);
+        this.offsets = handles.get(1);
+    }
+
+    /**
+     * Open the store in {@code directory}, creating it if it does not exist yet.
+     *
+     * @param blockCacheMb size of the block cache used for index and filter blocks
+     */
+    public static UserStateStore open(Path directory, long blockCacheMb) {
+        DBOptions dbOptions = new DBOptions()
+                .setCreateIfMissing(true)
+                .setCreateMissingColumnFamilies(true)
+                .setAllowMmapReads(true);
+        ColumnFamilyOptions userOptions = new ColumnFamilyOptions().optimizeForPointLookup(blockCacheMb);
+        ColumnFamilyOptions offsetOptions = new ColumnFamilyOptions();
+        List<ColumnFamilyHandle> handles = new ArrayList<>();
+        try {
+            Files.createDirectories(directory);
+            RocksDB db = RocksDB.open(dbOptions, directory.toAbsolutePath().toString(), List.of(
+                    new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, userOptions),
+                    new ColumnFamilyDescriptor(OFFSETS_COLUMN_FAMILY, offsetOptions)), handles);
+            return new UserStateStore(dbOptions, userOptions, offsetOptions, db, handles);
+        } catch (RocksDBException | IOException e) {
+            userOptions.close();
+            offsetOptions.close();
+            dbOptions.close();
+            throw new IllegalStateException("Failed to open user state store at " + directory, e);
+        }
+    }
+
+    public Optional<UserRecord> get(long userId) {
+        try {
+            byte[] value = db.get(users, UserRecordCodec.key(userId));
+            return value != null ? Optional.of(UserRecordCodec.decode(userId, value)) : Optional.empty();
+        } catch (RocksDBException e) {
+            throw new IllegalStateException("Failed to read user " + userId + " from the state store", e);
+        }
+    }
+
+    /**
+     * The next offset to read for every partition the store has consumed from.
+     */
+    public Map<Integer, Long> committedOffsets() {
+        Map<Integer, Long> committed = new HashMap<>();
+        try (RocksIterator iterator = db.newIterator(offsets)) {
+            for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
+                committed.put(ByteBuffer.wrap(iterator.key()).getInt(), ByteBuffer.wrap(iterator.value()).getLong());
+            }
+        }
+        return committed;
+    }
+
+    /**
+     * Estimated number of users in the store.
+     */
+    public long approximateSize() {
+        try {
+            return db.getLongProperty(users, "rocksdb.estimate-num-keys");
+        } catch (RocksDBException e) {
+            return -1;
+        }
+    }
+
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    /**
+     * Apply every change in {@code batch} and its offsets atomically.
+     */
+    public void write(Batch batch) {
+        try {
+            db.write(writeOptions, batch.writeBatch);
+        } catch (RocksDBException e) {
+            throw new IllegalStateException("Failed to write to the user state store", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        users.close();
+        offsets.close();
+        db.close();
+        writeOptions.close();
+        userOptions.close();
+        offsetOptions.close();
+        dbOptions.close();
+    }
+
+    /**
+     * Changes to apply together with {@link #write}. Later changes to the same user win.
+     */
+    public final class Batch implements AutoCloseable {
+
+        private final WriteBatch writeBatch = new WriteBatch();
+        private int size;
+
+        private Batch() {
+        }
+
+        public Batch put(UserRecord record) {
+            try {
+                writeBatch.put(users, UserRecordCodec.key(record.getUserId()), UserRecordCodec.encode(record));
+            } catch (RocksDBException e) {
+                throw new IllegalStateException("Failed to stage user " + record.getUserId(), e);
+            }
+            size++;
+            return this;
+        }
+
+        public Batch delete(long userId) {
+            try {
+                writeBatch.delete(users, UserRecordCodec.key(userId));
+            } catch (RocksDBException e) {
+                throw new IllegalStateException("Failed to stage deletion of user " + userId, e);
+            }
+            size++;
+            return this;
+        }
+
+        /**
+         * Record {@code nextOffset} as the next offset to read from {@code partition}.
+         */
+        public Batch offset(int partition, long nextOffset) {
+            try {
+                writeBatch.put(offsets,
+                        ByteBuffer.allocate(Integer.BYTES).putInt(partition).array(),
+                        ByteBuffer.allocate(Long.BYTES).putLong(nextOffset).array());
+            } catch (RocksDBException e) {
+                throw new IllegalStateException("Failed to stage offset of partition " + partition, e);
+            }
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void close() {
+            writeBatch.close();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.bankingsystem.userstore;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Opens the local user state store and starts materializing {@code user-events} into it when
+ * {@code bankingsystem.user-store.enabled=true}. {@code bankingsystem.user-store.path} must then be
+ * an absolute path, normally on a mounted volume, so the store survives restarts and never lands
+ * in the working directory.
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "bankingsystem.user-store", name = "enabled", havingValue = "true")
+public class UserStoreAutoConfiguration {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public UserStateStore userStateStore(
+            @Value("${bankingsystem.user-store.path:}") String path,
+            @Value("${bankingsystem.user-store.block-cache-mb:32}") long blockCacheMb) {
+        if (path.isBlank() || !Path.of(path).isAbsolute()) {
+            throw new IllegalStateException(
+                    "bankingsystem.user-store.path must be an absolute path on a persistent volume, got '" + path + "'");
+        }
+        return UserStateStore.open(Path.of(path), blockCacheMb);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnMissingBean
+    public UserEventsMaterializer userEventsMaterializer(
+            UserStateStore userStateStore,
+            @Value("${spring.kafka.bootstrap-servers:localhost:9092}") String bootstrapServers,
+            @Value("${bankingsystem.user-store.topic:user-events}") String topic,
+            @Value("${bankingsystem.user-store.poll-timeout-ms:500}") long pollTimeoutMs) {
+        KafkaConsumer<String, String> consumer = new KafkaConsumer<>(Map.of(
+                ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers,
+                ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false,
+                ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest",
+                ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 2000,
+                ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class,
+                ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class));
+        return new UserEventsMaterializer(consumer, userStateStore, topic, Duration.ofMillis(pollTimeoutMs));
+    }
+}
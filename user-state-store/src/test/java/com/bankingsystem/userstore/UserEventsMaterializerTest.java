@@ -0,0 +1,120 @@
+package com.bankingsystem.userstore;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserEventsMaterializerTest {
+
+    private static final String TOPIC = "user-events";
+    private static final TopicPartition PARTITION_0 = new TopicPartition(TOPIC, 0);
+    private static final TopicPartition PARTITION_1 = new TopicPartition(TOPIC, 1);
+
+    @TempDir
+    Path directory;
+
+    private UserStateStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = UserStateStore.open(directory, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.close();
+    }
+
+    @Test
+    void pollOnce_shouldMaterializeEventsAndReportRestoredAtEndOffsets() {
+        MockConsumer<String, String> consumer = consumer(Map.of(PARTITION_0, 0L, PARTITION_1, 0L), Map.of(PARTITION_0, 2L, PARTITION_1, 1L));
+        UserEventsMaterializer materializer = new UserEventsMaterializer(consumer, store, TOPIC, Duration.ofMillis(10));
+
+        assertTrue(materializer.assignPartitions());
+        assertFalse(materializer.isRestored());
+
+        consumer.addRecord(record(0, 0, "1", "user-created:{\"userId\":1,\"email\":\"old@example.com\",\"version\":1}"));
+        consumer.addRecord(record(0, 1, "1", "user-updated:{\"userId\":1,\"email\":\"new@example.com\",\"phoneNumber\":\"+15550100\",\"version\":2}"));
+        consumer.addRecord(record(1, 0, "2", "user-created:{\"userId\":2,\"firstName\":\"Jane\",\"version\":1,\"unknown\":true}"));
+        materializer.pollOnce();
+
+        assertTrue(materializer.isRestored());
+        UserRecord first = store.get(1L).orElseThrow();
+        assertEquals("new@example.com", first.getEmail());
+        assertEquals("+15550100", first.getPhoneNumber());
+        assertEquals(2L, first.getVersion());
+        assertEquals("Jane", store.get(2L).orElseThrow().getFirstName());
+        assertEquals(Map.of(0, 2L, 1, 1L), store.committedOffsets());
+    }
+
+    @Test
+    void pollOnce_shouldDeleteUsersAndSkipLegacyAndMalformedEvents() {
+        MockConsumer<String, String> consumer = consumer(Map.of(PARTITION_0, 0L, PARTITION_1, 0L), Map.of(PARTITION_0, 0L, PARTITION_1, 0L));
+        UserEventsMaterializer materializer = new UserEventsMaterializer(consumer, store, TOPIC, Duration.ofMillis(10));
+        materializer.assignPartitions();
+        assertTrue(materializer.isRestored(), "an empty topic is restored immediately");
+
+        consumer.addRecord(record(0, 0, "1", "user-created:{\"userId\":1,\"email\":\"one@example.com\",\"version\":1}"));
+        consumer.addRecord(record(0, 1, "2", "user-created:{\"userId\":2,\"email\":\"two@example.com\",\"version\":1}"));
+        consumer.addRecord(record(0, 2, "3", "user-created:3"));
+        consumer.addRecord(record(0, 3, "4", "user-created:{\"userId\":"));
+        consumer.addRecord(record(0, 4, "1", "user-deleted:{\"userId\":1,\"deleted\":true,\"version\":2}"));
+        consumer.addRecord(record(0, 5, "2", null));
+        materializer.pollOnce();
+
+        assertTrue(store.get(1L).isEmpty());
+        assertTrue(store.get(2L).isEmpty());
+        assertTrue(store.get(3L).isEmpty());
+        assertEquals(6L, store.committedOffsets().get(0));
+    }
+
+    @Test
+    void assignPartitions_shouldResumeFromOffsetsCommittedInStore() {
+        try (UserStateStore.Batch batch = store.newBatch()) {
+            store.write(batch.put(UserRecord.builder().userId(1L).email("one@example.com").version(1L).build())
+                    .offset(0, 5L)
+                    .offset(1, 3L));
+        }
+        MockConsumer<String, String> consumer = consumer(Map.of(PARTITION_0, 0L, PARTITION_1, 0L), Map.of(PARTITION_0, 6L, PARTITION_1, 3L));
+        UserEventsMaterializer materializer = new UserEventsMaterializer(consumer, store, TOPIC, Duration.ofMillis(10));
+
+        materializer.assignPartitions();
+
+        assertEquals(5L, consumer.position(PARTITION_0));
+        assertEquals(3L, consumer.position(PARTITION_1));
+        consumer.addRecord(record(0, 5, "2", "user-created:{\"userId\":2,\"email\":\"two@example.com\",\"version\":1}"));
+        materializer.pollOnce();
+
+        assertTrue(materializer.isRestored());
+        assertTrue(store.get(1L).isPresent());
+        assertTrue(store.get(2L).isPresent());
+    }
+
+    private static MockConsumer<String, String> consumer(Map<TopicPartition, Long> beginning, Map<TopicPartition, Long> end) {
+        MockConsumer<String, String> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.updatePartitions(TOPIC, List.of(
+                new PartitionInfo(TOPIC, 0, Node.noNode(), new Node[0], new Node[0]),
+                new PartitionInfo(TOPIC, 1, Node.noNode(), new Node[0], new Node[0])));
+        consumer.updateBeginningOffsets(beginning);
+        consumer.updateEndOffsets(end);
+        return consumer;
+    }
+
+    private static ConsumerRecord<String, String> record(int partition, long offset, String key, String value) {
+        return new ConsumerRecord<>(TOPIC, partition, offset, key, value);
+    }
+}
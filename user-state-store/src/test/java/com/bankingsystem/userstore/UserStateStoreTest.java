@@ -0,0 +1,77 @@
+package com.bankingsystem.userstore;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserStateStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void write_shouldStoreUsersAndOffsetsAtomically() {
+        try (UserStateStore store = UserStateStore.open(directory, 8)) {
+            try (UserStateStore.Batch batch = store.newBatch()) {
+                batch.put(user(1L, "one@example.com")).put(user(2L, "two@example.com")).offset(0, 42);
+                store.write(batch);
+            }
+
+            assertEquals("one@example.com", store.get(1L).orElseThrow().getEmail());
+            assertEquals("two@example.com", store.get(2L).orElseThrow().getEmail());
+            assertEquals(Optional.empty(), store.get(3L));
+            assertEquals(Map.of(0, 42L), store.committedOffsets());
+        }
+    }
+
+    @Test
+    void open_shouldRestoreStateWrittenBeforeRestart() {
+        try (UserStateStore store = UserStateStore.open(directory, 8)) {
+            try (UserStateStore.Batch batch = store.newBatch()) {
+                store.write(batch.put(user(1L, "one@example.com")).put(user(2L, "two@example.com")).offset(3, 10));
+            }
+            try (UserStateStore.Batch batch = store.newBatch()) {
+                store.write(batch.delete(2L).offset(3, 11));
+            }
+        }
+
+        try (UserStateStore store = UserStateStore.open(directory, 8)) {
+            UserRecord restored = store.get(1L).orElseThrow();
+            assertEquals("One", restored.getFirstName());
+            assertNull(restored.getPhoneNumber());
+            assertEquals(7L, restored.getVersion());
+            assertTrue(store.get(2L).isEmpty());
+            assertEquals(Map.of(3, 11L), store.committedOffsets());
+        }
+    }
+
+    @Test
+    void codec_shouldRoundTripUnicodeAndNulls() {
+        UserRecord record = UserRecord.builder()
+                .userId(Long.MAX_VALUE)
+                .username("zoë")
+                .firstName("Zoë")
+                .lastName(null)
+                .email("")
+                .phoneNumber("+44 20 7946 0958")
+                .version(123L)
+                .build();
+
+        assertEquals(record, UserRecordCodec.decode(Long.MAX_VALUE, UserRecordCodec.encode(record)));
+    }
+
+    private static UserRecord user(long id, String email) {
+        return UserRecord.builder()
+                .userId(id)
+                .username("user" + id)
+                .firstName(id == 1L ? "One" : "Two")
+                .email(email)
+                .version(7L)
+                .build();
+    }
+}
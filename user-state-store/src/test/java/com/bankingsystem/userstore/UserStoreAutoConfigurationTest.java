@@ -0,0 +1,28 @@
+package com.bankingsystem.userstore;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserStoreAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(UserStoreAutoConfiguration.class));
+
+    @Test
+    void whenDisabled_shouldNotOpenAStore() {
+        contextRunner.run(context -> assertFalse(context.containsBean("userStateStore")));
+    }
+
+    @Test
+    void whenEnabledWithRelativePath_shouldFailStartup() {
+        contextRunner
+                .withPropertyValues("bankingsystem.user-store.enabled=true", "bankingsystem.user-store.path=data/user-store")
+                .run(context -> {
+                    assertNotNull(context.getStartupFailure());
+                    assertTrue(context.getStartupFailure().getMessage().contains("absolute path"));
+                });
+    }
+}